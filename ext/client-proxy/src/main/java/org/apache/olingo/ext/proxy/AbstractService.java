@@ -147,6 +147,18 @@ public abstract class AbstractService<C extends EdmEnabledODataClient> {
     return persistenceManager;
   }
 
+  /**
+   * Replaces the persistence manager selected at instantiation time, for example with a
+   * {@link org.apache.olingo.ext.proxy.commons.CoalescingPersistenceManagerImpl}.
+   *
+   * @param persistenceManager persistence manager to be used when flushing changes
+   */
+  public void setPersistenceManager(final PersistenceManager persistenceManager) {
+    synchronized (this) {
+      this.persistenceManager = persistenceManager;
+    }
+  }
+
   /**
    * Return an initialized concrete implementation of the passed EntityContainer interface.
    *
@@ -19,7 +19,6 @@
 package org.apache.olingo.ext.proxy.commons;
 
 import java.io.Serializable;
-import java.lang.reflect.Proxy;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -43,6 +42,7 @@ import org.apache.olingo.ext.proxy.api.Sort;
 import org.apache.olingo.ext.proxy.api.annotations.Namespace;
 import org.apache.olingo.ext.proxy.api.annotations.Term;
 import org.apache.olingo.ext.proxy.utils.CoreUtils;
+import org.apache.olingo.ext.proxy.utils.ProxyUtils;
 
 public abstract class AbstractCollectionInvocationHandler<T extends Serializable, EC extends Collection<T>>
         extends AbstractInvocationHandler implements Collection<T> {
@@ -165,8 +165,9 @@ public abstract class AbstractCollectionInvocationHandler<T extends Serializable
 
   @Override
   public boolean add(final T element) {
-    if (element instanceof Proxy && Proxy.getInvocationHandler(element) instanceof EntityInvocationHandler) {
-      final EntityInvocationHandler handler = EntityInvocationHandler.class.cast(Proxy.getInvocationHandler(element));
+    if (ProxyUtils.isProxy(element) && ProxyUtils.getInvocationHandler(element) instanceof EntityInvocationHandler) {
+      final EntityInvocationHandler handler =
+          EntityInvocationHandler.class.cast(ProxyUtils.getInvocationHandler(element));
       if (!service.getContext().entityContext().isAttached(handler) && baseURI != null) {
         handler.updateUUID(baseURI, itemRef, null);
         service.getContext().entityContext().attachNew(handler);
@@ -176,8 +177,9 @@ public abstract class AbstractCollectionInvocationHandler<T extends Serializable
   }
 
   public <ET extends EntityType<?>> boolean addRef(final ET element) {
-    if (element instanceof Proxy && Proxy.getInvocationHandler(element) instanceof EntityInvocationHandler) {
-      final EntityInvocationHandler handler = EntityInvocationHandler.class.cast(Proxy.getInvocationHandler(element));
+    if (ProxyUtils.isProxy(element) && ProxyUtils.getInvocationHandler(element) instanceof EntityInvocationHandler) {
+      final EntityInvocationHandler handler =
+          EntityInvocationHandler.class.cast(ProxyUtils.getInvocationHandler(element));
       final URI id = handler.getEntity().getId();
       if (id == null) {
         return false;
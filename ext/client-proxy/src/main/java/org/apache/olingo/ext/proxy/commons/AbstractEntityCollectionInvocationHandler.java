@@ -18,7 +18,6 @@
  */
 package org.apache.olingo.ext.proxy.commons;
 
-import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.util.ArrayList;
@@ -40,6 +39,7 @@ import org.apache.olingo.ext.proxy.api.AbstractSingleton;
 import org.apache.olingo.ext.proxy.api.EntityCollection;
 import org.apache.olingo.ext.proxy.api.EntityType;
 import org.apache.olingo.ext.proxy.utils.ClassUtils;
+import org.apache.olingo.ext.proxy.utils.ProxyUtils;
 
 //CHECKSTYLE:OFF
 public abstract class AbstractEntityCollectionInvocationHandler<T extends EntityType<?>, EC extends EntityCollection<T, ?, ?>>
@@ -144,10 +144,8 @@ public abstract class AbstractEntityCollectionInvocationHandler<T extends Entity
 
       final EntityInvocationHandler handlerInTheContext = getContext().entityContext().getEntity(handler.getUUID());
 
-      res.add((T) Proxy.newProxyInstance(
-          Thread.currentThread().getContextClassLoader(),
-          new Class<?>[] { actualRef },
-          handlerInTheContext == null ? handler : handlerInTheContext));
+      res.add((T) ProxyUtils.getStructuredProxy(
+          actualRef, handlerInTheContext == null ? handler : handlerInTheContext));
     }
 
     return new ImmutableTriple<List<T>, URI, List<ClientAnnotation>>(res, next, anns);
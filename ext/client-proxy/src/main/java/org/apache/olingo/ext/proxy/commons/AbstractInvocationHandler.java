@@ -22,7 +22,6 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.net.URI;
 import java.util.Arrays;
@@ -46,6 +45,7 @@ import org.apache.olingo.ext.proxy.context.AttachedEntityStatus;
 import org.apache.olingo.ext.proxy.context.Context;
 import org.apache.olingo.ext.proxy.context.EntityContext;
 import org.apache.olingo.ext.proxy.utils.CoreUtils;
+import org.apache.olingo.ext.proxy.utils.ProxyUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -129,9 +129,7 @@ abstract class AbstractInvocationHandler implements InvocationHandler {
 
     complexHandler.setEntityHandler(handler);
 
-    final ComplexType<?> res = ComplexType.class.cast(Proxy.newProxyInstance(
-        Thread.currentThread().getContextClassLoader(),
-        new Class<?>[] { actualRef }, complexHandler));
+    final ComplexType<?> res = ComplexType.class.cast(ProxyUtils.getStructuredProxy(actualRef, complexHandler));
 
     return res;
   }
@@ -19,12 +19,12 @@
 package org.apache.olingo.ext.proxy.commons;
 
 import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Proxy;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -43,6 +43,7 @@ import org.apache.olingo.client.core.uri.URIUtils;
 import org.apache.olingo.client.api.domain.ClientEntity;
 import org.apache.olingo.client.api.domain.ClientLink;
 import org.apache.olingo.client.api.domain.ClientLinkType;
+import org.apache.olingo.client.api.domain.ClientProperty;
 import org.apache.olingo.ext.proxy.AbstractService;
 import org.apache.olingo.ext.proxy.api.EdmStreamValue;
 import org.apache.olingo.ext.proxy.api.PersistenceManager;
@@ -52,6 +53,7 @@ import org.apache.olingo.ext.proxy.context.AttachedEntityStatus;
 import org.apache.olingo.ext.proxy.context.EntityLinkDesc;
 import org.apache.olingo.ext.proxy.utils.ClassUtils;
 import org.apache.olingo.ext.proxy.utils.CoreUtils;
+import org.apache.olingo.ext.proxy.utils.ProxyUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,10 +68,32 @@ abstract class AbstractPersistenceManager implements PersistenceManager {
 
   protected final AbstractService<?> service;
 
+  private volatile FlushStatistics statistics = FlushStatistics.NONE;
+
   AbstractPersistenceManager(final AbstractService<?> factory) {
     this.service = factory;
   }
 
+  /**
+   * Whether changes must be coalesced while flushing: updates only carry the properties whose value differs from the
+   * known one, updates without any actual change are not sent and the link updates delayed to the end of the unit of
+   * work are merged into a single request per entity.
+   *
+   * @return <tt>true</tt> if changes are coalesced, <tt>false</tt> otherwise
+   */
+  protected boolean isCoalescing() {
+    return false;
+  }
+
+  /**
+   * Gets figures about the last completed <tt>flush()</tt>.
+   *
+   * @return statistics of the last flush
+   */
+  public FlushStatistics getLastFlushStatistics() {
+    return statistics;
+  }
+
   @Override
   public Future<Void> flushAsync() {
     return service.getClient().getConfiguration().getExecutor().submit(new Callable<Void>() {
@@ -115,6 +139,11 @@ abstract class AbstractPersistenceManager implements PersistenceManager {
       doFlush(changes, items);
     }
 
+    for (EntityInvocationHandler handler : changes.getUnchanged()) {
+      handler.applyChanges();
+    }
+    statistics = changes.getStatistics();
+
     service.getContext().detachAll();
   }
 
@@ -153,8 +182,13 @@ abstract class AbstractPersistenceManager implements PersistenceManager {
     LOG.debug("Process '{}({})'", handler, currentStatus);
 
     if (AttachedEntityStatus.DELETED != currentStatus) {
+      final List<ClientProperty> known = new ArrayList<ClientProperty>(entity.getProperties());
       entity.getProperties().clear();
       CoreUtils.addProperties(service.getClient(), handler.getPropertyChanges(), entity);
+      if (isCoalescing() && AttachedEntityStatus.NEW != currentStatus) {
+        // send just what actually differs from the values known from the service
+        entity.getProperties().removeAll(known);
+      }
 
       entity.getAnnotations().clear();
       CoreUtils.addAnnotations(service.getClient(), handler.getAnnotations(), entity);
@@ -175,7 +209,7 @@ abstract class AbstractPersistenceManager implements PersistenceManager {
       for (Object proxy : type == ClientLinkType.ENTITY_SET_NAVIGATION
           ? (Collection<?>) property.getValue() : Collections.singleton(property.getValue())) {
 
-        final EntityInvocationHandler target = (EntityInvocationHandler) Proxy.getInvocationHandler(proxy);
+        final EntityInvocationHandler target = (EntityInvocationHandler) ProxyUtils.getInvocationHandler(proxy);
 
         final AttachedEntityStatus status;
         if (!service.getContext().entityContext().isAttached(target)) {
@@ -222,8 +256,8 @@ abstract class AbstractPersistenceManager implements PersistenceManager {
         delayedUpdates.add(new EntityLinkDesc(property.getKey().name(), handler, toBeLinked, type));
       }
 
-      if (property.getValue() instanceof Proxy) {
-        final InvocationHandler target = Proxy.getInvocationHandler(property.getValue());
+      if (ProxyUtils.isProxy(property.getValue())) {
+        final InvocationHandler target = ProxyUtils.getInvocationHandler(property.getValue());
 
         if (target instanceof EntityCollectionInvocationHandler) {
           for (String ref : ((EntityCollectionInvocationHandler<?>) target).referenceItems) {
@@ -254,7 +288,12 @@ abstract class AbstractPersistenceManager implements PersistenceManager {
 
       if (handler.getEntity().isMediaEntity() && handler.isChanged()) {
         // update media properties
-        if (!handler.getPropertyChanges().isEmpty()) {
+        if (isCoalescing() && processedStatus == AttachedEntityStatus.CHANGED
+            && !entity.getProperties().isEmpty()) {
+          // already sent along with the entity update
+          LOG.debug("Media properties for '{}' already in the process queue", handler);
+          changeset.addCoalesced();
+        } else if (!entity.getProperties().isEmpty()) {
           final URI targetURI = currentStatus == AttachedEntityStatus.NEW
               ? URI.create("$" + startingPos)
               : URIUtils.getURI(
@@ -306,14 +345,27 @@ abstract class AbstractPersistenceManager implements PersistenceManager {
       final TransactionItems items,
       final PersistenceChanges changeset) {
     int posNumber = pos;
+    final Map<EntityInvocationHandler, ClientEntity> linkUpdates =
+        new LinkedHashMap<EntityInvocationHandler, ClientEntity>();
     for (EntityLinkDesc delayedUpdate : delayedUpdates) {
       if (StringUtils.isBlank(delayedUpdate.getReference())) {
 
-        posNumber++;
-        items.put(delayedUpdate.getSource(), posNumber);
+        final boolean merge = isCoalescing() && linkUpdates.containsKey(delayedUpdate.getSource());
+        final ClientEntity changes;
+        if (merge) {
+          // add links to the update already queued for the same source
+          LOG.debug("Merge '{}' update into the one queued for {}", delayedUpdate.getSourceName(),
+              delayedUpdate.getSource());
+          changes = linkUpdates.get(delayedUpdate.getSource());
+          changeset.addCoalesced();
+        } else {
+          posNumber++;
+          items.put(delayedUpdate.getSource(), posNumber);
 
-        final ClientEntity changes =
-            service.getClient().getObjectFactory().newEntity(delayedUpdate.getSource().getEntity().getTypeName());
+          changes = service.getClient().getObjectFactory().
+              newEntity(delayedUpdate.getSource().getEntity().getTypeName());
+          linkUpdates.put(delayedUpdate.getSource(), changes);
+        }
 
         AttachedEntityStatus status = service.getContext().entityContext().getStatus(delayedUpdate.getSource());
 
@@ -348,7 +400,9 @@ abstract class AbstractPersistenceManager implements PersistenceManager {
           LOG.debug("'{}' from {} to {}", delayedUpdate.getType().name(), sourceURI, targetURI);
         }
 
-        queueUpdate(delayedUpdate.getSource(), sourceURI, changes, changeset);
+        if (!merge) {
+          queueUpdate(delayedUpdate.getSource(), sourceURI, changes, changeset);
+        }
       } else {
         URI sourceURI = URIUtils.getURI(
             service.getClient().getServiceRoot(),
@@ -379,7 +433,12 @@ abstract class AbstractPersistenceManager implements PersistenceManager {
       return AttachedEntityStatus.DELETED;
 
     default:
-      if (handler.isChanged(false)) {
+      if (handler.isChanged(false) && isCoalescing() && entity.getProperties().isEmpty()
+          && entity.getNavigationLinks().isEmpty() && entity.getAnnotations().isEmpty()) {
+        LOG.debug("Skip update of '{}': no actual change", handler);
+        changeset.addUnchanged(handler);
+        return null;
+      } else if (handler.isChanged(false)) {
         queueUpdate(handler, entity, changeset);
         return AttachedEntityStatus.CHANGED;
       } else {
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.ext.proxy.commons;
+
+import java.io.Serializable;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import org.apache.olingo.ext.proxy.api.AbstractTerm;
+import org.apache.olingo.ext.proxy.api.EdmStreamValue;
+
+/**
+ * Base class of the entity and complex type implementations generated by the POJO generator when
+ * static proxies are enabled. Generated classes read and write their properties through precomputed
+ * {@link PropertyBinding}s, so that no reflective dispatch via {@link java.lang.reflect.InvocationHandler}
+ * is needed; state and change tracking stay with the wrapped handler.
+ *
+ * @param <T> implemented entity or complex type
+ */
+public abstract class AbstractStaticProxy<T> implements Serializable {
+
+  private static final long serialVersionUID = -6313283873519393565L;
+
+  private final AbstractStructuredInvocationHandler handler;
+
+  protected AbstractStaticProxy(final AbstractStructuredInvocationHandler handler) {
+    this.handler = handler;
+  }
+
+  public AbstractStructuredInvocationHandler getInvocationHandler() {
+    return handler;
+  }
+
+  /**
+   * Resolves the binding of a getter; meant to initialize static fields of generated classes.
+   * @param typeRef entity or complex type interface
+   * @param getterName name of the getter method
+   * @return binding
+   */
+  protected static PropertyBinding bind(final Class<?> typeRef, final String getterName) {
+    try {
+      return PropertyBinding.get(typeRef, getterName);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException("Generated class does not match " + typeRef.getName(), e);
+    }
+  }
+
+  protected final Object getValue(final PropertyBinding binding) {
+    return handler.getValue(binding);
+  }
+
+  protected final void setValue(final PropertyBinding binding, final Object value) {
+    handler.setValue(binding, value);
+  }
+
+  protected final <O> O operations(final Class<O> reference) {
+    return reference.cast(Proxy.newProxyInstance(
+        Thread.currentThread().getContextClassLoader(),
+        new Class<?>[] { reference },
+        OperationInvocationHandler.getInstance(handler.getEntityHandler())));
+  }
+
+  protected final <A> A annotations(final Class<A> reference) {
+    return reference.cast(Proxy.newProxyInstance(
+        Thread.currentThread().getContextClassLoader(),
+        new Class<?>[] { reference },
+        AnnotatationsInvocationHandler.getInstance(handler.getEntityHandler(), handler)));
+  }
+
+  @SuppressWarnings("unchecked")
+  private T self() {
+    return (T) this;
+  }
+
+  private EntityInvocationHandler entityHandler(final String operation) {
+    if (handler instanceof EntityInvocationHandler) {
+      return (EntityInvocationHandler) handler;
+    }
+    throw new UnsupportedOperationException("Unsupported method " + operation);
+  }
+
+  public T load() {
+    handler.load();
+    return self();
+  }
+
+  public Future<? extends T> loadAsync() {
+    return handler.service.getClient().getConfiguration().getExecutor().submit(new Callable<T>() {
+      @Override
+      public T call() throws Exception {
+        return load();
+      }
+    });
+  }
+
+  public void delete() {
+    handler.delete();
+  }
+
+  public void delete(final String name) {
+    handler.delete(name);
+  }
+
+  public T refs() {
+    handler.refs();
+    return self();
+  }
+
+  public String readEntityReferenceID() {
+    return entityHandler("readEntityReferenceID").readEntityReferenceID();
+  }
+
+  public T expand(final String... expand) {
+    handler.expand(expand);
+    return self();
+  }
+
+  public T select(final String... select) {
+    handler.select(select);
+    return self();
+  }
+
+  public void clearQueryOptions() {
+    handler.clearQueryOptions();
+  }
+
+  public void addAnnotation(final Class<? extends AbstractTerm> term, final Object value) {
+    entityHandler("addAnnotation").addAnnotation(term, value);
+  }
+
+  public void removeAnnotation(final Class<? extends AbstractTerm> term) {
+    entityHandler("removeAnnotation").removeAnnotation(term);
+  }
+
+  public Object readAnnotation(final Class<? extends AbstractTerm> term) {
+    return entityHandler("readAnnotation").readAnnotation(term);
+  }
+
+  public Collection<Class<? extends AbstractTerm>> readAnnotationTerms() {
+    return entityHandler("readAnnotationTerms").readAnnotationTerms();
+  }
+
+  public void addAdditionalProperty(final String name, final Object value) {
+    handler.addAdditionalProperty(name, value);
+  }
+
+  public void removeAdditionalProperty(final String name) {
+    handler.removeAdditionalProperty(name);
+  }
+
+  public Object readAdditionalProperty(final String name) {
+    return handler.readAdditionalProperty(name);
+  }
+
+  public Collection<String> readAdditionalPropertyNames() {
+    return handler.readAdditionalPropertyNames();
+  }
+
+  public void uploadStream(final EdmStreamValue stream) {
+    entityHandler("uploadStream").uploadStream(stream);
+  }
+
+  public EdmStreamValue loadStream() {
+    return entityHandler("loadStream").loadStream();
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    return handler.equals(obj);
+  }
+
+  @Override
+  public int hashCode() {
+    return handler.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return handler.toString();
+  }
+}
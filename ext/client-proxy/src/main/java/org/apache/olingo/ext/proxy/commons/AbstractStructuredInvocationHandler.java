@@ -153,53 +153,21 @@ public abstract class AbstractStructuredInvocationHandler extends AbstractInvoca
 
   @Override
   public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
-  	if (method.getName().startsWith("get")) {  
-  		// Here need check "get"/"set" first for better get-/set- performance because
-  		// the below if-statements are really time-consuming, even twice slower than "get" body.
+    if (method.getName().startsWith("get")) {
+      // Here need check "get"/"set" first for better get-/set- performance because
+      // the below if-statements are really time-consuming, even twice slower than "get" body.
 
-  		// Assumption: for each getter will always exist a setter and viceversa.
-      // get method annotation and check if it exists as expected
-
-      final Object res;
-      final Method getter = typeRef.getMethod(method.getName());
-
-      final Property property = ClassUtils.getAnnotation(Property.class, getter);
-      if (property == null) {
-        final NavigationProperty navProp = ClassUtils.getAnnotation(NavigationProperty.class, getter);
-        if (navProp == null) {
-          throw new UnsupportedOperationException("Unsupported method " + method.getName());
-        } else {
-          // if the getter refers to a navigation property ... navigate and follow link if necessary
-          res = getNavigationPropertyValue(navProp, getter);
-        }
-      } else {
-        // if the getter refers to a property .... get property from wrapped entity
-        res = getPropertyValue(property.name(), getter.getGenericReturnType());
-      }
-
-      return res;
+      // Assumption: for each getter will always exist a setter and viceversa.
+      // the getter annotations are looked up once per type and getter, see PropertyBinding
+      return getValue(PropertyBinding.get(typeRef, method.getName()));
     } else if (method.getName().startsWith("set")) {
       // get the corresponding getter method (see assumption above)
-      final String getterName = method.getName().replaceFirst("set", "get");
-      final Method getter = typeRef.getMethod(getterName);
-
-      final Property property = ClassUtils.getAnnotation(Property.class, getter);
-      if (property == null) {
-        final NavigationProperty navProp = ClassUtils.getAnnotation(NavigationProperty.class, getter);
-        if (navProp == null) {
-          throw new UnsupportedOperationException("Unsupported method " + method.getName());
-        } else {
-          // if the getter refers to a navigation property ... 
-          if (ArrayUtils.isEmpty(args) || args.length != 1) {
-            throw new IllegalArgumentException("Invalid argument");
-          }
-
-          setNavigationPropertyValue(navProp, args[0]);
-        }
-      } else {
-        setPropertyValue(property, args[0]);
+      final PropertyBinding binding = PropertyBinding.get(typeRef, method.getName().replaceFirst("set", "get"));
+      if (binding.getProperty() == null && (ArrayUtils.isEmpty(args) || args.length != 1)) {
+        throw new IllegalArgumentException("Invalid argument");
       }
 
+      setValue(binding, args[0]);
       return ClassUtils.returnVoid();
     } else if ("expand".equals(method.getName())
             || "select".equals(method.getName())
@@ -238,6 +206,30 @@ public abstract class AbstractStructuredInvocationHandler extends AbstractInvoca
     }
   }
 
+  /**
+   * Gets the value of a structural or navigation property.
+   * @param binding property binding
+   * @return property value
+   */
+  Object getValue(final PropertyBinding binding) {
+    return binding.getProperty() == null
+        ? getNavigationPropertyValue(binding.getNavigationProperty(), binding.getGetter())
+        : getPropertyValue(binding.getProperty().name(), binding.getType());
+  }
+
+  /**
+   * Sets the value of a structural or navigation property.
+   * @param binding property binding
+   * @param value new value
+   */
+  void setValue(final PropertyBinding binding, final Object value) {
+    if (binding.getProperty() == null) {
+      setNavigationPropertyValue(binding.getNavigationProperty(), value);
+    } else {
+      setPropertyValue(binding.getProperty(), value);
+    }
+  }
+
   public void delete(final String name) {
     if (baseURI != null) {
       getContext().entityContext().addFurtherDeletes(
@@ -407,8 +399,8 @@ public abstract class AbstractStructuredInvocationHandler extends AbstractInvoca
         }
 
         for (Object item : coll) {
-          if (item instanceof Proxy) {
-            final InvocationHandler handler = Proxy.getInvocationHandler(item);
+          if (ProxyUtils.isProxy(item)) {
+            final InvocationHandler handler = ProxyUtils.getInvocationHandler(item);
             if ((handler instanceof ComplexInvocationHandler)
                     && ((ComplexInvocationHandler) handler).getEntityHandler() == null) {
               ((ComplexInvocationHandler) handler).setEntityHandler(getEntityHandler());
@@ -511,10 +503,7 @@ public abstract class AbstractStructuredInvocationHandler extends AbstractInvoca
           handler = null;
         }
 
-        navPropValue = handler == null ? null : Proxy.newProxyInstance(
-                Thread.currentThread().getContextClassLoader(),
-                new Class<?>[] {collItemType},
-                handler);
+        navPropValue = handler == null ? null : ProxyUtils.getStructuredProxy(collItemType, handler);
       }
     }
 
@@ -592,8 +581,8 @@ public abstract class AbstractStructuredInvocationHandler extends AbstractInvoca
   }
   
   protected AbstractStructuredInvocationHandler getStructuredInvocationHandler(final Object value) {
-    if (value != null && Proxy.isProxyClass(value.getClass())) {
-      InvocationHandler invocationHandler = Proxy.getInvocationHandler(value);
+    if (ProxyUtils.isProxy(value)) {
+      InvocationHandler invocationHandler = ProxyUtils.getInvocationHandler(value);
       if (invocationHandler instanceof AbstractStructuredInvocationHandler) {
         return (AbstractStructuredInvocationHandler) invocationHandler;
       }
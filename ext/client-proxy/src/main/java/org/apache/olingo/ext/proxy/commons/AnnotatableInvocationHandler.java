@@ -20,7 +20,6 @@ package org.apache.olingo.ext.proxy.commons;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -37,6 +36,7 @@ import org.apache.olingo.ext.proxy.api.annotations.Namespace;
 import org.apache.olingo.ext.proxy.api.annotations.Term;
 import org.apache.olingo.ext.proxy.context.AttachedEntityStatus;
 import org.apache.olingo.ext.proxy.utils.CoreUtils;
+import org.apache.olingo.ext.proxy.utils.ProxyUtils;
 
 public class AnnotatableInvocationHandler extends AbstractInvocationHandler implements Annotatable {
 
@@ -106,8 +106,8 @@ public class AnnotatableInvocationHandler extends AbstractInvocationHandler impl
       }
 
       for (Object item : coll) {
-        if (item instanceof Proxy) {
-          final InvocationHandler handler = Proxy.getInvocationHandler(item);
+        if (ProxyUtils.isProxy(item)) {
+          final InvocationHandler handler = ProxyUtils.getInvocationHandler(item);
           if ((handler instanceof ComplexInvocationHandler)
               && ((ComplexInvocationHandler) handler).getEntityHandler() == null) {
             ((ComplexInvocationHandler) handler).setEntityHandler(entityHandler);
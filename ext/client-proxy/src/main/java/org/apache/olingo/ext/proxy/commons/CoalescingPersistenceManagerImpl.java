@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.ext.proxy.commons;
+
+import org.apache.olingo.ext.proxy.AbstractService;
+
+/**
+ * {@link TransactionalPersistenceManagerImpl} coalescing the unit of work before sending it: updates only carry the
+ * properties whose value actually changed, updates without any change are dropped and the link updates to be applied
+ * to the same entity are merged into a single request. Entities to be created are queued before the requests
+ * referring to them by Content-ID, so that the whole unit of work is sent as a single change set in one batch request.
+ * <br/>
+ * Figures about each flush are available via {@link #getLastFlushStatistics()}.
+ */
+public class CoalescingPersistenceManagerImpl extends TransactionalPersistenceManagerImpl {
+
+  private static final long serialVersionUID = 8418794462718733512L;
+
+  public CoalescingPersistenceManagerImpl(final AbstractService<?> factory) {
+    super(factory);
+  }
+
+  @Override
+  protected boolean isCoalescing() {
+    return true;
+  }
+}
@@ -50,6 +50,7 @@ import org.apache.olingo.ext.proxy.api.annotations.Term;
 import org.apache.olingo.ext.proxy.context.AttachedEntityStatus;
 import org.apache.olingo.ext.proxy.context.EntityUUID;
 import org.apache.olingo.ext.proxy.utils.CoreUtils;
+import org.apache.olingo.ext.proxy.utils.ProxyUtils;
 
 public class EntityInvocationHandler extends AbstractStructuredInvocationHandler implements Annotatable {
 
@@ -383,8 +384,8 @@ public class EntityInvocationHandler extends AbstractStructuredInvocationHandler
       }
 
       for (Object item : coll) {
-        if (item instanceof Proxy) {
-          final InvocationHandler handler = Proxy.getInvocationHandler(item);
+        if (ProxyUtils.isProxy(item)) {
+          final InvocationHandler handler = ProxyUtils.getInvocationHandler(item);
           if ((handler instanceof ComplexInvocationHandler)
               && ((ComplexInvocationHandler) handler).getEntityHandler() == null) {
             ((ComplexInvocationHandler) handler).setEntityHandler(this);
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.ext.proxy.commons;
+
+import java.io.Serializable;
+
+/**
+ * Figures about the last <tt>flush()</tt> of a persistence manager: how many requests have been sent, how many have
+ * been saved by coalescing and how much it cost on the wire.
+ */
+public final class FlushStatistics implements Serializable {
+
+  private static final long serialVersionUID = -6394406733137410541L;
+
+  public static final FlushStatistics NONE = new FlushStatistics(0, 0, 0, 0, 0);
+
+  private final int requests;
+
+  private final int coalesced;
+
+  private final int changesets;
+
+  private final int roundTrips;
+
+  private final long payloadBytes;
+
+  public FlushStatistics(final int requests, final int coalesced, final int changesets, final int roundTrips,
+      final long payloadBytes) {
+
+    this.requests = requests;
+    this.coalesced = coalesced;
+    this.changesets = changesets;
+    this.roundTrips = roundTrips;
+    this.payloadBytes = payloadBytes;
+  }
+
+  /**
+   * Gets the number of create, update, link and delete requests sent to the service.
+   *
+   * @return number of requests.
+   */
+  public int getRequests() {
+    return requests;
+  }
+
+  /**
+   * Gets the number of requests which have not been sent since they were merged into another one or carried no
+   * actual change.
+   *
+   * @return number of requests saved.
+   */
+  public int getCoalesced() {
+    return coalesced;
+  }
+
+  /**
+   * Gets the number of change sets in the batch request, if any.
+   *
+   * @return number of change sets.
+   */
+  public int getChangesets() {
+    return changesets;
+  }
+
+  /**
+   * Gets the number of HTTP requests performed.
+   *
+   * @return number of round trips.
+   */
+  public int getRoundTrips() {
+    return roundTrips;
+  }
+
+  /**
+   * Gets the size of the batch payload sent, in bytes; requests sent outside of a batch are not measured.
+   *
+   * @return payload size in bytes.
+   */
+  public long getPayloadBytes() {
+    return payloadBytes;
+  }
+
+  @Override
+  public String toString() {
+    return "FlushStatistics [requests=" + requests + ", coalesced=" + coalesced + ", changesets=" + changesets
+        + ", roundTrips=" + roundTrips + ", payloadBytes=" + payloadBytes + "]";
+  }
+}
@@ -72,6 +72,7 @@ public class NonTransactionalPersistenceManagerImpl extends AbstractPersistenceM
         } else {
           response = ((ODataBasicRequest<?>) request).execute();
         }
+        changes.addRoundTrip(0, 0);
 
         if (entry.getValue() != null
             && response instanceof ODataEntityCreateResponse && (response.getStatusCode() == 201 || response
@@ -20,7 +20,9 @@ package org.apache.olingo.ext.proxy.commons;
 
 import org.apache.olingo.client.api.communication.request.ODataBatchableRequest;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class PersistenceChanges {
@@ -28,6 +30,16 @@ public class PersistenceChanges {
   private final Map<ODataBatchableRequest, EntityInvocationHandler> requests =
           new LinkedHashMap<ODataBatchableRequest, EntityInvocationHandler>();
 
+  private final List<EntityInvocationHandler> unchanged = new ArrayList<EntityInvocationHandler>();
+
+  private int coalesced;
+
+  private int changesets;
+
+  private int roundTrips;
+
+  private long payloadBytes;
+
   public void addChange(final ODataBatchableRequest request, final EntityInvocationHandler handler) {
     this.requests.put(request, handler);
   }
@@ -35,4 +47,41 @@ public class PersistenceChanges {
   public Map<ODataBatchableRequest, EntityInvocationHandler> getChanges() {
     return requests;
   }
+
+  /**
+   * Records a request which has been merged into another one.
+   */
+  public void addCoalesced() {
+    coalesced++;
+  }
+
+  /**
+   * Records an entity whose update has not been sent since no value actually differs from the known one.
+   *
+   * @param handler entity handler
+   */
+  public void addUnchanged(final EntityInvocationHandler handler) {
+    unchanged.add(handler);
+    coalesced++;
+  }
+
+  public List<EntityInvocationHandler> getUnchanged() {
+    return unchanged;
+  }
+
+  /**
+   * Records a request sent to the service.
+   *
+   * @param changesets number of change sets, in case of batch request
+   * @param payloadBytes batch payload size, in bytes
+   */
+  public void addRoundTrip(final int changesets, final long payloadBytes) {
+    this.roundTrips++;
+    this.changesets += changesets;
+    this.payloadBytes += payloadBytes;
+  }
+
+  public FlushStatistics getStatistics() {
+    return new FlushStatistics(requests.size(), coalesced, changesets, roundTrips, payloadBytes);
+  }
 }
@@ -39,6 +39,7 @@ import org.apache.olingo.client.api.domain.ClientAnnotation;
 import org.apache.olingo.client.api.domain.ClientValue;
 import org.apache.olingo.ext.proxy.AbstractService;
 import org.apache.olingo.ext.proxy.api.PrimitiveCollection;
+import org.apache.olingo.ext.proxy.utils.ProxyUtils;
 
 public class PrimitiveCollectionInvocationHandler<T extends Serializable>
         extends AbstractCollectionInvocationHandler<T, PrimitiveCollection<T>> {
@@ -120,8 +121,8 @@ public class PrimitiveCollectionInvocationHandler<T extends Serializable>
 
   @Override
   public boolean equals(final Object obj) {
-    if (obj instanceof Proxy) {
-      final InvocationHandler handler = Proxy.getInvocationHandler(obj);
+    if (ProxyUtils.isProxy(obj)) {
+      final InvocationHandler handler = ProxyUtils.getInvocationHandler(obj);
       if (handler instanceof PrimitiveCollectionInvocationHandler) {
         return items.equals(PrimitiveCollectionInvocationHandler.class.cast(handler).items);
       }
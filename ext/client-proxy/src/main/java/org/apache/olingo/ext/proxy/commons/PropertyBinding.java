@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.ext.proxy.commons;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.olingo.ext.proxy.api.annotations.NavigationProperty;
+import org.apache.olingo.ext.proxy.api.annotations.Property;
+import org.apache.olingo.ext.proxy.utils.ClassUtils;
+
+/**
+ * EDM binding of a structural or navigation property getter, resolved once per type and getter name.
+ * It avoids the method lookups and annotation scans each property access would need otherwise.
+ */
+public final class PropertyBinding {
+
+  private static final ConcurrentMap<Class<?>, Map<String, PropertyBinding>> BINDINGS =
+      new ConcurrentHashMap<Class<?>, Map<String, PropertyBinding>>();
+
+  private final Method getter;
+
+  private final Type type;
+
+  private final Property property;
+
+  private final NavigationProperty navigationProperty;
+
+  private PropertyBinding(final Method getter) {
+    this.getter = getter;
+    this.type = getter.getGenericReturnType();
+    this.property = ClassUtils.getAnnotation(Property.class, getter);
+    this.navigationProperty = property == null ? ClassUtils.getAnnotation(NavigationProperty.class, getter) : null;
+  }
+
+  /**
+   * Gets the binding of the given getter.
+   * @param typeRef entity or complex type interface
+   * @param getterName name of the getter method
+   * @return binding
+   * @throws NoSuchMethodException if the type has no such getter
+   * @throws UnsupportedOperationException if the getter is neither a property nor a navigation property
+   */
+  public static PropertyBinding get(final Class<?> typeRef, final String getterName) throws NoSuchMethodException {
+    Map<String, PropertyBinding> bindings = BINDINGS.get(typeRef);
+    if (bindings == null) {
+      bindings = new ConcurrentHashMap<String, PropertyBinding>();
+      final Map<String, PropertyBinding> existing = BINDINGS.putIfAbsent(typeRef, bindings);
+      if (existing != null) {
+        bindings = existing;
+      }
+    }
+
+    PropertyBinding binding = bindings.get(getterName);
+    if (binding == null) {
+      binding = new PropertyBinding(typeRef.getMethod(getterName));
+      if (binding.property == null && binding.navigationProperty == null) {
+        throw new UnsupportedOperationException("Unsupported method " + getterName);
+      }
+      bindings.put(getterName, binding);
+    }
+    return binding;
+  }
+
+  public Method getGetter() {
+    return getter;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * @return the property annotation, or <tt>null</tt> for a navigation property
+   */
+  public Property getProperty() {
+    return property;
+  }
+
+  /**
+   * @return the navigation property annotation, or <tt>null</tt> for a structural property
+   */
+  public NavigationProperty getNavigationProperty() {
+    return navigationProperty;
+  }
+}
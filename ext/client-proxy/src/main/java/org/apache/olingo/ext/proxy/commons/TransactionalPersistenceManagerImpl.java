@@ -31,6 +31,7 @@ import org.apache.olingo.client.api.communication.response.ODataEntityCreateResp
 import org.apache.olingo.client.api.communication.response.ODataEntityUpdateResponse;
 import org.apache.olingo.client.api.communication.response.ODataResponse;
 import org.apache.olingo.client.core.communication.header.ODataErrorResponseChecker;
+import org.apache.olingo.client.core.communication.request.batch.AbstractODataBatchRequest;
 import org.apache.olingo.client.core.communication.request.batch.ODataChangesetResponseItem;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.ext.proxy.AbstractService;
@@ -77,6 +78,9 @@ public class TransactionalPersistenceManagerImpl extends AbstractPersistenceMana
     }
 
     final ODataBatchResponse response = batchManager.getResponse();
+    changes.addRoundTrip(1, request instanceof AbstractODataBatchRequest
+        ? ((AbstractODataBatchRequest<?, ?>) request).getOutputStream().getWrittenBytes()
+        : 0);
 
     // This should be 202 for service version <= 3.0 and 200 for service version >= 4.0 but it seems that
     // many service implementations are not fully compliant in this respect.
@@ -23,7 +23,6 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.sql.Timestamp;
@@ -112,7 +111,7 @@ public final class CoreUtils {
       }
     } else if (type.isComplexType()) {
 
-      final Object objHandler = Proxy.getInvocationHandler(obj);
+      final Object objHandler = ProxyUtils.getInvocationHandler(obj);
       if (objHandler instanceof ComplexInvocationHandler) {
         value = ((ComplexInvocationHandler) objHandler).getComplex();
 
@@ -247,7 +246,7 @@ public final class CoreUtils {
       final EdmTypeInfo type = guessPrimitiveType(client, ClassUtils.extractTypeArg(obj.getClass(),
           EntityCollection.class, ComplexCollection.class, Collection.class));
       return edmTypeInfo.setTypeExpression("Collection(" + type.getFullQualifiedName() + ")").build();
-    } else if (obj instanceof Proxy) {
+    } else if (ProxyUtils.isProxy(obj)) {
       final Class<?> typeRef = obj.getClass().getInterfaces()[0];
       final String ns = typeRef.getAnnotation(Namespace.class).value();
       final String name = typeRef.getAnnotation(ComplexType.class).name();
@@ -462,8 +461,8 @@ public final class CoreUtils {
 
     if (bean != null) {
       final Class<?> typeRef;
-      if (bean instanceof Proxy) {
-        final InvocationHandler handler = Proxy.getInvocationHandler(bean);
+      if (ProxyUtils.isProxy(bean)) {
+        final InvocationHandler handler = ProxyUtils.getInvocationHandler(bean);
         if (handler instanceof AbstractStructuredInvocationHandler) {
           typeRef = ((ComplexInvocationHandler) handler).getTypeRef();
         } else {
@@ -502,9 +501,7 @@ public final class CoreUtils {
               setPropertyValue(bean, getter, primitiveValueToObject(
                   property.getPrimitiveValue(), getPropertyClass(typeRef, property.getName())));
             } else if (property.hasComplexValue()) {
-              final Object complex = Proxy.newProxyInstance(
-                  Thread.currentThread().getContextClassLoader(),
-                  new Class<?>[] { getter.getReturnType() },
+              final Object complex = ProxyUtils.getStructuredProxy(getter.getReturnType(),
                   ComplexInvocationHandler.getInstance(typeHandler, getter.getReturnType()));
 
               populate(client, typeHandler, complex, Property.class, property.getValue().asComplex().iterator());
@@ -526,9 +523,7 @@ public final class CoreUtils {
                   collection.add(primitiveValueToObject(
                       value.asPrimitive(), getPropertyClass(typeRef, property.getName())));
                 } else if (value.isComplex()) {
-                  final Object collItem = Proxy.newProxyInstance(
-                      Thread.currentThread().getContextClassLoader(),
-                      new Class<?>[] { collItemClass },
+                  final Object collItem = ProxyUtils.getStructuredProxy(collItemClass,
                       ComplexInvocationHandler.getInstance(typeHandler, collItemClass));
 
                   populate(client, typeHandler, collItem, Property.class, value.asComplex().iterator());
@@ -577,9 +572,7 @@ public final class CoreUtils {
     } else if (value.isComplex()) {
       // complex types supports inheritance in V4, best to re-read actual type
       Class<?> internalRef = getComplexTypeRef(service, value);
-      res = Proxy.newProxyInstance(
-          Thread.currentThread().getContextClassLoader(),
-          new Class<?>[] { internalRef },
+      res = ProxyUtils.getStructuredProxy(internalRef,
           ComplexInvocationHandler.getInstance(value.asComplex(), internalRef, service));
     } else if (value.isCollection()) {
       final ArrayList<Object> collection = new ArrayList<Object>();
@@ -591,9 +584,7 @@ public final class CoreUtils {
           collection.add(CoreUtils.primitiveValueToObject(itemValue.asPrimitive(), ref));
         } else if (itemValue.isComplex()) {
           Class<?> internalRef = getComplexTypeRef(service, value);
-          final Object collItem = Proxy.newProxyInstance(
-              Thread.currentThread().getContextClassLoader(),
-              new Class<?>[] { internalRef },
+          final Object collItem = ProxyUtils.getStructuredProxy(internalRef,
               ComplexInvocationHandler.getInstance(itemValue.asComplex(), internalRef, service));
 
           collection.add(collItem);
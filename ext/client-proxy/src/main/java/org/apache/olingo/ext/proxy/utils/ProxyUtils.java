@@ -15,10 +15,15 @@
  */
 package org.apache.olingo.ext.proxy.utils;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Proxy;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.olingo.client.api.domain.ClientEntity;
@@ -28,6 +33,8 @@ import org.apache.olingo.client.api.uri.URIBuilder;
 import org.apache.olingo.ext.proxy.AbstractService;
 import org.apache.olingo.ext.proxy.api.AbstractEntitySet;
 import org.apache.olingo.ext.proxy.api.AbstractSingleton;
+import org.apache.olingo.ext.proxy.commons.AbstractStaticProxy;
+import org.apache.olingo.ext.proxy.commons.AbstractStructuredInvocationHandler;
 import org.apache.olingo.ext.proxy.commons.ComplexInvocationHandler;
 import org.apache.olingo.ext.proxy.commons.EntityCollectionInvocationHandler;
 import org.apache.olingo.ext.proxy.commons.EntityInvocationHandler;
@@ -36,6 +43,81 @@ import org.apache.olingo.ext.proxy.commons.InlineEntitySetInvocationHandler;
 
 public class ProxyUtils {
 
+  private static final Constructor<?> NO_STATIC_PROXY = Object.class.getConstructors()[0];
+
+  private static final ConcurrentMap<Class<?>, Constructor<?>> STATIC_PROXIES =
+      new ConcurrentHashMap<Class<?>, Constructor<?>>();
+
+  /**
+   * Creates a proxy for an entity or complex type. If the POJO generator has emitted a static proxy class
+   * (<tt>&lt;type&gt;Impl</tt>, extending {@link AbstractStaticProxy}) for the given type, an instance of that class
+   * is returned; otherwise a dynamic {@link Proxy} dispatching to the given handler.
+   *
+   * @param typeRef entity or complex type interface
+   * @param handler handler holding the proxy state
+   * @return proxy
+   */
+  public static Object getStructuredProxy(final Class<?> typeRef, final AbstractStructuredInvocationHandler handler) {
+    final Constructor<?> constructor = getStaticProxyConstructor(typeRef);
+    if (constructor == NO_STATIC_PROXY) {
+      return Proxy.newProxyInstance(
+          Thread.currentThread().getContextClassLoader(),
+          new Class<?>[] { typeRef },
+          handler);
+    }
+    try {
+      return constructor.newInstance(handler);
+    } catch (InstantiationException e) {
+      throw new IllegalStateException(e);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    } catch (InvocationTargetException e) {
+      throw new IllegalStateException(e.getTargetException());
+    }
+  }
+
+  private static Constructor<?> getStaticProxyConstructor(final Class<?> typeRef) {
+    Constructor<?> constructor = STATIC_PROXIES.get(typeRef);
+    if (constructor == null) {
+      constructor = NO_STATIC_PROXY;
+      try {
+        final Class<?> implementation = Class.forName(typeRef.getName() + "Impl", true, typeRef.getClassLoader());
+        if (typeRef.isAssignableFrom(implementation) && AbstractStaticProxy.class.isAssignableFrom(implementation)) {
+          constructor = implementation.getConstructor(AbstractStructuredInvocationHandler.class);
+        }
+      } catch (ClassNotFoundException e) {
+        // no static proxy generated for this type
+      } catch (NoSuchMethodException e) {
+        // not a generated static proxy
+      }
+      STATIC_PROXIES.putIfAbsent(typeRef, constructor);
+    }
+    return constructor;
+  }
+
+  /**
+   * Checks whether the given object is an entity, complex or collection proxy, static or dynamic.
+   *
+   * @param obj object to check
+   * @return <tt>true</tt> if the object is a proxy
+   */
+  public static boolean isProxy(final Object obj) {
+    return obj instanceof AbstractStaticProxy || obj != null && Proxy.isProxyClass(obj.getClass());
+  }
+
+  /**
+   * Gets the handler of a static or dynamic proxy.
+   *
+   * @param proxy proxy
+   * @return handler
+   * @throws IllegalArgumentException if the given object is not a proxy
+   */
+  public static InvocationHandler getInvocationHandler(final Object proxy) {
+    return proxy instanceof AbstractStaticProxy
+        ? ((AbstractStaticProxy<?>) proxy).getInvocationHandler()
+        : Proxy.getInvocationHandler(proxy);
+  }
+
   @SuppressWarnings({ "unchecked", "rawtypes" })
   public static Object getEntityCollectionProxy(
       final AbstractService<?> service,
@@ -116,10 +198,7 @@ public class ProxyUtils {
       handler.setEntity(entity);
     }
 
-    return Proxy.newProxyInstance(
-            Thread.currentThread().getContextClassLoader(),
-            new Class<?>[] {type},
-            handler);
+    return getStructuredProxy(type, handler);
   }
 
   public static Object getComplexProxy(
@@ -157,8 +236,6 @@ public class ProxyUtils {
 
     complexHandler.setEntityHandler(handler);
 
-    return Proxy.newProxyInstance(
-            Thread.currentThread().getContextClassLoader(),
-            new Class<?>[] {actualRef}, complexHandler);
+    return getStructuredProxy(actualRef, complexHandler);
   }
 }
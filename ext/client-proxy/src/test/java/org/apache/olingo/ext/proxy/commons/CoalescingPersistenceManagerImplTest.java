@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.ext.proxy.commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.util.EntityUtils;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.ext.proxy.commons.TestService.Person;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class CoalescingPersistenceManagerImplTest {
+
+  private static final String BATCH_RESPONSE = "--batchresponse_1\r\n"
+      + "Content-Type: multipart/mixed; boundary=changesetresponse_1\r\n"
+      + "\r\n"
+      + "--changesetresponse_1\r\n"
+      + "Content-Type: application/http\r\n"
+      + "Content-Transfer-Encoding: binary\r\n"
+      + "Content-ID: 1\r\n"
+      + "\r\n"
+      + "HTTP/1.1 204 No Content\r\n"
+      + "\r\n"
+      + "\r\n"
+      + "--changesetresponse_1--\r\n"
+      + "--batchresponse_1--\r\n";
+
+  private final List<String> batches = new ArrayList<String>();
+
+  private TestService service;
+
+  @Before
+  public void setUp() throws Exception {
+    service = TestService.create(new Answer<HttpResponse>() {
+      @Override
+      public HttpResponse answer(final InvocationOnMock invocation) throws IOException {
+        final HttpUriRequest request = (HttpUriRequest) invocation.getArguments()[0];
+        if (request.getURI().getPath().endsWith("$batch")) {
+          batches.add(EntityUtils.toString(((HttpEntityEnclosingRequest) request).getEntity(),
+              StandardCharsets.UTF_8));
+          return TestService.response(200, "multipart/mixed;boundary=batchresponse_1", BATCH_RESPONSE);
+        }
+        return TestService.response(200, ContentType.JSON_FULL_METADATA.toContentTypeString(), TestService.PEOPLE);
+      }
+    });
+  }
+
+  @Test
+  public void updateWithoutActualChangeIsNotSent() {
+    final CoalescingPersistenceManagerImpl manager = new CoalescingPersistenceManagerImpl(service);
+    service.setPersistenceManager(manager);
+
+    final Person person = service.people().iterator().next();
+    person.setID(1);
+    person.setName("A");
+    manager.flush();
+
+    assertTrue(batches.isEmpty());
+    final FlushStatistics statistics = manager.getLastFlushStatistics();
+    assertEquals(0, statistics.getRequests());
+    assertEquals(1, statistics.getCoalesced());
+    assertEquals(0, statistics.getChangesets());
+    assertEquals(0, statistics.getRoundTrips());
+    assertEquals(0, statistics.getPayloadBytes());
+  }
+
+  @Test
+  public void updateCarriesOnlyChangedProperties() {
+    final CoalescingPersistenceManagerImpl manager = new CoalescingPersistenceManagerImpl(service);
+    service.setPersistenceManager(manager);
+
+    final Person person = service.people().iterator().next();
+    person.setID(1);
+    person.setName("C");
+    manager.flush();
+
+    assertEquals(1, batches.size());
+    final String batch = batches.get(0);
+    assertTrue(batch.contains("PATCH "));
+    assertTrue(batch.contains("\"Name\":\"C\""));
+    assertFalse(batch.contains("\"ID\":"));
+
+    final FlushStatistics statistics = manager.getLastFlushStatistics();
+    assertEquals(1, statistics.getRequests());
+    assertEquals(0, statistics.getCoalesced());
+    assertEquals(1, statistics.getChangesets());
+    assertEquals(1, statistics.getRoundTrips());
+    assertEquals(batch.getBytes(StandardCharsets.UTF_8).length, statistics.getPayloadBytes());
+  }
+
+  @Test
+  public void transactionalManagerSendsAllSetProperties() {
+    final TransactionalPersistenceManagerImpl manager = new TransactionalPersistenceManagerImpl(service);
+    service.setPersistenceManager(manager);
+
+    final Person person = service.people().iterator().next();
+    person.setID(1);
+    person.setName("A");
+    manager.flush();
+
+    assertEquals(1, batches.size());
+    assertTrue(batches.get(0).contains("\"ID\":1"));
+    assertTrue(batches.get(0).contains("\"Name\":\"A\""));
+
+    final FlushStatistics statistics = manager.getLastFlushStatistics();
+    assertEquals(1, statistics.getRequests());
+    assertEquals(0, statistics.getCoalesced());
+    assertEquals(1, statistics.getRoundTrips());
+  }
+}
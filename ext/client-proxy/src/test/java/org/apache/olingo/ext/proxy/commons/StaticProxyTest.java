@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.ext.proxy.commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+
+import org.apache.http.HttpResponse;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.ext.proxy.commons.TestService.Person;
+import org.apache.olingo.ext.proxy.commons.TestService.PersonImpl;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class StaticProxyTest {
+
+  private static TestService service() throws Exception {
+    return TestService.create(new Answer<HttpResponse>() {
+      @Override
+      public HttpResponse answer(final InvocationOnMock invocation) {
+        return TestService.response(200, ContentType.JSON_FULL_METADATA.toContentTypeString(), TestService.PEOPLE);
+      }
+    });
+  }
+
+  @Test
+  public void collectionItemsAreStaticProxies() throws Exception {
+    final Iterator<Person> iterator = service().people().iterator();
+    for (int id = 1; id <= 2; id++) {
+      assertTrue(iterator.hasNext());
+      final Person person = iterator.next();
+      assertTrue(person instanceof PersonImpl);
+      assertEquals(Integer.valueOf(id), person.getID());
+    }
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  public void gettersAndSettersRoundTrip() throws Exception {
+    final TestService service = service();
+    final Person person = service.people().iterator().next();
+    assertEquals("A", person.getName());
+    person.setName("C");
+    assertEquals("C", person.getName());
+    assertEquals(Integer.valueOf(1), person.getID());
+
+    final EntityInvocationHandler handler = (EntityInvocationHandler) ((PersonImpl) person).getInvocationHandler();
+    assertTrue(handler.isChanged());
+    assertSame(handler, service.getContext().entityContext().getEntity(handler.getUUID()));
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.ext.proxy.commons;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.DefaultHttpResponseFactory;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.olingo.client.api.EdmEnabledODataClient;
+import org.apache.olingo.client.api.http.HttpClientFactory;
+import org.apache.olingo.commons.api.edm.constants.ODataServiceVersion;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.ext.proxy.AbstractService;
+import org.apache.olingo.ext.proxy.api.AbstractTerm;
+import org.apache.olingo.ext.proxy.api.EntityCollection;
+import org.apache.olingo.ext.proxy.api.EntityType;
+import org.apache.olingo.ext.proxy.api.annotations.Key;
+import org.apache.olingo.ext.proxy.api.annotations.Namespace;
+import org.apache.olingo.ext.proxy.api.annotations.Property;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Service with a single <tt>People</tt> entity set, shaped like the classes emitted by the POJO generator;
+ * HTTP requests are answered by a mocked client, which also serves <tt>$metadata</tt>.
+ */
+class TestService extends AbstractService<EdmEnabledODataClient> {
+
+  static final String SERVICE_ROOT = "http://localhost/odata/";
+
+  static final String PEOPLE = "{\"@odata.context\":\"" + SERVICE_ROOT + "$metadata#People\",\"value\":["
+      + "{\"@odata.type\":\"#Test.Person\",\"@odata.id\":\"" + SERVICE_ROOT + "People(1)\",\"ID\":1,\"Name\":\"A\"},"
+      + "{\"@odata.id\":\"" + SERVICE_ROOT + "People(2)\",\"ID\":2,\"Name\":\"B\"}]}";
+
+  private static final String METADATA = "<edmx:Edmx Version=\"4.0\" "
+      + "xmlns:edmx=\"http://docs.oasis-open.org/odata/ns/edmx\"><edmx:DataServices>"
+      + "<Schema Namespace=\"Test\" xmlns=\"http://docs.oasis-open.org/odata/ns/edm\">"
+      + "<EntityType Name=\"Person\"><Key><PropertyRef Name=\"ID\"/></Key>"
+      + "<Property Name=\"ID\" Type=\"Edm.Int32\" Nullable=\"false\"/>"
+      + "<Property Name=\"Name\" Type=\"Edm.String\"/></EntityType>"
+      + "<EntityContainer Name=\"Container\"><EntitySet Name=\"People\" EntityType=\"Test.Person\"/>"
+      + "</EntityContainer></Schema></edmx:DataServices></edmx:Edmx>";
+
+  @Namespace("Test")
+  @org.apache.olingo.ext.proxy.api.annotations.EntityType(name = "Person")
+  public interface Person extends EntityType<Person> {
+
+    @Key
+    @Property(name = "ID", type = "Edm.Int32", nullable = false)
+    Integer getID();
+
+    void setID(Integer _iD);
+
+    @Property(name = "Name", type = "Edm.String")
+    String getName();
+
+    void setName(String _name);
+  }
+
+  /** Written the way the POJO generator emits static proxies. */
+  public static class PersonImpl extends AbstractStaticProxy<Person> implements Person {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final PropertyBinding iDBinding = bind(Person.class, "getID");
+
+    private static final PropertyBinding nameBinding = bind(Person.class, "getName");
+
+    public PersonImpl(final AbstractStructuredInvocationHandler handler) {
+      super(handler);
+    }
+
+    @Override
+    public Integer getID() {
+      return (Integer) getValue(iDBinding);
+    }
+
+    @Override
+    public void setID(final Integer _iD) {
+      setValue(iDBinding, _iD);
+    }
+
+    @Override
+    public String getName() {
+      return (String) getValue(nameBinding);
+    }
+
+    @Override
+    public void setName(final String _name) {
+      setValue(nameBinding, _name);
+    }
+  }
+
+  public interface PersonCollection extends EntityCollection<Person, PersonCollection, PersonCollection> {
+  }
+
+  private TestService() {
+    super("", null, ODataServiceVersion.V40, SERVICE_ROOT, false);
+  }
+
+  /**
+   * Creates a service whose HTTP requests are answered by the given answer.
+   *
+   * @param answer answer to {@link HttpClient#execute(HttpUriRequest)}
+   * @return service
+   */
+  static TestService create(final Answer<HttpResponse> answer) throws IOException {
+    // no compressed metadata: the client reads $metadata from the service when first needed
+    final TestService service = new TestService();
+
+    final HttpClient httpClient = mock(HttpClient.class);
+    when(httpClient.execute(any(HttpUriRequest.class))).thenAnswer(new Answer<HttpResponse>() {
+      @Override
+      public HttpResponse answer(final InvocationOnMock invocation) throws Throwable {
+        return ((HttpUriRequest) invocation.getArguments()[0]).getURI().getPath().endsWith("$metadata")
+            ? response(200, ContentType.APPLICATION_XML.toContentTypeString(), METADATA)
+            : answer.answer(invocation);
+      }
+    });
+    final HttpClientFactory httpClientFactory = mock(HttpClientFactory.class);
+    when(httpClientFactory.create(any(), any())).thenReturn(httpClient);
+    service.getClient().getConfiguration().setHttpClientFactory(httpClientFactory);
+    return service;
+  }
+
+  static HttpResponse response(final int statusCode, final String contentType, final String body) {
+    final HttpResponse response = new DefaultHttpResponseFactory().newHttpResponse(
+        new BasicStatusLine(HttpVersion.HTTP_1_1, statusCode, null), null);
+    if (body != null) {
+      response.setEntity(new StringEntity(body, StandardCharsets.UTF_8));
+      response.addHeader(HttpHeader.CONTENT_TYPE, contentType);
+    }
+    return response;
+  }
+
+  /**
+   * Fetches the <tt>People</tt> entity set through an entity collection proxy.
+   *
+   * @return fetched collection
+   */
+  PersonCollection people() {
+    final PersonCollection people = (PersonCollection) Proxy.newProxyInstance(
+        Thread.currentThread().getContextClassLoader(),
+        new Class<?>[] { PersonCollection.class },
+        new EntityCollectionInvocationHandler<Person>(this, new ArrayList<Person>(), PersonCollection.class,
+            URI.create(SERVICE_ROOT + "People"),
+            getClient().newURIBuilder(SERVICE_ROOT).appendEntitySetSegment("People")));
+    return people.execute();
+  }
+
+  @Override
+  public Class<?> getEntityTypeClass(final String name) {
+    return "Test.Person".equals(name) ? Person.class : null;
+  }
+
+  @Override
+  public Class<?> getComplexTypeClass(final String name) {
+    return null;
+  }
+
+  @Override
+  public Class<?> getEnumTypeClass(final String name) {
+    return null;
+  }
+
+  @Override
+  public Class<? extends AbstractTerm> getTermClass(final String name) {
+    return null;
+  }
+}
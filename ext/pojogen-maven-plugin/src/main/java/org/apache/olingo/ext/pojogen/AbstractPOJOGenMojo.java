@@ -88,6 +88,13 @@ public abstract class AbstractPOJOGenMojo extends AbstractMojo {
   @Parameter(property = "basePackage", required = false)
   protected String basePackage;
 
+  /**
+   * Whether to generate, for each entity and complex type, an implementation class used by the proxy runtime
+   * instead of a dynamic proxy.
+   */
+  @Parameter(property = "staticProxies", defaultValue = "false")
+  protected boolean staticProxies;
+
   protected final Set<String> namespaces = new HashSet<String>();
 
   protected static String TOOL_DIR = "ojc-plugin";
@@ -304,6 +311,9 @@ public abstract class AbstractPOJOGenMojo extends AbstractMojo {
                   "complexCollection", className + "Collection.java", objs);
           parseObj(typesBaseDir, typesPkg, 
                   "complexCollectionComposableInvoker", className + "CollectionComposableInvoker.java", objs);
+          if (staticProxies) {
+            parseObj(typesBaseDir, typesPkg, "complexTypeImpl", className + "Impl.java", objs);
+          }
         }
 
         for (EdmEntityType entity : schema.getEntityTypes()) {
@@ -348,6 +358,9 @@ public abstract class AbstractPOJOGenMojo extends AbstractMojo {
                   "entityCollection", className + "Collection.java", objs);
           parseObj(typesBaseDir, typesPkg, 
                   "entityCollectionComposableInvoker", className + "CollectionComposableInvoker.java", objs);
+          if (staticProxies) {
+            parseObj(typesBaseDir, typesPkg, "entityTypeImpl", className + "Impl.java", objs);
+          }
         }
 
         // write container and top entity sets into the base package
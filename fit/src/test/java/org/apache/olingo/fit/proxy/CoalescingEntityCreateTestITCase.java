@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.fit.proxy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.olingo.client.api.EdmEnabledODataClient;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.ext.proxy.commons.CoalescingPersistenceManagerImpl;
+import org.apache.olingo.ext.proxy.commons.FlushStatistics;
+import org.apache.olingo.fit.proxy.staticservice.Service;
+import org.apache.olingo.fit.proxy.staticservice.odatawcfservice.InMemoryEntities;
+import org.apache.olingo.fit.proxy.staticservice.odatawcfservice.types.Customer;
+import org.junit.Test;
+
+public class CoalescingEntityCreateTestITCase extends EntityCreateTestITCase {
+
+  private Service<EdmEnabledODataClient> ecf;
+
+  private InMemoryEntities ime;
+
+  @Override
+  protected Service<EdmEnabledODataClient> getService() {
+    if (ecf == null) {
+      ecf = Service.getV4(testStaticServiceRootURL);
+      ecf.getClient().getConfiguration().setDefaultBatchAcceptFormat(ContentType.APPLICATION_OCTET_STREAM);
+      ecf.setPersistenceManager(new CoalescingPersistenceManagerImpl(ecf));
+    }
+    return ecf;
+  }
+
+  @Override
+  protected InMemoryEntities getContainer() {
+    if (ime == null) {
+      ime = getService().getEntityContainer(InMemoryEntities.class);
+    }
+    return ime;
+  }
+
+  private FlushStatistics getStatistics() {
+    return ((CoalescingPersistenceManagerImpl) getService().getPersistenceManager()).getLastFlushStatistics();
+  }
+
+  @Test
+  public void flushStatistics() {
+    Customer customer = getContainer().getCustomers().getByKey(1).load();
+    final String lastName = customer.getLastName();
+
+    // same value as known: nothing to send
+    customer.setLastName(lastName);
+    getContainer().flush();
+    assertEquals(0, getStatistics().getRoundTrips());
+    assertEquals(0, getStatistics().getRequests());
+    assertEquals(1, getStatistics().getCoalesced());
+
+    customer = getContainer().getCustomers().getByKey(1).load();
+    customer.setLastName(lastName + " (changed)");
+    customer.setLastName(lastName + " (coalesced)");
+    getContainer().flush();
+    assertEquals(1, getStatistics().getRoundTrips());
+    assertEquals(1, getStatistics().getChangesets());
+    assertEquals(1, getStatistics().getRequests());
+    assertTrue(getStatistics().getPayloadBytes() > 0);
+
+    customer = getContainer().getCustomers().getByKey(1).load();
+    assertEquals(lastName + " (coalesced)", customer.getLastName());
+
+    customer.setLastName(lastName);
+    getContainer().flush();
+    assertEquals(1, getStatistics().getRequests());
+  }
+}
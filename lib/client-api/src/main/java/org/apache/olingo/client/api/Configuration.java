@@ -18,7 +18,9 @@
  */
 package org.apache.olingo.client.api;
 
+import java.io.File;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.apache.olingo.client.api.http.HttpClientFactory;
 import org.apache.olingo.client.api.http.HttpUriRequestFactory;
@@ -255,6 +257,9 @@ public interface Configuration {
 
   /**
    * Retrieves request executor service.
+   * <br/>
+   * Asynchronously executed requests occupy one of its threads for the HTTP exchange,
+   * so its size limits the number of concurrent asynchronous requests.
    *
    * @return request executor service.
    */
@@ -266,4 +271,162 @@ public interface Configuration {
    * @param executorService new executor services.
    */
   void setExecutor(ExecutorService executorService);
+
+  /**
+   * Gets the executor service deserializing the responses of asynchronously executed requests, so that the
+   * request executor threads are only busy with the HTTP exchange.
+   * <br/>
+   * The payload is read from the connection while it is deserialized, so the tasks block on network I/O;
+   * the executor should therefore not be shared with CPU-bound work like the common fork-join pool.
+   *
+   * @return response executor service; a dedicated pool of 10 threads by default
+   */
+  ExecutorService getResponseExecutor();
+
+  /**
+   * Sets the executor service deserializing the responses of asynchronously executed requests.
+   *
+   * @param executorService new response executor service.
+   */
+  void setResponseExecutor(ExecutorService executorService);
+
+  /**
+   * Gets the scheduler triggering the status monitor checks of asynchronously processed requests.
+   * The checks themselves run on the request executor.
+   *
+   * @return scheduled executor service
+   */
+  ScheduledExecutorService getScheduledExecutor();
+
+  /**
+   * Sets the scheduler triggering the status monitor checks of asynchronously processed requests.
+   *
+   * @param scheduledExecutorService new scheduled executor service.
+   */
+  void setScheduledExecutor(ScheduledExecutorService scheduledExecutorService);
+
+  /**
+   * Gets the maximum number of pooled HTTP connections in total.
+   * <br/>
+   * This and the following connection settings apply to HTTP client factories keeping a connection pool, like
+   * <tt>org.apache.olingo.client.core.http.PoolingHttpClientFactory</tt>, which is enabled via
+   * <tt>setHttpClientFactory</tt>.
+   *
+   * @return maximum number of connections
+   */
+  int getMaxConnections();
+
+  /**
+   * Sets the maximum number of pooled HTTP connections in total.
+   *
+   * @param value maximum number of connections
+   */
+  void setMaxConnections(int value);
+
+  /**
+   * Gets the maximum number of pooled HTTP connections per route (i.e. per service host).
+   *
+   * @return maximum number of connections per route
+   */
+  int getMaxConnectionsPerRoute();
+
+  /**
+   * Sets the maximum number of pooled HTTP connections per route (i.e. per service host).
+   *
+   * @param value maximum number of connections per route
+   */
+  void setMaxConnectionsPerRoute(int value);
+
+  /**
+   * Gets how long (in milliseconds) a pooled HTTP connection is kept alive if the server does not send a
+   * <tt>Keep-Alive</tt> timeout.
+   *
+   * @return keep-alive duration in milliseconds; not positive for no limit
+   */
+  long getConnectionKeepAlive();
+
+  /**
+   * Sets how long (in milliseconds) a pooled HTTP connection is kept alive if the server does not send a
+   * <tt>Keep-Alive</tt> timeout.
+   *
+   * @param value keep-alive duration in milliseconds; not positive for no limit
+   */
+  void setConnectionKeepAlive(long value);
+
+  /**
+   * Gets after how many milliseconds without usage a pooled HTTP connection is evicted.
+   *
+   * @return idle timeout in milliseconds; not positive to keep idle connections
+   */
+  long getConnectionIdleTimeout();
+
+  /**
+   * Sets after how many milliseconds without usage a pooled HTTP connection is evicted.
+   *
+   * @param value idle timeout in milliseconds; not positive to keep idle connections
+   */
+  void setConnectionIdleTimeout(long value);
+
+  /**
+   * Gets after how many milliseconds of inactivity a pooled HTTP connection is checked for being stale before
+   * it is reused.
+   *
+   * @return inactivity period in milliseconds; not positive to disable the check
+   */
+  int getConnectionValidateAfterInactivity();
+
+  /**
+   * Sets after how many milliseconds of inactivity a pooled HTTP connection is checked for being stale before
+   * it is reused.
+   *
+   * @param value inactivity period in milliseconds; not positive to disable the check
+   */
+  void setConnectionValidateAfterInactivity(int value);
+
+  /**
+   * Gets how many milliseconds a request waits for a pooled HTTP connection when all connections of its route are
+   * leased; the request fails when the time has elapsed.
+   *
+   * @return timeout in milliseconds; not positive to wait without limit
+   */
+  int getConnectionRequestTimeout();
+
+  /**
+   * Sets how many milliseconds a request waits for a pooled HTTP connection when all connections of its route are
+   * leased; the request fails when the time has elapsed.
+   *
+   * @param value timeout in milliseconds; not positive to wait without limit
+   */
+  void setConnectionRequestTimeout(int value);
+
+  /**
+   * Gets how many bytes of a streamed request body, e.g. of a batch request, are kept in memory; a larger body is
+   * written to a temporary file until the request has been sent.
+   *
+   * @return threshold in bytes; not positive to always keep the body in memory
+   */
+  int getRequestBodyMemoryThreshold();
+
+  /**
+   * Sets how many bytes of a streamed request body, e.g. of a batch request, are kept in memory; a larger body is
+   * written to a temporary file until the request has been sent.
+   *
+   * @param value threshold in bytes; not positive to always keep the body in memory
+   */
+  void setRequestBodyMemoryThreshold(int value);
+
+  /**
+   * Gets the directory where service metadata documents are cached.
+   * A cached document is revalidated with its entity tag and reused if the service reports it as not modified.
+   *
+   * @return cache directory; <tt>null</tt> if metadata documents are not cached
+   */
+  File getMetadataCacheDirectory();
+
+  /**
+   * Sets the directory where service metadata documents are cached.
+   *
+   * @param directory cache directory; <tt>null</tt> to disable the cache
+   */
+  void setMetadataCacheDirectory(File directory);
 }
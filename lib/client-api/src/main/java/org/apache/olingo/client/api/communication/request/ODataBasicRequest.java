@@ -18,6 +18,7 @@
  */
 package org.apache.olingo.client.api.communication.request;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
 import org.apache.olingo.client.api.communication.response.ODataResponse;
@@ -44,6 +45,19 @@ public interface ODataBasicRequest<T extends ODataResponse> extends ODataRequest
    */
   Future<T> asyncExecute();
 
+  /**
+   * Async request execute, returning a future that can be composed with further processing.
+   * <br/>
+   * The request is not executed with non-blocking I/O: the future only moves the blocking execution off the
+   * calling thread. The HTTP exchange occupies a thread of the request executor of the configuration until the
+   * response headers have been received, so the number of concurrent exchanges is bounded by that executor.
+   * The response payload is then read and deserialized on the response executor, which blocks one of its threads
+   * while the payload arrives; the returned future completes on the latter.
+   *
+   * @return <code>CompletableFuture&lt;ODataResponse&gt;</code> about the executed request.
+   */
+  CompletableFuture<T> executeAsync();
+
   /**
    * Override configured request Content-Type.
    *
@@ -76,6 +76,17 @@ public interface RetrieveRequestFactory {
    */
   ODataEntitySetIteratorRequest<ClientEntitySet, ClientEntity> getEntitySetIteratorRequest(URI uri);
 
+  /**
+   * Gets a uri request returning a set of one or more OData entities.
+   * <br/>
+   * Returned request reads the entities one at a time from the response stream and transparently requests the
+   * pages announced by next links, so that entity sets of any size can be consumed in constant memory.
+   *
+   * @param uri request URI.
+   * @return new {@link ODataEntitySetStreamRequest} instance.
+   */
+  ODataEntitySetStreamRequest<ClientEntity> getEntitySetStreamRequest(URI uri);
+
   /**
    * Gets a uri request returning a single OData entity.
    *
@@ -19,6 +19,7 @@
 package org.apache.olingo.client.api.communication.response;
 
 import java.net.URI;
+import java.util.concurrent.CompletableFuture;
 
 public interface AsyncResponseWrapper<R extends ODataResponse> {
 
@@ -48,6 +49,17 @@ public interface AsyncResponseWrapper<R extends ODataResponse> {
    */
   R getODataResponse();
 
+  /**
+   * Gets the real response without blocking the calling thread.
+   * <br />
+   * The status monitor is checked on the request executor. Instead of waiting for the delay given by the
+   * 'Retry-After' header, the next check is scheduled; as for {@link #getODataResponse()}, the monitor is checked
+   * at most five times.
+   *
+   * @return future of the real OData response.
+   */
+  CompletableFuture<R> getODataResponseAsync();
+
   /**
    * Specifies the location for the next monitor check.
    * <br />
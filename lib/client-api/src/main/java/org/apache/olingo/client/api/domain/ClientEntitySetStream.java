@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.api.domain;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.util.Iterator;
+
+/**
+ * OData entity set stream: entities are read from the response one at a time while iterating.
+ * <br/>
+ * When a page ends with a next link, the next page is requested transparently, so an entity set of any size
+ * can be iterated holding only the current entity in memory.
+ * <br/>
+ * <b>Please don't forget to call the <tt>close()</tt> method when stopping before the end.</b>
+ *
+ * @param <E> concrete ClientEntity implementation
+ */
+public interface ClientEntitySetStream<E extends ClientEntity> extends Iterator<E>, Closeable {
+
+  /**
+   * Gets the count sent with the first page.
+   *
+   * @return count of entities; null if not requested or not sent before the entities
+   */
+  Integer getCount();
+
+  /**
+   * Gets the delta link of the last page.
+   *
+   * @return delta link; null if not available
+   * @throws IllegalStateException if the iteration is not completed yet
+   */
+  URI getDeltaLink();
+
+  /**
+   * Closes the current page's response; no further pages are requested.
+   */
+  @Override
+  void close();
+}
@@ -25,10 +25,13 @@ import org.apache.olingo.client.core.http.DefaultHttpClientFactory;
 import org.apache.olingo.client.core.http.DefaultHttpUriRequestFactory;
 import org.apache.olingo.commons.api.format.ContentType;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -60,12 +63,33 @@ public class ConfigurationImpl implements Configuration {
 
   private static final String CONTINUE_ON_ERROR = "continueOnError";
 
+  private static final String MAX_CONNECTIONS = "maxConnections";
+
+  private static final String MAX_CONNECTIONS_PER_ROUTE = "maxConnectionsPerRoute";
+
+  private static final String CONNECTION_KEEP_ALIVE = "connectionKeepAlive";
+
+  private static final String CONNECTION_IDLE_TIMEOUT = "connectionIdleTimeout";
+
+  private static final String CONNECTION_VALIDATE_AFTER_INACTIVITY = "connectionValidateAfterInactivity";
+
+  private static final String CONNECTION_REQUEST_TIMEOUT = "connectionRequestTimeout";
+
+  private static final String REQUEST_BODY_MEMORY_THRESHOLD = "requestBodyMemoryThreshold";
+
+  private static final String METADATA_CACHE_DIRECTORY = "metadataCacheDirectory";
+
   public static final int DEFAULT_BUFFER_SIZE = 4 * 1024 * 1024;  // 4MB
 
   private final Map<String, Object> CONF = new HashMap<>();
 
   private transient ExecutorService executor = createExecutor(10);
 
+  /** Reading a response payload is blocking network I/O, so it must not run on the common fork-join pool. */
+  private transient ExecutorService responseExecutor = createExecutor(10);
+
+  private transient ScheduledExecutorService scheduledExecutor;
+
   private ExecutorService createExecutor(final int threads) {
     final ThreadPoolExecutor tp = new ThreadPoolExecutor(
         threads,
@@ -77,6 +101,14 @@ public class ConfigurationImpl implements Configuration {
     return tp;
   }
 
+  private ScheduledExecutorService createScheduledExecutor() {
+    final ScheduledThreadPoolExecutor stp = new ScheduledThreadPoolExecutor(1);
+    stp.setKeepAliveTime(5L, TimeUnit.MILLISECONDS);
+    stp.allowCoreThreadTimeOut(true);
+    stp.setRemoveOnCancelPolicy(true);
+    return stp;
+  }
+
   /**
    * Gets given configuration property.
    *
@@ -244,4 +276,107 @@ public class ConfigurationImpl implements Configuration {
   public void setExecutor(final ExecutorService executorService) {
     executor = executorService;
   }
+
+  @Override
+  public ExecutorService getResponseExecutor() {
+    return responseExecutor;
+  }
+
+  @Override
+  public void setResponseExecutor(final ExecutorService executorService) {
+    responseExecutor = executorService;
+  }
+
+  @Override
+  public synchronized ScheduledExecutorService getScheduledExecutor() {
+    if (scheduledExecutor == null) {
+      scheduledExecutor = createScheduledExecutor();
+    }
+    return scheduledExecutor;
+  }
+
+  @Override
+  public synchronized void setScheduledExecutor(final ScheduledExecutorService scheduledExecutorService) {
+    scheduledExecutor = scheduledExecutorService;
+  }
+
+  @Override
+  public int getMaxConnections() {
+    return (Integer) getProperty(MAX_CONNECTIONS, 100);
+  }
+
+  @Override
+  public void setMaxConnections(final int value) {
+    setProperty(MAX_CONNECTIONS, value);
+  }
+
+  @Override
+  public int getMaxConnectionsPerRoute() {
+    return (Integer) getProperty(MAX_CONNECTIONS_PER_ROUTE, 20);
+  }
+
+  @Override
+  public void setMaxConnectionsPerRoute(final int value) {
+    setProperty(MAX_CONNECTIONS_PER_ROUTE, value);
+  }
+
+  @Override
+  public long getConnectionKeepAlive() {
+    return (Long) getProperty(CONNECTION_KEEP_ALIVE, 30000L);
+  }
+
+  @Override
+  public void setConnectionKeepAlive(final long value) {
+    setProperty(CONNECTION_KEEP_ALIVE, value);
+  }
+
+  @Override
+  public long getConnectionIdleTimeout() {
+    return (Long) getProperty(CONNECTION_IDLE_TIMEOUT, 60000L);
+  }
+
+  @Override
+  public void setConnectionIdleTimeout(final long value) {
+    setProperty(CONNECTION_IDLE_TIMEOUT, value);
+  }
+
+  @Override
+  public int getConnectionValidateAfterInactivity() {
+    return (Integer) getProperty(CONNECTION_VALIDATE_AFTER_INACTIVITY, 2000);
+  }
+
+  @Override
+  public void setConnectionValidateAfterInactivity(final int value) {
+    setProperty(CONNECTION_VALIDATE_AFTER_INACTIVITY, value);
+  }
+
+  @Override
+  public int getConnectionRequestTimeout() {
+    return (Integer) getProperty(CONNECTION_REQUEST_TIMEOUT, 30000);
+  }
+
+  @Override
+  public void setConnectionRequestTimeout(final int value) {
+    setProperty(CONNECTION_REQUEST_TIMEOUT, value);
+  }
+
+  @Override
+  public int getRequestBodyMemoryThreshold() {
+    return (Integer) getProperty(REQUEST_BODY_MEMORY_THRESHOLD, 1024 * 1024);
+  }
+
+  @Override
+  public void setRequestBodyMemoryThreshold(final int value) {
+    setProperty(REQUEST_BODY_MEMORY_THRESHOLD, value);
+  }
+
+  @Override
+  public File getMetadataCacheDirectory() {
+    return (File) getProperty(METADATA_CACHE_DIRECTORY, null);
+  }
+
+  @Override
+  public void setMetadataCacheDirectory(final File directory) {
+    setProperty(METADATA_CACHE_DIRECTORY, directory);
+  }
 }
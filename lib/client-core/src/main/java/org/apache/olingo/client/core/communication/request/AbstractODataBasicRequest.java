@@ -23,10 +23,14 @@ import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.olingo.client.api.Configuration;
 import org.apache.olingo.client.api.ODataBatchConstants;
 import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.client.api.communication.request.ODataBasicRequest;
@@ -76,6 +80,33 @@ public abstract class AbstractODataBasicRequest<T extends ODataResponse>
     });
   }
 
+  @Override
+  public CompletableFuture<T> executeAsync() {
+    final Configuration configuration = odataClient.getConfiguration();
+    return CompletableFuture.supplyAsync(new Supplier<T>() {
+      @Override
+      public T get() {
+        return execute();
+      }
+    }, configuration.getExecutor()).thenApplyAsync(new Function<T, T>() {
+      @Override
+      public T apply(final T response) {
+        return readAsyncResponse(response);
+      }
+    }, configuration.getResponseExecutor());
+  }
+
+  /**
+   * Processes the response of an asynchronously executed request on the response executor,
+   * before the future returned by {@link #executeAsync()} completes.
+   *
+   * @param response OData response.
+   * @return the given OData response.
+   */
+  protected T readAsyncResponse(final T response) {
+    return response;
+  }
+
   /**
    * Gets payload as an InputStream.
    *
@@ -29,8 +29,6 @@ import org.apache.http.HttpResponse;
 import org.apache.olingo.client.api.communication.request.ODataPayloadManager;
 import org.apache.olingo.client.api.communication.response.ODataResponse;
 import org.apache.olingo.client.api.http.HttpClientException;
-import org.apache.olingo.client.core.ConfigurationImpl;
-import org.apache.olingo.client.core.communication.util.PipedInputStream;
 import org.apache.olingo.client.core.communication.util.PipedOutputStream;
 
 /**
@@ -42,12 +40,7 @@ public abstract class AbstractODataStreamManager<T extends ODataResponse> extend
         implements ODataPayloadManager<T> {
 
   /**
-   * Body input stream.
-   */
-  private final PipedInputStream body;
-
-  /**
-   * Default body input stream.
+   * Body input stream, if the payload is not written via the body stream writer.
    */
   private final InputStream defaultBody;
 
@@ -62,25 +55,20 @@ public abstract class AbstractODataStreamManager<T extends ODataResponse> extend
    * @param futureWrap wrapper of the Future object of the HttpResponse.
    */
   public AbstractODataStreamManager(final Wrapper<Future<HttpResponse>> futureWrap) {
-    this(futureWrap, new PipedOutputStream(null, ConfigurationImpl.DEFAULT_BUFFER_SIZE));
+    this(futureWrap, new PipedOutputStream());
   }
 
   /**
    * Constructor.
    *
    * @param futureWrap wrapper of the Future object of the HttpResponse.
-   * @param output stream to be piped to retrieve the payload.
+   * @param output stream collecting the payload.
    */
   public AbstractODataStreamManager(final Wrapper<Future<HttpResponse>> futureWrap, final PipedOutputStream output) {
     super(output);
 
     this.futureWrap = futureWrap;
-    try {
-      this.body = new PipedInputStream(getBodyStreamWriter(), ConfigurationImpl.DEFAULT_BUFFER_SIZE);
-    } catch (Exception e) {
-      throw new IllegalStateException(e);
-    }
-    this.defaultBody = this.body;
+    this.defaultBody = null;
   }
 
   /**
@@ -93,7 +81,6 @@ public abstract class AbstractODataStreamManager<T extends ODataResponse> extend
     super(null);
 
     this.futureWrap = futureWrap;
-    this.body = null;
     this.defaultBody = input;
   }
 
@@ -102,7 +89,10 @@ public abstract class AbstractODataStreamManager<T extends ODataResponse> extend
    */
   @Override
   public InputStream getBody() {
-    return this.body == null ? this.defaultBody : this.body;
+    if (this.defaultBody == null && getBodyStreamWriter() != null) {
+      return getBodyStreamWriter().getInputStream();
+    }
+    return this.defaultBody;
   }
 
   /**
@@ -113,8 +103,20 @@ public abstract class AbstractODataStreamManager<T extends ODataResponse> extend
     IOUtils.closeQuietly(getBodyStreamWriter());
   }
 
+  /**
+   * Completes the payload before the request is executed.
+   * <br/>
+   * The default implementation closes the body stream writer.
+   */
+  protected void completeBody() {
+    finalizeBody();
+  }
+
   /**
    * Gets HttpResponse.
+   * <br/>
+   * If the request has not been started asynchronously, it is executed in the calling thread; the timeout is then
+   * applied to the HTTP exchange itself, as connect, connection request and socket timeout.
    *
    * @param timeout maximum delay after which the request must be aborted.
    * @param unit time unit.
@@ -122,7 +124,11 @@ public abstract class AbstractODataStreamManager<T extends ODataResponse> extend
    */
   protected HttpResponse getHttpResponse(final long timeout, final TimeUnit unit) {
     try {
-      return futureWrap.getWrapped().get(timeout, unit);
+      final Future<HttpResponse> future = futureWrap.getWrapped();
+      if (future instanceof DeferredTask) {
+        ((DeferredTask<HttpResponse>) future).run(timeout, unit);
+      }
+      return future.get(timeout, unit);
     } catch (Exception e) {
       LOG.error("Failure executing request");
       throw new HttpClientException(e);
@@ -151,6 +157,11 @@ public abstract class AbstractODataStreamManager<T extends ODataResponse> extend
    */
   @Override
   public final Future<T> getAsyncResponse() {
+    completeBody();
+    if (futureWrap.getWrapped() instanceof DeferredTask) {
+      ((DeferredTask<HttpResponse>) futureWrap.getWrapped()).submit();
+    }
+
     return new Future<T>() {
       @Override
       public boolean cancel(final boolean mayInterruptIfRunning) {
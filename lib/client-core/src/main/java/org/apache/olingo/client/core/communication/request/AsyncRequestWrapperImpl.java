@@ -21,6 +21,9 @@ package org.apache.olingo.client.core.communication.request;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -34,6 +37,7 @@ import org.apache.http.client.utils.HttpClientUtils;
 import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.impl.client.DecompressingHttpClient;
 import org.apache.http.util.EntityUtils;
+import org.apache.olingo.client.api.Configuration;
 import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.client.api.communication.ODataClientErrorException;
 import org.apache.olingo.client.api.communication.header.ODataPreferences;
@@ -206,35 +210,77 @@ public class AsyncRequestWrapperImpl<R extends ODataResponse> extends AbstractRe
 
     @Override
     public R getODataResponse() {
-      HttpResponse res = null;
-      for (int i = 0; response == null && i < MAX_RETRY; i++) {
-        res = checkMonitor(location);
-
-        if (res.getStatusLine().getStatusCode() == HttpStatusCode.ACCEPTED.getStatusCode()) {
+      try {
+        return getODataResponseAsync().get();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new AsyncRequestException("Interrupted while waiting for the asynchronous response");
+      } catch (final ExecutionException e) {
+        if (e.getCause() instanceof Error) {
+          throw (Error) e.getCause();
+        }
+        throw (RuntimeException) e.getCause();
+      }
+    }
 
-          final Header[] headers = res.getHeaders(HttpHeader.RETRY_AFTER);
-          if (ArrayUtils.isNotEmpty(headers)) {
-            this.retryAfter = parseReplyAfter(headers[0].getValue());
-          }
+    @Override
+    public CompletableFuture<R> getODataResponseAsync() {
+      final CompletableFuture<R> future = new CompletableFuture<>();
+      if (response == null) {
+        scheduleMonitorCheck(future, 0, 0);
+      } else {
+        future.complete(response);
+      }
+      return future;
+    }
 
+    /**
+     * Checks the monitor on the request executor, after the given delay in seconds.
+     * Each further check needed while the processing is still running is scheduled the same way.
+     */
+    private void scheduleMonitorCheck(final CompletableFuture<R> future, final int attempt, final int delay) {
+      final Configuration configuration = odataClient.getConfiguration();
+      final Runnable check = new Runnable() {
+        @Override
+        public void run() {
           try {
-            // wait for retry-after
-            Thread.sleep((long) retryAfter * 1000);
-          } catch (InterruptedException ignore) {
-            // ignore
+            final HttpResponse res = checkMonitor(location);
+            if (res.getStatusLine().getStatusCode() == HttpStatusCode.ACCEPTED.getStatusCode()) {
+              final Header[] headers = res.getHeaders(HttpHeader.RETRY_AFTER);
+              if (ArrayUtils.isNotEmpty(headers)) {
+                retryAfter = parseReplyAfter(headers[0].getValue());
+              }
+              HttpClientUtils.closeQuietly(res);
+              if (attempt + 1 < MAX_RETRY) {
+                scheduleMonitorCheck(future, attempt + 1, retryAfter);
+              } else {
+                future.completeExceptionally(new ODataClientErrorException(res.getStatusLine()));
+              }
+            } else {
+              location = null;
+              response = instantiateResponse(res);
+              future.complete(response);
+            }
+          } catch (final RuntimeException e) {
+            future.completeExceptionally(e);
           }
-
-        } else {
-          location = null;
-          return instantiateResponse(res);
         }
-      }
+      };
 
-      if (response == null) {
-        throw new ODataClientErrorException(res == null ? null : res.getStatusLine());
+      if (delay <= 0) {
+        configuration.getExecutor().execute(check);
+      } else {
+        configuration.getScheduledExecutor().schedule(new Runnable() {
+          @Override
+          public void run() {
+            try {
+              configuration.getExecutor().execute(check);
+            } catch (final RuntimeException e) {
+              future.completeExceptionally(e);
+            }
+          }
+        }, delay, TimeUnit.SECONDS);
       }
-
-      return response;
     }
 
     URI createLocation(String string) {
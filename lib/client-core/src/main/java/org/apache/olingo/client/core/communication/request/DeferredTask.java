@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.communication.request;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Task that is not started on creation: it is run either by the first thread waiting for its result
+ * or, when asked for explicitly, on an executor.
+ *
+ * @param <V> result type.
+ */
+public class DeferredTask<V> extends FutureTask<V> {
+
+  private final Executor executor;
+
+  private final AtomicBoolean submitted = new AtomicBoolean();
+
+  private volatile long timeoutMillis;
+
+  public DeferredTask(final Callable<V> callable, final Executor executor) {
+    super(callable);
+    this.executor = executor;
+  }
+
+  /**
+   * Starts the task on the executor, unless it has already been submitted.
+   */
+  public void submit() {
+    if (submitted.compareAndSet(false, true)) {
+      executor.execute(this);
+    }
+  }
+
+  /**
+   * Runs the task in the calling thread, unless it has already been started.
+   * The task is expected to bound its own execution by the given timeout, see {@link #getTimeoutMillis()}.
+   *
+   * @param timeout maximum duration of the task; not positive for no limit.
+   * @param unit time unit.
+   */
+  public void run(final long timeout, final TimeUnit unit) {
+    timeoutMillis = timeout > 0 ? Math.max(1, unit.toMillis(timeout)) : 0;
+    run();
+  }
+
+  /**
+   * Gets the timeout given when the task has been run in the calling thread.
+   *
+   * @return timeout in milliseconds; 0 for no limit.
+   */
+  public long getTimeoutMillis() {
+    return timeoutMillis;
+  }
+}
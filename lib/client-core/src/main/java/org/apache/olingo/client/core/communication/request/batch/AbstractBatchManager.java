@@ -31,6 +31,7 @@ import org.apache.olingo.client.api.communication.request.batch.ODataSingleReque
 import org.apache.olingo.client.api.communication.response.ODataBatchResponse;
 import org.apache.olingo.client.core.communication.request.AbstractODataStreamManager;
 import org.apache.olingo.client.core.communication.request.Wrapper;
+import org.apache.olingo.client.core.communication.util.PipedOutputStream;
 
 /**
  * Batch request payload management.
@@ -46,6 +47,11 @@ public abstract class AbstractBatchManager extends AbstractODataStreamManager<OD
    */
   protected ODataBatchRequestItem currentItem = null;
 
+  /**
+   * Whether the close delimiter has been streamed.
+   */
+  private boolean completed = false;
+
   /**
    * batch request reference.
    */
@@ -54,7 +60,9 @@ public abstract class AbstractBatchManager extends AbstractODataStreamManager<OD
   protected AbstractBatchManager(final ODataBatchRequest req,
       final Wrapper<Future<HttpResponse>> futureWrap, final boolean continueOnError) {
 
-    super(futureWrap);
+    super(futureWrap, req instanceof AbstractODataBatchRequest ?
+        ((AbstractODataBatchRequest<?, ?>) req).newBodyStream() :
+        new PipedOutputStream());
     this.req = req;
     this.continueOnError = continueOnError;
   }
@@ -108,11 +116,19 @@ public abstract class AbstractBatchManager extends AbstractODataStreamManager<OD
     }
   }
 
+  @Override
+  protected void completeBody() {
+    if (!completed) {
+      closeCurrentItem();
+      streamCloseDelimiter();
+      finalizeBody();
+      completed = true;
+    }
+  }
+
   @Override
   protected ODataBatchResponse getResponse(final long timeout, final TimeUnit unit) {
-    closeCurrentItem();
-    streamCloseDelimiter();
-    finalizeBody();
+    completeBody();
     return getResponseInstance(timeout, unit);
   }
 
@@ -74,6 +74,15 @@ public abstract class AbstractODataBatchRequest<V extends ODataResponse, T exten
     return (PipedOutputStream) getPayloadManager().getBodyStreamWriter();
   }
 
+  /**
+   * Creates the stream collecting the batch body, kept in memory up to the configured threshold.
+   *
+   * @return body stream.
+   */
+  protected PipedOutputStream newBodyStream() {
+    return new PipedOutputStream(odataClient.getConfiguration().getRequestBodyMemoryThreshold());
+  }
+
   /**
    * {@inheritDoc}
    * <br/>
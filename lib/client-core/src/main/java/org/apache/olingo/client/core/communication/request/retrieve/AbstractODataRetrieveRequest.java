@@ -29,6 +29,7 @@ import org.apache.olingo.client.api.communication.response.ODataRetrieveResponse
 import org.apache.olingo.client.core.communication.request.AbstractODataBasicRequest;
 import org.apache.olingo.client.core.communication.response.AbstractODataResponse;
 import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
 
 /**
  * This is an abstract representation of an OData retrieve query request returning one or more result item.
@@ -50,6 +51,17 @@ public abstract class AbstractODataRetrieveRequest<T>
   @Override
   public abstract ODataRetrieveResponse<T> execute();
 
+  /**
+   * Deserializes the body of a successful response, so that it is ready when the future completes.
+   */
+  @Override
+  protected ODataRetrieveResponse<T> readAsyncResponse(final ODataRetrieveResponse<T> response) {
+    if (response.getStatusCode() == HttpStatusCode.OK.getStatusCode()) {
+      response.getBody();
+    }
+    return response;
+  }
+
   /**
    * This kind of request doesn't have any payload: null will be returned.
    */
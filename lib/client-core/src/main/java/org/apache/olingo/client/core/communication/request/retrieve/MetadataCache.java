@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.communication.request.retrieve;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * On-disk cache of metadata documents.
+ * Each document is stored in a file named after its URI, with its entity tag in the first line.
+ */
+class MetadataCache {
+
+  private static final String SUFFIX = ".metadata";
+
+  private static final int LINE_FEED = '\n';
+
+  private final File directory;
+
+  MetadataCache(final File directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Gets the entity tag of the cached document.
+   *
+   * @param uri metadata document URI
+   * @return entity tag; <tt>null</tt> if the document is not cached
+   */
+  String getETag(final URI uri) {
+    final File file = getFile(uri);
+    if (!file.isFile()) {
+      return null;
+    }
+    try (InputStream input = new BufferedInputStream(new FileInputStream(file))) {
+      return readETag(input);
+    } catch (final IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Opens the cached document.
+   *
+   * @param uri metadata document URI
+   * @return the document, positioned after the entity tag
+   * @throws IOException if the document is not cached or cannot be read
+   */
+  InputStream read(final URI uri) throws IOException {
+    final InputStream input = new BufferedInputStream(new FileInputStream(getFile(uri)));
+    if (readETag(input) == null) {
+      input.close();
+      throw new IOException("Invalid cache entry for " + uri);
+    }
+    return input;
+  }
+
+  /**
+   * Stores a document, replacing any previously cached version.
+   * The document is written to a temporary file first, so that readers never see a partial entry.
+   *
+   * @param uri metadata document URI
+   * @param etag entity tag of the document
+   * @param content the document
+   * @throws IOException if the document cannot be written
+   */
+  void write(final URI uri, final String etag, final InputStream content) throws IOException {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Cannot create cache directory " + directory);
+    }
+    final File temp = File.createTempFile("metadata", ".tmp", directory);
+    try {
+      try (OutputStream output = new FileOutputStream(temp)) {
+        output.write(etag.getBytes(StandardCharsets.UTF_8));
+        output.write(LINE_FEED);
+        IOUtils.copy(content, output);
+      }
+      Files.move(temp.toPath(), getFile(uri).toPath(),
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp.toPath());
+    }
+  }
+
+  private File getFile(final URI uri) {
+    return new File(directory, DigestUtils.sha256Hex(uri.toASCIIString()) + SUFFIX);
+  }
+
+  private static String readETag(final InputStream input) throws IOException {
+    final ByteArrayOutputStream line = new ByteArrayOutputStream();
+    int b;
+    while ((b = input.read()) != LINE_FEED) {
+      if (b == -1) {
+        return null;
+      }
+      line.write(b);
+    }
+    return line.size() == 0 ? null : new String(line.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.communication.request.retrieve;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.NoSuchElementException;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.communication.request.retrieve.ODataEntitySetStreamRequest;
+import org.apache.olingo.client.api.communication.response.ODataRetrieveResponse;
+import org.apache.olingo.client.api.data.ResWrap;
+import org.apache.olingo.client.api.domain.ClientEntity;
+import org.apache.olingo.client.api.domain.ClientEntitySetStream;
+import org.apache.olingo.client.core.serialization.JsonEntitySetPageReader;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.format.ContentType;
+
+/**
+ * This class implements an OData EntitySet query request whose entities are streamed.
+ * <br/>
+ * Each page is parsed straight from the HTTP response while iterating; when a page ends with a next link, the
+ * next page is requested with the same headers as this request.
+ *
+ * @param <E> concrete ClientEntity implementation
+ */
+public class ODataEntitySetStreamRequestImpl<E extends ClientEntity>
+    extends AbstractODataRetrieveRequest<ClientEntitySetStream<E>> implements ODataEntitySetStreamRequest<E> {
+
+  /**
+   * Constructor.
+   *
+   * @param odataClient client instance getting this request
+   * @param query query to be executed.
+   */
+  public ODataEntitySetStreamRequestImpl(final ODataClient odataClient, final URI query) {
+    super(odataClient, query);
+  }
+
+  @Override
+  public ContentType getDefaultFormat() {
+    final ContentType format = odataClient.getConfiguration().getDefaultPubFormat();
+    return format.isCompatible(ContentType.APPLICATION_JSON) ? format : ContentType.JSON_FULL_METADATA;
+  }
+
+  @Override
+  public ODataRetrieveResponse<ClientEntitySetStream<E>> execute() {
+    final HttpResponse res = doExecute();
+    return new ODataEntitySetStreamResponseImpl(odataClient, httpClient, res);
+  }
+
+  /**
+   * Requests the page announced by a next link.
+   */
+  private ODataEntitySetStreamResponseImpl executeNext(final URI next) {
+    final ODataEntitySetStreamRequestImpl<E> request =
+        new ODataEntitySetStreamRequestImpl<>(odataClient, getURI().resolve(next));
+    for (String name : getHeaderNames()) {
+      request.addCustomHeader(name, getHeader(name));
+    }
+    return new ODataEntitySetStreamResponseImpl(odataClient, request.httpClient, request.doExecute());
+  }
+
+  /**
+   * Response class about an ODataEntitySetStreamRequest.
+   */
+  protected class ODataEntitySetStreamResponseImpl extends AbstractODataRetrieveResponse {
+
+    private EntitySetStream entitySetStream = null;
+
+    private ODataEntitySetStreamResponseImpl(final ODataClient odataClient, final HttpClient httpClient,
+        final HttpResponse res) {
+
+      super(odataClient, httpClient, res);
+    }
+
+    @Override
+    public ClientEntitySetStream<E> getBody() {
+      if (entitySetStream == null) {
+        entitySetStream = new EntitySetStream(this);
+      }
+      return entitySetStream;
+    }
+
+    /**
+     * Opens a reader on the response stream, without buffering it.
+     *
+     * @return page reader; null if the response has no content
+     */
+    private JsonEntitySetPageReader openPage() {
+      if (HttpStatus.SC_NO_CONTENT == getStatusCode() || payload == null) {
+        return null;
+      }
+      final String contentType = getContentType();
+      if (contentType != null && !ContentType.parse(contentType).isCompatible(ContentType.APPLICATION_JSON)) {
+        close();
+        throw new IllegalArgumentException("Unsupported content type for entity set streaming: " + contentType);
+      }
+      try {
+        return new JsonEntitySetPageReader(payload, false);
+      } catch (final IOException e) {
+        close();
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  private class EntitySetStream implements ClientEntitySetStream<E> {
+
+    private ODataEntitySetStreamResponseImpl response;
+
+    private JsonEntitySetPageReader reader;
+
+    private final Integer count;
+
+    private URI deltaLink;
+
+    private ResWrap<Entity> cached;
+
+    private boolean completed = false;
+
+    private EntitySetStream(final ODataEntitySetStreamResponseImpl response) {
+      this.response = response;
+      this.reader = response.openPage();
+      this.count = reader == null ? null : reader.getCount();
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (cached == null && !completed) {
+        try {
+          cached = read();
+        } catch (final IOException e) {
+          close();
+          throw new IllegalStateException(e);
+        }
+      }
+      return cached != null;
+    }
+
+    private ResWrap<Entity> read() throws IOException {
+      while (reader != null) {
+        final ResWrap<Entity> entity = reader.next();
+        if (entity != null) {
+          return entity;
+        }
+        final URI next = reader.getNext();
+        deltaLink = reader.getDeltaLink();
+        closePage();
+        if (next != null) {
+          response = executeNext(next);
+          reader = response.openPage();
+        }
+      }
+      closePage();
+      completed = true;
+      return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final E entity = (E) odataClient.getBinder().getODataEntity(cached);
+      cached = null;
+      return entity;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("Operation not supported.");
+    }
+
+    @Override
+    public Integer getCount() {
+      return count;
+    }
+
+    @Override
+    public URI getDeltaLink() {
+      if (!completed) {
+        throw new IllegalStateException("Iteration must be completed in order to retrieve the delta link");
+      }
+      return deltaLink;
+    }
+
+    @Override
+    public void close() {
+      closePage();
+      completed = true;
+      cached = null;
+    }
+
+    private void closePage() {
+      if (reader != null) {
+        try {
+          reader.close();
+        } catch (final IOException e) {
+          LOG.debug("Unable to close entity set page", e);
+        }
+        reader = null;
+      }
+      if (response != null) {
+        response.close();
+        response = null;
+      }
+    }
+  }
+}
@@ -26,6 +26,7 @@ import org.apache.olingo.client.api.communication.request.retrieve.ODataDeltaReq
 import org.apache.olingo.client.api.communication.request.retrieve.ODataEntityRequest;
 import org.apache.olingo.client.api.communication.request.retrieve.ODataEntitySetIteratorRequest;
 import org.apache.olingo.client.api.communication.request.retrieve.ODataEntitySetRequest;
+import org.apache.olingo.client.api.communication.request.retrieve.ODataEntitySetStreamRequest;
 import org.apache.olingo.client.api.communication.request.retrieve.ODataMediaRequest;
 import org.apache.olingo.client.api.communication.request.retrieve.ODataPropertyRequest;
 import org.apache.olingo.client.api.communication.request.retrieve.ODataRawRequest;
@@ -101,6 +102,11 @@ public class RetrieveRequestFactoryImpl implements RetrieveRequestFactory {
     return new ODataEntitySetIteratorRequestImpl<>(client, uri);
   }
 
+  @Override
+  public ODataEntitySetStreamRequest<ClientEntity> getEntitySetStreamRequest(final URI uri) {
+    return new ODataEntitySetStreamRequestImpl<>(client, uri);
+  }
+
   @Override
   public ODataEntityRequest<ClientSingleton> getSingletonRequest(final URI uri) {
     return new ODataEntityRequestImpl<>(client, uri);
@@ -18,9 +18,19 @@
  */
 package org.apache.olingo.client.core.communication.request.retrieve;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpUriRequest;
@@ -34,7 +44,9 @@ import org.apache.olingo.client.api.edm.xml.XMLMetadata;
 import org.apache.olingo.commons.api.edm.provider.CsdlAnnotation;
 import org.apache.olingo.commons.api.edm.provider.CsdlAnnotations;
 import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
 
 public class XMLMetadataRequestImpl
@@ -68,9 +80,10 @@ public class XMLMetadataRequestImpl
       return rootRes;
     }
     final XMLMetadataResponseImpl response =
-        new XMLMetadataResponseImpl(odataClient, httpClient, rootReq.getHttpResponse(), rootRes.getBody());
+        new XMLMetadataResponseImpl(odataClient, httpClient, rootReq.getHttpResponse(), rootRes);
 
-    // process external references
+    // fetch external references concurrently, then process them in document order
+    final List<FutureTask<XMLMetadata>> includeTasks = new ArrayList<>();
     for (Reference reference : rootRes.getBody().getReferences()) {
       final SingleXMLMetadatRequestImpl includeReq = new SingleXMLMetadatRequestImpl(
           odataClient,
@@ -79,7 +92,19 @@ public class XMLMetadataRequestImpl
       for(String key : rootReq.getHeaderNames()){
          includeReq.addCustomHeader(key ,rootReq.getHeader(key));
       }
-      final XMLMetadata includeMetadata = includeReq.execute().getBody();
+      final FutureTask<XMLMetadata> includeTask = new FutureTask<>(new Callable<XMLMetadata>() {
+        @Override
+        public XMLMetadata call() {
+          return includeReq.execute().getBody();
+        }
+      });
+      includeTasks.add(includeTask);
+      odataClient.getConfiguration().getExecutor().execute(includeTask);
+    }
+
+    final Iterator<FutureTask<XMLMetadata>> includeTaskIterator = includeTasks.iterator();
+    for (Reference reference : rootRes.getBody().getReferences()) {
+      final XMLMetadata includeMetadata = getIncludeMetadata(includeTaskIterator.next());
 
       // edmx:Include
       for (Include include : reference.getIncludes()) {
@@ -133,6 +158,24 @@ public class XMLMetadataRequestImpl
     return response;
   }
 
+  private static XMLMetadata getIncludeMetadata(final FutureTask<XMLMetadata> includeTask) {
+    // runs the task in the calling thread if no executor thread has picked it up yet
+    includeTask.run();
+    try {
+      return includeTask.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ODataRuntimeException(e);
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      } else if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new ODataRuntimeException(e);
+    }
+  }
+
   private class SingleXMLMetadatRequestImpl extends AbstractMetadataRequestImpl<XMLMetadata> {
 
     private HttpResponse httpResponse;
@@ -152,7 +195,27 @@ public class XMLMetadataRequestImpl
 
     @Override
     public ODataRetrieveResponse<XMLMetadata> execute() {
-      httpResponse = doExecute();
+      final File cacheDirectory = odataClient.getConfiguration().getMetadataCacheDirectory();
+      final MetadataCache cache = cacheDirectory == null ? null : new MetadataCache(cacheDirectory);
+      final String cachedETag = cache == null || getIfNoneMatch() != null ? null : cache.getETag(uri);
+      if (cachedETag != null) {
+        setIfNoneMatch(cachedETag);
+      }
+      try {
+        httpResponse = doExecute();
+      } finally {
+        if (cachedETag != null) {
+          // the validator belongs to this document only and must not be copied to the references
+          odataHeaders.removeHeader(HttpHeader.IF_NONE_MATCH);
+        }
+      }
+
+      if (cachedETag != null
+          && httpResponse.getStatusLine().getStatusCode() == HttpStatusCode.NOT_MODIFIED.getStatusCode()) {
+        return new CachedXMLMetadataResponse(odataClient, httpClient, httpResponse, cache, uri);
+      }
+      final Header etag = cache == null ? null : httpResponse.getFirstHeader(HttpHeader.ETAG);
+
       return new AbstractODataRetrieveResponse(odataClient, httpClient, httpResponse) {
 
         private XMLMetadata metadata = null;
@@ -161,6 +224,13 @@ public class XMLMetadataRequestImpl
         public XMLMetadata getBody() {
           if (metadata == null) {
             try {
+              if (etag != null && getStatusCode() == HttpStatusCode.OK.getStatusCode()) {
+                try {
+                  cache.write(uri, etag.getValue(), getRawResponse());
+                } catch (final IOException e) {
+                  LOG.warn("Unable to cache metadata document {}", uri, e);
+                }
+              }
               metadata = odataClient.getDeserializer(ContentType.APPLICATION_XML).toMetadata(getRawResponse());
             } finally {
               this.close();
@@ -172,16 +242,55 @@ public class XMLMetadataRequestImpl
     }
   }
 
+  /**
+   * Response to a successful revalidation, with the body read from the metadata cache.
+   */
+  private class CachedXMLMetadataResponse extends AbstractODataRetrieveResponse {
+
+    private final MetadataCache cache;
+
+    private final URI uri;
+
+    private XMLMetadata metadata = null;
+
+    private CachedXMLMetadataResponse(final ODataClient odataClient, final HttpClient httpClient,
+        final HttpResponse res, final MetadataCache cache, final URI uri) {
+
+      super(odataClient, httpClient, res);
+      this.cache = cache;
+      this.uri = uri;
+      statusCode = HttpStatusCode.OK.getStatusCode();
+      statusMessage = HttpStatusCode.OK.getInfo();
+    }
+
+    @Override
+    public XMLMetadata getBody() {
+      if (metadata == null) {
+        try (InputStream input = cache.read(uri)) {
+          metadata = odataClient.getDeserializer(ContentType.APPLICATION_XML).toMetadata(input);
+        } catch (final IOException e) {
+          throw new ODataRuntimeException("Unable to read cached metadata document " + uri, e);
+        } finally {
+          this.close();
+        }
+      }
+      return metadata;
+    }
+  }
+
   private class XMLMetadataResponseImpl extends AbstractODataRetrieveResponse {
 
     private final XMLMetadata metadata;
 
     private XMLMetadataResponseImpl(final ODataClient odataClient, final HttpClient httpClient,
-        final HttpResponse res, final XMLMetadata metadata) {
+        final HttpResponse res, final ODataRetrieveResponse<XMLMetadata> rootRes) {
 
       super(odataClient, httpClient, null);
       initFromHttpResponse(res);
-      this.metadata = metadata;
+      // the root response may have been answered from the metadata cache
+      statusCode = rootRes.getStatusCode();
+      statusMessage = rootRes.getStatusMessage();
+      this.metadata = rootRes.getBody();
     }
 
     @Override
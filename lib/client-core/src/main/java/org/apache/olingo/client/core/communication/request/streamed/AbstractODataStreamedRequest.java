@@ -27,8 +27,14 @@ import java.util.concurrent.Future;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
 import org.apache.olingo.client.api.ODataBatchConstants;
 import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.client.api.communication.request.ODataPayloadManager;
@@ -37,7 +43,9 @@ import org.apache.olingo.client.api.communication.request.ODataStreamer;
 import org.apache.olingo.client.api.communication.request.batch.ODataBatchRequest;
 import org.apache.olingo.client.api.communication.response.ODataResponse;
 import org.apache.olingo.client.core.communication.request.AbstractODataRequest;
+import org.apache.olingo.client.core.communication.request.DeferredTask;
 import org.apache.olingo.client.core.communication.request.Wrapper;
+import org.apache.olingo.client.core.communication.util.PipedOutputStream;
 import org.apache.olingo.client.core.uri.URIUtils;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.api.http.HttpMethod;
@@ -99,39 +107,76 @@ public abstract class AbstractODataStreamedRequest<V extends ODataResponse, T ex
   public T payloadManager() {
     payloadManager = getPayloadManager();
 
-    if (URIUtils.shouldUseRepeatableHttpBodyEntry(odataClient)) {
-      futureWrapper.setWrapped(odataClient.getConfiguration().getExecutor().submit(new Callable<HttpResponse>() {
-        @Override
-        public HttpResponse call() throws Exception { //NOSONAR
-          ((HttpEntityEnclosingRequestBase) request).setEntity(
-                  URIUtils.buildInputStreamEntity(odataClient, payloadManager.getBody()));
-          try {
-            return doExecute();
-          } finally {
-            payloadManager.finalizeBody();
+    // the request is executed by the thread asking for the response, or on the executor if asked asynchronously
+    futureWrapper.setWrapped(new DeferredTask<>(new Callable<HttpResponse>() {
+      @Override
+      public HttpResponse call() throws Exception { //NOSONAR
+        ((HttpEntityEnclosingRequestBase) request).setEntity(buildEntity());
+        applyTimeout(((DeferredTask<HttpResponse>) futureWrapper.getWrapped()).getTimeoutMillis());
+        try {
+          return doExecute();
+        } finally {
+          payloadManager.finalizeBody();
+          if (payloadManager.getBodyStreamWriter() instanceof PipedOutputStream) {
+            ((PipedOutputStream) payloadManager.getBodyStreamWriter()).discard();
           }
         }
-      }));
-    } else {
-      ((HttpEntityEnclosingRequestBase) request).setEntity(
-              URIUtils.buildInputStreamEntity(odataClient, payloadManager.getBody()));
-
-      futureWrapper.setWrapped(odataClient.getConfiguration().getExecutor().submit(new Callable<HttpResponse>() {
-        @Override
-        public HttpResponse call() throws Exception { //NOSONAR
-          try {
-            return doExecute();
-          } finally {
-            payloadManager.finalizeBody();
-          }
-        }
-      }));
-    }
+      }
+    }, odataClient.getConfiguration().getExecutor()));
 
     // returns the stream manager object
     return (T) payloadManager;
   }
 
+  /**
+   * Limits connecting, waiting for a pooled connection and waiting for data to the given timeout.
+   * The request configuration replaces the default one of the HTTP client, so it is based on the request's own
+   * configuration or else on the configured connection request timeout.
+   * HTTP clients not built by <code>HttpClientBuilder</code>, like the one of {@link
+   * org.apache.olingo.client.core.http.DefaultHttpClientFactory}, read the timeouts from the request parameters.
+   *
+   * @param timeoutMillis timeout in milliseconds; not positive for no limit.
+   */
+  @SuppressWarnings("deprecation")
+  private void applyTimeout(final long timeoutMillis) {
+    if (timeoutMillis <= 0 || !(request instanceof HttpRequestBase)) {
+      return;
+    }
+    final HttpRequestBase base = (HttpRequestBase) request;
+    final RequestConfig config = base.getConfig() == null ?
+        RequestConfig.custom()
+            .setConnectionRequestTimeout(odataClient.getConfiguration().getConnectionRequestTimeout()).build() :
+        base.getConfig();
+    final int timeout = (int) Math.min(timeoutMillis, Integer.MAX_VALUE);
+    base.setConfig(RequestConfig.copy(config)
+        .setConnectTimeout(limit(config.getConnectTimeout(), timeout))
+        .setConnectionRequestTimeout(limit(config.getConnectionRequestTimeout(), timeout))
+        .setSocketTimeout(limit(config.getSocketTimeout(), timeout))
+        .build());
+
+    final HttpParams params = base.getParams();
+    HttpConnectionParams.setConnectionTimeout(params,
+        limit(HttpConnectionParams.getConnectionTimeout(params), timeout));
+    HttpConnectionParams.setSoTimeout(params, limit(HttpConnectionParams.getSoTimeout(params), timeout));
+  }
+
+  private static int limit(final int current, final int timeout) {
+    return current > 0 ? Math.min(current, timeout) : timeout;
+  }
+
+  /**
+   * Builds the request entity: a payload written via the body stream writer is written directly to the connection,
+   * an input stream payload is sent as configured.
+   */
+  private HttpEntity buildEntity() {
+    if (payloadManager.getBodyStreamWriter() instanceof PipedOutputStream) {
+      final AbstractHttpEntity entity = ((PipedOutputStream) payloadManager.getBodyStreamWriter()).getEntity();
+      entity.setChunked(odataClient.getConfiguration().isUseChuncked());
+      return entity;
+    }
+    return URIUtils.buildInputStreamEntity(odataClient, payloadManager.getBody());
+  }
+
   /**
    * Writes (and consume) the request onto the given batch stream.
    * <p>
@@ -38,9 +38,6 @@ import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.client.api.communication.request.batch.ODataBatchLineIterator;
 import org.apache.olingo.client.api.communication.response.ODataResponse;
 import org.apache.olingo.client.api.http.NoContentException;
-import org.apache.olingo.client.core.ConfigurationImpl;
-import org.apache.olingo.client.core.communication.util.PipedInputStream;
-import org.apache.olingo.client.core.communication.util.PipedOutputStream;
 import org.apache.olingo.client.core.communication.request.batch.ODataBatchController;
 import org.apache.olingo.client.core.communication.request.batch.ODataBatchLineIteratorImpl;
 import org.apache.olingo.client.core.communication.request.batch.ODataBatchUtilities;
@@ -273,30 +270,12 @@ public abstract class AbstractODataResponse implements ODataResponse {
     }
 
     if (payload == null && batchInfo != null && batchInfo.isValidBatch()) {
-      // get input stream till the end of item
-      payload = new PipedInputStream(null);
-
-      try {
-        final PipedOutputStream os = new PipedOutputStream((PipedInputStream) payload,
-                ConfigurationImpl.DEFAULT_BUFFER_SIZE);
-
-        new Thread(new Runnable() {
-          @Override
-          public void run() {
-            try {
-              ODataBatchUtilities.readBatchPart(batchInfo, os, true);
-            } catch (Exception e) {
-              LOG.error("Error streaming batch item payload", e);
-            } finally {
-              IOUtils.closeQuietly(os);
-            }
-          }
-        }).start();
-      } catch (Exception e) {
-        LOG.error("Error streaming payload response", e);
-        throw new IllegalStateException(e);
-      }
-    } else if (payload != null) {
+      // read the item in the calling thread: the batch response is consumed item after item anyway
+      final ByteArrayOutputStream item = new ByteArrayOutputStream();
+      ODataBatchUtilities.readBatchPart(batchInfo, item, true);
+      payload = new ByteArrayInputStream(item.toByteArray());
+    }
+    if (payload != null) {
       ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
       try {
         org.apache.commons.io.IOUtils.copy(payload, byteArrayOutputStream);
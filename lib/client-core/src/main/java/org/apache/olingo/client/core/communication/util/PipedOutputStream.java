@@ -18,170 +18,282 @@
  */
 package org.apache.olingo.client.core.communication.util;
 
-import org.apache.olingo.client.core.ConfigurationImpl;
-
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.http.entity.AbstractHttpEntity;
 
 /**
- * This class is equivalent to <code>java.io.PipedOutputStream</code>. In the
- * interface it only adds a constructor which allows for specifying the buffer
- * size. Its implementation, however, is much simpler and a lot more efficient
- * than its equivalent. It doesn't rely on polling. Instead it uses proper
- * synchronization with its counterpart <code>be.re.io.PipedInputStream</code>.
- *
- * Multiple writers can write in this stream concurrently. The block written by
- * a writer is put in completely. Other writers can't come in between.
- * 
- * @author WD
+ * Body of a streamed request.
+ * <br/>
+ * This class extends <code>java.io.PipedOutputStream</code> since that is the type through which the request body is
+ * exposed, but it is never connected to an input stream: the written content is kept and written straight to the
+ * HTTP connection by the thread executing the request, see {@link #getEntity()}. So no second thread is needed to
+ * feed the request body, and writers never wait for the HTTP exchange.
+ * <br/>
+ * The content is kept in memory up to the memory threshold given at construction time; as soon as more is written,
+ * all content is moved to a temporary file. {@link #discard()} deletes that file once the request has been sent.
+ * <br/>
+ * Multiple writers can write in this stream concurrently. The block written by a writer is put in completely. Other
+ * writers can't come in between.
  */
 public class PipedOutputStream extends java.io.PipedOutputStream {
 
-  PipedInputStream sink;
+  private static final int BLOCK_SIZE = 8 * 1024;
+
+  private final int memoryThreshold;
+
+  private final List<byte[]> blocks = new ArrayList<>();
+
+  private int position;
+
+  private File file;
+
+  private OutputStream fileOutput;
+
+  private volatile long written;
+
+  private volatile boolean closed;
 
   /**
-   * Creates an unconnected PipedOutputStream.
+   * Creates a stream keeping all content in memory.
    */
-
-  protected PipedOutputStream() {
-    this(null);
+  public PipedOutputStream() {
+    this(0);
   }
 
   /**
-   * Creates a PipedOutputStream with a default buffer size and connects it to
-   * <code>sink</code>.
-   * 
+   * Creates a stream moving its content to a temporary file when it exceeds the given size.
+   *
+   * @param memoryThreshold maximum number of bytes kept in memory; not positive to keep all content in memory.
    */
-  public PipedOutputStream(PipedInputStream sink) {
-    this(sink, ConfigurationImpl.DEFAULT_BUFFER_SIZE);
+  public PipedOutputStream(final int memoryThreshold) {
+    this.memoryThreshold = memoryThreshold;
   }
 
   /**
-   * Creates a PipedOutputStream with buffer size <code>bufferSize</code> and
-   * connects it to <code>sink</code>.
-   * 
+   * @exception IOException
+   * This stream cannot be connected.
    */
-  public PipedOutputStream(PipedInputStream sink, int bufferSize) {
-    if (sink != null) {
-      try {
-        connect(sink);
-      } catch (Exception e) {
-        throw new RuntimeException(e);
-      }
-      sink.buffer = new byte[bufferSize];
-    }
+  @Override
+  public void connect(final java.io.PipedInputStream sink) throws IOException {
+    throw new IOException("Request body streams cannot be connected");
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    write(new byte[] { (byte) b }, 0, 1);
+  }
+
+  @Override
+  public void write(final byte[] b) throws IOException {
+    write(b, 0, b.length);
   }
 
   /**
    * @exception IOException
-   * The pipe is not connected.
+   * The stream has been closed or the temporary file cannot be written.
    */
-  public void close() throws IOException {
-    if (sink == null) {
-      throw new IOException("Unconnected pipe");
+  @Override
+  public synchronized void write(final byte[] b, final int off, final int len) throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
     }
 
-    synchronized (sink.sync) {
-      sink.closed = true;
-      flush();
+    if (file == null && memoryThreshold > 0 && written + len > memoryThreshold) {
+      spill();
+    }
+    if (file == null) {
+      writeToMemory(b, off, len);
+    } else {
+      fileOutput.write(b, off, len);
+    }
+    written += len;
+  }
+
+  private void writeToMemory(final byte[] b, final int off, final int len) {
+    int offset = off;
+    int remaining = len;
+    while (remaining > 0) {
+      byte[] block = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+      if (block == null || position == block.length) {
+        block = new byte[Math.max(BLOCK_SIZE, remaining)];
+        blocks.add(block);
+        position = 0;
+      }
+
+      final int amount = Math.min(remaining, block.length - position);
+      System.arraycopy(b, offset, block, position, amount);
+      position += amount;
+      offset += amount;
+      remaining -= amount;
     }
   }
 
   /**
-   * @exception IOException
-   * The pipe is already connected.
+   * Moves the content written so far to a temporary file, which receives all further content.
    */
-
-  public void connect(PipedInputStream sink) throws IOException {
-    if (this.sink != null) {
-      throw new IOException("Pipe already connected");
+  private void spill() throws IOException {
+    file = File.createTempFile("olingo-request", ".tmp");
+    try {
+      fileOutput = new BufferedOutputStream(new FileOutputStream(file), BLOCK_SIZE);
+      writeBlocksTo(fileOutput);
+    } catch (IOException e) {
+      discard();
+      throw e;
     }
+    blocks.clear();
+    position = 0;
+  }
 
-    this.sink = sink;
-    sink.source = this;
+  @Override
+  public void flush() {
+    // nothing to flush: the content is written to the connection by the request execution
   }
 
-  public void flush() throws IOException {
-    synchronized (sink.sync) {
-      // Release all readers.
-      sink.sync.notifyAll();
+  /**
+   * Closes this stream; the written content is kept.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    closed = true;
+    if (fileOutput != null) {
+      fileOutput.close();
+      fileOutput = null;
     }
   }
 
-  public void write(int b) throws IOException {
-    write(new byte[] { (byte) b });
+  /**
+   * Closes this stream and releases the written content, deleting the temporary file if there is one.
+   * The content is not available afterwards.
+   */
+  public synchronized void discard() {
+    closed = true;
+    blocks.clear();
+    position = 0;
+    if (fileOutput != null) {
+      try {
+        fileOutput.close();
+      } catch (IOException e) {
+        // the file is deleted anyway
+      }
+      fileOutput = null;
+    }
+    if (file != null) {
+      file.delete();
+      file = null;
+    }
   }
 
-  public void write(byte[] b) throws IOException {
-    write(b, 0, b.length);
+  /**
+   * Gets the number of bytes written so far into this stream.
+   *
+   * @return number of bytes written.
+   */
+  public long getWrittenBytes() {
+    return written;
   }
 
   /**
-   * @exception IOException
-   * The pipe is not connected or a reader has closed it.
+   * Checks whether the content has been moved to a temporary file.
+   *
+   * @return whether the content is kept in a temporary file.
    */
+  public synchronized boolean isSpilled() {
+    return file != null;
+  }
 
-  public void write(byte[] b, int off, int len) throws IOException {
-    if (sink == null) {
-      throw new IOException("Unconnected pipe");
+  /**
+   * Writes the content written so far to the given stream.
+   *
+   * @param out destination stream.
+   * @throws IOException if the content cannot be written.
+   */
+  public synchronized void writeTo(final OutputStream out) throws IOException {
+    if (file == null) {
+      writeBlocksTo(out);
+    } else {
+      if (fileOutput != null) {
+        fileOutput.flush();
+      }
+      Files.copy(file.toPath(), out);
     }
+  }
 
-    if (sink.closed) {
-      throw new IOException("Broken pipe");
+  private void writeBlocksTo(final OutputStream out) throws IOException {
+    for (int i = 0; i < blocks.size(); i++) {
+      out.write(blocks.get(i), 0, i == blocks.size() - 1 ? position : blocks.get(i).length);
     }
+  }
 
-    synchronized (sink.sync) {
-      if (sink.writePosition == sink.readPosition
-          && sink.writeLaps > sink.readLaps) {
-        // The circular buffer is full, so wait for some reader to
-        // consume something.
-        try {
-          // when the reader has read all data till the write position and goes to wait,
-          // and the writer consumes data greater than the buffer size, writer goes into wait
-          // leading to deadlock. notifying the reader to resume reading so the reader reads
-          // from readIndex -> end of buffer & start of buffer -> writeIndex and notifies writer
-          sink.sync.notifyAll();
-          sink.sync.wait();
-        } catch (InterruptedException e) {
-          throw new IOException(e.getMessage());
+  /**
+   * Gets the content written so far as input stream.
+   *
+   * @return input stream.
+   */
+  public synchronized InputStream getInputStream() {
+    if (file != null) {
+      try {
+        if (fileOutput != null) {
+          fileOutput.flush();
         }
+        return new FileInputStream(file);
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    final List<InputStream> inputs = new ArrayList<>(blocks.size());
+    for (int i = 0; i < blocks.size(); i++) {
+      inputs.add(new ByteArrayInputStream(blocks.get(i), 0, i == blocks.size() - 1 ? position : blocks.get(i).length));
+    }
+    return new SequenceInputStream(Collections.enumeration(inputs));
+  }
 
-        // Try again.
+  /**
+   * Gets an HTTP entity writing the content of this stream directly to the connection.
+   * The entity is repeatable, so the request can be retried, e.g., after an authentication challenge.
+   *
+   * @return HTTP entity.
+   */
+  public AbstractHttpEntity getEntity() {
+    return new AbstractHttpEntity() {
 
-        write(b, off, len);
+      @Override
+      public boolean isRepeatable() {
+        return true;
+      }
 
-        return;
+      @Override
+      public long getContentLength() {
+        return written;
       }
 
-      // Don't write more than the capacity indicated by len or the space
-      // available in the circular buffer.
-
-      int amount = Math.min(len,
-                  (sink.writePosition < sink.readPosition
-                      ? sink.readPosition
-                      : sink.buffer.length)
-                      - sink.writePosition);
-
-      System.arraycopy(
-              b,
-              off,
-              sink.buffer,
-              sink.writePosition,
-              amount);
-      sink.writePosition += amount;
-
-      if (sink.writePosition == sink.buffer.length) {
-        sink.writePosition = 0;
-        ++sink.writeLaps;
+      @Override
+      public InputStream getContent() {
+        return getInputStream();
       }
 
-      // The buffer is only released when the complete desired block was
-      // written.
-      if (amount < len) {
-        write(b, off + amount, len - amount);
-      } else {
-        sink.sync.notifyAll();
+      @Override
+      public void writeTo(final OutputStream out) throws IOException {
+        PipedOutputStream.this.writeTo(out);
+        out.flush();
       }
-    }
-  }
 
-}
\ No newline at end of file
+      @Override
+      public boolean isStreaming() {
+        return false;
+      }
+    };
+  }
+}
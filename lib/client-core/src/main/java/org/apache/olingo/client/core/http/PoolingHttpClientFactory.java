@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.olingo.client.api.Configuration;
+import org.apache.olingo.commons.api.http.HttpMethod;
+
+/**
+ * HTTP client factory keeping connections alive between requests.
+ * <br/>
+ * All requests share one HTTP client backed by a {@link PoolingHttpClientConnectionManager}, so subsequent calls to
+ * the same service reuse open connections instead of paying TCP setup and TLS handshake again.
+ * Pool limits, keep-alive, idle eviction and stale connection check are taken from the given {@link Configuration}
+ * when the first HTTP client is requested; later changes to these settings have no effect.
+ * <br/>
+ * Subclasses can customize the client (e.g. credentials or proxy) by overriding {@link #configure(HttpClientBuilder)}.
+ * Call {@link #close()} to shut the connection pool down once the factory is no longer needed.
+ * <br/>
+ * A connection is leased until the response has been consumed or closed, so callers have to do this for every
+ * response. A request waiting for a connection fails with a <tt>ConnectionPoolTimeoutException</tt> after the
+ * configured connection request timeout instead of blocking forever.
+ * <br/>
+ * The factory is not used by default; enable it via
+ * <tt>configuration.setHttpClientFactory(new PoolingHttpClientFactory(configuration))</tt>.
+ */
+public class PoolingHttpClientFactory extends AbstractHttpClientFactory implements Closeable {
+
+  private final Configuration configuration;
+
+  private PoolingHttpClientConnectionManager connectionManager;
+
+  private CloseableHttpClient httpClient;
+
+  public PoolingHttpClientFactory(final Configuration configuration) {
+    this.configuration = configuration;
+  }
+
+  @Override
+  public synchronized HttpClient create(final HttpMethod method, final URI uri) {
+    if (httpClient == null) {
+      connectionManager = new PoolingHttpClientConnectionManager();
+      connectionManager.setMaxTotal(configuration.getMaxConnections());
+      connectionManager.setDefaultMaxPerRoute(configuration.getMaxConnectionsPerRoute());
+      connectionManager.setValidateAfterInactivity(configuration.getConnectionValidateAfterInactivity());
+
+      final HttpClientBuilder builder = HttpClients.custom()
+          .setConnectionManager(connectionManager)
+          .setUserAgent(USER_AGENT)
+          .setKeepAliveStrategy(new KeepAliveStrategy(configuration.getConnectionKeepAlive()))
+          .setDefaultRequestConfig(RequestConfig.custom()
+              .setConnectionRequestTimeout(configuration.getConnectionRequestTimeout()).build())
+          .evictExpiredConnections();
+      if (configuration.getConnectionIdleTimeout() > 0) {
+        builder.evictIdleConnections(configuration.getConnectionIdleTimeout(), TimeUnit.MILLISECONDS);
+      }
+      configure(builder);
+      httpClient = builder.build();
+    }
+    return httpClient;
+  }
+
+  /**
+   * Hook for subclasses to customize the HTTP client before it is built.
+   *
+   * @param builder HTTP client builder already set up with the pooling connection manager
+   */
+  protected void configure(final HttpClientBuilder builder) {
+    // nothing to customize by default
+  }
+
+  /**
+   * Connections stay in the pool: they are released when the response has been consumed or closed.
+   */
+  @Override
+  public void close(final HttpClient httpClient) {
+    // the shared client is only closed together with the factory
+  }
+
+  /**
+   * Shuts the connection pool down; the next request will create a new one.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (httpClient != null) {
+      try {
+        httpClient.close();
+      } finally {
+        httpClient = null;
+        connectionManager = null;
+      }
+    }
+  }
+
+  /**
+   * Gets the statistics of the whole connection pool: leased, available and pending connections and the maximum.
+   *
+   * @return pool statistics; <tt>null</tt> if no HTTP client has been created yet
+   */
+  public synchronized PoolStats getTotalStats() {
+    return connectionManager == null ? null : connectionManager.getTotalStats();
+  }
+
+  /**
+   * Gets the statistics of the connection pool for one route.
+   *
+   * @param route HTTP route
+   * @return pool statistics of the route; <tt>null</tt> if no HTTP client has been created yet
+   */
+  public synchronized PoolStats getStats(final HttpRoute route) {
+    return connectionManager == null ? null : connectionManager.getStats(route);
+  }
+
+  /**
+   * Honors the <tt>Keep-Alive</tt> timeout sent by the server and uses the configured duration otherwise.
+   */
+  private static class KeepAliveStrategy implements ConnectionKeepAliveStrategy {
+
+    private final long defaultKeepAlive;
+
+    KeepAliveStrategy(final long defaultKeepAlive) {
+      this.defaultKeepAlive = defaultKeepAlive;
+    }
+
+    @Override
+    public long getKeepAliveDuration(final HttpResponse response, final HttpContext context) {
+      final long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+      return duration > 0 ? duration : defaultKeepAlive;
+    }
+  }
+}
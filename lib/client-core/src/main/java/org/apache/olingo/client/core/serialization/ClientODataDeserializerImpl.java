@@ -18,16 +18,12 @@
  */
 package org.apache.olingo.client.core.serialization;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 
 import org.apache.olingo.client.api.data.ResWrap;
@@ -49,12 +45,6 @@ import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
 import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
 import org.apache.olingo.commons.api.ex.ODataError;
 import org.apache.olingo.commons.api.format.ContentType;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 import com.fasterxml.aalto.stax.InputFactoryImpl;
 import com.fasterxml.aalto.stax.OutputFactoryImpl;
@@ -67,13 +57,15 @@ import com.fasterxml.jackson.dataformat.xml.JacksonXmlModule;
 import com.fasterxml.jackson.dataformat.xml.XmlFactory;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fasterxml.jackson.dataformat.xml.deser.FromXmlParser;
+import org.codehaus.stax2.XMLStreamReader2;
+import org.codehaus.stax2.util.StreamReader2Delegate;
 
 public class ClientODataDeserializerImpl implements ClientODataDeserializer {
 
   private final ODataDeserializer deserializer;
   private final ContentType contentType;
   private static final String SCHEMA = "Schema";
-  private static final String XMLNS = "xmlns";
+  private static final XmlMapper XML_MAPPER = newXmlMapper();
 
   public ClientODataDeserializerImpl(final boolean serverMode, final ContentType contentType) {
     this.contentType = contentType;
@@ -106,7 +98,7 @@ public class ClientODataDeserializerImpl implements ClientODataDeserializer {
     return deserializer.toError(input);
   }
 
-  protected XmlMapper getXmlMapper() {
+  private static XmlMapper newXmlMapper() {
     final XmlMapper xmlMapper = new XmlMapper(
         new XmlFactory(new InputFactoryImpl(), new OutputFactoryImpl()), new JacksonXmlModule());
 
@@ -128,77 +120,64 @@ public class ClientODataDeserializerImpl implements ClientODataDeserializer {
     return xmlMapper;
   }
 
+  /**
+   * Returns the mapper for CSDL documents.
+   * The mapper is fully configured once and shared, since building it and its deserializers is expensive.
+   */
+  protected XmlMapper getXmlMapper() {
+    return XML_MAPPER;
+  }
+
   @Override
   public XMLMetadata toMetadata(final InputStream input) {
     try {
-    	
-    	ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-    	org.apache.commons.io.IOUtils.copy(input, byteArrayOutputStream);
-    	// copy the content of input stream to reuse it
-    	byte[] inputContent = byteArrayOutputStream.toByteArray();
-    	
-    	InputStream inputStream1 = new ByteArrayInputStream(inputContent);
-    	Edmx edmx = getXmlMapper().readValue(inputStream1, ClientCsdlEdmx.class);
-    	
-    	InputStream inputStream2 = new ByteArrayInputStream(inputContent);
-    	List<List<String>> schemaNameSpaces = getAllSchemaNameSpace(inputStream2);
- 
-      return new ClientCsdlXMLMetadata(edmx,schemaNameSpaces);
+      // a single pass: the schema namespaces are collected while the mapper reads the document
+      final SchemaNamespaceCollector reader = new SchemaNamespaceCollector((XMLStreamReader2)
+          getXmlMapper().getFactory().getXMLInputFactory().createXMLStreamReader(input));
+      final Edmx edmx = getXmlMapper().readValue(reader, ClientCsdlEdmx.class);
+      return new ClientCsdlXMLMetadata(edmx, reader.getSchemaNamespaces());
     } catch (Exception e) {
       throw new IllegalArgumentException("Could not parse as Edmx document", e);
     }
   }
 
-	private List<List<String>> getAllSchemaNameSpace(InputStream inputStream)
-			throws ParserConfigurationException, SAXException, IOException{
-		List<List<String>> schemaNameSpaces = new ArrayList <>();
-		
-		DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-		dbFactory.setFeature(
-	                "http://xml.org/sax/features/namespaces", true);
-		dbFactory.setFeature(
-	                "http://apache.org/xml/features/validation/schema",
-	                false);
-		dbFactory.setFeature(
-	                "http://apache.org/xml/features/validation/schema-full-checking",
-	                true);
-		dbFactory.setFeature(
-	                "http://xml.org/sax/features/external-general-entities",
-	                false);
-		dbFactory.setFeature(
-	                "http://xml.org/sax/features/external-parameter-entities",
-	                false);
-		dbFactory.setFeature(
-	                "http://apache.org/xml/features/disallow-doctype-decl",
-	                true);
-		dbFactory.setFeature(
-	                "http://javax.xml.XMLConstants/feature/secure-processing",
-	                true);
-		
-		DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-		Document doc = dBuilder.parse(inputStream);
-		doc.getDocumentElement().normalize();
-		NodeList nList = doc.getElementsByTagName(SCHEMA);
-		
-		for (int temp = 0; temp < nList.getLength(); temp++) {
-			Node nNode = nList.item(temp);
-			List<String> nameSpaces = new ArrayList <>();
-			if (nNode.getNodeType() == Node.ELEMENT_NODE) {
-				Element eElement = (Element) nNode;
-				NamedNodeMap attributes = eElement.getAttributes();
-				int len = attributes.getLength();
-				for(int i =0;i<len;i++){
-					// check for all atributes begining with name xmlns or xmlns:
-					String attrName = attributes.item(i).getNodeName();
-					if( XMLNS.equals(attrName) || attrName.startsWith(XMLNS+":")){
-						nameSpaces.add(attributes.item(i).getNodeValue());
-					}
-				}
-			}
-			schemaNameSpaces.add(nameSpaces);
-		}
-	return schemaNameSpaces;
-	}
+  /**
+   * Stream reader collecting the namespaces declared on each <code>Schema</code> element.
+   */
+  private static class SchemaNamespaceCollector extends StreamReader2Delegate {
+
+    private final List<List<String>> schemaNamespaces = new ArrayList<>();
+
+    SchemaNamespaceCollector(final XMLStreamReader2 reader) {
+      super(reader);
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+      return collect(super.next());
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+      return collect(super.nextTag());
+    }
+
+    private int collect(final int event) {
+      if (event == XMLStreamConstants.START_ELEMENT && SCHEMA.equals(getLocalName())
+          && (getPrefix() == null || getPrefix().isEmpty())) {
+        final List<String> namespaces = new ArrayList<>();
+        for (int i = 0; i < getNamespaceCount(); i++) {
+          namespaces.add(getNamespaceURI(i));
+        }
+        schemaNamespaces.add(namespaces);
+      }
+      return event;
+    }
+
+    List<List<String>> getSchemaNamespaces() {
+      return schemaNamespaces;
+    }
+  }
 
   @Override
   public ResWrap<ServiceDocument> toServiceDocument(final InputStream input) throws ODataDeserializerException {
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.serialization;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+import org.apache.olingo.client.api.data.ResWrap;
+import org.apache.olingo.commons.api.Constants;
+import org.apache.olingo.commons.api.data.Entity;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads one page of a JSON entity set, pulling entities out of the <tt>value</tt> array one at a time.
+ * <br/>
+ * Control information preceding the array (context, metadata ETag, count, next and delta links) is available as
+ * soon as the reader is created; control information following the array only once {@link #next()} returned
+ * <tt>null</tt>. Any other entity set field is skipped.
+ */
+public class JsonEntitySetPageReader implements Closeable {
+
+  private final JsonParser parser;
+
+  private final JsonEntityDeserializer entityDeserializer;
+
+  private URI contextURL;
+
+  private String metadataETag;
+
+  private Integer count;
+
+  private URI next;
+
+  private URI deltaLink;
+
+  private boolean inValue = false;
+
+  public JsonEntitySetPageReader(final InputStream input, final boolean serverMode) throws IOException {
+    parser = new JsonFactory(new ObjectMapper()).createParser(input);
+    entityDeserializer = new JsonEntityDeserializer(serverMode);
+
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new JsonParseException(parser, "Expected OData EntitySet", parser.getCurrentLocation());
+    }
+    readControlInformation();
+  }
+
+  /**
+   * Reads the next entity of this page.
+   *
+   * @return next entity, or <tt>null</tt> if the page has been completely read
+   * @throws IOException in case of read or parse errors
+   */
+  public ResWrap<Entity> next() throws IOException {
+    if (!inValue) {
+      return null;
+    }
+    final JsonToken token = parser.nextToken();
+    if (token == JsonToken.START_OBJECT) {
+      return new ResWrap<>(contextURL, metadataETag, entityDeserializer.doDeserialize(parser).getPayload());
+    } else if (token == JsonToken.END_ARRAY) {
+      inValue = false;
+      readControlInformation();
+      return null;
+    } else {
+      throw new JsonParseException(parser, "Expected OData Entity, found " + token, parser.getCurrentLocation());
+    }
+  }
+
+  /**
+   * Reads entity set fields up to the start of the value array or to the end of the entity set.
+   */
+  private void readControlInformation() throws IOException {
+    JsonToken token;
+    while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+      final String name = parser.getCurrentName();
+      token = parser.nextToken();
+      if (Constants.VALUE.equals(name) && token == JsonToken.START_ARRAY) {
+        inValue = true;
+        return;
+      } else if (token == JsonToken.VALUE_NULL) {
+        continue;
+      } else if (Constants.JSON_CONTEXT.equals(name)
+          || Constants.JSON_METADATA.equals(name) && contextURL == null) {
+        contextURL = URI.create(parser.getText());
+      } else if (Constants.JSON_METADATA_ETAG.equals(name)) {
+        metadataETag = parser.getText();
+      } else if (Constants.JSON_COUNT.equals(name)) {
+        count = parser.getValueAsInt();
+      } else if (Constants.JSON_NEXT_LINK.equals(name)) {
+        next = URI.create(parser.getText());
+      } else if (Constants.JSON_DELTA_LINK.equals(name)) {
+        deltaLink = URI.create(parser.getText());
+      } else {
+        parser.skipChildren();
+      }
+    }
+    if (token != JsonToken.END_OBJECT) {
+      throw new JsonParseException(parser, "Unexpected " + token + " in OData EntitySet",
+          parser.getCurrentLocation());
+    }
+  }
+
+  public URI getContextURL() {
+    return contextURL;
+  }
+
+  public String getMetadataETag() {
+    return metadataETag;
+  }
+
+  public Integer getCount() {
+    return count;
+  }
+
+  public URI getNext() {
+    return next;
+  }
+
+  public URI getDeltaLink() {
+    return deltaLink;
+  }
+
+  @Override
+  public void close() throws IOException {
+    parser.close();
+  }
+}
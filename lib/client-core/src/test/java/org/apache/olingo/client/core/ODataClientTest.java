@@ -121,6 +121,18 @@ public class ODataClientTest {
     assertNull(config.getHttpClientFactory());
     config.setHttpUriRequestFactory(null);
     assertNull(config.getHttpUriRequestFactory());
+    config.setMaxConnections(50);
+    assertEquals(50, config.getMaxConnections());
+    config.setMaxConnectionsPerRoute(5);
+    assertEquals(5, config.getMaxConnectionsPerRoute());
+    config.setConnectionKeepAlive(1000L);
+    assertEquals(1000L, config.getConnectionKeepAlive());
+    config.setConnectionIdleTimeout(2000L);
+    assertEquals(2000L, config.getConnectionIdleTimeout());
+    config.setConnectionValidateAfterInactivity(100);
+    assertEquals(100, config.getConnectionValidateAfterInactivity());
+    config.setConnectionRequestTimeout(500);
+    assertEquals(500, config.getConnectionRequestTimeout());
     config.setProperty("key", "value");
     assertEquals("value", config.getProperty("key", "value"));
   }
@@ -21,19 +21,34 @@ package org.apache.olingo.client.core.communication.request;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpResponseFactory;
 import org.apache.http.HttpVersion;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.DefaultHttpResponseFactory;
 import org.apache.http.message.BasicStatusLine;
 import org.apache.olingo.client.api.Configuration;
@@ -41,6 +56,8 @@ import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.client.api.communication.request.ODataBatchableRequest;
 import org.apache.olingo.client.api.communication.response.AsyncResponseWrapper;
 import org.apache.olingo.client.api.communication.response.ODataResponse;
+import org.apache.olingo.client.api.communication.response.ODataRetrieveResponse;
+import org.apache.olingo.client.api.domain.ClientEntity;
 import org.apache.olingo.client.api.domain.ClientInvokeResult;
 import org.apache.olingo.client.api.http.HttpClientFactory;
 import org.apache.olingo.client.api.http.HttpUriRequestFactory;
@@ -48,6 +65,7 @@ import org.apache.olingo.client.core.ODataClientFactory;
 import org.apache.olingo.client.core.communication.request.AsyncRequestWrapperImpl.AsyncResponseWrapperImpl;
 import org.apache.olingo.client.core.communication.request.batch.ODataBatchRequestImpl;
 import org.apache.olingo.client.core.communication.request.invoke.ODataInvokeRequestImpl;
+import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpMethod;
 import org.junit.Test;
@@ -242,4 +260,111 @@ public class AsyncRequestWrapperTest {
     assertEquals(new URI(location), wrapper.location);
   }
 
+  @Test
+  public void testODataResponseAsync() throws Exception {
+    HttpClient httpClient = mock(HttpClient.class);
+    ODataClient oDataClient = mock(ODataClient.class);
+    Configuration configuration = mock(Configuration.class);
+    HttpClientFactory httpClientFactory = mock(HttpClientFactory.class);
+    HttpUriRequestFactory httpUriRequestFactory = mock(HttpUriRequestFactory.class);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    when(oDataClient.getConfiguration()).thenReturn(configuration);
+    when(configuration.getHttpClientFactory()).thenReturn(httpClientFactory);
+    when(configuration.getHttpUriRequestFactory()).thenReturn(httpUriRequestFactory);
+    when(configuration.getExecutor()).thenReturn(executor);
+    when(configuration.getScheduledExecutor()).thenReturn(scheduler);
+    when(httpClientFactory.create(any(), any())).thenReturn(httpClient);
+    when(httpUriRequestFactory.create(any(), any())).thenReturn(mock(HttpUriRequest.class));
+
+    HttpResponseFactory factory = new DefaultHttpResponseFactory();
+    HttpResponse accepted = factory.newHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, 202, null), null);
+    accepted.addHeader(HttpHeader.LOCATION, "http://localhost/monitor");
+    accepted.addHeader(HttpHeader.RETRY_AFTER, "0");
+    HttpResponse running = factory.newHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, 202, null), null);
+    running.addHeader(HttpHeader.RETRY_AFTER, "1");
+    HttpResponse done = factory.newHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, 200, null), null);
+    done.setEntity(new StringEntity("HTTP/1.1 200 OK\r\n\r\n", StandardCharsets.UTF_8));
+    when(httpClient.execute(any(HttpUriRequest.class))).thenReturn(accepted, accepted, running, done);
+
+    ODataResponse oDataResponse = mock(ODataResponse.class);
+    when(oDataResponse.initFromEnclosedPart(any(InputStream.class))).thenReturn(oDataResponse);
+    AbstractODataRequest oDataRequest = mock(AbstractODataRequest.class);
+    when(oDataRequest.getURI()).thenReturn(new URI("http://localhost/path"));
+    when(oDataRequest.getResponseTemplate()).thenReturn(oDataResponse);
+
+    try {
+      AsyncResponseWrapper<ODataResponse> wrapper =
+          new AsyncRequestWrapperImpl<ODataResponse>(oDataClient, oDataRequest).execute();
+      CompletableFuture<ODataResponse> future = wrapper.getODataResponseAsync();
+      // the monitor reports the processing as running and asks for another check after one second
+      assertSame(oDataResponse, future.get(10, TimeUnit.SECONDS));
+      assertTrue(wrapper.isDone());
+      verify(httpClient, times(4)).execute(any(HttpUriRequest.class));
+    } finally {
+      executor.shutdown();
+      scheduler.shutdown();
+    }
+  }
+
+  @Test
+  public void testExecuteAsync() throws Exception {
+    HttpClient httpClient = mock(HttpClient.class);
+    HttpResponse response = new DefaultHttpResponseFactory().newHttpResponse(
+        new BasicStatusLine(HttpVersion.HTTP_1_1, 200, "OK"), null);
+    response.setEntity(new StringEntity("{\"@odata.context\":\"http://localhost/$metadata#People/$entity\","
+        + "\"Id\":1}", StandardCharsets.UTF_8));
+    response.addHeader(HttpHeader.CONTENT_TYPE, ContentType.JSON_FULL_METADATA.toContentTypeString());
+    when(httpClient.execute(any(HttpUriRequest.class))).thenReturn(response);
+    HttpClientFactory httpClientFactory = mock(HttpClientFactory.class);
+    when(httpClientFactory.create(any(), any())).thenReturn(httpClient);
+
+    final AtomicInteger deserializations = new AtomicInteger();
+    final ExecutorService responseExecutor = Executors.newSingleThreadExecutor();
+    ODataClient client = ODataClientFactory.getClient();
+    client.getConfiguration().setHttpClientFactory(httpClientFactory);
+    client.getConfiguration().setResponseExecutor(new AbstractExecutorService() {
+      @Override
+      public void execute(final Runnable command) {
+        deserializations.incrementAndGet();
+        responseExecutor.execute(command);
+      }
+
+      @Override
+      public void shutdown() {
+        responseExecutor.shutdown();
+      }
+
+      @Override
+      public List<Runnable> shutdownNow() {
+        return responseExecutor.shutdownNow();
+      }
+
+      @Override
+      public boolean isShutdown() {
+        return responseExecutor.isShutdown();
+      }
+
+      @Override
+      public boolean isTerminated() {
+        return responseExecutor.isTerminated();
+      }
+
+      @Override
+      public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return responseExecutor.awaitTermination(timeout, unit);
+      }
+    });
+
+    try {
+      ODataRetrieveResponse<ClientEntity> result = client.getRetrieveRequestFactory()
+          .getEntityRequest(new URI("http://localhost/People(1)")).executeAsync().get(10, TimeUnit.SECONDS);
+      assertEquals(200, result.getStatusCode());
+      assertEquals(1, deserializations.get());
+      assertEquals(1, result.getBody().getProperty("Id").getPrimitiveValue().toCastValue(Integer.class).intValue());
+    } finally {
+      responseExecutor.shutdown();
+    }
+  }
 }
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.communication.request;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.DefaultHttpResponseFactory;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.util.EntityUtils;
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.communication.request.batch.BatchManager;
+import org.apache.olingo.client.api.communication.request.batch.ODataBatchRequest;
+import org.apache.olingo.client.api.communication.request.streamed.ODataStreamUpdateRequest;
+import org.apache.olingo.client.api.communication.request.streamed.StreamUpdateStreamManager;
+import org.apache.olingo.client.api.communication.response.ODataStreamUpdateResponse;
+import org.apache.olingo.client.api.http.HttpClientFactory;
+import org.apache.olingo.client.core.ODataClientFactory;
+import org.apache.olingo.client.core.communication.request.batch.AbstractODataBatchRequest;
+import org.apache.olingo.client.core.communication.util.PipedOutputStream;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class StreamedRequestTest {
+
+  private static final String SERVICE = "http://localhost/odata/";
+
+  /**
+   * Creates a client recording the threads sending requests and the sent entities.
+   */
+  private final List<RequestConfig> configs = new ArrayList<>();
+  private final List<Integer> tempFiles = new ArrayList<>();
+
+  private ODataClient client(final List<Thread> threads, final List<HttpEntity> entities,
+      final List<String> bodies) throws Exception {
+    final HttpClient httpClient = mock(HttpClient.class);
+    when(httpClient.execute(any(HttpUriRequest.class))).thenAnswer(new Answer<HttpResponse>() {
+      @Override
+      public HttpResponse answer(final InvocationOnMock invocation) throws IOException {
+        final HttpUriRequest request = (HttpUriRequest) invocation.getArguments()[0];
+        final HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+        threads.add(Thread.currentThread());
+        entities.add(entity);
+        final String body = EntityUtils.toString(entity, StandardCharsets.UTF_8);
+        // the entity can be sent again, e.g., after an authentication challenge
+        if (entity.isRepeatable()) {
+          assertEquals(body, EntityUtils.toString(entity, StandardCharsets.UTF_8));
+        }
+        bodies.add(body);
+        configs.add(((HttpRequestBase) request).getConfig());
+        tempFiles.add(countTempFiles());
+        return new DefaultHttpResponseFactory().newHttpResponse(
+            new BasicStatusLine(HttpVersion.HTTP_1_1, 204, "No Content"), null);
+      }
+    });
+    final HttpClientFactory httpClientFactory = mock(HttpClientFactory.class);
+    when(httpClientFactory.create(any(), any())).thenReturn(httpClient);
+
+    final ODataClient client = ODataClientFactory.getClient();
+    client.getConfiguration().setHttpClientFactory(httpClientFactory);
+    return client;
+  }
+
+  @Test
+  public void batchSentByCallingThread() throws Exception {
+    final List<Thread> threads = new ArrayList<>();
+    final List<HttpEntity> entities = new ArrayList<>();
+    final List<String> bodies = new ArrayList<>();
+    final ODataClient client = client(threads, entities, bodies);
+
+    final ODataBatchRequest request = client.getBatchRequestFactory().getBatchRequest(SERVICE);
+    final BatchManager payload = request.payloadManager();
+    payload.addRequest(client.getRetrieveRequestFactory().getEntityRequest(URI.create(SERVICE + "People(1)")));
+    payload.addRequest(client.getRetrieveRequestFactory().getEntityRequest(URI.create(SERVICE + "People(2)")));
+    // nothing is sent before the response is requested
+    assertTrue(threads.isEmpty());
+
+    assertEquals(204, payload.getResponse().getStatusCode());
+    assertEquals(1, threads.size());
+    assertSame(Thread.currentThread(), threads.get(0));
+
+    final HttpEntity entity = entities.get(0);
+    assertTrue(entity.isRepeatable());
+    final long written = ((AbstractODataBatchRequest<?, ?>) request).getOutputStream().getWrittenBytes();
+    assertEquals(written, entity.getContentLength());
+    assertEquals(written, bodies.get(0).getBytes(StandardCharsets.UTF_8).length);
+    assertTrue(bodies.get(0).contains("GET " + SERVICE + "People(1) HTTP/1.1"));
+    assertTrue(bodies.get(0).contains("GET " + SERVICE + "People(2) HTTP/1.1"));
+    assertTrue(bodies.get(0).trim().endsWith("--"));
+  }
+
+  @Test
+  public void largeBatchSpilledToFile() throws Exception {
+    final List<Thread> threads = new ArrayList<>();
+    final List<HttpEntity> entities = new ArrayList<>();
+    final List<String> bodies = new ArrayList<>();
+    final ODataClient client = client(threads, entities, bodies);
+    client.getConfiguration().setRequestBodyMemoryThreshold(100);
+
+    final ODataBatchRequest request = client.getBatchRequestFactory().getBatchRequest(SERVICE);
+    final BatchManager payload = request.payloadManager();
+    for (int i = 0; i < 10; i++) {
+      payload.addRequest(client.getRetrieveRequestFactory().getEntityRequest(
+          URI.create(SERVICE + "People(" + i + ")")));
+    }
+    final PipedOutputStream body = ((AbstractODataBatchRequest<?, ?>) request).getOutputStream();
+    assertTrue(body.isSpilled());
+    final int before = countTempFiles();
+
+    assertEquals(204, payload.getResponse().getStatusCode());
+    assertEquals(body.getWrittenBytes(), entities.get(0).getContentLength());
+    assertEquals(body.getWrittenBytes(), bodies.get(0).getBytes(StandardCharsets.UTF_8).length);
+    for (int i = 0; i < 10; i++) {
+      assertTrue(bodies.get(0).contains("GET " + SERVICE + "People(" + i + ") HTTP/1.1"));
+    }
+    assertTrue(bodies.get(0).trim().endsWith("--"));
+    // the temporary file exists while the request is sent and is deleted afterwards
+    assertEquals(before, tempFiles.get(0).intValue());
+    assertFalse(body.isSpilled());
+    assertEquals(before - 1, countTempFiles());
+  }
+
+  @Test
+  public void timeoutAppliedToRequest() throws Exception {
+    final List<Thread> threads = new ArrayList<>();
+    final List<HttpEntity> entities = new ArrayList<>();
+    final List<String> bodies = new ArrayList<>();
+    final ODataClient client = client(threads, entities, bodies);
+    client.getConfiguration().setConnectionRequestTimeout(2000);
+
+    final ODataStreamUpdateRequest request = client.getCUDRequestFactory().getStreamUpdateRequest(
+        URI.create(SERVICE + "People(1)/$value"), new ByteArrayInputStream("media".getBytes(StandardCharsets.UTF_8)));
+    final AbstractODataStreamManager<?> payload = (AbstractODataStreamManager<?>) request.payloadManager();
+    assertEquals(204, payload.getResponse(5, TimeUnit.SECONDS).getStatusCode());
+    assertSame(Thread.currentThread(), threads.get(0));
+
+    final RequestConfig config = configs.get(0);
+    assertEquals(5000, config.getConnectTimeout());
+    assertEquals(5000, config.getSocketTimeout());
+    // the configured connection request timeout is kept when it is shorter
+    assertEquals(2000, config.getConnectionRequestTimeout());
+  }
+
+  private static int countTempFiles() {
+    final File[] files = new File(System.getProperty("java.io.tmpdir")).listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(final File dir, final String name) {
+        return name.startsWith("olingo-request") && name.endsWith(".tmp");
+      }
+    });
+    return files == null ? 0 : files.length;
+  }
+
+  @Test
+  public void streamUpdate() throws Exception {
+    final List<Thread> threads = new ArrayList<>();
+    final List<HttpEntity> entities = new ArrayList<>();
+    final List<String> bodies = new ArrayList<>();
+    final ODataClient client = client(threads, entities, bodies);
+
+    ODataStreamUpdateRequest request = client.getCUDRequestFactory().getStreamUpdateRequest(
+        URI.create(SERVICE + "People(1)/$value"), new ByteArrayInputStream("media".getBytes(StandardCharsets.UTF_8)));
+    StreamUpdateStreamManager payload = request.payloadManager();
+    assertEquals(204, payload.getResponse().getStatusCode());
+    assertSame(Thread.currentThread(), threads.get(0));
+    assertEquals("media", bodies.get(0));
+
+    // asynchronous responses are sent on the executor
+    request = client.getCUDRequestFactory().getStreamUpdateRequest(
+        URI.create(SERVICE + "People(2)/$value"), new ByteArrayInputStream("async".getBytes(StandardCharsets.UTF_8)));
+    payload = request.payloadManager();
+    final Future<ODataStreamUpdateResponse> future = payload.getAsyncResponse();
+    final long deadline = System.currentTimeMillis() + 10000;
+    while (!future.isDone() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(204, future.get(10, TimeUnit.SECONDS).getStatusCode());
+    assertEquals(2, threads.size());
+    assertNotSame(Thread.currentThread(), threads.get(1));
+    assertEquals("async", bodies.get(1));
+  }
+}
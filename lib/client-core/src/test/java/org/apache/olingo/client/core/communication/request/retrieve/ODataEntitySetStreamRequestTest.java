@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.communication.request.retrieve;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.DefaultHttpResponseFactory;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.domain.ClientEntity;
+import org.apache.olingo.client.api.domain.ClientEntitySetStream;
+import org.apache.olingo.client.api.http.HttpClientFactory;
+import org.apache.olingo.client.core.ODataClientFactory;
+import org.apache.olingo.client.core.serialization.JsonEntitySetPageReader;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class ODataEntitySetStreamRequestTest {
+
+  private static final String SERVICE = "http://localhost/odata/";
+
+  private static String page(final String controlInformation, final int from, final int to) {
+    final StringBuilder page = new StringBuilder("{\"@odata.context\":\"" + SERVICE + "$metadata#People\"");
+    if (controlInformation != null) {
+      page.append(',').append(controlInformation);
+    }
+    page.append(",\"value\":[");
+    for (int i = from; i < to; i++) {
+      page.append(i == from ? "" : ",").append("{\"Id\":").append(i).append(",\"Name\":\"P").append(i)
+          .append("\",\"Tags\":[\"a\",\"b\"],\"Address\":{\"City\":\"C\"}}");
+    }
+    return page.append("]}").toString();
+  }
+
+  private static ODataClient client(final Map<String, String> pages, final List<String> requested)
+      throws Exception {
+    final HttpClient httpClient = mock(HttpClient.class);
+    when(httpClient.execute(any(HttpUriRequest.class))).thenAnswer(new Answer<HttpResponse>() {
+      @Override
+      public HttpResponse answer(final InvocationOnMock invocation) {
+        final String uri = ((HttpUriRequest) invocation.getArguments()[0]).getURI().toASCIIString();
+        requested.add(uri);
+        final HttpResponse response = new DefaultHttpResponseFactory().newHttpResponse(
+            new BasicStatusLine(HttpVersion.HTTP_1_1, 200, "OK"), null);
+        response.setEntity(new StringEntity(pages.get(uri), StandardCharsets.UTF_8));
+        response.addHeader(HttpHeader.CONTENT_TYPE, ContentType.JSON_FULL_METADATA.toContentTypeString());
+        return response;
+      }
+    });
+    final HttpClientFactory httpClientFactory = mock(HttpClientFactory.class);
+    when(httpClientFactory.create(any(), any())).thenReturn(httpClient);
+
+    final ODataClient client = ODataClientFactory.getClient();
+    client.getConfiguration().setHttpClientFactory(httpClientFactory);
+    return client;
+  }
+
+  @Test
+  public void followsNextLinks() throws Exception {
+    final Map<String, String> pages = new HashMap<>();
+    pages.put(SERVICE + "People", page("\"@odata.count\":5,\"@odata.nextLink\":\"People?$skiptoken=2\"", 0, 2));
+    pages.put(SERVICE + "People?$skiptoken=2",
+        page("\"@odata.nextLink\":\"" + SERVICE + "People?$skiptoken=4\"", 2, 4));
+    pages.put(SERVICE + "People?$skiptoken=4", page(null, 4, 5).replace("]}",
+        "],\"@odata.deltaLink\":\"People?$deltatoken=1\"}"));
+    final List<String> requested = new ArrayList<>();
+    final ODataClient client = client(pages, requested);
+
+    final ClientEntitySetStream<ClientEntity> stream = client.getRetrieveRequestFactory()
+        .getEntitySetStreamRequest(URI.create(SERVICE + "People")).execute().getBody();
+    assertEquals(Integer.valueOf(5), stream.getCount());
+    assertEquals(1, requested.size());
+
+    int expected = 0;
+    while (stream.hasNext()) {
+      final ClientEntity entity = stream.next();
+      assertEquals(expected, entity.getProperty("Id").getPrimitiveValue().toCastValue(Integer.class).intValue());
+      assertEquals("P" + expected, entity.getProperty("Name").getPrimitiveValue().toString());
+      assertEquals(2, entity.getProperty("Tags").getCollectionValue().size());
+      assertEquals("C",
+          entity.getProperty("Address").getComplexValue().get("City").getPrimitiveValue().toString());
+      expected++;
+      // pages are requested only when the previous one is exhausted
+      assertEquals(expected <= 2 ? 1 : expected <= 4 ? 2 : 3, requested.size());
+    }
+    assertEquals(5, expected);
+    assertEquals(URI.create("People?$deltatoken=1"), stream.getDeltaLink());
+    assertFalse(stream.hasNext());
+    stream.close();
+  }
+
+  @Test
+  public void deltaLinkOnlyAfterCompletion() throws Exception {
+    final Map<String, String> pages = new HashMap<>();
+    pages.put(SERVICE + "People", page(null, 0, 1));
+    final ClientEntitySetStream<ClientEntity> stream = client(pages, new ArrayList<String>())
+        .getRetrieveRequestFactory().getEntitySetStreamRequest(URI.create(SERVICE + "People")).execute().getBody();
+    try {
+      stream.getDeltaLink();
+      fail("Expected IllegalStateException");
+    } catch (final IllegalStateException e) {
+      // expected
+    }
+    stream.close();
+    assertFalse(stream.hasNext());
+    assertNull(stream.getDeltaLink());
+  }
+
+  @Test
+  public void pageReader() throws Exception {
+    final String json = "{\"@odata.context\":\"" + SERVICE + "$metadata#People\",\"@odata.count\":2,"
+        + "\"@Custom.Annotation\":{\"nested\":[1,2]},\"value\":[{\"Id\":1},{\"Id\":2}],"
+        + "\"@odata.nextLink\":\"People?$skiptoken=2\"}";
+    final JsonEntitySetPageReader reader = new JsonEntitySetPageReader(
+        new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), false);
+    assertEquals(URI.create(SERVICE + "$metadata#People"), reader.getContextURL());
+    assertEquals(Integer.valueOf(2), reader.getCount());
+    assertNull(reader.getNext());
+
+    assertEquals(1, reader.next().getPayload().getProperty("Id").getValue());
+    assertTrue(reader.next() != null);
+    assertNull(reader.next());
+    assertEquals(URI.create("People?$skiptoken=2"), reader.getNext());
+    assertNull(reader.next());
+    reader.close();
+  }
+
+  @Test
+  public void pageReaderWithoutValue() throws Exception {
+    final JsonEntitySetPageReader reader = new JsonEntitySetPageReader(
+        new ByteArrayInputStream("{\"@odata.count\":0}".getBytes(StandardCharsets.UTF_8)), false);
+    assertEquals(Integer.valueOf(0), reader.getCount());
+    assertNull(reader.next());
+    reader.close();
+  }
+}
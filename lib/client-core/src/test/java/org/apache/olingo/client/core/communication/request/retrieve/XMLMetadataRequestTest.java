@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.communication.request.retrieve;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.DefaultHttpResponseFactory;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.communication.request.retrieve.XMLMetadataRequest;
+import org.apache.olingo.client.api.communication.response.ODataRetrieveResponse;
+import org.apache.olingo.client.api.edm.xml.XMLMetadata;
+import org.apache.olingo.client.api.http.HttpClientFactory;
+import org.apache.olingo.client.core.ODataClientFactory;
+import org.apache.olingo.client.core.edm.ClientCsdlXMLMetadata;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class XMLMetadataRequestTest {
+
+  private static final String SERVICE = "http://localhost/odata/";
+
+  private static final String ETAG = "W/\"1\"";
+
+  private static final String ROOT = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+      + "<edmx:Edmx Version=\"4.0\" xmlns:edmx=\"http://docs.oasis-open.org/odata/ns/edmx\">"
+      + "<edmx:Reference Uri=\"reference.xml\"><edmx:Include Namespace=\"Ref.NS\" Alias=\"R\"/></edmx:Reference>"
+      + "<edmx:DataServices><Schema Namespace=\"Main.NS\" xmlns=\"http://docs.oasis-open.org/odata/ns/edm\">"
+      + "<EntityType Name=\"Entity\"><Key><PropertyRef Name=\"Id\"/></Key>"
+      + "<Property Name=\"Id\" Type=\"Edm.Int32\" Nullable=\"false\"/></EntityType>"
+      + "</Schema></edmx:DataServices></edmx:Edmx>";
+
+  private static final String REFERENCE = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+      + "<edmx:Edmx Version=\"4.0\" xmlns:edmx=\"http://docs.oasis-open.org/odata/ns/edmx\">"
+      + "<edmx:DataServices><Schema Namespace=\"Ref.NS\" xmlns=\"http://docs.oasis-open.org/odata/ns/edm\">"
+      + "<ComplexType Name=\"Address\"><Property Name=\"City\" Type=\"Edm.String\"/></ComplexType>"
+      + "</Schema></edmx:DataServices></edmx:Edmx>";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Creates a client for a service answering conditional requests for the root document with 304.
+   * The requested URIs are recorded together with their If-None-Match header.
+   */
+  private static ODataClient client(final List<String> requested) throws Exception {
+    final HttpClient httpClient = mock(HttpClient.class);
+    when(httpClient.execute(any(HttpUriRequest.class))).thenAnswer(new Answer<HttpResponse>() {
+      @Override
+      public HttpResponse answer(final InvocationOnMock invocation) {
+        final HttpUriRequest request = (HttpUriRequest) invocation.getArguments()[0];
+        final String uri = request.getURI().toASCIIString();
+        final Header ifNoneMatch = request.getFirstHeader(HttpHeader.IF_NONE_MATCH);
+        synchronized (requested) {
+          requested.add(uri + (ifNoneMatch == null ? "" : " " + ifNoneMatch.getValue()));
+        }
+        final boolean root = uri.equals(SERVICE + "$metadata");
+        if (root && ifNoneMatch != null && ETAG.equals(ifNoneMatch.getValue())) {
+          return new DefaultHttpResponseFactory().newHttpResponse(
+              new BasicStatusLine(HttpVersion.HTTP_1_1, 304, "Not Modified"), null);
+        }
+        final HttpResponse response = new DefaultHttpResponseFactory().newHttpResponse(
+            new BasicStatusLine(HttpVersion.HTTP_1_1, 200, "OK"), null);
+        response.setEntity(new StringEntity(root ? ROOT : REFERENCE, StandardCharsets.UTF_8));
+        response.addHeader(HttpHeader.CONTENT_TYPE, "application/xml");
+        if (root) {
+          response.addHeader(HttpHeader.ETAG, ETAG);
+        }
+        return response;
+      }
+    });
+    final HttpClientFactory httpClientFactory = mock(HttpClientFactory.class);
+    when(httpClientFactory.create(any(), any())).thenReturn(httpClient);
+
+    final ODataClient client = ODataClientFactory.getClient();
+    client.getConfiguration().setHttpClientFactory(httpClientFactory);
+    return client;
+  }
+
+  private static void assertMetadata(final XMLMetadata metadata) {
+    assertEquals(2, metadata.getSchemas().size());
+    assertNotNull(metadata.getSchema("Main.NS").getEntityType("Entity"));
+    assertEquals("R", metadata.getSchema("Ref.NS").getAlias());
+    assertNotNull(metadata.getSchema("Ref.NS").getComplexType("Address"));
+  }
+
+  @Test
+  public void resolvesReferences() throws Exception {
+    final List<String> requested = new ArrayList<>();
+    final ODataRetrieveResponse<XMLMetadata> response =
+        client(requested).getRetrieveRequestFactory().getXMLMetadataRequest(SERVICE).execute();
+    assertEquals(200, response.getStatusCode());
+    assertMetadata(response.getBody());
+    assertEquals(Collections.singletonList(Collections.singletonList("http://docs.oasis-open.org/odata/ns/edm")),
+        ((ClientCsdlXMLMetadata) response.getBody()).getSchemaNamespaces());
+
+    Collections.sort(requested);
+    assertEquals(2, requested.size());
+    assertEquals(SERVICE + "$metadata", requested.get(0));
+    assertEquals(SERVICE + "reference.xml", requested.get(1));
+  }
+
+  @Test
+  public void revalidatesCachedDocument() throws Exception {
+    final File cacheDirectory = new File(folder.getRoot(), "metadata");
+    final List<String> requested = new ArrayList<>();
+    final ODataClient client = client(requested);
+    client.getConfiguration().setMetadataCacheDirectory(cacheDirectory);
+
+    ODataRetrieveResponse<XMLMetadata> response =
+        client.getRetrieveRequestFactory().getXMLMetadataRequest(SERVICE).execute();
+    assertEquals(200, response.getStatusCode());
+    assertMetadata(response.getBody());
+    // only the root document has an entity tag
+    assertEquals(1, cacheDirectory.list().length);
+
+    requested.clear();
+    response = client.getRetrieveRequestFactory().getXMLMetadataRequest(SERVICE).execute();
+    assertEquals(200, response.getStatusCode());
+    assertMetadata(response.getBody());
+    Collections.sort(requested);
+    assertEquals(2, requested.size());
+    assertEquals(SERVICE + "$metadata " + ETAG, requested.get(0));
+    // the validator of the root document is not sent with the reference request
+    assertEquals(SERVICE + "reference.xml", requested.get(1));
+  }
+
+  @Test
+  public void explicitIfNoneMatchBypassesCache() throws Exception {
+    final List<String> requested = new ArrayList<>();
+    final ODataClient client = client(requested);
+    client.getConfiguration().setMetadataCacheDirectory(folder.getRoot());
+
+    final XMLMetadataRequest request = client.getRetrieveRequestFactory().getXMLMetadataRequest(SERVICE);
+    request.setIfNoneMatch(ETAG);
+    final ODataRetrieveResponse<XMLMetadata> response = request.execute();
+    assertEquals(304, response.getStatusCode());
+    assertEquals(1, requested.size());
+    assertNull(new MetadataCache(folder.getRoot()).getETag(request.getURI()));
+  }
+}
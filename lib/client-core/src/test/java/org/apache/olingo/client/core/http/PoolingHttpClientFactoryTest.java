@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
+import org.apache.olingo.client.core.ConfigurationImpl;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class PoolingHttpClientFactoryTest {
+
+  private HttpServer server;
+
+  private URI uri;
+
+  @Before
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(final HttpExchange exchange) throws IOException {
+        final byte[] body = "OK".getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+          output.write(body);
+        }
+      }
+    });
+    server.start();
+    uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/service");
+  }
+
+  @After
+  public void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  public void connectionIsReused() throws Exception {
+    final ConfigurationImpl configuration = new ConfigurationImpl();
+    configuration.setMaxConnections(7);
+    final PoolingHttpClientFactory factory = new PoolingHttpClientFactory(configuration);
+    assertNull(factory.getTotalStats());
+
+    final HttpClient client = factory.create(HttpMethod.GET, uri);
+    assertSame(client, factory.create(HttpMethod.GET, uri));
+
+    for (int i = 0; i < 3; i++) {
+      final HttpResponse response = client.execute(new HttpGet(uri));
+      assertEquals("OK", EntityUtils.toString(response.getEntity()));
+      factory.close(client);
+    }
+
+    final PoolStats stats = factory.getTotalStats();
+    assertEquals(0, stats.getLeased());
+    assertEquals(1, stats.getAvailable());
+    assertEquals(0, stats.getPending());
+    assertEquals(7, stats.getMax());
+
+    factory.close();
+    assertNull(factory.getTotalStats());
+  }
+
+  @Test
+  public void unconsumedResponsesExhaustPoolWithTimeout() throws Exception {
+    final ConfigurationImpl configuration = new ConfigurationImpl();
+    configuration.setMaxConnectionsPerRoute(2);
+    configuration.setConnectionRequestTimeout(200);
+    final PoolingHttpClientFactory factory = new PoolingHttpClientFactory(configuration);
+    final HttpClient client = factory.create(HttpMethod.GET, uri);
+
+    final List<HttpResponse> unconsumed = new ArrayList<>();
+    for (int i = 0; i < configuration.getMaxConnectionsPerRoute(); i++) {
+      unconsumed.add(client.execute(new HttpGet(uri)));
+    }
+    assertEquals(2, factory.getTotalStats().getLeased());
+
+    final long start = System.nanoTime();
+    try {
+      client.execute(new HttpGet(uri));
+      fail("request must not get a connection");
+    } catch (final ConnectionPoolTimeoutException e) {
+      assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 10);
+    }
+
+    EntityUtils.consume(unconsumed.get(0).getEntity());
+    final HttpResponse response = client.execute(new HttpGet(uri));
+    assertEquals("OK", EntityUtils.toString(response.getEntity()));
+    factory.close();
+  }
+
+  @Test
+  public void notUsedByDefault() {
+    final ConfigurationImpl configuration = new ConfigurationImpl();
+    assertEquals(DefaultHttpClientFactory.class, configuration.getHttpClientFactory().getClass());
+
+    final PoolingHttpClientFactory factory = new PoolingHttpClientFactory(configuration);
+    configuration.setHttpClientFactory(factory);
+    assertSame(factory, configuration.getHttpClientFactory());
+  }
+}
@@ -18,9 +18,19 @@
  */
 package org.apache.olingo.commons.api.data;
 
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Media resource of a media entity, given either as bytes or as a channel.
+ * A channel allows to stream large media resources without holding them in memory;
+ * if it is a {@link java.nio.channels.FileChannel} it can be transferred to the network without
+ * copying through the heap.
+ */
 public class EntityMediaObject {
 	
 	private byte[] bytes;
+	private ReadableByteChannel channel;
+	private long length = -1;
 	
 	public void setBytes(byte[] bytes) {
 		this.bytes = bytes;
@@ -29,4 +39,26 @@ public class EntityMediaObject {
 	public byte[] getBytes() {
 		return bytes;
 	}
+
+	/**
+	 * Sets the channel the media resource is read from.
+	 * @param channel the channel; it is closed after the media resource has been written
+	 * @param length the length of the media resource in bytes, or -1 if unknown
+	 */
+	public void setChannel(ReadableByteChannel channel, long length) {
+		this.channel = channel;
+		this.length = length;
+	}
+
+	public ReadableByteChannel getChannel() {
+		return channel;
+	}
+
+	/**
+	 * Returns the length of the media resource in bytes.
+	 * @return the length, or -1 if unknown
+	 */
+	public long getLength() {
+		return bytes == null ? length : bytes.length;
+	}
 }
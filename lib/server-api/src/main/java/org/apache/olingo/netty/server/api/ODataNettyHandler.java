@@ -18,14 +18,30 @@
  */
 package org.apache.olingo.netty.server.api;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.apache.olingo.server.api.OlingoExtension;
 import org.apache.olingo.server.api.processor.Processor;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
 
-public interface ODataNettyHandler {
+public interface ODataNettyHandler extends Closeable {
 
   /**
    * <p>Processes a NettyRequest as an OData request.</p>
@@ -36,6 +52,46 @@ public interface ODataNettyHandler {
    * @param response - HTTP OData response
    */
   void processNettyRequest(HttpRequest request, HttpResponse response, Map<String, String> requestParameters);
+
+  /**
+   * <p>Processes a NettyRequest as an OData request in streaming mode.</p>
+   * <p>The request does not have to be aggregated: its body is read from the given stream while it
+   * arrives. The response is written directly to the channel as chunked HTTP response, so the
+   * content is sent while it is serialized instead of being collected in one buffer first.</p>
+   * <p>If the request body is still arriving, the method has to be called outside of the
+   * channel's event loop, since reading the body blocks until the data is available.</p>
+   * <p>The default implementation reads the complete body, processes the request with
+   * {@link #processNettyRequest(HttpRequest, HttpResponse, Map)} and writes the complete response.</p>
+   * @param ctx - context of the channel handler the response is written to
+   * @param request - HTTP OData request (head only)
+   * @param body - request body
+   * @param requestParameters - request parameters like <code>contextPath</code> and <code>split</code>
+   * @return future completed when the last chunk of the response has been written
+   */
+  default ChannelFuture processNettyRequest(final ChannelHandlerContext ctx, final HttpRequest request,
+      final InputStream body, final Map<String, String> requestParameters) {
+    final ByteBuf content = ctx.alloc().buffer();
+    try {
+      while (content.writeBytes(body, 8192) != -1) {
+        // read until the end of the body
+      }
+    } catch (final IOException e) {
+      content.release();
+      throw new ODataRuntimeException("Reading the request body failed.", e);
+    }
+    final FullHttpRequest fullRequest = new DefaultFullHttpRequest(request.protocolVersion(), request.method(),
+        request.uri(), content, request.headers(), EmptyHttpHeaders.INSTANCE);
+    final FullHttpResponse response = new DefaultFullHttpResponse(request.protocolVersion(), HttpResponseStatus.OK);
+    try {
+      processNettyRequest(fullRequest, response, requestParameters);
+    } finally {
+      fullRequest.release();
+    }
+    if (!response.headers().contains(HttpHeaderNames.CONTENT_LENGTH)) {
+      HttpUtil.setContentLength(response, response.content().readableBytes());
+    }
+    return ctx.writeAndFlush(response);
+  }
   
   /**
    * <p>Registers additional custom processor implementations for handling OData requests.</p>
@@ -43,5 +99,29 @@ public interface ODataNettyHandler {
    * "not implemented" exception will happen.</p>
    */
   void register(Processor processor);
+
+  /**
+   * <p>Registers additional extensions for handling OData requests.</p>
+   * <p>This method is used for registration of all possible extensions
+   * and provide the extensibility for further extensions.</p>
+   * <p>Handlers which do not support extensions keep this default implementation,
+   * which rejects every extension.</p>
+   * @param extension the extension
+   * @throws ODataRuntimeException if the extension is not supported
+   */
+  default void register(OlingoExtension extension) {
+    throw new ODataRuntimeException("Got not supported exception with class name " +
+        extension.getClass().getSimpleName());
+  }
+
+  /**
+   * <p>Releases the resources of the handler, like the threads producing streamed response content.</p>
+   * <p>The handler must not be used afterwards. Handlers without such resources keep this default
+   * implementation, which does nothing.</p>
+   */
+  @Override
+  default void close() {
+    // nothing to release
+  }
   
 }
@@ -27,12 +27,17 @@ import org.apache.olingo.commons.api.edm.provider.CsdlEdmProvider;
 import org.apache.olingo.commons.api.edmx.EdmxReference;
 import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.async.AsyncRequestOptions;
+import org.apache.olingo.server.api.async.AsyncRequestService;
+import org.apache.olingo.server.api.compression.CompressionOptions;
+import org.apache.olingo.server.api.compression.ContentCompression;
 import org.apache.olingo.server.api.debug.DebugResponseHelper;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.deserializer.FixedFormatDeserializer;
 import org.apache.olingo.server.api.deserializer.ODataDeserializer;
 import org.apache.olingo.server.api.etag.ETagHelper;
 import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
+import org.apache.olingo.server.api.paging.KeysetPagingHelper;
 import org.apache.olingo.server.api.prefer.Preferences;
 import org.apache.olingo.server.api.serializer.EdmAssistedSerializer;
 import org.apache.olingo.server.api.serializer.EdmDeltaSerializer;
@@ -40,6 +45,9 @@ import org.apache.olingo.server.api.serializer.FixedFormatSerializer;
 import org.apache.olingo.server.api.serializer.ODataSerializer;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.uri.UriHelper;
+import org.apache.olingo.server.api.uri.UriInfoCache;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionEvaluator;
+import org.apache.olingo.server.api.uri.queryoption.expression.FunctionCallHandler;
 
 /**
  * Root object for serving factory tasks and support loose coupling of implementation (core) from the API.
@@ -136,6 +144,21 @@ public abstract class OData {
   public abstract ServiceMetadata createServiceMetadata(CsdlEdmProvider edmProvider, List<EdmxReference> references,
       ServiceMetadataETagSupport serviceMetadataETagSupport);
 
+  /**
+   * Creates a metadata object for this service whose entity data model is loaded completely
+   * from the provider right now instead of element by element on first access.
+   * Requests do not pay for loading the model then, and concurrent requests read it without contention;
+   * in exchange, the whole model is read even if parts of it are never used.
+   * The time it took is reported by {@link ServiceMetadata#getEdmLoadingTime()}.
+   *
+   * @param edmProvider a custom or default implementation for creating metadata
+   * @param references list of edmx references
+   * @param serviceMetadataETagSupport
+   * @return a service metadata implementation
+   */
+  public abstract ServiceMetadata createPreloadedServiceMetadata(CsdlEdmProvider edmProvider,
+      List<EdmxReference> references, ServiceMetadataETagSupport serviceMetadataETagSupport);
+
   /**
    * Creates a new URI helper object for performing URI-related tasks.
    * It can be used in Processor implementations.
@@ -194,6 +217,44 @@ public abstract class OData {
    */
   public abstract ETagHelper createETagHelper();
 
+  /**
+   * Creates a new cache for parsed request URIs.
+   * It can be registered at the ODataHandler to skip parsing of repeated request URIs.
+   * @param maxSize maximum number of cached URIs
+   */
+  public abstract UriInfoCache createUriInfoCache(int maxSize);
+
+  /**
+   * Creates a new helper for keyset-based server-side paging.
+   * It can be used in Processor implementations.
+   * @param signingKey secret key to sign the skiptokens with;
+   *                   all servers accepting skiptokens of each other must use the same key
+   */
+  public abstract KeysetPagingHelper createKeysetPagingHelper(byte[] signingKey);
+
+  /**
+   * Creates a new evaluator for expressions of system query options, applied to entities held in memory.
+   * It can be used in Processor implementations.
+   * @param functionCallHandler handler to call functions used in expressions;
+   *                            if it is <code>null</code> functions are not supported
+   */
+  public abstract ExpressionEvaluator createExpressionEvaluator(FunctionCallHandler functionCallHandler);
+
+  /**
+   * Creates a new service for asynchronous request processing.
+   * It has its own threads, so it should be created once and shared by all requests;
+   * call {@link AsyncRequestService#shutdown()} when it is no longer needed.
+   * @param options the options, or <code>null</code> for the defaults
+   */
+  public abstract AsyncRequestService createAsyncRequestService(AsyncRequestOptions options);
+
+  /**
+   * Creates a new compression of response and request content.
+   * It can be registered at the ODataHttpHandler and the ODataNettyHandler.
+   * @param options the options, or <code>null</code> for the defaults
+   */
+  public abstract ContentCompression createContentCompression(CompressionOptions options);
+
   /**
    * Creates a new Preferences object out of Prefer HTTP request headers.
    * It can be used in Processor implementations.
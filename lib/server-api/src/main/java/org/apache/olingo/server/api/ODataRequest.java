@@ -90,6 +90,15 @@ public class ODataRequest {
     headers.addHeader(name, values);
   }
 
+  /**
+   * Removes a header from the request.
+   * @param name the header name as a case-insensitive key
+   * @return the removed header value(s) or null if not found
+   */
+  public List<String> removeHeader(final String name) {
+    return headers.removeHeader(name);
+  }
+
   /**
    * Gets header values for a given name.
    * @param name the header name as a case-insensitive key
@@ -52,4 +52,14 @@ public interface ServiceMetadata {
    * @return metadata ETag support
    */
   ServiceMetadataETagSupport getServiceMetadataETagSupport();
+
+  /**
+   * Gets the time it took to load the complete entity data model when this service metadata was created
+   * with {@link OData#createPreloadedServiceMetadata(org.apache.olingo.commons.api.edm.provider.CsdlEdmProvider,
+   * List, ServiceMetadataETagSupport)}.
+   * @return loading time in milliseconds, or -1 if the entity data model is loaded on demand
+   */
+  default long getEdmLoadingTime() {
+    return -1;
+  }
 }
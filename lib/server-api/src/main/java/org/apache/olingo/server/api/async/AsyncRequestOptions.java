@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.async;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options for the {@link AsyncRequestService}.
+ */
+public class AsyncRequestOptions {
+
+  private int maxConcurrency = 10;
+  private int queueCapacity = 100;
+  private long spillThreshold = 1024 * 1024;
+  private File spillDirectory;
+  private long resultTimeToLive = TimeUnit.MINUTES.toMillis(10);
+  private boolean virtualThreads;
+  private String statusMonitorSegment = "status";
+
+  /** Gets the maximum number of requests processed in parallel. */
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  /** Gets the maximum number of requests waiting for processing. */
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  /** Gets the size in bytes above which results are stored in temporary files. */
+  public long getSpillThreshold() {
+    return spillThreshold;
+  }
+
+  /** Gets the directory for temporary files, or <code>null</code> for the default temporary-file directory. */
+  public File getSpillDirectory() {
+    return spillDirectory;
+  }
+
+  /** Gets the time in milliseconds a result is kept after processing has finished. */
+  public long getResultTimeToLive() {
+    return resultTimeToLive;
+  }
+
+  /** Whether virtual threads are used for processing, if the Java runtime supports them. */
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /** Gets the path segment of the status monitor resources, which is a sibling of the service root. */
+  public String getStatusMonitorSegment() {
+    return statusMonitorSegment;
+  }
+
+  /** Initializes the options builder. */
+  public static Builder with() {
+    return new Builder();
+  }
+
+  /** Builder of asynchronous-processing options. */
+  public static final class Builder {
+
+    private final AsyncRequestOptions options;
+
+    private Builder() {
+      options = new AsyncRequestOptions();
+    }
+
+    /** Sets the maximum number of requests processed in parallel; the default is 10. */
+    public Builder maxConcurrency(final int maxConcurrency) {
+      if (maxConcurrency < 1) {
+        throw new IllegalArgumentException("At least one request must be processed at a time.");
+      }
+      options.maxConcurrency = maxConcurrency;
+      return this;
+    }
+
+    /** Sets the maximum number of requests waiting for processing; the default is 100. */
+    public Builder queueCapacity(final int queueCapacity) {
+      if (queueCapacity < 1) {
+        throw new IllegalArgumentException("The queue capacity must be positive.");
+      }
+      options.queueCapacity = queueCapacity;
+      return this;
+    }
+
+    /** Sets the size in bytes above which results are stored in temporary files; the default is 1 MiB. */
+    public Builder spillThreshold(final long spillThreshold) {
+      options.spillThreshold = spillThreshold;
+      return this;
+    }
+
+    /** Sets the directory for temporary files. */
+    public Builder spillDirectory(final File spillDirectory) {
+      options.spillDirectory = spillDirectory;
+      return this;
+    }
+
+    /** Sets the time a result is kept after processing has finished; the default is ten minutes. */
+    public Builder resultTimeToLive(final long duration, final TimeUnit unit) {
+      options.resultTimeToLive = unit.toMillis(duration);
+      return this;
+    }
+
+    /**
+     * Sets whether virtual threads are used for processing.
+     * This is ignored on Java runtimes without virtual threads.
+     */
+    public Builder virtualThreads(final boolean virtualThreads) {
+      options.virtualThreads = virtualThreads;
+      return this;
+    }
+
+    /** Sets the path segment of the status monitor resources; the default is <code>status</code>. */
+    public Builder statusMonitorSegment(final String statusMonitorSegment) {
+      options.statusMonitorSegment = statusMonitorSegment;
+      return this;
+    }
+
+    /** Builds the asynchronous-processing options. */
+    public AsyncRequestOptions build() {
+      return options;
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.async;
+
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+
+/**
+ * <p>Executes requests asynchronously and keeps their results until they are read from the status monitor.</p>
+ * <p>At most a configured number of requests are processed in parallel, and at most a configured number of
+ * requests wait for processing; further requests are not admitted and have to be processed synchronously,
+ * which is allowed because <code>respond-async</code> is only a preference.
+ * Large results are stored in temporary files.
+ * Results that are not read within a configured time are discarded.</p>
+ * <p>The status monitor resources are not handled by the OData handler; the application has to route
+ * requests to them, e.g., with a separate servlet, to {@link #readStatus(String, ODataResponse)}.</p>
+ * @see AsyncRequestOptions
+ */
+public interface AsyncRequestService {
+
+  /**
+   * Submits the request for asynchronous processing.
+   * If it is admitted, the response is set to "202 Accepted" with the location of the status monitor.
+   * @param request the request; its body is read immediately
+   * @param response the response of the request
+   * @param task the work to be done
+   * @return the location of the status monitor, or <code>null</code> if the request has not been admitted,
+   *         in which case the response has not been changed, the request body can be read again,
+   *         and the request should be processed synchronously
+   */
+  String submit(ODataRequest request, ODataResponse response, AsyncTask task);
+
+  /**
+   * Reads the status of an asynchronously processed request into the given response.
+   * While processing is not finished, this is "202 Accepted"; then it is "200 OK" with the result
+   * of the request as content of type <code>application/http</code>. The result can be read only once.
+   * "404 Not Found" is used for unknown status monitors and for results that have already been read or discarded.
+   * @param statusMonitorUri the URI of the status monitor resource, as returned by {@link #submit}
+   * @param response the response of the status request
+   */
+  void readStatus(String statusMonitorUri, ODataResponse response);
+
+  /** Gets the number of requests waiting for processing. */
+  int getQueueDepth();
+
+  /** Gets the number of requests currently being processed. */
+  int getActiveCount();
+
+  /** Gets the number of admitted requests. */
+  long getSubmittedCount();
+
+  /** Gets the number of requests that have not been admitted because the queue was full. */
+  long getRejectedCount();
+
+  /** Gets the number of requests that have been processed, with or without error. */
+  long getCompletedCount();
+
+  /** Gets the number of requests whose processing has thrown an exception. */
+  long getFailedCount();
+
+  /** Gets the number of results that have been discarded without having been read. */
+  long getEvictedCount();
+
+  /** Gets the number of results stored in temporary files at the moment. */
+  int getSpilledCount();
+
+  /** Gets the average time in milliseconds requests have been waiting in the queue. */
+  long getAverageWaitingTime();
+
+  /** Gets the average time in milliseconds the processing of requests has taken. */
+  long getAverageProcessingTime();
+
+  /** Gets the maximum time in milliseconds the processing of a request has taken. */
+  long getMaxProcessingTime();
+
+  /**
+   * Stops the processing of queued and running requests and discards all results.
+   * No further requests are admitted.
+   */
+  void shutdown();
+}
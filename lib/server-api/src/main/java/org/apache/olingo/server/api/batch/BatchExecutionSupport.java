@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.batch;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.apache.olingo.server.api.OlingoExtension;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+
+/**
+ * <p>Enables the concurrent execution of independent parts of a batch request.</p>
+ * <p>If this interface is implemented and registered at the ODataHandler,
+ * {@link BatchFacade#handleBatchRequests(List, boolean)} runs consecutive top-level GET requests concurrently
+ * on the given executor. Change sets are included only if the client prefers continue-on-error,
+ * {@link #isConcurrentChangeSet(BatchRequestPart)} allows it, and they do not reference the Content-ID of a part
+ * running concurrently. The order of the response parts is always the order of the request parts.</p>
+ * <p>All registered processors must be able to handle requests from several threads at the same time.</p>
+ */
+public interface BatchExecutionSupport extends OlingoExtension {
+
+  /**
+   * Returns the executor that runs the parts of a batch request concurrently.
+   * @return executor, or <code>null</code> to execute all parts sequentially
+   */
+  Executor getExecutor();
+
+  /**
+   * Determines whether the given change set may run concurrently to other parts of the batch request.
+   * @param changeSet the change set
+   * @return <code>true</code> if the change set is independent of all other parts of the batch request
+   */
+  boolean isConcurrentChangeSet(BatchRequestPart changeSet);
+}
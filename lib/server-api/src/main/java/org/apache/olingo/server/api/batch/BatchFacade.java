@@ -17,6 +17,8 @@
  * under the License.
  */package org.apache.olingo.server.api.batch;
 
+ import java.util.List;
+
  import org.apache.olingo.server.api.ODataApplicationException;
  import org.apache.olingo.server.api.ODataLibraryException;
  import org.apache.olingo.server.api.ODataRequest;
@@ -60,6 +62,19 @@
    public ODataResponsePart handleBatchRequest(BatchRequestPart request)
        throws ODataApplicationException, ODataLibraryException;
 
+   /**
+    * Handles the parts of a batch request in their order.
+    * Processing stops after the first failed part unless <code>continueOnError</code> is set.
+    * If a {@link BatchExecutionSupport} is registered, independent parts are executed concurrently.
+    * @param requests parts to process
+    * @param continueOnError whether the client prefers to continue after a failed part
+    * @return the corresponding {@link ODataResponsePart}s, including the failed one, in the order of the requests
+    * @throws ODataApplicationException
+    * @throws ODataLibraryException
+    */
+   public List<ODataResponsePart> handleBatchRequests(List<BatchRequestPart> requests, boolean continueOnError)
+       throws ODataApplicationException, ODataLibraryException;
+
    /**
     * Extracts the boundary of a multipart/mixed header.
     * See RFC 2046#5.1
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.compression;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+/**
+ * Options for the {@link ContentCompression}.
+ */
+public class CompressionOptions {
+
+  private int minSize = 1024;
+  private int level = Deflater.DEFAULT_COMPRESSION;
+  private boolean gzip = true;
+  private boolean deflate = true;
+  private boolean decompressRequests = true;
+  private long maxDecompressedSize = 64L * 1024 * 1024;
+  private List<String> contentTypes = Collections.unmodifiableList(Arrays.asList(
+      "application/json", "application/xml", "application/atom+xml", "application/http", "multipart/mixed",
+      "text/"));
+
+  /** Gets the content size in bytes below which responses are sent uncompressed. */
+  public int getMinSize() {
+    return minSize;
+  }
+
+  /** Gets the compression level from 0 to 9, or -1 for the default level. */
+  public int getLevel() {
+    return level;
+  }
+
+  /** Whether responses are compressed with the content coding <code>gzip</code>. */
+  public boolean isGzip() {
+    return gzip;
+  }
+
+  /** Whether responses are compressed with the content coding <code>deflate</code>. */
+  public boolean isDeflate() {
+    return deflate;
+  }
+
+  /** Whether request content with the content coding <code>gzip</code> or <code>deflate</code> is decompressed. */
+  public boolean isDecompressRequests() {
+    return decompressRequests;
+  }
+
+  /**
+   * Gets the maximum size in bytes of decompressed request content;
+   * reading beyond it fails, and the request is answered with status 413 (Payload Too Large).
+   */
+  public long getMaxDecompressedSize() {
+    return maxDecompressedSize;
+  }
+
+  /** Gets the compressible content types; an entry ending with a slash stands for all subtypes. */
+  public List<String> getContentTypes() {
+    return contentTypes;
+  }
+
+  /**
+   * Checks whether content of the given type is compressible.
+   * @param contentType the value of a Content-Type header, parameters are ignored
+   */
+  public boolean isCompressible(final String contentType) {
+    if (contentType == null) {
+      return false;
+    }
+    final int separator = contentType.indexOf(';');
+    final String type = (separator < 0 ? contentType : contentType.substring(0, separator))
+        .trim().toLowerCase(Locale.ROOT);
+    for (final String compressible : contentTypes) {
+      if (compressible.endsWith("/") ? type.startsWith(compressible) : type.equals(compressible)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Initializes the options builder. */
+  public static Builder with() {
+    return new Builder();
+  }
+
+  /** Builder of compression options. */
+  public static final class Builder {
+
+    private final CompressionOptions options;
+
+    private Builder() {
+      options = new CompressionOptions();
+    }
+
+    /** Sets the content size in bytes below which responses are sent uncompressed; the default is 1 KiB. */
+    public Builder minSize(final int minSize) {
+      if (minSize < 0) {
+        throw new IllegalArgumentException("The minimum size must not be negative.");
+      }
+      options.minSize = minSize;
+      return this;
+    }
+
+    /** Sets the compression level from 0 (no compression) to 9 (best compression); the default is 6. */
+    public Builder level(final int level) {
+      if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+        throw new IllegalArgumentException("The compression level must be between 0 and 9.");
+      }
+      options.level = level;
+      return this;
+    }
+
+    /** Sets whether responses are compressed with the content coding <code>gzip</code>; the default is true. */
+    public Builder gzip(final boolean gzip) {
+      options.gzip = gzip;
+      return this;
+    }
+
+    /** Sets whether responses are compressed with the content coding <code>deflate</code>; the default is true. */
+    public Builder deflate(final boolean deflate) {
+      options.deflate = deflate;
+      return this;
+    }
+
+    /** Sets whether compressed request content is decompressed; the default is true. */
+    public Builder decompressRequests(final boolean decompressRequests) {
+      options.decompressRequests = decompressRequests;
+      return this;
+    }
+
+    /**
+     * Sets the maximum size in bytes of decompressed request content; the default is 64 MiB.
+     * It protects against small compressed bodies expanding to huge content.
+     */
+    public Builder maxDecompressedSize(final long maxDecompressedSize) {
+      if (maxDecompressedSize <= 0) {
+        throw new IllegalArgumentException("The maximum decompressed size must be positive.");
+      }
+      options.maxDecompressedSize = maxDecompressedSize;
+      return this;
+    }
+
+    /**
+     * Sets the compressible content types, e.g., <code>application/json</code>;
+     * an entry ending with a slash, e.g., <code>text/</code>, stands for all subtypes.
+     * The default are JSON, XML, Atom, text, and batch content.
+     */
+    public Builder contentTypes(final String... contentTypes) {
+      final String[] types = new String[contentTypes.length];
+      for (int i = 0; i < contentTypes.length; i++) {
+        types[i] = contentTypes[i].trim().toLowerCase(Locale.ROOT);
+      }
+      options.contentTypes = Collections.unmodifiableList(Arrays.asList(types));
+      return this;
+    }
+
+    /** Builds the compression options. */
+    public CompressionOptions build() {
+      return options;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.compression;
+
+import org.apache.olingo.server.api.OlingoExtension;
+
+/**
+ * <p>Compresses response content and decompresses request content in the HTTP handlers.</p>
+ * <p>Register it at the ODataHttpHandler or ODataNettyHandler. The response content coding is negotiated
+ * with the Accept-Encoding header of the request, and the content is compressed while it is written,
+ * both for content given as stream and for content serialized on the fly.
+ * Responses which have a Content-Encoding already, e.g., precompressed cached documents, are sent unchanged.
+ * One instance can be shared by all handlers; it is thread-safe.</p>
+ */
+public interface ContentCompression extends OlingoExtension {
+
+  /** Gets the options. */
+  CompressionOptions getOptions();
+
+  /** Gets the number of responses sent compressed. */
+  long getCompressedResponseCount();
+
+  /** Gets the number of content bytes of the compressed responses before compression. */
+  long getUncompressedBytes();
+
+  /** Gets the number of content bytes of the compressed responses after compression. */
+  long getCompressedBytes();
+
+  /** Gets the number of requests with decompressed content. */
+  long getDecompressedRequestCount();
+}
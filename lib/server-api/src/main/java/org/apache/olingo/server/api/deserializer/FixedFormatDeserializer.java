@@ -19,6 +19,7 @@
 package org.apache.olingo.server.api.deserializer;
 
 import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 
 import org.apache.olingo.commons.api.data.Parameter;
@@ -27,6 +28,7 @@ import org.apache.olingo.commons.api.edm.EdmProperty;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPartReader;
 
 public interface FixedFormatDeserializer {
 
@@ -37,6 +39,16 @@ public interface FixedFormatDeserializer {
    */
   public byte[] binary(InputStream content) throws DeserializerException;
 
+  /**
+   * Reads binary data from an InputStream into a channel, without holding the data in memory.
+   * If the target is a {@link java.nio.channels.FileChannel} the data are transferred into the file directly,
+   * starting at its current position.
+   * @param content the binary data as input stream
+   * @param target the channel the binary data are written to; it is not closed
+   * @return the number of bytes read
+   */
+  public long binary(InputStream content, WritableByteChannel target) throws DeserializerException;
+
   /**
    * Reads primitive-type data from an InputStream.
    * @param content the textual value as input stream
@@ -60,4 +72,16 @@ public interface FixedFormatDeserializer {
    */
   public List<BatchRequestPart> parseBatchRequest(InputStream content, String boundary, BatchOptions options)
       throws BatchDeserializerException;
+
+  /**
+   * Reads batch data from an InputStream part by part.
+   * In contrast to {@link #parseBatchRequest(InputStream, String, BatchOptions)} a part is parsed
+   * only when it is requested, so large batch requests can be processed without holding them in memory.
+   * @param content the data as multipart input stream
+   * @param boundary the boundary between the parts
+   * @param options options for the deserializer
+   * @return a reader returning the batch-request parts
+   */
+  public BatchRequestPartReader readBatchRequest(InputStream content, String boundary, BatchOptions options)
+      throws BatchDeserializerException;
 }
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.deserializer.batch;
+
+import java.io.Closeable;
+
+/**
+ * Reads the parts of a batch request one after the other while the request body is consumed.
+ * <p>
+ * Each call of {@link #next()} parses only the next part. Request bodies of the part returned last read directly
+ * from the batch request; the data of a body not read completely is kept in memory once the next part is requested.
+ * Processing a part before requesting the next one therefore keeps the memory consumption independent of the
+ * size of the batch request.
+ * </p>
+ * <p>
+ * Syntax errors are reported when the affected part is reached; parts returned before have been valid.
+ * </p>
+ */
+public interface BatchRequestPartReader extends Closeable {
+
+  /**
+   * Reads the next part of the batch request.
+   * @return the next part or <code>null</code> if all parts have been read
+   * @throws BatchDeserializerException if the part is not valid
+   */
+  BatchRequestPart next() throws BatchDeserializerException;
+}
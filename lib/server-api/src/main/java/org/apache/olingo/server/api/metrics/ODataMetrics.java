@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.metrics;
+
+import org.apache.olingo.server.api.OlingoExtension;
+import org.apache.olingo.server.api.processor.Processor;
+
+/**
+ * <p>Receives timings and counters of the request processing, for example to feed them into a metrics registry
+ * as histograms and counters.</p>
+ * <p>If registered at the ODataHandler, it is called for every request, independently of the debug output;
+ * if none is registered, the library does not take any measurement.
+ * Calls happen on the request threads, so implementations must be thread-safe and should not block.</p>
+ */
+public interface ODataMetrics extends OlingoExtension {
+
+  /** Measured steps of the request processing. */
+  enum Stage {
+    /** Parsing of the resource path and the query options. */
+    URI_PARSING,
+    /** Dispatching to the processor, including the processor's own work. */
+    DISPATCH,
+    /** Serialization of a response body by a serializer created during the request. */
+    SERIALIZATION,
+    /** Deserialization of a request body by a deserializer created during the request. */
+    DESERIALIZATION,
+    /** Processing of a single part of a batch request. */
+    BATCH_PART
+  }
+
+  /**
+   * Records the duration of a processing step.
+   * @param stage the processing step
+   * @param nanos the duration in nanoseconds
+   */
+  void record(Stage stage, long nanos);
+
+  /**
+   * Counts the selection of a processor for a request.
+   * @param processorType the processor interface requested by the dispatcher, e.g., the EntityProcessor interface
+   * @param entitySetName the name of the entity set or singleton the resource path starts with;
+   * <code>null</code> if the path does not start with one
+   */
+  void count(Class<? extends Processor> processorType, String entitySetName);
+}
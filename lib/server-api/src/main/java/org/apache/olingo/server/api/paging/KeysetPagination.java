@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.paging;
+
+import java.net.URI;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.server.api.serializer.SerializerException;
+
+/**
+ * Creates the next link of an entity collection that is paged with keyset-based server-side paging.
+ * The serializer calls it with the last entity written, if the page is full and the entity collection
+ * does not contain a next link already.
+ * @see KeysetPagingHelper#createPagination(String, org.apache.olingo.server.api.uri.UriInfo,
+ * org.apache.olingo.commons.api.edm.EdmEntityType, int)
+ */
+public interface KeysetPagination {
+
+  /** Gets the maximum number of entities in a page. */
+  int getPageSize();
+
+  /**
+   * Creates the next link for the page following the given entity.
+   * @param lastEntity the last entity of the current page
+   * @throws SerializerException if a sort-key value of the entity is missing or wrong
+   */
+  URI createNextLink(Entity lastEntity) throws SerializerException;
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.paging;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.uri.UriInfo;
+
+/**
+ * <p>Used for keyset-based server-side paging.</p>
+ * <p>The sort keys of a page are the expressions of the $orderby system query option, followed by the key
+ * properties of the entity type not already contained in $orderby. Only paths to primitive properties,
+ * possibly through single-valued complex properties, are supported in $orderby.
+ * The processor has to deliver the entities ordered by these sort keys.</p>
+ * <p>The skiptoken contains the sort-key values of the last entity of the previous page.
+ * It is signed, so clients cannot forge positions, and it is only accepted together with the same $orderby
+ * it has been created for.</p>
+ */
+public interface KeysetPagingHelper {
+
+  /**
+   * Gets the position after which the requested page starts, from the $skiptoken system query option.
+   * @param uriInfo the URI information of the request
+   * @param entityType the type of the entities in the collection
+   * @return the position or <code>null</code> if there is no skiptoken, i.e., the first page is requested
+   * @throws KeysetPagingException if the skiptoken is invalid or the $orderby is not supported
+   */
+  KeysetPosition getPosition(UriInfo uriInfo, EdmEntityType entityType) throws KeysetPagingException;
+
+  /**
+   * Creates the skiptoken value for the page following the given entity.
+   * @param uriInfo the URI information of the request
+   * @param entityType the type of the entities in the collection
+   * @param lastEntity the last entity of the current page
+   * @throws KeysetPagingException if the $orderby is not supported
+   * @throws SerializerException if a sort-key value of the entity is missing or wrong
+   */
+  String createSkipToken(UriInfo uriInfo, EdmEntityType entityType, Entity lastEntity)
+      throws KeysetPagingException, SerializerException;
+
+  /**
+   * Creates the pagination for an entity collection.
+   * Set it at the serializer options with
+   * {@link org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions.Builder#pagination(
+   * KeysetPagination) pagination} to let the serializer write the next link.
+   * @param rawRequestUri the request URI, used to construct the next link
+   * @param uriInfo the URI information of the request
+   * @param entityType the type of the entities in the collection
+   * @param pageSize the maximum number of entities in a page
+   * @throws KeysetPagingException if the $orderby is not supported
+   */
+  KeysetPagination createPagination(String rawRequestUri, UriInfo uriInfo, EdmEntityType entityType, int pageSize)
+      throws KeysetPagingException;
+}
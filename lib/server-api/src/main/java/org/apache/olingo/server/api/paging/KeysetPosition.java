@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.paging;
+
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+
+/**
+ * The position in an ordered entity collection after which a page starts.
+ * It can be used to read the page with a range condition on the sort keys,
+ * or, for data in memory, to test entities with {@link #isAfter(Entity)}.
+ */
+public interface KeysetPosition {
+
+  /**
+   * Gets the values of the last entity of the previous page for all sort keys, in order of precedence.
+   * The key properties of the entity type are always contained, so the position is unique.
+   */
+  List<KeysetValue> getValues();
+
+  /**
+   * Checks whether the given entity comes after this position in the order given by the sort keys.
+   * As defined for $orderby, <code>null</code> values come before all other values in ascending order.
+   * @param entity the entity
+   * @return <code>true</code> if the entity belongs to the page starting at this position or a later one
+   */
+  boolean isAfter(Entity entity);
+}
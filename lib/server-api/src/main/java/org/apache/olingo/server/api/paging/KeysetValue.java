@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.paging;
+
+import java.util.List;
+
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+
+/**
+ * The value of one sort key at a {@link KeysetPosition}.
+ */
+public interface KeysetValue {
+
+  /** Gets the names of the properties forming the path from the entity to the primitive property. */
+  List<String> getPath();
+
+  /** Gets the type of the property. */
+  EdmPrimitiveType getType();
+
+  /**
+   * Gets the value, as instance of the default Java type of the property type, or <code>null</code>.
+   * @see EdmPrimitiveType#getDefaultType()
+   */
+  Object getValue();
+
+  /** Whether the entities are sorted in descending order of this key. */
+  boolean isDescending();
+}
@@ -20,7 +20,9 @@ package org.apache.olingo.server.api.processor;
 
 import java.io.ByteArrayInputStream;
 import java.nio.charset.Charset;
+import java.util.List;
 
+import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpMethod;
@@ -46,6 +48,8 @@ import org.apache.olingo.server.api.uri.UriInfo;
  * The default can be replaced by re-registering a custom implementation.</p>
  */
 public class DefaultProcessor implements MetadataProcessor, ServiceDocumentProcessor, ErrorProcessor {
+  private static final String GZIP = "gzip";
+
   private OData odata;
   private ServiceMetadata serviceMetadata;
 
@@ -58,16 +62,40 @@ public class DefaultProcessor implements MetadataProcessor, ServiceDocumentProce
   @Override
   public void readServiceDocument(final ODataRequest request, final ODataResponse response, final UriInfo uriInfo,
       final ContentType requestedContentType) throws ODataApplicationException, ODataLibraryException {
-    boolean isNotModified = false;
-    ServiceMetadataETagSupport eTagSupport = serviceMetadata.getServiceMetadataETagSupport();
-    if (eTagSupport != null && eTagSupport.getServiceDocumentETag() != null) {
-      // Set application etag at response
-      response.setHeader(HttpHeader.ETAG, eTagSupport.getServiceDocumentETag());
-      // Check if service document has been modified
-      ETagHelper eTagHelper = odata.createETagHelper();
-      isNotModified = eTagHelper.checkReadPreconditions(eTagSupport.getServiceDocumentETag(), request
-          .getHeaders(HttpHeader.IF_MATCH), request.getHeaders(HttpHeader.IF_NONE_MATCH));
+    readDocument(request, response, requestedContentType, false);
+  }
+
+  @Override
+  public void readMetadata(final ODataRequest request, final ODataResponse response, final UriInfo uriInfo,
+      final ContentType requestedContentType) throws ODataApplicationException, ODataLibraryException {
+    readDocument(request, response, requestedContentType, true);
+  }
+
+  /**
+   * Sends the metadata document or the service document.
+   * The rendered document is cached per service metadata and content type, see {@link DocumentCache}.
+   * If the application does not provide an entity tag, a strong one is derived from the content.
+   */
+  private void readDocument(final ODataRequest request, final ODataResponse response,
+      final ContentType requestedContentType, final boolean isMetadata) throws ODataLibraryException {
+    final ServiceMetadataETagSupport eTagSupport = serviceMetadata.getServiceMetadataETagSupport();
+    final String applicationETag = eTagSupport == null ? null :
+        isMetadata ? eTagSupport.getMetadataETag() : eTagSupport.getServiceDocumentETag();
+    final String key = (isMetadata ? "$metadata;" : "/;") + requestedContentType.toContentTypeString();
+    final boolean gzip = acceptsGzip(request);
+
+    DocumentCache.Document document = null;
+    String eTag = applicationETag;
+    if (eTag == null) {
+      document = getDocument(key, applicationETag, requestedContentType, isMetadata);
+      eTag = gzip ? document.getGzipETag() : document.getETag();
     }
+    // Set etag at response
+    response.setHeader(HttpHeader.ETAG, eTag);
+    // Check if the document has been modified
+    ETagHelper eTagHelper = odata.createETagHelper();
+    final boolean isNotModified = eTagHelper.checkReadPreconditions(eTag,
+        request.getHeaders(HttpHeader.IF_MATCH), request.getHeaders(HttpHeader.IF_NONE_MATCH));
 
     // Send the correct response
     if (isNotModified) {
@@ -77,42 +105,56 @@ public class DefaultProcessor implements MetadataProcessor, ServiceDocumentProce
       if (HttpMethod.HEAD == request.getMethod()) {
         response.setStatusCode(HttpStatusCode.OK.getStatusCode());
       } else {
-        ODataSerializer serializer = odata.createSerializer(requestedContentType);
-        response.setContent(serializer.serviceDocument(serviceMetadata, null).getContent());
+        if (document == null) {
+          document = getDocument(key, applicationETag, requestedContentType, isMetadata);
+        }
+        if (gzip) {
+          response.setContent(new ByteArrayInputStream(document.getGzipContent()));
+          response.setHeader(HttpHeader.CONTENT_ENCODING, GZIP);
+        } else {
+          response.setContent(new ByteArrayInputStream(document.getContent()));
+        }
+        response.setHeader(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING);
         response.setStatusCode(HttpStatusCode.OK.getStatusCode());
         response.setHeader(HttpHeader.CONTENT_TYPE, requestedContentType.toContentTypeString());
       }
     }
   }
 
-  @Override
-  public void readMetadata(final ODataRequest request, final ODataResponse response, final UriInfo uriInfo,
-      final ContentType requestedContentType) throws ODataApplicationException, ODataLibraryException {
-    boolean isNotModified = false;
-    ServiceMetadataETagSupport eTagSupport = serviceMetadata.getServiceMetadataETagSupport();
-    if (eTagSupport != null && eTagSupport.getMetadataETag() != null) {
-      // Set application etag at response
-      response.setHeader(HttpHeader.ETAG, eTagSupport.getMetadataETag());
-      // Check if metadata document has been modified
-      ETagHelper eTagHelper = odata.createETagHelper();
-      isNotModified = eTagHelper.checkReadPreconditions(eTagSupport.getMetadataETag(), request
-          .getHeaders(HttpHeader.IF_MATCH), request.getHeaders(HttpHeader.IF_NONE_MATCH));
+  private DocumentCache.Document getDocument(final String key, final String applicationETag,
+      final ContentType requestedContentType, final boolean isMetadata) throws ODataLibraryException {
+    final DocumentCache cache = DocumentCache.get(serviceMetadata);
+    final Edm edm = serviceMetadata.getEdm();
+    DocumentCache.Document document = cache.get(key, edm, applicationETag);
+    if (document == null) {
+      ODataSerializer serializer = odata.createSerializer(requestedContentType);
+      document = cache.put(key, edm, applicationETag, isMetadata ?
+          serializer.metadataDocument(serviceMetadata).getContent() :
+          serializer.serviceDocument(serviceMetadata, null).getContent());
     }
+    return document;
+  }
 
-    // Send the correct response
-    if (isNotModified) {
-      response.setStatusCode(HttpStatusCode.NOT_MODIFIED.getStatusCode());
-    } else {
-      // HTTP HEAD requires no payload but a 200 OK response
-      if (HttpMethod.HEAD == request.getMethod()) {
-        response.setStatusCode(HttpStatusCode.OK.getStatusCode());
-      } else {
-        ODataSerializer serializer = odata.createSerializer(requestedContentType);
-        response.setContent(serializer.metadataDocument(serviceMetadata).getContent());
-        response.setStatusCode(HttpStatusCode.OK.getStatusCode());
-        response.setHeader(HttpHeader.CONTENT_TYPE, requestedContentType.toContentTypeString());
+  /** Checks whether the client accepts gzip content coding, with a non-zero quality. */
+  private static boolean acceptsGzip(final ODataRequest request) {
+    final List<String> values = request.getHeaders(HttpHeader.ACCEPT_ENCODING);
+    if (values != null) {
+      for (final String value : values) {
+        for (final String coding : value.split(",")) {
+          final String[] parts = coding.split(";");
+          if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+            for (int i = 1; i < parts.length; i++) {
+              final String parameter = parts[i].trim();
+              if (parameter.startsWith("q=") && parameter.substring(2).matches("0(\\.0{0,3})?")) {
+                return false;
+              }
+            }
+            return true;
+          }
+        }
       }
     }
+    return false;
   }
 
   @Override
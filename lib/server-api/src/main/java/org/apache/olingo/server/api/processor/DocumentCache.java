@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.processor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.serializer.SerializerException;
+
+/**
+ * Cache of rendered metadata and service documents, one per service metadata.
+ * The documents depend only on the service metadata and the content type, so they are rendered once
+ * and then served from memory together with a strong entity tag derived from their content.
+ * A cached document is discarded when the EDM of the service metadata or the entity tag set by the
+ * application changes.
+ */
+final class DocumentCache {
+
+  /** Maximum number of cached documents per service metadata, to protect against arbitrary format parameters. */
+  private static final int MAX_DOCUMENTS = 16;
+
+  private static final Map<ServiceMetadata, DocumentCache> CACHES =
+      Collections.synchronizedMap(new WeakHashMap<ServiceMetadata, DocumentCache>());
+
+  private final Map<String, Document> documents = new ConcurrentHashMap<String, Document>();
+
+  private DocumentCache() {}
+
+  static DocumentCache get(final ServiceMetadata serviceMetadata) {
+    synchronized (CACHES) {
+      DocumentCache cache = CACHES.get(serviceMetadata);
+      if (cache == null) {
+        cache = new DocumentCache();
+        CACHES.put(serviceMetadata, cache);
+      }
+      return cache;
+    }
+  }
+
+  /**
+   * Returns the cached document for the given key if it is still valid for the given EDM and application entity tag.
+   * @return the document or <code>null</code>
+   */
+  Document get(final String key, final Edm edm, final String applicationETag) {
+    final Document document = documents.get(key);
+    return document != null && document.isValidFor(edm, applicationETag) ? document : null;
+  }
+
+  /**
+   * Reads the rendered content and stores it as document, if there is still space in the cache.
+   * @return the document, also when it could not be cached
+   */
+  Document put(final String key, final Edm edm, final String applicationETag, final InputStream content)
+      throws SerializerException {
+    final Document document = new Document(edm, applicationETag, read(content));
+    if (documents.size() < MAX_DOCUMENTS || documents.containsKey(key)) {
+      documents.put(key, document);
+    }
+    return document;
+  }
+
+  private static byte[] read(final InputStream content) throws SerializerException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[8192];
+    try {
+      int count;
+      while ((count = content.read(buffer)) != -1) {
+        output.write(buffer, 0, count);
+      }
+      content.close();
+    } catch (final IOException e) {
+      throw new SerializerException("An I/O exception occurred.", e, SerializerException.MessageKeys.IO_EXCEPTION);
+    }
+    return output.toByteArray();
+  }
+
+  /** A rendered document with its entity tag and, created on first use, its gzip-compressed form. */
+  static final class Document {
+    private final Edm edm;
+    private final String applicationETag;
+    private final byte[] content;
+    private final String eTag;
+    private final String gzipETag;
+    private volatile byte[] gzipContent;
+
+    private Document(final Edm edm, final String applicationETag, final byte[] content) {
+      this.edm = edm;
+      this.applicationETag = applicationETag;
+      this.content = content;
+      final String hash = hash(content);
+      eTag = '"' + hash + '"';
+      // Different content codings of a resource must have different strong entity tags.
+      gzipETag = '"' + hash + "-gzip\"";
+    }
+
+    private boolean isValidFor(final Edm edm, final String applicationETag) {
+      return this.edm == edm
+          && (this.applicationETag == null ? applicationETag == null : this.applicationETag.equals(applicationETag));
+    }
+
+    byte[] getContent() {
+      return content;
+    }
+
+    /** Returns a strong entity tag computed from the content. */
+    String getETag() {
+      return eTag;
+    }
+
+    /** Returns the strong entity tag for the gzip-compressed content. */
+    String getGzipETag() {
+      return gzipETag;
+    }
+
+    byte[] getGzipContent() throws SerializerException {
+      if (gzipContent == null) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(content.length / 4 + 64);
+        try {
+          final GZIPOutputStream gzip = new GZIPOutputStream(output);
+          gzip.write(content);
+          gzip.close();
+        } catch (final IOException e) {
+          throw new SerializerException("An I/O exception occurred.", e,
+              SerializerException.MessageKeys.IO_EXCEPTION);
+        }
+        gzipContent = output.toByteArray();
+      }
+      return gzipContent;
+    }
+
+    private static String hash(final byte[] content) {
+      try {
+        final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+        final StringBuilder hash = new StringBuilder(2 * 16);
+        // Half of the digest is more than enough to tell the versions of a document apart.
+        for (int i = 0; i < 16; i++) {
+          hash.append(Character.forDigit((digest[i] >> 4) & 0x0F, 16))
+              .append(Character.forDigit(digest[i] & 0x0F, 16));
+        }
+        return hash.toString();
+      } catch (final NoSuchAlgorithmException e) {
+        // Every Java platform is required to support SHA-256.
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+}
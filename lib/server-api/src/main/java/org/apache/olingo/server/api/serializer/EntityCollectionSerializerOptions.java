@@ -20,6 +20,7 @@ package org.apache.olingo.server.api.serializer;
 
 import org.apache.olingo.commons.api.data.ContextURL;
 import org.apache.olingo.server.api.ODataContentWriteErrorCallback;
+import org.apache.olingo.server.api.paging.KeysetPagination;
 import org.apache.olingo.server.api.uri.queryoption.CountOption;
 import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
 import org.apache.olingo.server.api.uri.queryoption.SelectOption;
@@ -36,6 +37,7 @@ public class EntityCollectionSerializerOptions {
   private ODataContentWriteErrorCallback odataContentWriteErrorCallback;
   private String xml10InvalidCharReplacement;
   private boolean isFullRepresentation = false;
+  private KeysetPagination pagination;
 
   /** Gets the {@link ContextURL}. */
   public ContextURL getContextURL() {
@@ -88,6 +90,11 @@ public class EntityCollectionSerializerOptions {
     return isFullRepresentation;
   }
 
+  /** Gets the pagination used to create the next link. */
+  public KeysetPagination getPagination() {
+    return pagination;
+  }
+
   /** Initializes the options builder. */
   public static Builder with() {
     return new Builder();
@@ -162,6 +169,15 @@ public class EntityCollectionSerializerOptions {
       return this;
     }
     
+    /**
+     * Sets the pagination used to create the next link from the last entity,
+     * if the collection contains as many entities as the page size and no next link.
+     */
+    public Builder pagination(final KeysetPagination pagination) {
+      options.pagination = pagination;
+      return this;
+    }
+
     /** Builds the OData serializer options. */
     public EntityCollectionSerializerOptions build() {
       return options;
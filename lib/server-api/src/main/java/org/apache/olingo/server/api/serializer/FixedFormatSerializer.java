@@ -36,9 +36,12 @@ public interface FixedFormatSerializer {
   InputStream binary(byte[] binary) throws SerializerException;
   
   /**
-   * Writes bytes to an Input stream
-   * @param mediaEntity bytes
-   * @return
+   * Writes a media resource as streamed content.
+   * If the media resource is given as channel, it is streamed from there and GET requests for it may ask
+   * for a byte range (answered with 206 Partial Content); a file channel is transferred without copying
+   * through the heap where the HTTP handler allows it.
+   * @param mediaEntity the media resource
+   * @return the streamed content
    * @throws SerializerException
    */
   SerializerStreamResult mediaEntityStreamed(EntityMediaObject mediaEntity) throws SerializerException;
@@ -66,6 +69,18 @@ public interface FixedFormatSerializer {
    */
   InputStream batchResponse(List<ODataResponsePart> batchResponses, String boundary) throws BatchSerializerException;
 
+  /**
+   * Serializes a batch response as streamed content.
+   * Every response part is written as soon as it has been serialized, and parts with streamed content
+   * are copied straight through (without a Content-Length header), so the complete response is never
+   * held in memory.
+   * @param batchResponses the response parts
+   * @param boundary the boundary between the parts
+   * @return response as streamed content
+   */
+  SerializerStreamResult batchResponseStreamed(List<ODataResponsePart> batchResponses, String boundary)
+      throws BatchSerializerException;
+
   /**
    * Serializes a ODataResponse into an async response.
    * @param odataResponse the response parts
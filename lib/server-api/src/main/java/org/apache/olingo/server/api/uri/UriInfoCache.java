@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.uri;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.server.api.OlingoExtension;
+
+/**
+ * <p>Bounded cache of parsed request URIs, created with
+ * {@link org.apache.olingo.server.api.OData#createUriInfoCache(int)}.</p>
+ * <p>If registered at the ODataHandler, the {@link UriInfo} parsed for a request is reused for later requests
+ * with the same resource path, query options and base URI. Requests which differ only in the string and integer
+ * literals of key predicates and of $filter or in the values of $top and $skip share the cached parse result;
+ * it is copied with the literals of the request, and key values are validated again.
+ * The least recently used entries are evicted when the maximum size is reached.
+ * All entries are dropped automatically when the handler uses a different EDM.
+ * The same instance should be registered at all handlers of a service; it is thread-safe.</p>
+ * <p>Processors must treat the UriInfo as read-only when the cache is used.</p>
+ */
+public interface UriInfoCache extends OlingoExtension {
+
+  /**
+   * Gets the parse result for a request URI from the cache.
+   * @param edm the EDM the URI is parsed with
+   * @param resourcePath the raw resource path
+   * @param query the raw query, or <code>null</code>
+   * @param baseUri the raw base URI
+   * @return the parse result, or <code>null</code> if the URI has to be parsed
+   */
+  UriInfo get(Edm edm, String resourcePath, String query, String baseUri);
+
+  /**
+   * Puts the parse result for a request URI into the cache.
+   * @param edm the EDM the URI has been parsed with; entries of other EDMs are dropped
+   * @param resourcePath the raw resource path
+   * @param query the raw query, or <code>null</code>
+   * @param baseUri the raw base URI
+   * @param uriInfo the parse result
+   */
+  void put(Edm edm, String resourcePath, String query, String baseUri, UriInfo uriInfo);
+
+  /**
+   * Gets the number of requests whose URI has been found in the cache.
+   * @return the number of cache hits
+   */
+  long getHitCount();
+
+  /**
+   * Gets the number of requests whose URI has been parsed because it was not found in the cache.
+   * @return the number of cache misses
+   */
+  long getMissCount();
+
+  /**
+   * Gets the number of entries removed because the maximum size was reached.
+   * @return the number of evictions
+   */
+  long getEvictionCount();
+
+  /**
+   * Gets the number of cached URIs.
+   * @return the current size
+   */
+  int size();
+
+  /**
+   * Removes all entries.
+   */
+  void clear();
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.uri.queryoption.expression;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.server.api.ODataApplicationException;
+
+/**
+ * An expression compiled by an {@link ExpressionEvaluator}.
+ * It can be evaluated against any number of entities and may be shared between threads.
+ */
+public interface CompiledExpression {
+
+  /**
+   * Evaluates the expression for the given entity.
+   * @param entity the entity
+   * @return the resulting value, or <code>null</code> for the null value;
+   *         a {@link Boolean} for Boolean expressions
+   * @throws ExpressionVisitException if the expression tree is invalid
+   * @throws ODataApplicationException if the expression cannot be evaluated for this entity
+   */
+  Object evaluate(Entity entity) throws ExpressionVisitException, ODataApplicationException;
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.uri.queryoption.expression;
+
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.queryoption.FilterOption;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+
+/**
+ * <p>Evaluates expressions of system query options against entities held in memory.
+ * It can be used by processors which read their entities into a collection before applying
+ * $filter and $orderby.</p>
+ * <p>Expressions are compiled once; the compiled form can be evaluated for any number of entities
+ * without walking the expression tree again. Paths to properties, including those through complex and
+ * navigation properties, literals, aliases, enumerations, operators, and built-in methods are supported.
+ * Functions are called through the {@link FunctionCallHandler} given at creation time.
+ * Lambda expressions are only supported as <code>any</code> on collections of complex properties;
+ * type literals are not supported.</p>
+ */
+public interface ExpressionEvaluator {
+
+  /**
+   * Compiles an expression.
+   * @param expression the expression
+   * @param uriInfo the URI information of the request, used to resolve aliases and function parameters
+   * @return the compiled expression
+   * @throws ExpressionVisitException if the expression tree is invalid
+   * @throws ODataApplicationException if the expression cannot be compiled
+   */
+  CompiledExpression compile(Expression expression, UriInfoResource uriInfo)
+      throws ExpressionVisitException, ODataApplicationException;
+
+  /**
+   * Removes all entities from the list for which the filter expression does not evaluate to <code>true</code>.
+   * @param filterOption the $filter system query option; nothing is done if it is <code>null</code>
+   * @param entities the entities to filter, modified in place
+   * @param uriInfo the URI information of the request
+   * @throws ODataApplicationException if the expression is not a Boolean expression or cannot be evaluated
+   */
+  void applyFilter(FilterOption filterOption, List<Entity> entities, UriInfoResource uriInfo)
+      throws ODataApplicationException;
+
+  /**
+   * Sorts the list of entities. Every order-by expression is evaluated once per entity;
+   * null values sort before all other values.
+   * @param orderByOption the $orderby system query option; nothing is done if it is <code>null</code>
+   * @param entities the entities to sort, modified in place
+   * @param uriInfo the URI information of the request
+   * @throws ODataApplicationException if an expression cannot be evaluated
+   */
+  void applyOrderBy(OrderByOption orderByOption, List<Entity> entities, UriInfoResource uriInfo)
+      throws ODataApplicationException;
+}
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataHandler;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.tecsvc.ETagSupport;
+import org.apache.olingo.server.tecsvc.MetadataETagSupport;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.data.DataProvider.DataProviderException;
+import org.apache.olingo.server.tecsvc.processor.TechnicalActionProcessor;
+import org.apache.olingo.server.tecsvc.processor.TechnicalBatchProcessor;
+import org.apache.olingo.server.tecsvc.processor.TechnicalEntityProcessor;
+import org.apache.olingo.server.tecsvc.processor.TechnicalPrimitiveComplexProcessor;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+
+/**
+ * Shared fixtures for the benchmarks: the technical service model, its data and request payloads.
+ */
+public final class BenchmarkSupport {
+
+  public static final String BASE_URI = "http://localhost/odata";
+  public static final String BATCH_BOUNDARY = "batch_bench";
+  public static final String ES_ALL_PRIM = "ESAllPrim";
+  public static final String ES_COLL_ALL_PRIM = "ESCollAllPrim";
+
+  private static final String CRLF = "\r\n";
+
+  private BenchmarkSupport() {
+    // Utility class
+  }
+
+  public static ServiceMetadata createServiceMetadata(final OData odata) {
+    return odata.createServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList(),
+        new MetadataETagSupport("W/\"metadataETag\""));
+  }
+
+  /**
+   * Creates a handler wired up with the processors of the technical service,
+   * the same way the <code>TechnicalServlet</code> does it.
+   */
+  public static ODataHandler createHandler(final OData odata, final ServiceMetadata serviceMetadata,
+      final DataProvider dataProvider) {
+    ODataHandler handler = odata.createRawHandler(serviceMetadata);
+    handler.register(new TechnicalEntityProcessor(dataProvider, serviceMetadata));
+    handler.register(new TechnicalPrimitiveComplexProcessor(dataProvider, serviceMetadata));
+    handler.register(new TechnicalActionProcessor(dataProvider, serviceMetadata));
+    handler.register(new TechnicalBatchProcessor(dataProvider));
+    handler.register(new ETagSupport());
+    return handler;
+  }
+
+  /**
+   * Builds <code>size</code> entities of the entity set's type by cycling through the
+   * existing test data and assigning new Int16 key values.
+   */
+  public static List<Entity> createEntities(final DataProvider dataProvider, final EdmEntitySet edmEntitySet,
+      final int size) throws DataProviderException {
+    final EdmEntityType entityType = edmEntitySet.getEntityType();
+    final String keyName = entityType.getKeyPredicateNames().get(0);
+    final List<Entity> templates = dataProvider.readAll(edmEntitySet).getEntities();
+    List<Entity> entities = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      final Entity template = templates.get(i % templates.size());
+      Entity entity = new Entity();
+      entity.setType(template.getType());
+      entity.addProperty(new Property(null, keyName, ValueType.PRIMITIVE, (short) (i + 1)));
+      for (final Property property : template.getProperties()) {
+        if (!keyName.equals(property.getName())) {
+          entity.addProperty(new Property(property.getType(), property.getName(), property.getValueType(),
+              property.getValue()));
+        }
+      }
+      entity.setId(URI.create(edmEntitySet.getName() + "(" + (i + 1) + ")"));
+      entities.add(entity);
+    }
+    return entities;
+  }
+
+  public static EntityCollection createEntityCollection(final DataProvider dataProvider,
+      final EdmEntitySet edmEntitySet, final int size) throws DataProviderException {
+    EntityCollection collection = new EntityCollection();
+    collection.getEntities().addAll(createEntities(dataProvider, edmEntitySet, size));
+    return collection;
+  }
+
+  /**
+   * Replaces the content of the entity set in the data provider with <code>size</code> generated entities.
+   */
+  public static void fillEntitySet(final DataProvider dataProvider, final EdmEntitySet edmEntitySet,
+      final int size) throws DataProviderException {
+    final List<Entity> entities = createEntities(dataProvider, edmEntitySet, size);
+    List<Entity> stored = dataProvider.readAll(edmEntitySet).getEntities();
+    stored.clear();
+    stored.addAll(entities);
+  }
+
+  /**
+   * Creates a JSON payload for an entity of type <code>ETCollAllPrim</code> whose
+   * collection-valued properties have <code>collectionSize</code> entries each.
+   */
+  public static byte[] createCollAllPrimPayload(final int collectionSize) {
+    StringBuilder strings = new StringBuilder();
+    StringBuilder ints = new StringBuilder();
+    StringBuilder dates = new StringBuilder();
+    for (int i = 0; i < collectionSize; i++) {
+      if (i > 0) {
+        strings.append(',');
+        ints.append(',');
+        dates.append(',');
+      }
+      strings.append("\"Employee").append(i).append("@company.example\"");
+      ints.append(i * 31);
+      dates.append("\"2012-12-").append(10 + i % 18).append('"');
+    }
+    final String payload = "{\"PropertyInt16\":1,"
+        + "\"CollPropertyString\":[" + strings + "],"
+        + "\"CollPropertyInt32\":[" + ints + "],"
+        + "\"CollPropertyDate\":[" + dates + "]}";
+    return payload.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Creates a multipart/mixed batch payload consisting of <code>parts</code> GET requests,
+   * followed by a change set containing one PATCH request.
+   */
+  public static byte[] createBatchPayload(final int parts) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < parts; i++) {
+      builder.append("--").append(BATCH_BOUNDARY).append(CRLF)
+          .append("Content-Type: application/http").append(CRLF)
+          .append("Content-Transfer-Encoding: binary").append(CRLF)
+          .append(CRLF)
+          .append("GET ").append(ES_ALL_PRIM).append('(').append(i % 3 + 1)
+          .append(")?$select=PropertyString HTTP/1.1").append(CRLF)
+          .append("Accept: application/json").append(CRLF)
+          .append(CRLF)
+          .append(CRLF);
+    }
+    final String changeSetBoundary = "changeset_bench";
+    builder.append("--").append(BATCH_BOUNDARY).append(CRLF)
+        .append("Content-Type: multipart/mixed; boundary=").append(changeSetBoundary).append(CRLF)
+        .append(CRLF)
+        .append("--").append(changeSetBoundary).append(CRLF)
+        .append("Content-Type: application/http").append(CRLF)
+        .append("Content-Transfer-Encoding: binary").append(CRLF)
+        .append("Content-ID: 1").append(CRLF)
+        .append(CRLF)
+        .append("PATCH ").append(ES_ALL_PRIM).append("(1) HTTP/1.1").append(CRLF)
+        .append("Content-Type: application/json").append(CRLF)
+        .append(CRLF)
+        .append("{\"PropertyString\":\"changed\"}").append(CRLF)
+        .append("--").append(changeSetBoundary).append("--").append(CRLF)
+        .append(CRLF)
+        .append("--").append(BATCH_BOUNDARY).append("--");
+    return builder.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  public static ODataRequest createRequest(final HttpMethod method, final String path, final String query) {
+    ODataRequest request = new ODataRequest();
+    request.setMethod(method);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath(path);
+    request.setRawQueryPath(query);
+    request.setRawRequestUri(BASE_URI + path + (query == null ? "" : "?" + query));
+    request.setProtocol("HTTP/1.1");
+    return request;
+  }
+
+  public static ODataRequest createRequest(final HttpMethod method, final String path, final String query,
+      final String contentType, final byte[] body) {
+    ODataRequest request = createRequest(method, path, query);
+    request.setHeader(HttpHeader.CONTENT_TYPE, contentType);
+    request.setBody(new ByteArrayInputStream(body));
+    return request;
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.deserializer.DeserializerResult;
+import org.apache.olingo.server.api.deserializer.ODataDeserializer;
+import org.apache.olingo.server.core.deserializer.json.ODataJsonDeserializer;
+import org.apache.olingo.server.core.deserializer.json.ODataJsonStreamingDeserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures JSON <code>entity</code> deserialization of an <code>ETCollAllPrim</code> entity
+ * whose collection-valued properties have <code>collectionSize</code> entries.
+ * <p><code>jsonEntity</code> uses the {@link ODataJsonStreamingDeserializer}, which has to be enabled
+ * explicitly in services, <code>jsonEntityTree</code> the tree-based {@link ODataJsonDeserializer},
+ * which {@link OData#createDeserializer(ContentType, ServiceMetadata)} returns by default.
+ * Run with <code>-prof gc</code> to compare the allocation per request (<code>gc.alloc.rate.norm</code>).</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 3, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Benchmark)
+public class DeserializerBenchmark {
+
+  @Param({ "10", "100", "1000" })
+  private int collectionSize;
+
+  private EdmEntityType entityType;
+  private ODataDeserializer deserializer;
+  private ODataDeserializer treeDeserializer;
+  private byte[] payload;
+
+  @Setup
+  public void setup() throws Exception {
+    final OData odata = OData.newInstance();
+    final ServiceMetadata metadata = BenchmarkSupport.createServiceMetadata(odata);
+    entityType = metadata.getEdm().getEntityContainer().getEntitySet(BenchmarkSupport.ES_COLL_ALL_PRIM)
+        .getEntityType();
+    deserializer = new ODataJsonStreamingDeserializer(ContentType.JSON, metadata);
+    treeDeserializer = new ODataJsonDeserializer(ContentType.JSON, metadata);
+    payload = BenchmarkSupport.createCollAllPrimPayload(collectionSize);
+  }
+
+  @Benchmark
+  public DeserializerResult jsonEntity() throws Exception {
+    return deserializer.entity(new ByteArrayInputStream(payload), entityType);
+  }
+
+  @Benchmark
+  public DeserializerResult jsonEntityTree() throws Exception {
+    return treeDeserializer.entity(new ByteArrayInputStream(payload), entityType);
+  }
+}
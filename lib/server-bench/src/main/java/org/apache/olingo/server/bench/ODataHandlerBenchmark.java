@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataHandler;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures complete request round trips through the handler returned by
+ * {@link OData#createRawHandler(ServiceMetadata)} against the technical service:
+ * URI parsing, validation, dispatching, processing and serialization of the response body.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 3, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Benchmark)
+public class ODataHandlerBenchmark {
+
+  private static final byte[] PATCH_BODY =
+      "{\"PropertyString\":\"benchmark\",\"PropertyDouble\":42.5}".getBytes(StandardCharsets.UTF_8);
+
+  @Param({ "10", "100", "1000" })
+  private int size;
+
+  private ODataHandler handler;
+  private byte[] batchPayload;
+
+  @Setup
+  public void setup() throws Exception {
+    final OData odata = OData.newInstance();
+    final ServiceMetadata metadata = BenchmarkSupport.createServiceMetadata(odata);
+    final DataProvider dataProvider = new DataProvider(odata, metadata.getEdm());
+    final EdmEntitySet edmEntitySet =
+        metadata.getEdm().getEntityContainer().getEntitySet(BenchmarkSupport.ES_ALL_PRIM);
+    BenchmarkSupport.fillEntitySet(dataProvider, edmEntitySet, size);
+    handler = BenchmarkSupport.createHandler(odata, metadata, dataProvider);
+    batchPayload = BenchmarkSupport.createBatchPayload(size);
+  }
+
+  @Benchmark
+  public long readEntity() throws Exception {
+    return execute(BenchmarkSupport.createRequest(HttpMethod.GET, "/ESAllPrim(1)", null), 200);
+  }
+
+  @Benchmark
+  public long readEntityCollectionJson() throws Exception {
+    return execute(BenchmarkSupport.createRequest(HttpMethod.GET, "/ESAllPrim", "$format=json"), 200);
+  }
+
+  @Benchmark
+  public long readEntityCollectionXml() throws Exception {
+    return execute(BenchmarkSupport.createRequest(HttpMethod.GET, "/ESAllPrim", "$format=xml"), 200);
+  }
+
+  @Benchmark
+  public long readEntityCollectionFilterOrderBy() throws Exception {
+    return execute(BenchmarkSupport.createRequest(HttpMethod.GET, "/ESAllPrim",
+        "$filter=PropertyInt16%20gt%202&$orderby=PropertyString%20desc,PropertyInt16&$select=PropertyString"), 200);
+  }
+
+  @Benchmark
+  public long updateEntity() throws Exception {
+    return execute(BenchmarkSupport.createRequest(HttpMethod.PATCH, "/ESAllPrim(1)", null,
+        ContentType.JSON.toContentTypeString(), PATCH_BODY), 200);
+  }
+
+  @Benchmark
+  public long batch() throws Exception {
+    return execute(BenchmarkSupport.createRequest(HttpMethod.POST, "/$batch", null,
+        ContentType.MULTIPART_MIXED + ";boundary=" + BenchmarkSupport.BATCH_BOUNDARY, batchPayload), 200);
+  }
+
+  private long execute(final ODataRequest request, final int expectedStatusCode) throws Exception {
+    final ODataResponse response = handler.process(request);
+    if (response.getStatusCode() != expectedStatusCode) {
+      throw new IllegalStateException("Unexpected status code " + response.getStatusCode() + " for "
+          + request.getMethod() + ' ' + request.getRawRequestUri() + ": "
+          + (response.getContent() == null ? "" : IOUtils.toString(response.getContent(), "UTF-8")));
+    }
+    final InputStream content = response.getContent();
+    return content == null ? 0 : IOUtils.copyLarge(content, NullOutputStream.NULL_OUTPUT_STREAM);
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.core.serializer.json.JsonPrimitiveValueWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Measures writing {@value #VALUES} primitive values of one kind to a JSON generator.
+ * <p><code>direct</code> writes them the way the JSON serializer does, through
+ * {@link JsonPrimitiveValueWriter}; <code>valueToString</code> formats every value with
+ * {@link EdmPrimitiveType#valueToString} first, as the serializer did before. Run with <code>-prof gc</code>
+ * and divide <code>gc.alloc.rate.norm</code> by {@value #VALUES} to get the allocation per value.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 3, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Benchmark)
+public class PrimitiveValueBenchmark {
+
+  public static final int VALUES = 1000;
+
+  @Param({ "Int32", "Int64", "Double", "Decimal", "String", "Date", "DateTimeOffset", "TimeOfDay" })
+  private EdmPrimitiveTypeKind kind;
+
+  private EdmPrimitiveType type;
+  private List<Object> values;
+  private JsonFactory jsonFactory;
+
+  @Setup
+  public void setup() throws Exception {
+    type = OData.newInstance().createPrimitiveTypeInstance(kind);
+    values = new ArrayList<>(VALUES);
+    for (int i = 0; i < VALUES; i++) {
+      values.add(createValue(i));
+    }
+    jsonFactory = new JsonFactory();
+  }
+
+  private Object createValue(final int i) {
+    switch (kind) {
+    case Int32:
+      return i * 31;
+    case Int64:
+      return i * 1000000007L;
+    case Double:
+      return i * 1.25;
+    case Decimal:
+      return BigDecimal.valueOf(i * 17L);
+    case String:
+      return "Employee" + i + "@company.example";
+    case Date:
+      return LocalDate.ofEpochDay(15000 + i);
+    case DateTimeOffset:
+      final Timestamp timestamp = new Timestamp(1356000000000L + i * 3600123L);
+      timestamp.setNanos(i * 1000);
+      return timestamp;
+    case TimeOfDay:
+      return LocalTime.ofSecondOfDay(i * 37L);
+    default:
+      throw new IllegalArgumentException("Unsupported kind " + kind);
+    }
+  }
+
+  @Benchmark
+  public long direct() throws Exception {
+    try (JsonGenerator json = jsonFactory.createGenerator(NullOutputStream.NULL_OUTPUT_STREAM)) {
+      json.writeStartArray();
+      for (final Object value : values) {
+        JsonPrimitiveValueWriter.write(type, value, null, null, null, null, false, json);
+      }
+      json.writeEndArray();
+      return json.getOutputBuffered();
+    }
+  }
+
+  @Benchmark
+  public long valueToString() throws Exception {
+    try (JsonGenerator json = jsonFactory.createGenerator(NullOutputStream.NULL_OUTPUT_STREAM)) {
+      json.writeStartArray();
+      for (final Object value : values) {
+        write(type.valueToString(value, null, null, null, null, null), json);
+      }
+      json.writeEndArray();
+      return json.getOutputBuffered();
+    }
+  }
+
+  private void write(final String value, final JsonGenerator json) throws IOException {
+    if (kind == EdmPrimitiveTypeKind.Int32 || kind == EdmPrimitiveTypeKind.Int64
+        || kind == EdmPrimitiveTypeKind.Double || kind == EdmPrimitiveTypeKind.Decimal) {
+      json.writeNumber(value);
+    } else {
+      json.writeString(value);
+    }
+  }
+}
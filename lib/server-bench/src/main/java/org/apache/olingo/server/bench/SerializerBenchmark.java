@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.olingo.commons.api.data.ContextURL;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions;
+import org.apache.olingo.server.api.serializer.ODataSerializer;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures <code>entityCollection</code> serialization of <code>ESAllPrim</code> entities
+ * in JSON and XML, including draining the resulting stream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 3, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Benchmark)
+public class SerializerBenchmark {
+
+  @Param({ "10", "100", "1000" })
+  private int size;
+
+  private ServiceMetadata metadata;
+  private EdmEntitySet edmEntitySet;
+  private EntityCollection entityCollection;
+  private EntityCollectionSerializerOptions options;
+  private ODataSerializer jsonSerializer;
+  private ODataSerializer xmlSerializer;
+
+  @Setup
+  public void setup() throws Exception {
+    final OData odata = OData.newInstance();
+    metadata = BenchmarkSupport.createServiceMetadata(odata);
+    edmEntitySet = metadata.getEdm().getEntityContainer().getEntitySet(BenchmarkSupport.ES_ALL_PRIM);
+    entityCollection = BenchmarkSupport.createEntityCollection(
+        new DataProvider(odata, metadata.getEdm()), edmEntitySet, size);
+    options = EntityCollectionSerializerOptions.with()
+        .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+        .id("ESAllPrim")
+        .build();
+    jsonSerializer = odata.createSerializer(ContentType.JSON);
+    xmlSerializer = odata.createSerializer(ContentType.APPLICATION_XML);
+  }
+
+  @Benchmark
+  public long jsonEntityCollection() throws Exception {
+    return drain(jsonSerializer.entityCollection(metadata, edmEntitySet.getEntityType(), entityCollection, options)
+        .getContent());
+  }
+
+  @Benchmark
+  public long xmlEntityCollection() throws Exception {
+    return drain(xmlSerializer.entityCollection(metadata, edmEntitySet.getEntityType(), entityCollection, options)
+        .getContent());
+  }
+
+  private static long drain(final InputStream content) throws Exception {
+    return IOUtils.copyLarge(content, NullOutputStream.NULL_OUTPUT_STREAM);
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Parser#parseUri(String, String, String, String)} for typical URI shapes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 3, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Benchmark)
+public class UriParserBenchmark {
+
+  @Param({ "entitySet", "key", "filterOrderBy", "expandSelect" })
+  private String shape;
+
+  private OData odata;
+  private Edm edm;
+  private String path;
+  private String query;
+
+  @Setup
+  public void setup() {
+    odata = OData.newInstance();
+    edm = BenchmarkSupport.createServiceMetadata(odata).getEdm();
+    if ("entitySet".equals(shape)) {
+      path = "ESAllPrim";
+      query = null;
+    } else if ("key".equals(shape)) {
+      path = "ESAllPrim(32767)";
+      query = null;
+    } else if ("filterOrderBy".equals(shape)) {
+      path = "ESAllPrim";
+      query = "$filter=PropertyInt16%20gt%205%20and%20startswith(PropertyString,'First')"
+          + "&$orderby=PropertyString%20desc,PropertyInt32&$top=20&$skip=5&$count=true";
+    } else if ("expandSelect".equals(shape)) {
+      path = "ESTwoKeyNav";
+      query = "$select=PropertyInt16,PropertyString"
+          + "&$expand=NavPropertyETKeyNavOne($select=PropertyString;$expand=NavPropertyETTwoKeyNavMany)";
+    } else {
+      throw new IllegalArgumentException("Unknown URI shape " + shape);
+    }
+  }
+
+  @Benchmark
+  public UriInfo parseUri() throws Exception {
+    return new Parser(edm, odata).parseUri(path, query, null, BenchmarkSupport.BASE_URI);
+  }
+}
@@ -0,0 +1,32 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+/**
+ * <p>JMH micro benchmarks for the server request pipeline, run against the model and data of the
+ * technical service (<code>odata-server-tecsvc</code>).</p>
+ * <p>The module is built with the rest of the library so that the benchmarks keep compiling;
+ * they are executed explicitly from the self-contained jar:</p>
+ * <pre>
+ * mvn install -pl lib/server-bench -am -DskipTests
+ * java -jar lib/server-bench/target/benchmarks.jar -prof gc -rf json -rff result.json
+ * </pre>
+ * <p>The results of a reference run are kept in <code>baseline/jmh-result.json</code> of this module;
+ * compare a new result file against it (e.g. with a JMH result visualizer) to spot regressions.
+ * Re-record the baseline on the same machine whenever a change intentionally alters performance.</p>
+ */
+package org.apache.olingo.server.bench;
@@ -18,12 +18,14 @@
  */
 package org.apache.olingo.server.core.requests;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
 
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpMethod;
@@ -37,6 +39,7 @@ import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPartReader;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 import org.apache.olingo.server.core.ContentNegotiatorException;
 import org.apache.olingo.server.core.ServiceDispatcher;
@@ -68,45 +71,55 @@ public class BatchRequest extends ServiceRequest {
     final BatchOptions options = BatchOptions.with().rawBaseUri(request.getRawBaseUri())
         .rawServiceResolutionUri(this.request.getRawServiceResolutionUri()).build();
 
-    final List<BatchRequestPart> parts = this.odata.createFixedFormatDeserializer()
-        .parseBatchRequest(request.getBody(), boundary, options);
+    // Each part is processed before the next one is read, so request bodies are read directly from the batch.
+    final BatchRequestPartReader reader = this.odata.createFixedFormatDeserializer()
+        .readBatchRequest(request.getBody(), boundary, options);
 
     ODataResponsePart partResponse = null;
     final List<ODataResponsePart> responseParts = new ArrayList<ODataResponsePart>();
 
-    for (BatchRequestPart part : parts) {
-      if (part.isChangeSet()) {
-        String txnId = null;
-        try {
-          txnId = handler.startTransaction();
-          partResponse = processChangeSet(part, handler);
-          if (partResponse.getResponses().get(0).getStatusCode() >= 400) {
-            handler.rollback(txnId);
-          } else {
-            handler.commit(txnId);
+    try {
+      BatchRequestPart part;
+      while ((part = reader.next()) != null) {
+        if (part.isChangeSet()) {
+          String txnId = null;
+          try {
+            txnId = handler.startTransaction();
+            partResponse = processChangeSet(part, handler);
+            if (partResponse.getResponses().get(0).getStatusCode() >= 400) {
+              handler.rollback(txnId);
+            } else {
+              handler.commit(txnId);
+            }
+          } catch(ODataLibraryException e) {
+            if (txnId != null) {
+              handler.rollback(txnId);
+            }
+            throw e;
+          } catch (ODataApplicationException e) {
+            if (txnId != null) {
+              handler.rollback(txnId);
+            }
+            throw e;
           }
-        } catch(ODataLibraryException e) {
-          if (txnId != null) {
-            handler.rollback(txnId);
-          }
-          throw e;
-        } catch (ODataApplicationException e) {
-          if (txnId != null) {
-            handler.rollback(txnId);
-          }
-          throw e;
+        } else {
+          // single request, a static request
+          ODataRequest partRequest = part.getRequests().get(0);
+          partResponse = process(partRequest, handler);
         }
-      } else {
-        // single request, a static request
-        ODataRequest partRequest = part.getRequests().get(0);
-        partResponse = process(partRequest, handler);
-      }
-      responseParts.add(partResponse);
+        responseParts.add(partResponse);
 
-      // on error, should we continue?
-      final int statusCode = partResponse.getResponses().get(0).getStatusCode();
-      if ((statusCode >= 400 && statusCode <= 600) && !continueOnError) {
-        break;
+        // on error, should we continue?
+        final int statusCode = partResponse.getResponses().get(0).getStatusCode();
+        if ((statusCode >= 400 && statusCode <= 600) && !continueOnError) {
+          break;
+        }
+      }
+    } finally {
+      try {
+        reader.close();
+      } catch (final IOException e) {
+        throw new ODataRuntimeException(e);
       }
     }
 
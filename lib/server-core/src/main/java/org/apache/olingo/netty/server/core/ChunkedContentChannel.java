@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.netty.server.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+
+/**
+ * Writable channel which sends everything written to it as HTTP chunks.
+ * Data is collected in pooled direct buffers of the channel's allocator and written as
+ * {@link DefaultHttpContent} whenever a buffer is full; {@link #close()} sends the remainder
+ * followed by the {@link LastHttpContent}.
+ * If the Netty channel is not writable the writer waits for the previous chunk to be flushed,
+ * so at most the channel's high water mark plus one chunk is buffered.
+ * Waiting is not possible on the event loop; there all chunks are queued in the channel,
+ * so content of unbounded size must be written from another thread.
+ */
+class ChunkedContentChannel implements WritableByteChannel {
+
+  private final ChannelHandlerContext ctx;
+  private final int chunkSize;
+  private ByteBuf buffer;
+  private ChannelFuture lastWrite;
+  private boolean open = true;
+
+  ChunkedContentChannel(final ChannelHandlerContext ctx, final int chunkSize) {
+    this.ctx = ctx;
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public int write(final ByteBuffer src) throws IOException {
+    if (!open) {
+      throw new ClosedChannelException();
+    }
+    final int written = src.remaining();
+    while (src.hasRemaining()) {
+      if (buffer == null) {
+        buffer = ctx.alloc().directBuffer(chunkSize);
+      }
+      final int count = Math.min(src.remaining(), buffer.writableBytes());
+      final int limit = src.limit();
+      src.limit(src.position() + count);
+      buffer.writeBytes(src);
+      src.limit(limit);
+      if (!buffer.isWritable()) {
+        sendChunk();
+      }
+    }
+    return written;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return open;
+  }
+
+  @Override
+  public void close() throws IOException {
+    finish();
+  }
+
+  /**
+   * Sends the buffered data and the last chunk.
+   * @return future of the last chunk
+   */
+  ChannelFuture finish() throws IOException {
+    if (open) {
+      open = false;
+      if (buffer != null && buffer.isReadable()) {
+        sendChunk();
+      } else if (buffer != null) {
+        buffer.release();
+        buffer = null;
+      }
+      lastWrite = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT, ctx.channel().newPromise());
+    }
+    return lastWrite;
+  }
+
+  /**
+   * Releases buffered data without sending it, e.g. after the content producer failed.
+   */
+  void discard() {
+    open = false;
+    if (buffer != null) {
+      buffer.release();
+      buffer = null;
+    }
+  }
+
+  private void sendChunk() throws IOException {
+    awaitWritable();
+    final ByteBuf chunk = buffer;
+    buffer = null;
+    // promise bound to the event loop, so it can be awaited from a handler executor as well
+    lastWrite = ctx.writeAndFlush(new DefaultHttpContent(chunk), ctx.channel().newPromise());
+  }
+
+  private void awaitWritable() throws IOException {
+    if (lastWrite == null || ctx.channel().isWritable() || ctx.channel().eventLoop().inEventLoop()) {
+      return;
+    }
+    lastWrite.awaitUninterruptibly();
+    if (!lastWrite.isSuccess()) {
+      discard();
+      throw new IOException("Writing the response failed.", lastWrite.cause());
+    }
+  }
+}
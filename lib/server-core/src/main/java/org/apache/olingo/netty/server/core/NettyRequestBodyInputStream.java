@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.netty.server.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+
+/**
+ * <p>Request body for the streaming mode of the Netty handler.</p>
+ * <p>The channel handler hands every {@link HttpContent} of the request to {@link #offer(HttpContent)}
+ * while the OData processing reads from this stream, so deserializers consume the body as it arrives
+ * instead of waiting for an aggregated request.
+ * If more than <code>highWaterMark</code> bytes are buffered, auto-read is switched off on the channel
+ * until the reader has drained the queue to half of it.</p>
+ * <p>Reading blocks until data is available; the stream therefore has to be consumed outside of the
+ * channel's event loop, e.g. by adding the OData channel handler with its own
+ * {@link io.netty.util.concurrent.EventExecutorGroup}.
+ * A read waits at most <code>readTimeoutMillis</code> for the next chunk.
+ * If the channel is closed before the body is complete, or the channel handler reports an error with
+ * {@link #fail(Throwable)}, e.g. from <code>exceptionCaught</code>, the waiting reader fails as well.</p>
+ */
+public class NettyRequestBodyInputStream extends InputStream {
+
+  public static final int DEFAULT_HIGH_WATER_MARK = 64 * 1024;
+  public static final long DEFAULT_READ_TIMEOUT_MILLIS = 60 * 1000;
+
+  private static final ByteBuf END = Unpooled.buffer(0);
+  private static final ByteBuf FAILED = Unpooled.buffer(0);
+
+  private final Channel channel;
+  private final long highWaterMark;
+  private final long readTimeoutMillis;
+  private final BlockingQueue<ByteBuf> queue = new LinkedBlockingQueue<ByteBuf>();
+  private final AtomicLong pending = new AtomicLong();
+  private final AtomicBoolean suspended = new AtomicBoolean();
+  private final ChannelFutureListener closeListener = new ChannelFutureListener() {
+    @Override
+    public void operationComplete(final ChannelFuture future) {
+      fail(new ClosedChannelException());
+    }
+  };
+  private volatile boolean closed;
+  private volatile Throwable failure;
+  private boolean ended;
+  private boolean finished;
+  private ByteBuf current;
+
+  public NettyRequestBodyInputStream(final Channel channel) {
+    this(channel, DEFAULT_HIGH_WATER_MARK);
+  }
+
+  public NettyRequestBodyInputStream(final Channel channel, final int highWaterMark) {
+    this(channel, highWaterMark, DEFAULT_READ_TIMEOUT_MILLIS);
+  }
+
+  public NettyRequestBodyInputStream(final Channel channel, final int highWaterMark, final long readTimeoutMillis) {
+    this.channel = channel;
+    this.highWaterMark = highWaterMark;
+    this.readTimeoutMillis = readTimeoutMillis;
+    channel.closeFuture().addListener(closeListener);
+  }
+
+  /**
+   * Adds the next chunk of the request body.
+   * The content is retained as long as it is buffered; the caller keeps its own reference.
+   * @param content chunk of the request; a {@link LastHttpContent} ends the body
+   */
+  public synchronized void offer(final HttpContent content) {
+    final ByteBuf buf = content.content();
+    if (closed || ended) {
+      return;
+    }
+    if (buf.isReadable()) {
+      pending.addAndGet(buf.readableBytes());
+      queue.add(buf.retain());
+    }
+    if (content instanceof LastHttpContent) {
+      end(END);
+    } else if (pending.get() > highWaterMark && suspended.compareAndSet(false, true)) {
+      updateAutoRead();
+    }
+  }
+
+  /**
+   * Aborts the request body, e.g. because the channel handler caught an exception.
+   * Chunks offered before are still read; after them, reading fails with an {@link IOException}
+   * caused by the given exception. Closing the channel aborts an incomplete body as well.
+   * @param cause reason for the abort
+   */
+  public synchronized void fail(final Throwable cause) {
+    if (closed || ended) {
+      return;
+    }
+    failure = cause;
+    end(FAILED);
+  }
+
+  private void end(final ByteBuf marker) {
+    ended = true;
+    queue.add(marker);
+    channel.closeFuture().removeListener(closeListener);
+  }
+
+  @Override
+  public int read() throws IOException {
+    final ByteBuf buf = next();
+    if (buf == null) {
+      return -1;
+    }
+    final int b = buf.readByte() & 0xFF;
+    consumed(1);
+    return b;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    final ByteBuf buf = next();
+    if (buf == null) {
+      return -1;
+    }
+    final int count = Math.min(len, buf.readableBytes());
+    buf.readBytes(b, off, count);
+    consumed(count);
+    return count;
+  }
+
+  @Override
+  public int available() {
+    return current == null ? 0 : current.readableBytes();
+  }
+
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    channel.closeFuture().removeListener(closeListener);
+    release(current);
+    current = null;
+    ByteBuf buf;
+    while ((buf = queue.poll()) != null) {
+      release(buf);
+    }
+    resume();
+  }
+
+  private ByteBuf next() throws IOException {
+    if (closed) {
+      throw new IOException("Stream is closed.");
+    }
+    if (current != null && current.isReadable()) {
+      return current;
+    }
+    release(current);
+    current = null;
+    if (finished) {
+      return null;
+    }
+    ByteBuf buf = queue.poll();
+    if (buf == null) {
+      if (channel.eventLoop().inEventLoop()) {
+        throw new IOException("Request body is not complete; reading it would block the event loop.");
+      }
+      try {
+        buf = queue.poll(readTimeoutMillis, TimeUnit.MILLISECONDS);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for the request body.");
+      }
+      if (buf == null) {
+        throw new SocketTimeoutException("No request body content received within " + readTimeoutMillis + " ms.");
+      }
+    }
+    if (buf == FAILED) {
+      // keep the marker, so that every further read fails as well
+      queue.add(FAILED);
+      throw aborted();
+    }
+    if (buf == END) {
+      finished = true;
+      return null;
+    }
+    current = buf;
+    return current;
+  }
+
+  private IOException aborted() {
+    return new IOException("Receiving the request body has been aborted.", failure);
+  }
+
+  private void consumed(final int count) {
+    if (pending.addAndGet(-count) <= highWaterMark / 2) {
+      resume();
+    }
+  }
+
+  private void resume() {
+    if (suspended.compareAndSet(true, false)) {
+      updateAutoRead();
+    }
+  }
+
+  /**
+   * Applies the current suspension state to the channel on its event loop.
+   * The state is read when the task runs, so a late task cannot undo a newer change.
+   */
+  private void updateAutoRead() {
+    if (channel.eventLoop().inEventLoop()) {
+      channel.config().setAutoRead(!suspended.get());
+    } else {
+      channel.eventLoop().execute(new Runnable() {
+        @Override
+        public void run() {
+          channel.config().setAutoRead(!suspended.get());
+        }
+      });
+    }
+  }
+
+  private static void release(final ByteBuf buf) {
+    if (buf != null && buf != END && buf != FAILED) {
+      buf.release();
+    }
+  }
+}
@@ -30,6 +30,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.http.HttpHeader;
@@ -41,37 +47,104 @@ import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ODataServerError;
+import org.apache.olingo.server.api.OlingoExtension;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.processor.Processor;
 import org.apache.olingo.server.core.ODataExceptionHelper;
 import org.apache.olingo.server.core.ODataHandlerException;
 import org.apache.olingo.server.core.ODataHandlerImpl;
+import org.apache.olingo.server.core.compression.CompressingOutputStream;
+import org.apache.olingo.server.core.compression.CompressingOutputStream.ContentCodingListener;
+import org.apache.olingo.server.core.compression.ContentCompressionImpl;
 import org.apache.olingo.server.core.debug.ServerCoreDebugger;
+import org.apache.olingo.server.core.media.MediaContent;
 
-import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
 import io.netty.buffer.ByteBufOutputStream;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpChunkedInput;
 import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpMessage;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedNioFile;
+import io.netty.handler.stream.ChunkedStream;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.PromiseNotifier;
 
 public class ODataNettyHandlerImpl implements ODataNettyHandler {
 
   public static final int COPY_BUFFER_SIZE = 8192;
 
+  /** Maximum number of threads of the default executor producing response content. */
+  public static final int DEFAULT_CONTENT_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+  /** Maximum number of responses waiting for a thread of the default executor. */
+  public static final int DEFAULT_CONTENT_QUEUE_SIZE = 1024;
+
   private final ODataHandlerImpl handler;
   private final ServerCoreDebugger debugger;
+  /** Produces response content for requests processed on the event loop. */
+  private final ExecutorService contentExecutor;
+  private final boolean ownsContentExecutor;
   
   private static final String CONTEXT_PATH = "contextPath";
   private static final String SPLIT = "split";
 
   private int split = 0;
+  private ContentCompressionImpl compression;
 
+  /**
+   * Creates a handler with its own bounded executor for response content; {@link #close()} shuts it down.
+   */
   public ODataNettyHandlerImpl(final OData odata, final ServiceMetadata serviceMetadata) {
+    this(odata, serviceMetadata, createContentExecutor(), true);
+  }
+
+  /**
+   * Creates a handler producing response content of requests processed on the event loop with the
+   * given executor. The executor remains owned by the caller and is not shut down by {@link #close()}.
+   * If the executor rejects a response, its content is produced on the event loop.
+   */
+  public ODataNettyHandlerImpl(final OData odata, final ServiceMetadata serviceMetadata,
+      final ExecutorService contentExecutor) {
+    this(odata, serviceMetadata, contentExecutor, false);
+  }
+
+  private ODataNettyHandlerImpl(final OData odata, final ServiceMetadata serviceMetadata,
+      final ExecutorService contentExecutor, final boolean ownsContentExecutor) {
     debugger = new ServerCoreDebugger(odata);
     handler = new ODataHandlerImpl(odata, serviceMetadata, debugger);
+    this.contentExecutor = contentExecutor;
+    this.ownsContentExecutor = ownsContentExecutor;
+  }
+
+  /** Threads end when idle; the queue and the number of threads are bounded. */
+  private static ExecutorService createContentExecutor() {
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_CONTENT_THREADS, DEFAULT_CONTENT_THREADS,
+        60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(DEFAULT_CONTENT_QUEUE_SIZE),
+        new DefaultThreadFactory("odata-netty-content", true));
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /** Shuts down the executor for response content if the handler created it. */
+  @Override
+  public void close() {
+    if (ownsContentExecutor) {
+      contentExecutor.shutdown();
+    }
   }
   
   private ODataResponse handleException(final ODataRequest odRequest, final Exception e) {
@@ -109,6 +182,36 @@ public class ODataNettyHandlerImpl implements ODataNettyHandler {
 	    }
 	  }
   
+  /**
+   * Convert the OData Response to Netty Response, compressing the content if the client accepts it
+   * @param response
+   * @param odResponse
+   * @param compression content compression
+   * @param acceptEncoding value of the Accept-Encoding header of the request
+   */
+  static void convertToHttp(final HttpResponse response, final ODataResponse odResponse,
+      final ContentCompressionImpl compression, final String acceptEncoding) {
+    final String contentCoding = compression.negotiate(odResponse, acceptEncoding);
+    if (contentCoding == null) {
+      convertToHttp(response, odResponse);
+      return;
+    }
+
+    response.setStatus(HttpResponseStatus.valueOf(odResponse.getStatusCode()));
+    for (Entry<String, List<String>> entry : odResponse.getAllHeaders().entrySet()) {
+      response.headers().add(entry.getKey(), entry.getValue());
+    }
+    response.headers().remove(HttpHeaderNames.CONTENT_LENGTH);
+    final CompressingOutputStream output = compression.compress(
+        new ByteBufOutputStream(((HttpContent) response).content()), contentCoding,
+        new HeaderListener(response, odResponse.getHeader(HttpHeader.CONTENT_LENGTH)));
+    try {
+      writeContent(odResponse, output);
+    } catch (IOException e) {
+      throw new ODataRuntimeException("Error on writing response content", e);
+    }
+  }
+
   /**
    * Write the odata content to netty response content
    * @param odataResponse
@@ -130,20 +233,26 @@ public class ODataNettyHandlerImpl implements ODataNettyHandler {
    */
   static void copyContent(final ReadableByteChannel input, final HttpResponse response) {
     try (WritableByteChannel output = Channels.newChannel(new ByteBufOutputStream(((HttpContent)response).content()))){
-        ByteBuffer inBuffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
-        while (input.read(inBuffer) > 0) {
-          inBuffer.flip();
-          output.write(inBuffer);
-          inBuffer.clear();
-        }
-        closeStream(output);
+        copyContent(input, output);
       } catch (IOException e) {
         throw new ODataRuntimeException("Error on reading request content", e);
-      } finally {
-        closeStream(input);
       }
   }
 
+  private static void copyContent(final ReadableByteChannel input, final WritableByteChannel output)
+      throws IOException {
+    try {
+      ByteBuffer inBuffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+      while (input.read(inBuffer) > 0) {
+        inBuffer.flip();
+        output.write(inBuffer);
+        inBuffer.clear();
+      }
+    } finally {
+      closeStream(input);
+    }
+  }
+
   private static void closeStream(final Channel closeable) {
     if (closeable != null) {
       try {
@@ -158,18 +267,17 @@ public class ODataNettyHandlerImpl implements ODataNettyHandler {
    * Extract the information part of Netty Request and fill OData Request
    * @param odRequest
    * @param httpRequest
+   * @param body
    * @param split
    * @param contextPath
    * @return
    * @throws ODataLibraryException
    */
   private ODataRequest fillODataRequest(final ODataRequest odRequest, final HttpRequest httpRequest,
-	      final int split, final String contextPath) throws ODataLibraryException {
+	      final InputStream body, final int split, final String contextPath) throws ODataLibraryException {
 	    final int requestHandle = debugger.startRuntimeMeasurement("ODataHttpHandlerImpl", "fillODataRequest");
 	    try {
-	    	ByteBuf byteBuf = ((HttpContent)httpRequest).content();
-	    	ByteBufInputStream inputStream = new ByteBufInputStream(byteBuf);
-	      odRequest.setBody(inputStream);
+	      odRequest.setBody(body);
 	      
 	      odRequest.setProtocol(httpRequest.protocolVersion().text());
 	      odRequest.setMethod(extractMethod(httpRequest));
@@ -295,30 +403,279 @@ public class ODataNettyHandlerImpl implements ODataNettyHandler {
 	  }
   }
   
-@SuppressWarnings("unused")
 @Override
 public void processNettyRequest(HttpRequest request, HttpResponse response, 
 		Map<String, String> requestParameters) {
-	  ODataRequest odRequest = new ODataRequest();
-    Exception exception = null;
+    ODataResponse odResponse = handle(request,
+        new ByteBufInputStream(((HttpContent) request).content()), requestParameters);
+    if (compression == null) {
+      convertToHttp(response, odResponse);
+    } else {
+      convertToHttp(response, odResponse, compression, request.headers().get(HttpHeader.ACCEPT_ENCODING));
+    }
+  }
+
+  @Override
+  public ChannelFuture processNettyRequest(final ChannelHandlerContext ctx, final HttpRequest request,
+      final InputStream body, final Map<String, String> requestParameters) {
+    final ODataResponse odResponse = handle(request, body, requestParameters);
+    return writeResponse(ctx, request.protocolVersion(), odResponse, compression,
+        request.headers().get(HttpHeader.ACCEPT_ENCODING), contentExecutor);
+  }
+
+  private ODataResponse handle(final HttpRequest request, final InputStream body,
+      final Map<String, String> requestParameters) {
+    ODataRequest odRequest = new ODataRequest();
     ODataResponse odResponse;
-    
+
     final int processMethodHandle = 
     		debugger.startRuntimeMeasurement("ODataNettyHandlerImpl", "process");
     try {
-      fillODataRequest(odRequest, request, 
+      fillODataRequest(odRequest, request, body,
           requestParameters.get(SPLIT) != null? Integer.parseInt(requestParameters.get(SPLIT)) : split, 
               requestParameters.get(CONTEXT_PATH));
+      if (compression != null) {
+        compression.decompress(odRequest);
+      }
 
       odResponse = process(odRequest);
       // ALL future methods after process must not throw exceptions!
     } catch (Exception e) {
-      exception = e;
       odResponse = handleException(odRequest, e);
     }
     debugger.stopRuntimeMeasurement(processMethodHandle);
+    return odResponse;
+  }
+
+  /**
+   * Write the OData response to the channel: the response head first, then the content as HTTP chunks
+   * so that the first bytes are sent while the content is still being produced.
+   * The content is produced in the calling thread, even on the event loop.
+   * @param ctx context of the channel handler
+   * @param version HTTP version of the request
+   * @param odResponse OData response
+   * @return future of the last write
+   */
+  static ChannelFuture writeResponse(final ChannelHandlerContext ctx, final HttpVersion version,
+      final ODataResponse odResponse) {
+    return writeResponse(ctx, version, odResponse, null, null, null);
+  }
+
+  /**
+   * Write the OData response to the channel, compressing the content if the client accepts it.
+   * The content is produced in the calling thread, even on the event loop.
+   * @see #writeResponse(ChannelHandlerContext, HttpVersion, ODataResponse, ContentCompressionImpl, String, Executor)
+   */
+  static ChannelFuture writeResponse(final ChannelHandlerContext ctx, final HttpVersion version,
+      final ODataResponse odResponse, final ContentCompressionImpl compression, final String acceptEncoding) {
+    return writeResponse(ctx, version, odResponse, compression, acceptEncoding, null);
+  }
+
+  /**
+   * <p>Write the OData response to the channel, compressing the content if the client accepts it.
+   * The response head is sent as soon as it is known whether the content exceeds the minimum size
+   * for compression.</p>
+   * <p>Content of unknown length is sent as chunked HTTP response; HTTP/1.0 clients do not know chunks,
+   * so for them the end of the content is marked by closing the connection.
+   * While content is produced, the producer waits whenever the channel is not writable.
+   * Since the event loop itself cannot wait for the channel, content produced there is handed to the
+   * given executor; if the executor rejects it, the content is produced on the event loop.</p>
+   * @param ctx context of the channel handler
+   * @param version HTTP version of the request
+   * @param odResponse OData response
+   * @param compression content compression, or <code>null</code>
+   * @param acceptEncoding value of the Accept-Encoding header of the request
+   * @param executor executor producing the content if called on the event loop, or <code>null</code>
+   * to produce it in the calling thread
+   * @return future of the last write
+   */
+  static ChannelFuture writeResponse(final ChannelHandlerContext ctx, final HttpVersion version,
+      final ODataResponse odResponse, final ContentCompressionImpl compression, final String acceptEncoding,
+      final Executor executor) {
+    final String contentCoding = compression == null ? null : compression.negotiate(odResponse, acceptEncoding);
+    final HttpResponse response = new DefaultHttpResponse(version,
+        HttpResponseStatus.valueOf(odResponse.getStatusCode()));
+    for (Entry<String, List<String>> entry : odResponse.getAllHeaders().entrySet()) {
+      response.headers().add(entry.getKey(), entry.getValue());
+    }
+
+    final InputStream content = odResponse.getContent();
+    final ODataContent odataContent = odResponse.getODataContent();
+    if (content == null && odataContent == null) {
+      if (!response.headers().contains(HttpHeaderNames.CONTENT_LENGTH)
+          && odResponse.getStatusCode() != HttpResponseStatus.NO_CONTENT.code()
+          && odResponse.getStatusCode() != HttpResponseStatus.NOT_MODIFIED.code()) {
+        HttpUtil.setContentLength(response, 0);
+      }
+      ctx.write(response);
+      return ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+    }
 
-    convertToHttp(response, odResponse);
+    if (contentCoding == null && odataContent instanceof MediaContent
+        && ((MediaContent) odataContent).getFileChannel() != null && ((MediaContent) odataContent).getCount() >= 0) {
+      return writeFileContent(ctx, response, (MediaContent) odataContent, executor);
+    }
+
+    response.headers().remove(HttpHeaderNames.CONTENT_LENGTH);
+    final boolean chunked = version.compareTo(HttpVersion.HTTP_1_1) >= 0;
+    if (chunked) {
+      HttpUtil.setTransferEncodingChunked(response, true);
+    } else {
+      HttpUtil.setKeepAlive(response, false);
+    }
+    final ChannelFuture future = contentCoding == null ?
+        writeStreamedContent(ctx, response, content, odataContent, executor) :
+        writeCompressedContent(ctx, response, odResponse, compression, contentCoding, executor);
+    return chunked ? future : future.addListener(ChannelFutureListener.CLOSE);
+  }
+
+  private static ChannelFuture writeStreamedContent(final ChannelHandlerContext ctx, final HttpResponse response,
+      final InputStream content, final ODataContent odataContent, final Executor executor) {
+    ctx.write(response);
+
+    if (content != null && ctx.pipeline().get(ChunkedWriteHandler.class) != null) {
+      // the chunked write handler pulls the stream as the channel becomes writable
+      return ctx.writeAndFlush(new HttpChunkedInput(new ChunkedStream(content, COPY_BUFFER_SIZE)));
+    }
+
+    return writeChunks(ctx, executor, new ContentWriter() {
+      @Override
+      public void write(final ChunkedContentChannel output) throws IOException {
+        if (content != null) {
+          copyContent(Channels.newChannel(content), output);
+        } else {
+          odataContent.write(output);
+        }
+      }
+    });
+  }
+
+  /**
+   * Writes media content read from a file with its length as <code>Content-Length</code>.
+   * Without TLS the file region is handed to the transport, which sends it from the file to the socket
+   * without copying through the heap; with TLS the bytes have to be encrypted and are read in chunks.
+   */
+  private static ChannelFuture writeFileContent(final ChannelHandlerContext ctx, final HttpResponse response,
+      final MediaContent content, final Executor executor) {
+    HttpUtil.setContentLength(response, content.getCount());
+    ctx.write(response);
+
+    if (ctx.pipeline().get(SslHandler.class) == null) {
+      // the region closes the file when it is released
+      ctx.write(new DefaultFileRegion(content.getFileChannel(), content.getOffset(), content.getCount()));
+      return ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+    }
+    if (ctx.pipeline().get(ChunkedWriteHandler.class) != null) {
+      try {
+        return ctx.writeAndFlush(new HttpChunkedInput(new ChunkedNioFile(content.getFileChannel(),
+            content.getOffset(), content.getCount(), COPY_BUFFER_SIZE)));
+      } catch (IOException e) {
+        content.close();
+        return ctx.close();
+      }
+    }
+    return writeChunks(ctx, executor, new ContentWriter() {
+      @Override
+      public void write(final ChunkedContentChannel output) throws IOException {
+        content.write(output);
+      }
+    });
+  }
+
+  private static ChannelFuture writeCompressedContent(final ChannelHandlerContext ctx, final HttpResponse response,
+      final ODataResponse odResponse, final ContentCompressionImpl compression, final String contentCoding,
+      final Executor executor) {
+    return writeChunks(ctx, executor, new ContentWriter() {
+      @Override
+      public void write(final ChunkedContentChannel output) throws IOException {
+        final CompressingOutputStream stream = compression.compress(Channels.newOutputStream(output),
+            contentCoding, new HeaderListener(response, null) {
+              @Override
+              public void contentCodingSelected(final String selected) {
+                super.contentCodingSelected(selected);
+                ctx.write(response);
+              }
+            });
+        // closing the stream sends the last chunk
+        writeContent(odResponse, stream);
+      }
+    });
+  }
+
+  /** Produces the content of a response. */
+  private interface ContentWriter {
+    void write(ChunkedContentChannel output) throws IOException;
+  }
+
+  /**
+   * Lets the writer produce the content and sends it as HTTP chunks, followed by the last chunk.
+   * On the event loop the writer runs on the executor, if there is one, so that it can wait for the
+   * channel to become writable instead of buffering the whole content.
+   */
+  private static ChannelFuture writeChunks(final ChannelHandlerContext ctx, final Executor executor,
+      final ContentWriter writer) {
+    if (executor == null || !ctx.executor().inEventLoop()) {
+      return writeChunks(ctx, writer);
+    }
+    final ChannelPromise promise = ctx.newPromise();
+    try {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          writeChunks(ctx, writer).addListener(new PromiseNotifier<Void, ChannelFuture>(promise));
+        }
+      });
+    } catch (final RejectedExecutionException e) {
+      // all threads are busy or the handler has been closed: write the content without waiting for the channel
+      return writeChunks(ctx, writer);
+    }
+    return promise;
+  }
+
+  private static ChannelFuture writeChunks(final ChannelHandlerContext ctx, final ContentWriter writer) {
+    final ChunkedContentChannel output = new ChunkedContentChannel(ctx, COPY_BUFFER_SIZE);
+    try {
+      writer.write(output);
+      return output.finish();
+    } catch (IOException | RuntimeException e) {
+      // the response head has been sent already, so the only thing left is to abort the connection
+      output.discard();
+      return ctx.close();
+    }
+  }
+
+  private static void writeContent(final ODataResponse odResponse, final CompressingOutputStream output)
+      throws IOException {
+    try {
+      if (odResponse.getContent() != null) {
+        copyContent(Channels.newChannel(odResponse.getContent()), Channels.newChannel(output));
+      } else {
+        odResponse.getODataContent().write(output);
+      }
+    } finally {
+      output.close();
+    }
+  }
+
+  /** Completes the response headers once the content coding is decided. */
+  private static class HeaderListener implements ContentCodingListener {
+
+    private final HttpResponse response;
+    private final String contentLength;
+
+    HeaderListener(final HttpResponse response, final String contentLength) {
+      this.response = response;
+      this.contentLength = contentLength;
+    }
+
+    @Override
+    public void contentCodingSelected(final String selected) {
+      if (selected != null) {
+        response.headers().set(HttpHeaderNames.CONTENT_ENCODING, selected);
+      } else if (contentLength != null) {
+        response.headers().set(HttpHeaderNames.CONTENT_LENGTH, contentLength);
+      }
+    }
   }
 
   public ODataResponse process(ODataRequest request) {
@@ -329,4 +686,13 @@ public void processNettyRequest(HttpRequest request, HttpResponse response,
   public void register(Processor processor) {
     handler.register(processor);
   }
+
+  @Override
+  public void register(OlingoExtension extension) {
+    if (extension instanceof ContentCompressionImpl) {
+      compression = (ContentCompressionImpl) extension;
+    } else {
+      handler.register(extension);
+    }
+  }
 }
@@ -33,12 +33,17 @@ import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataHandler;
 import org.apache.olingo.server.api.ODataHttpHandler;
 import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.async.AsyncRequestOptions;
+import org.apache.olingo.server.api.async.AsyncRequestService;
+import org.apache.olingo.server.api.compression.CompressionOptions;
+import org.apache.olingo.server.api.compression.ContentCompression;
 import org.apache.olingo.server.api.debug.DebugResponseHelper;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.deserializer.FixedFormatDeserializer;
 import org.apache.olingo.server.api.deserializer.ODataDeserializer;
 import org.apache.olingo.server.api.etag.ETagHelper;
 import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
+import org.apache.olingo.server.api.paging.KeysetPagingHelper;
 import org.apache.olingo.server.api.prefer.Preferences;
 import org.apache.olingo.server.api.serializer.EdmAssistedSerializer;
 import org.apache.olingo.server.api.serializer.EdmDeltaSerializer;
@@ -46,6 +51,9 @@ import org.apache.olingo.server.api.serializer.FixedFormatSerializer;
 import org.apache.olingo.server.api.serializer.ODataSerializer;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.uri.UriHelper;
+import org.apache.olingo.server.api.uri.UriInfoCache;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionEvaluator;
+import org.apache.olingo.server.api.uri.queryoption.expression.FunctionCallHandler;
 
 public class ODataNettyImpl extends ODataNetty {
   
@@ -114,6 +122,12 @@ public class ODataNettyImpl extends ODataNetty {
     return odata.createServiceMetadata(edmProvider, references, serviceMetadataETagSupport);
   }
 
+  @Override
+  public ServiceMetadata createPreloadedServiceMetadata(CsdlEdmProvider edmProvider, List<EdmxReference> references,
+      ServiceMetadataETagSupport serviceMetadataETagSupport) {
+    return odata.createPreloadedServiceMetadata(edmProvider, references, serviceMetadataETagSupport);
+  }
+
   @Override
   public UriHelper createUriHelper() {
     return odata.createUriHelper();
@@ -140,6 +154,31 @@ public class ODataNettyImpl extends ODataNetty {
     return odata.createETagHelper();
   }
 
+  @Override
+  public UriInfoCache createUriInfoCache(final int maxSize) {
+    return odata.createUriInfoCache(maxSize);
+  }
+
+  @Override
+  public KeysetPagingHelper createKeysetPagingHelper(byte[] signingKey) {
+    return odata.createKeysetPagingHelper(signingKey);
+  }
+
+  @Override
+  public ExpressionEvaluator createExpressionEvaluator(FunctionCallHandler functionCallHandler) {
+    return odata.createExpressionEvaluator(functionCallHandler);
+  }
+
+  @Override
+  public AsyncRequestService createAsyncRequestService(AsyncRequestOptions options) {
+    return odata.createAsyncRequestService(options);
+  }
+
+  @Override
+  public ContentCompression createContentCompression(CompressionOptions options) {
+    return odata.createContentCompression(options);
+  }
+
   @Override
   public Preferences createPreferences(Collection<String> preferHeaders) {
     return odata.createPreferences(preferHeaders);
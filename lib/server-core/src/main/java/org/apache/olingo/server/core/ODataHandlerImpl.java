@@ -21,11 +21,13 @@ package org.apache.olingo.server.core;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.constants.ODataServiceVersion;
 import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.ODataHandler;
@@ -35,9 +37,13 @@ import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.OlingoExtension;
 import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.batch.BatchExecutionSupport;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.etag.CustomETagSupport;
 import org.apache.olingo.server.api.etag.PreconditionException;
+import org.apache.olingo.server.api.metrics.ODataMetrics;
+import org.apache.olingo.server.api.metrics.ODataMetrics.Stage;
+import org.apache.olingo.server.api.paging.KeysetPagingException;
 import org.apache.olingo.server.api.processor.DefaultProcessor;
 import org.apache.olingo.server.api.processor.ErrorProcessor;
 import org.apache.olingo.server.api.processor.Processor;
@@ -45,9 +51,16 @@ import org.apache.olingo.server.api.serializer.CustomContentTypeSupport;
 import org.apache.olingo.server.api.serializer.RepresentationType;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriInfoCache;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceEntitySet;
+import org.apache.olingo.server.api.uri.UriResourceSingleton;
 import org.apache.olingo.server.api.uri.queryoption.FormatOption;
 import org.apache.olingo.server.api.uri.queryoption.SystemQueryOptionKind;
+import org.apache.olingo.server.core.compression.DecompressedSizeExceededException;
 import org.apache.olingo.server.core.debug.ServerCoreDebugger;
+import org.apache.olingo.server.core.media.ByteRangeSupport;
+import org.apache.olingo.server.core.metrics.MetricsContext;
 import org.apache.olingo.server.core.uri.parser.Parser;
 import org.apache.olingo.server.core.uri.parser.UriParserException;
 import org.apache.olingo.server.core.uri.parser.UriParserSemanticException;
@@ -69,6 +82,9 @@ public class ODataHandlerImpl implements ODataHandler {
 
   private CustomContentTypeSupport customContentTypeSupport;
   private CustomETagSupport customETagSupport;
+  private BatchExecutionSupport batchExecutionSupport;
+  private UriInfoCache uriInfoCache;
+  private ODataMetrics metrics;
 
   private UriInfo uriInfo;
   private Exception lastThrownException;
@@ -83,6 +99,18 @@ public class ODataHandlerImpl implements ODataHandler {
   }
 
   public ODataResponse process(final ODataRequest request) {
+    if (metrics == null) {
+      return processRequest(request);
+    }
+    final ODataMetrics previous = MetricsContext.enter(metrics);
+    try {
+      return processRequest(request);
+    } finally {
+      MetricsContext.leave(previous);
+    }
+  }
+
+  private ODataResponse processRequest(final ODataRequest request) {
     ODataResponse response = new ODataResponse();
     final int responseHandle = debugger.startRuntimeMeasurement("ODataHandler", "process");
     try {
@@ -114,6 +142,9 @@ public class ODataHandlerImpl implements ODataHandler {
     } catch (PreconditionException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
       handleException(request, response, serverError, e);
+    } catch (KeysetPagingException e) {
+      ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
+      handleException(request, response, serverError, e);
     } catch (ODataHandlerException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
       handleException(request, response, serverError, e);
@@ -142,9 +173,12 @@ public class ODataHandlerImpl implements ODataHandler {
     }
 
     final int measurementUriParser = debugger.startRuntimeMeasurement("Parser", "parseUri");
+    final long parseStart = metrics == null ? 0 : System.nanoTime();
     try {
-      uriInfo = new Parser(serviceMetadata.getEdm(), odata)
-          .parseUri(request.getRawODataPath(), request.getRawQueryPath(), null, request.getRawBaseUri());
+      uriInfo = parseUri(request);
+      if (metrics != null) {
+        metrics.record(Stage.URI_PARSING, System.nanoTime() - parseStart);
+      }
     } catch (final ODataLibraryException e) {
       debugger.stopRuntimeMeasurement(measurementUriParser);
       debugger.stopRuntimeMeasurement(measurementHandle);
@@ -164,9 +198,16 @@ public class ODataHandlerImpl implements ODataHandler {
     debugger.stopRuntimeMeasurement(measurementUriValidator);
 
     final int measurementDispatcher = debugger.startRuntimeMeasurement("ODataDispatcher", "dispatch");
+    final long dispatchStart = metrics == null ? 0 : System.nanoTime();
     try {
       new ODataDispatcher(uriInfo, this).dispatch(request, response);
+      if (method == HttpMethod.GET) {
+        ByteRangeSupport.apply(request, response);
+      }
     } finally {
+      if (metrics != null) {
+        metrics.record(Stage.DISPATCH, System.nanoTime() - dispatchStart);
+      }
       debugger.stopRuntimeMeasurement(measurementDispatcher);
       debugger.stopRuntimeMeasurement(measurementHandle);
     }
@@ -176,6 +217,9 @@ public class ODataHandlerImpl implements ODataHandler {
       final ODataServerError serverError, final Exception exception) {
     final int measurementHandle = debugger.startRuntimeMeasurement("ODataHandler", "handleException");
     lastThrownException = exception;
+    if (DecompressedSizeExceededException.isCause(exception)) {
+      serverError.setStatusCode(HttpStatusCode.PAYLOAD_TOO_LARGE.getStatusCode());
+    }
     ErrorProcessor exceptionProcessor;
     try {
       exceptionProcessor = selectProcessor(ErrorProcessor.class);
@@ -230,6 +274,21 @@ public class ODataHandlerImpl implements ODataHandler {
     return uriInfo.getFormatOption();
   }
 
+  private UriInfo parseUri(final ODataRequest request) throws ODataLibraryException {
+    final Edm edm = serviceMetadata.getEdm();
+    final String path = request.getRawODataPath();
+    final String query = request.getRawQueryPath();
+    final String baseUri = request.getRawBaseUri();
+    UriInfo result = uriInfoCache == null ? null : uriInfoCache.get(edm, path, query, baseUri);
+    if (result == null) {
+      result = new Parser(edm, odata).parseUri(path, query, null, baseUri);
+      if (uriInfoCache != null) {
+        uriInfoCache.put(edm, path, query, baseUri, result);
+      }
+    }
+    return result;
+  }
+
   private void validateODataVersion(final ODataRequest request) throws ODataHandlerException {
     final String odataVersion = request.getHeader(HttpHeader.ODATA_VERSION);
    if (odataVersion != null && !ODataServiceVersion.isValidODataVersion(odataVersion)) {
@@ -247,6 +306,9 @@ public class ODataHandlerImpl implements ODataHandler {
   <T extends Processor> T selectProcessor(final Class<T> cls) throws ODataHandlerException {
     for (final Processor processor : processors) {
       if (cls.isAssignableFrom(processor.getClass())) {
+        if (metrics != null) {
+          metrics.count(cls, getStartingEntitySetName());
+        }
         processor.init(odata, serviceMetadata);
         return cls.cast(processor);
       }
@@ -255,6 +317,19 @@ public class ODataHandlerImpl implements ODataHandler {
         ODataHandlerException.MessageKeys.PROCESSOR_NOT_IMPLEMENTED, cls.getSimpleName());
   }
 
+  private String getStartingEntitySetName() {
+    if (uriInfo == null || uriInfo.getUriResourceParts() == null || uriInfo.getUriResourceParts().isEmpty()) {
+      return null;
+    }
+    final UriResource first = uriInfo.getUriResourceParts().get(0);
+    if (first instanceof UriResourceEntitySet) {
+      return ((UriResourceEntitySet) first).getEntitySet().getName();
+    } else if (first instanceof UriResourceSingleton) {
+      return ((UriResourceSingleton) first).getSingleton().getName();
+    }
+    return null;
+  }
+
   public void register(final Processor processor) {
     processors.add(0, processor);
   }
@@ -265,6 +340,12 @@ public class ODataHandlerImpl implements ODataHandler {
       this.customContentTypeSupport = (CustomContentTypeSupport) extension;
     } else if(extension instanceof CustomETagSupport) {
       this.customETagSupport = (CustomETagSupport) extension;
+    } else if(extension instanceof BatchExecutionSupport) {
+      this.batchExecutionSupport = (BatchExecutionSupport) extension;
+    } else if(extension instanceof UriInfoCache) {
+      this.uriInfoCache = (UriInfoCache) extension;
+    } else if (extension instanceof ODataMetrics) {
+      this.metrics = (ODataMetrics) extension;
     } else {
       throw new ODataRuntimeException("Got not supported exception with class name " +
           extension.getClass().getSimpleName());
@@ -279,6 +360,31 @@ public class ODataHandlerImpl implements ODataHandler {
     return customETagSupport;
   }
 
+  public BatchExecutionSupport getBatchExecutionSupport() {
+    return batchExecutionSupport;
+  }
+
+  public ODataMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Creates a handler with the same processors and extensions but with its own request state,
+   * so that it can process a request concurrently to this handler.
+   * Runtime measurements of the copy are not part of the debug output.
+   */
+  public ODataHandlerImpl copy() {
+    final ODataHandlerImpl copy = new ODataHandlerImpl(odata, serviceMetadata, new ServerCoreDebugger(odata));
+    copy.processors.clear();
+    copy.processors.addAll(processors);
+    copy.customContentTypeSupport = customContentTypeSupport;
+    copy.customETagSupport = customETagSupport;
+    copy.batchExecutionSupport = batchExecutionSupport;
+    copy.uriInfoCache = uriInfoCache;
+    copy.metrics = metrics;
+    return copy;
+  }
+
   public Exception getLastThrownException() {
     return lastThrownException;
   }
@@ -52,6 +52,9 @@ import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.etag.CustomETagSupport;
 import org.apache.olingo.server.api.processor.Processor;
 import org.apache.olingo.server.api.serializer.CustomContentTypeSupport;
+import org.apache.olingo.server.core.compression.CompressingOutputStream;
+import org.apache.olingo.server.core.compression.CompressingOutputStream.ContentCodingListener;
+import org.apache.olingo.server.core.compression.ContentCompressionImpl;
 import org.apache.olingo.server.core.debug.ServerCoreDebugger;
 
 public class ODataHttpHandlerImpl implements ODataHttpHandler {
@@ -63,6 +66,7 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
   private final ServerCoreDebugger debugger;
 
   private int split = 0;
+  private ContentCompressionImpl compression;
 
   public ODataHttpHandlerImpl(final OData odata, final ServiceMetadata serviceMetadata) {
     debugger = new ServerCoreDebugger(odata);
@@ -84,6 +88,9 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
     final int processMethodHandle = debugger.startRuntimeMeasurement("ODataHttpHandlerImpl", "process");
     try {
       fillODataRequest(odRequest, request, split);
+      if (compression != null) {
+        compression.decompress(odRequest);
+      }
 
       odResponse = process(odRequest);
       // ALL future methods after process must not throw exceptions!
@@ -104,7 +111,11 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
               serverEnvironmentVariables);
     }
 
-    convertToHttp(response, odResponse);
+    if (compression == null) {
+      convertToHttp(response, odResponse);
+    } else {
+      convertToHttp(response, odResponse, compression, request.getHeader(HttpHeader.ACCEPT_ENCODING));
+    }
   }
 
   private Map<String, String> createEnvironmentVariablesMap(final HttpServletRequest request) {
@@ -165,6 +176,62 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
     }
   }
   
+  /**
+   * Converts the OData response into the HTTP response, compressing the content if the client accepts it.
+   * @param response HTTP response
+   * @param odResponse OData response
+   * @param compression content compression
+   * @param acceptEncoding the value of the Accept-Encoding header of the request
+   */
+  static void convertToHttp(final HttpServletResponse response, final ODataResponse odResponse,
+      final ContentCompressionImpl compression, final String acceptEncoding) {
+    final String contentCoding = compression.negotiate(odResponse, acceptEncoding);
+    if (contentCoding == null) {
+      convertToHttp(response, odResponse);
+      return;
+    }
+
+    response.setStatus(odResponse.getStatusCode());
+    for (Entry<String, List<String>> entry : odResponse.getAllHeaders().entrySet()) {
+      if (!HttpHeader.CONTENT_LENGTH.equalsIgnoreCase(entry.getKey())) {
+        for (String headerValue : entry.getValue()) {
+          response.addHeader(entry.getKey(), headerValue);
+        }
+      }
+    }
+
+    // The headers are completed as soon as it is known whether the content exceeds the minimum size.
+    final String contentLength = odResponse.getHeader(HttpHeader.CONTENT_LENGTH);
+    final InputStream content = odResponse.getContent();
+    try (CompressingOutputStream output = compression.compress(response.getOutputStream(), contentCoding,
+        new ContentCodingListener() {
+          @Override
+          public void contentCodingSelected(final String selected) {
+            if (selected != null) {
+              response.setHeader(HttpHeader.CONTENT_ENCODING, selected);
+            } else if (contentLength != null) {
+              response.setHeader(HttpHeader.CONTENT_LENGTH, contentLength);
+            }
+          }
+        })) {
+      if (content == null) {
+        odResponse.getODataContent().write(output);
+      } else {
+        final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        int count;
+        while ((count = content.read(buffer)) > 0) {
+          output.write(buffer, 0, count);
+        }
+      }
+    } catch (IOException e) {
+      throw new ODataRuntimeException("Error on writing response content", e);
+    } finally {
+      if (content != null) {
+        closeStream(Channels.newChannel(content));
+      }
+    }
+  }
+
   static void writeContent(final ODataResponse odataResponse, final HttpServletResponse servletResponse) {
     try {
       ODataContent res = odataResponse.getODataContent();
@@ -327,7 +394,11 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
 
   @Override
   public void register(OlingoExtension extension) {
-    handler.register(extension);
+    if (extension instanceof ContentCompressionImpl) {
+      compression = (ContentCompressionImpl) extension;
+    } else {
+      handler.register(extension);
+    }
   }
 
   @Override
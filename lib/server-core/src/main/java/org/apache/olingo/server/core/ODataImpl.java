@@ -21,6 +21,8 @@ package org.apache.olingo.server.core;
 import java.util.Collection;
 import java.util.List;
 
+import javax.xml.stream.XMLOutputFactory;
+
 import org.apache.olingo.commons.api.constants.Constantsv00;
 import org.apache.olingo.commons.api.constants.Constantsv01;
 import org.apache.olingo.commons.api.IConstants;
@@ -34,12 +36,17 @@ import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataHandler;
 import org.apache.olingo.server.api.ODataHttpHandler;
 import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.async.AsyncRequestOptions;
+import org.apache.olingo.server.api.async.AsyncRequestService;
+import org.apache.olingo.server.api.compression.CompressionOptions;
+import org.apache.olingo.server.api.compression.ContentCompression;
 import org.apache.olingo.server.api.debug.DebugResponseHelper;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.deserializer.FixedFormatDeserializer;
 import org.apache.olingo.server.api.deserializer.ODataDeserializer;
 import org.apache.olingo.server.api.etag.ETagHelper;
 import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
+import org.apache.olingo.server.api.paging.KeysetPagingHelper;
 import org.apache.olingo.server.api.prefer.Preferences;
 import org.apache.olingo.server.api.serializer.EdmAssistedSerializer;
 import org.apache.olingo.server.api.serializer.EdmDeltaSerializer;
@@ -47,23 +54,82 @@ import org.apache.olingo.server.api.serializer.FixedFormatSerializer;
 import org.apache.olingo.server.api.serializer.ODataSerializer;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.uri.UriHelper;
+import org.apache.olingo.server.api.uri.UriInfoCache;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionEvaluator;
+import org.apache.olingo.server.api.uri.queryoption.expression.FunctionCallHandler;
+import org.apache.olingo.server.core.async.AsyncRequestServiceImpl;
+import org.apache.olingo.server.core.compression.ContentCompressionImpl;
 import org.apache.olingo.server.core.debug.DebugResponseHelperImpl;
 import org.apache.olingo.server.core.debug.ServerCoreDebugger;
 import org.apache.olingo.server.core.deserializer.FixedFormatDeserializerImpl;
 import org.apache.olingo.server.core.deserializer.json.ODataJsonDeserializer;
+import org.apache.olingo.server.core.deserializer.json.ODataJsonStreamingDeserializer;
 import org.apache.olingo.server.core.deserializer.xml.ODataXmlDeserializer;
 import org.apache.olingo.server.core.etag.ETagHelperImpl;
+import org.apache.olingo.server.core.expression.ExpressionEvaluatorImpl;
+import org.apache.olingo.server.core.metrics.MetricsContext;
+import org.apache.olingo.server.core.paging.KeysetPagingHelperImpl;
 import org.apache.olingo.server.core.prefer.PreferencesImpl;
 import org.apache.olingo.server.core.serializer.FixedFormatSerializerImpl;
+import org.apache.olingo.server.core.serializer.SerializerFactories;
 import org.apache.olingo.server.core.serializer.json.EdmAssistedJsonSerializer;
 import org.apache.olingo.server.core.serializer.json.ODataJsonSerializer;
 import org.apache.olingo.server.core.serializer.json.JsonDeltaSerializer;
 import org.apache.olingo.server.core.serializer.json.JsonDeltaSerializerWithNavigations;
 import org.apache.olingo.server.core.serializer.xml.ODataXmlSerializer;
 import org.apache.olingo.server.core.uri.UriHelperImpl;
+import org.apache.olingo.server.core.uri.UriInfoCacheImpl;
+
+import com.fasterxml.jackson.core.JsonFactory;
 
 public class ODataImpl extends OData {
 
+  private JsonFactory jsonFactory = SerializerFactories.getJsonFactory();
+  private XMLOutputFactory xmlOutputFactory = SerializerFactories.getXmlOutputFactory();
+  private boolean streamingJsonDeserializer;
+
+  /**
+   * Sets the JSON factory used by the JSON serializers created by this instance.
+   * The factory must be fully configured before it is set; it is shared by all of them.
+   * @param factory the factory to use; <code>null</code> restores the default factory
+   * @return this instance
+   */
+  public ODataImpl setJsonFactory(final JsonFactory factory) {
+    jsonFactory = factory == null ? SerializerFactories.getJsonFactory() : factory;
+    return this;
+  }
+
+  /**
+   * Sets the XML output factory used by the XML serializers created by this instance.
+   * The factory must be fully configured before it is set; it is shared by all of them.
+   * @param factory the factory to use; <code>null</code> restores the default factory
+   * @return this instance
+   */
+  public ODataImpl setXmlOutputFactory(final XMLOutputFactory factory) {
+    xmlOutputFactory = factory == null ? SerializerFactories.getXmlOutputFactory() : factory;
+    return this;
+  }
+
+  /**
+   * Lets the JSON deserializers created by this instance read entities and entity collections
+   * directly from the token stream instead of building a JSON tree of the whole payload first.
+   * This saves memory for large payloads; error messages for invalid payloads may differ.
+   * @param streaming whether to use the streaming JSON deserializer; the default is <code>false</code>
+   * @return this instance
+   * @see ODataJsonStreamingDeserializer
+   */
+  public ODataImpl setStreamingJsonDeserializer(final boolean streaming) {
+    streamingJsonDeserializer = streaming;
+    return this;
+  }
+
+  private ODataDeserializer createJsonDeserializer(final ContentType contentType, final ServiceMetadata metadata,
+      final IConstants constants) {
+    return streamingJsonDeserializer ?
+        new ODataJsonStreamingDeserializer(contentType, metadata, constants) :
+        new ODataJsonDeserializer(contentType, metadata, constants);
+  }
+
   @Override
   public ODataSerializer createSerializer(final ContentType contentType) throws SerializerException {
     ODataSerializer serializer = null;
@@ -74,11 +140,11 @@ public class ODataImpl extends OData {
           || ContentType.VALUE_ODATA_METADATA_MINIMAL.equalsIgnoreCase(metadata)
           || ContentType.VALUE_ODATA_METADATA_NONE.equalsIgnoreCase(metadata)
           || ContentType.VALUE_ODATA_METADATA_FULL.equalsIgnoreCase(metadata)) {
-        serializer = new ODataJsonSerializer(contentType, new Constantsv00());
+        serializer = new ODataJsonSerializer(contentType, new Constantsv00(), jsonFactory);
       }
     } else if (contentType != null && (contentType.isCompatible(ContentType.APPLICATION_XML)
         || contentType.isCompatible(ContentType.APPLICATION_ATOM_XML))) {
-      serializer = new ODataXmlSerializer();
+      serializer = new ODataXmlSerializer(xmlOutputFactory);
     }
 
     if (serializer == null) {
@@ -87,7 +153,7 @@ public class ODataImpl extends OData {
           SerializerException.MessageKeys.UNSUPPORTED_FORMAT, 
           ((contentType != null) ? contentType.toContentTypeString() : null));
     } else {
-      return serializer;
+      return MetricsContext.measure(serializer);
     }
   }
   
@@ -105,11 +171,11 @@ public class ODataImpl extends OData {
           || ContentType.VALUE_ODATA_METADATA_MINIMAL.equalsIgnoreCase(metadata)
           || ContentType.VALUE_ODATA_METADATA_NONE.equalsIgnoreCase(metadata)
           || ContentType.VALUE_ODATA_METADATA_FULL.equalsIgnoreCase(metadata)) {
-        serializer = new ODataJsonSerializer(contentType, constants);
+        serializer = new ODataJsonSerializer(contentType, constants, jsonFactory);
       }
     } else if (contentType != null && (contentType.isCompatible(ContentType.APPLICATION_XML)
         || contentType.isCompatible(ContentType.APPLICATION_ATOM_XML))) {
-      serializer = new ODataXmlSerializer();
+      serializer = new ODataXmlSerializer(xmlOutputFactory);
     }
 
     if (serializer == null) {
@@ -118,7 +184,7 @@ public class ODataImpl extends OData {
           SerializerException.MessageKeys.UNSUPPORTED_FORMAT, 
           ((contentType != null) ? contentType.toContentTypeString() : null));
     } else {
-      return serializer;
+      return MetricsContext.measure(serializer);
     }
   }
 
@@ -130,7 +196,7 @@ public class ODataImpl extends OData {
   @Override
   public EdmAssistedSerializer createEdmAssistedSerializer(final ContentType contentType) throws SerializerException {
     if (contentType != null && contentType.isCompatible(ContentType.APPLICATION_JSON)) {
-      return new EdmAssistedJsonSerializer(contentType);
+      return new EdmAssistedJsonSerializer(contentType, new Constantsv00(), jsonFactory);
     }
     throw new SerializerException("Unsupported format: " + 
     ((contentType != null) ? contentType.toContentTypeString() : null),
@@ -146,7 +212,7 @@ public class ODataImpl extends OData {
 	      constants = new Constantsv01() ;
 	    }
     if (contentType != null && contentType.isCompatible(ContentType.APPLICATION_JSON)) {
-      return new EdmAssistedJsonSerializer(contentType, constants);
+      return new EdmAssistedJsonSerializer(contentType, constants, jsonFactory);
     }
     throw new SerializerException("Unsupported format: " + 
     ((contentType != null) ? contentType.toContentTypeString() : null),
@@ -160,10 +226,11 @@ public class ODataImpl extends OData {
       throws SerializerException {
     if (contentType != null && contentType.isCompatible(ContentType.APPLICATION_JSON)) {
       if(versions!=null && !versions.isEmpty()){
-       return getMaxVersion(versions)>4 ?  new JsonDeltaSerializerWithNavigations(contentType):
-         new JsonDeltaSerializer(contentType);
+       return getMaxVersion(versions)>4 ?
+           new JsonDeltaSerializerWithNavigations(contentType, jsonFactory):
+           new JsonDeltaSerializer(contentType, jsonFactory);
       }
-      return new JsonDeltaSerializerWithNavigations(contentType);
+      return new JsonDeltaSerializerWithNavigations(contentType, jsonFactory);
     }
     throw new SerializerException("Unsupported format: " + 
     ((contentType != null) ? contentType.toContentTypeString() : null),
@@ -205,6 +272,12 @@ public class ODataImpl extends OData {
     return new ServiceMetadataImpl(edmProvider, references, serviceMetadataETagSupport);
   }
 
+  @Override
+  public ServiceMetadata createPreloadedServiceMetadata(final CsdlEdmProvider edmProvider,
+      final List<EdmxReference> references, final ServiceMetadataETagSupport serviceMetadataETagSupport) {
+    return new ServiceMetadataImpl(edmProvider, references, serviceMetadataETagSupport, true);
+  }
+
   @Override
   public FixedFormatDeserializer createFixedFormatDeserializer() {
     return new FixedFormatDeserializerImpl();
@@ -218,10 +291,10 @@ public class ODataImpl extends OData {
   @Override
   public ODataDeserializer createDeserializer(final ContentType contentType) throws DeserializerException {
     if (contentType != null && contentType.isCompatible(ContentType.JSON)) {
-      return new ODataJsonDeserializer(contentType);
+      return MetricsContext.measure(createJsonDeserializer(contentType, null, new Constantsv00()));
     } else if (contentType != null && (contentType.isCompatible(ContentType.APPLICATION_XML)
         || contentType.isCompatible(ContentType.APPLICATION_ATOM_XML))) {
-      return new ODataXmlDeserializer();
+      return MetricsContext.measure(new ODataXmlDeserializer());
     } else {
       throw new DeserializerException("Unsupported format: " + 
     ((contentType != null) ? contentType.toContentTypeString() : null),
@@ -233,10 +306,10 @@ public class ODataImpl extends OData {
   public ODataDeserializer createDeserializer(final ContentType contentType,
       ServiceMetadata metadata) throws DeserializerException {
     if (contentType != null && contentType.isCompatible(ContentType.JSON)) {
-      return new ODataJsonDeserializer(contentType, metadata);
+      return MetricsContext.measure(createJsonDeserializer(contentType, metadata, new Constantsv00()));
     } else if (contentType != null && (contentType.isCompatible(ContentType.APPLICATION_XML)
         || contentType.isCompatible(ContentType.APPLICATION_ATOM_XML))) {
-      return new ODataXmlDeserializer(metadata);
+      return MetricsContext.measure(new ODataXmlDeserializer(metadata));
     } else {
       throw new DeserializerException("Unsupported format: " + 
     ((contentType != null) ? contentType.toContentTypeString() : null),
@@ -255,6 +328,31 @@ public class ODataImpl extends OData {
     return new ETagHelperImpl();
   }
 
+  @Override
+  public UriInfoCache createUriInfoCache(final int maxSize) {
+    return new UriInfoCacheImpl(maxSize);
+  }
+
+  @Override
+  public KeysetPagingHelper createKeysetPagingHelper(final byte[] signingKey) {
+    return new KeysetPagingHelperImpl(signingKey);
+  }
+
+  @Override
+  public ExpressionEvaluator createExpressionEvaluator(final FunctionCallHandler functionCallHandler) {
+    return new ExpressionEvaluatorImpl(functionCallHandler);
+  }
+
+  @Override
+  public AsyncRequestService createAsyncRequestService(final AsyncRequestOptions options) {
+    return new AsyncRequestServiceImpl(this, options);
+  }
+
+  @Override
+  public ContentCompression createContentCompression(final CompressionOptions options) {
+    return new ContentCompressionImpl(options);
+  }
+
   @Override
   public Preferences createPreferences(final Collection<String> preferHeaders) {
     return new PreferencesImpl(preferHeaders);
@@ -275,10 +373,10 @@ public class ODataImpl extends OData {
       constants = new Constantsv01() ;
     }
     if (contentType != null && contentType.isCompatible(ContentType.JSON)) {
-      return new ODataJsonDeserializer(contentType, constants);
+      return MetricsContext.measure(createJsonDeserializer(contentType, null, constants));
     } else if (contentType != null && (contentType.isCompatible(ContentType.APPLICATION_XML)
         || contentType.isCompatible(ContentType.APPLICATION_ATOM_XML))) {
-      return new ODataXmlDeserializer();
+      return MetricsContext.measure(new ODataXmlDeserializer());
     } else {
       throw new DeserializerException("Unsupported format: " + 
     ((contentType != null) ? contentType.toContentTypeString() : null),
@@ -296,10 +394,10 @@ public class ODataImpl extends OData {
       constants = new Constantsv01() ;
     }
     if (contentType != null && contentType.isCompatible(ContentType.JSON)) {
-      return new ODataJsonDeserializer(contentType, metadata, constants);
+      return MetricsContext.measure(createJsonDeserializer(contentType, metadata, constants));
     } else if (contentType != null && (contentType.isCompatible(ContentType.APPLICATION_XML)
         || contentType.isCompatible(ContentType.APPLICATION_ATOM_XML))) {
-      return new ODataXmlDeserializer(metadata);
+      return MetricsContext.measure(new ODataXmlDeserializer(metadata));
     } else {
       throw new DeserializerException("Unsupported format: " + 
     ((contentType != null) ? contentType.toContentTypeString() : null),
@@ -21,6 +21,7 @@ package org.apache.olingo.server.core;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.constants.ODataServiceVersion;
@@ -38,9 +39,28 @@ public class ServiceMetadataImpl implements ServiceMetadata {
   private final List<EdmxReference> references;
   private final ServiceMetadataETagSupport serviceMetadataETagSupport;
 
+  private final long edmLoadingTime;
+
   public ServiceMetadataImpl(final CsdlEdmProvider edmProvider, final List<EdmxReference> references,
       final ServiceMetadataETagSupport serviceMetadataETagSupport) {
-    edm = new EdmProviderImpl(edmProvider);
+    this(edmProvider, references, serviceMetadataETagSupport, false);
+  }
+
+  /**
+   * Creates the service metadata.
+   * @param preload whether the complete EDM is loaded now instead of on first access of its elements
+   */
+  public ServiceMetadataImpl(final CsdlEdmProvider edmProvider, final List<EdmxReference> references,
+      final ServiceMetadataETagSupport serviceMetadataETagSupport, final boolean preload) {
+    final EdmProviderImpl edmProviderImpl = new EdmProviderImpl(edmProvider);
+    if (preload) {
+      final long start = System.nanoTime();
+      edmProviderImpl.preload();
+      edmLoadingTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    } else {
+      edmLoadingTime = -1;
+    }
+    edm = edmProviderImpl;
     this.references = new ArrayList<>();
     this.references.addAll(references);
     this.serviceMetadataETagSupport = serviceMetadataETagSupport;
@@ -65,4 +85,9 @@ public class ServiceMetadataImpl implements ServiceMetadata {
   public ServiceMetadataETagSupport getServiceMetadataETagSupport() {
     return serviceMetadataETagSupport;
   }
+
+  @Override
+  public long getEdmLoadingTime() {
+    return edmLoadingTime;
+  }
 }
@@ -0,0 +1,449 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.async;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.format.PreferenceName;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.ODataLibraryException;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.ODataServerError;
+import org.apache.olingo.server.api.async.AsyncRequestOptions;
+import org.apache.olingo.server.api.async.AsyncRequestService;
+import org.apache.olingo.server.api.async.AsyncTask;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.core.ODataExceptionHelper;
+
+public class AsyncRequestServiceImpl implements AsyncRequestService {
+
+  private static final int BUFFER_SIZE = 8192;
+  private static final long SWEEP_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+
+  private final OData odata;
+  private final AsyncRequestOptions options;
+  private final ThreadPoolExecutor executor;
+  private final Map<String, AsyncRequest> requests = new ConcurrentHashMap<String, AsyncRequest>();
+  private final Random random = new SecureRandom();
+
+  private final AtomicLong submitted = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+  private final AtomicLong completed = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong evicted = new AtomicLong();
+  private final AtomicInteger spilled = new AtomicInteger();
+  private final AtomicLong totalWaitingTime = new AtomicLong();
+  private final AtomicLong totalProcessingTime = new AtomicLong();
+  private final AtomicLong maxProcessingTime = new AtomicLong();
+  private volatile long lastSweep;
+
+  public AsyncRequestServiceImpl(final OData odata, final AsyncRequestOptions options) {
+    this.odata = odata;
+    this.options = options == null ? AsyncRequestOptions.with().build() : options;
+    executor = new ThreadPoolExecutor(this.options.getMaxConcurrency(), this.options.getMaxConcurrency(),
+        1, TimeUnit.MINUTES,
+        new ArrayBlockingQueue<Runnable>(this.options.getQueueCapacity()),
+        createThreadFactory(this.options.isVirtualThreads()));
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  @Override
+  public String submit(final ODataRequest request, final ODataResponse response, final AsyncTask task) {
+    evictExpired();
+    final byte[] body = request.getBody() == null ? null : readAll(request.getBody());
+    final AsyncRequest asyncRequest = new AsyncRequest(copyRequest(request, body), copyHeaders(response), task);
+    String id;
+    do {
+      id = Long.toString(random.nextLong() & Long.MAX_VALUE);
+    } while (requests.putIfAbsent(id, asyncRequest) != null);
+    try {
+      executor.execute(asyncRequest);
+    } catch (final RejectedExecutionException e) {
+      requests.remove(id);
+      rejected.incrementAndGet();
+      // The body has been read already; restore it, so that the caller can process the request synchronously.
+      if (body != null) {
+        request.setBody(new ByteArrayInputStream(body));
+      }
+      return null;
+    }
+    submitted.incrementAndGet();
+
+    final String location = createLocation(request.getRawBaseUri(), id);
+    response.setStatusCode(HttpStatusCode.ACCEPTED.getStatusCode());
+    response.setHeader(HttpHeader.LOCATION, location);
+    response.setHeader(HttpHeader.PREFERENCE_APPLIED, PreferenceName.RESPOND_ASYNC.getName());
+    return location;
+  }
+
+  @Override
+  public void readStatus(final String statusMonitorUri, final ODataResponse response) {
+    evictExpired();
+    final String id = statusMonitorUri.substring(statusMonitorUri.lastIndexOf('/') + 1);
+    final AsyncRequest asyncRequest = requests.get(id);
+    if (asyncRequest == null) {
+      response.setStatusCode(HttpStatusCode.NOT_FOUND.getStatusCode());
+    } else if (asyncRequest.isFinished() && requests.remove(id, asyncRequest)) {
+      response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+      response.setHeader(HttpHeader.CONTENT_TYPE, ContentType.APPLICATION_HTTP.toContentTypeString());
+      response.setHeader("Content-Transfer-Encoding", "binary");
+      response.setContent(asyncRequest.getResult());
+    } else if (asyncRequest.isFinished()) {
+      // Another status request has taken the result in the meantime.
+      response.setStatusCode(HttpStatusCode.NOT_FOUND.getStatusCode());
+    } else {
+      response.setStatusCode(HttpStatusCode.ACCEPTED.getStatusCode());
+      response.setHeader(HttpHeader.LOCATION, statusMonitorUri);
+    }
+  }
+
+  @Override
+  public int getQueueDepth() {
+    return executor.getQueue().size();
+  }
+
+  @Override
+  public int getActiveCount() {
+    return executor.getActiveCount();
+  }
+
+  @Override
+  public long getSubmittedCount() {
+    return submitted.get();
+  }
+
+  @Override
+  public long getRejectedCount() {
+    return rejected.get();
+  }
+
+  @Override
+  public long getCompletedCount() {
+    return completed.get();
+  }
+
+  @Override
+  public long getFailedCount() {
+    return failed.get();
+  }
+
+  @Override
+  public long getEvictedCount() {
+    return evicted.get();
+  }
+
+  @Override
+  public int getSpilledCount() {
+    return spilled.get();
+  }
+
+  @Override
+  public long getAverageWaitingTime() {
+    final long count = completed.get();
+    return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitingTime.get() / count);
+  }
+
+  @Override
+  public long getAverageProcessingTime() {
+    final long count = completed.get();
+    return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalProcessingTime.get() / count);
+  }
+
+  @Override
+  public long getMaxProcessingTime() {
+    return TimeUnit.NANOSECONDS.toMillis(maxProcessingTime.get());
+  }
+
+  @Override
+  public void shutdown() {
+    executor.shutdownNow();
+    for (final Iterator<AsyncRequest> iterator = requests.values().iterator(); iterator.hasNext();) {
+      iterator.next().discard();
+      iterator.remove();
+    }
+  }
+
+  private String createLocation(final String rawBaseUri, final String id) {
+    final String base = rawBaseUri.endsWith("/") ? rawBaseUri.substring(0, rawBaseUri.length() - 1) : rawBaseUri;
+    return base.substring(0, base.lastIndexOf('/') + 1) + options.getStatusMonitorSegment() + '/' + id;
+  }
+
+  /** Discards results that have not been read in time; this is done at most once per second. */
+  private void evictExpired() {
+    final long now = System.currentTimeMillis();
+    if (now - lastSweep < SWEEP_INTERVAL) {
+      return;
+    }
+    lastSweep = now;
+    for (final Iterator<AsyncRequest> iterator = requests.values().iterator(); iterator.hasNext();) {
+      final AsyncRequest asyncRequest = iterator.next();
+      if (asyncRequest.isFinished() && now - asyncRequest.finishedAt > options.getResultTimeToLive()) {
+        iterator.remove();
+        asyncRequest.discard();
+        evicted.incrementAndGet();
+      }
+    }
+  }
+
+  private static ODataRequest copyRequest(final ODataRequest request, final byte[] body) {
+    ODataRequest copy = new ODataRequest();
+    copy.setBody(body == null ? null : new ByteArrayInputStream(body));
+    copy.setMethod(request.getMethod());
+    copy.setProtocol(request.getProtocol());
+    copy.setRawBaseUri(request.getRawBaseUri());
+    copy.setRawODataPath(request.getRawODataPath());
+    copy.setRawQueryPath(request.getRawQueryPath());
+    copy.setRawRequestUri(request.getRawRequestUri());
+    copy.setRawServiceResolutionUri(request.getRawServiceResolutionUri());
+    for (final Map.Entry<String, List<String>> header : request.getAllHeaders().entrySet()) {
+      // Without the Prefer header, the request is processed synchronously on the worker thread.
+      if (!HttpHeader.PREFER.equalsIgnoreCase(header.getKey())) {
+        copy.addHeader(header.getKey(), header.getValue());
+      }
+    }
+    return copy;
+  }
+
+  private static ODataResponse copyHeaders(final ODataResponse response) {
+    ODataResponse copy = new ODataResponse();
+    for (final Map.Entry<String, List<String>> header : response.getAllHeaders().entrySet()) {
+      copy.addHeader(header.getKey(), header.getValue());
+    }
+    return copy;
+  }
+
+  private static byte[] readAll(final InputStream input) {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try {
+      copy(input, output, Long.MAX_VALUE);
+      input.close();
+    } catch (final IOException e) {
+      throw new ODataRuntimeException("Error on reading request content", e);
+    }
+    return output.toByteArray();
+  }
+
+  /** Copies at most <code>limit</code> bytes and returns whether the end of the input has been reached. */
+  private static boolean copy(final InputStream input, final OutputStream output, final long limit)
+      throws IOException {
+    final byte[] buffer = new byte[BUFFER_SIZE];
+    long remaining = limit;
+    int count;
+    while (remaining > 0 && (count = input.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+      output.write(buffer, 0, count);
+      remaining -= count;
+    }
+    return remaining > 0;
+  }
+
+  private static ThreadFactory createThreadFactory(final boolean virtualThreads) {
+    if (virtualThreads) {
+      try {
+        final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+        builderClass.getMethod("name", String.class, long.class).invoke(builder, "olingo-async-", 1L);
+        return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+      } catch (final NoSuchMethodException e) {
+        // Virtual threads are not available in this Java runtime; fall back to platform threads.
+      } catch (final ClassNotFoundException e) {
+        // see above
+      } catch (final IllegalAccessException e) {
+        // see above
+      } catch (final InvocationTargetException e) {
+        // see above
+      }
+    }
+    return new ThreadFactory() {
+      private final AtomicInteger number = new AtomicInteger();
+
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        Thread thread = new Thread(runnable, "olingo-async-" + number.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    };
+  }
+
+  /** An asynchronously processed request together with its result. */
+  private class AsyncRequest implements Runnable {
+    private final ODataRequest request;
+    private final ODataResponse response;
+    private final AsyncTask task;
+    private final long submittedAt = System.nanoTime();
+    private volatile boolean finished;
+    private volatile long finishedAt;
+    private byte[] result;
+    private File resultFile;
+
+    AsyncRequest(final ODataRequest request, final ODataResponse response, final AsyncTask task) {
+      this.request = request;
+      this.response = response;
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      final long start = System.nanoTime();
+      try {
+        task.process(request, response);
+      } catch (final ODataApplicationException e) {
+        setError(ODataExceptionHelper.createServerErrorObject(e));
+      } catch (final ODataLibraryException e) {
+        setError(ODataExceptionHelper.createServerErrorObject(e, null));
+      } catch (final RuntimeException e) {
+        setError(ODataExceptionHelper.createServerErrorObject(e));
+      }
+      final long end = System.nanoTime();
+      storeResult();
+      finishedAt = System.currentTimeMillis();
+      finished = true;
+
+      completed.incrementAndGet();
+      totalWaitingTime.addAndGet(start - submittedAt);
+      totalProcessingTime.addAndGet(end - start);
+      long max = maxProcessingTime.get();
+      while (end - start > max && !maxProcessingTime.compareAndSet(max, end - start)) {
+        max = maxProcessingTime.get();
+      }
+    }
+
+    private void setError(final ODataServerError serverError) {
+      failed.incrementAndGet();
+      response.setContent(null);
+      response.setStatusCode(serverError.getStatusCode());
+      try {
+        response.setContent(odata.createSerializer(ContentType.JSON).error(serverError).getContent());
+        response.setHeader(HttpHeader.CONTENT_TYPE, ContentType.JSON.toContentTypeString());
+      } catch (final SerializerException e) {
+        // The status code alone has to suffice.
+      }
+    }
+
+    /** Stores the result in memory, or in a temporary file if it is larger than the threshold. */
+    private void storeResult() {
+      InputStream content = null;
+      try {
+        content = odata.createFixedFormatSerializer().asyncResponse(response);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        if (copy(content, buffer, options.getSpillThreshold() + 1)) {
+          result = buffer.toByteArray();
+        } else {
+          final File file = File.createTempFile("olingo-async-", ".http", options.getSpillDirectory());
+          try (OutputStream output = new FileOutputStream(file)) {
+            buffer.writeTo(output);
+            copy(content, output, Long.MAX_VALUE);
+          } catch (final IOException e) {
+            file.delete();
+            throw e;
+          }
+          resultFile = file;
+          spilled.incrementAndGet();
+        }
+      } catch (final SerializerException e) {
+        setErrorResult(e);
+      } catch (final IOException e) {
+        setErrorResult(e);
+      } finally {
+        close(content);
+        close(response.getContent());
+      }
+    }
+
+    private void setErrorResult(final Exception exception) {
+      try {
+        ODataResponse errorResponse = new ODataResponse();
+        errorResponse.setStatusCode(HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+        result = readAll(odata.createFixedFormatSerializer().asyncResponse(errorResponse));
+      } catch (final SerializerException e) {
+        throw new ODataRuntimeException("Cannot store the result of an asynchronous request.", exception);
+      }
+    }
+
+    boolean isFinished() {
+      return finished;
+    }
+
+    InputStream getResult() {
+      if (resultFile == null) {
+        return new ByteArrayInputStream(result);
+      }
+      final File file = resultFile;
+      try {
+        return new FilterInputStream(new FileInputStream(file)) {
+          @Override
+          public void close() throws IOException {
+            super.close();
+            if (file.delete()) {
+              spilled.decrementAndGet();
+            }
+          }
+        };
+      } catch (final IOException e) {
+        discard();
+        throw new ODataRuntimeException("Cannot read the result of an asynchronous request.", e);
+      }
+    }
+
+    void discard() {
+      if (resultFile != null && resultFile.delete()) {
+        spilled.decrementAndGet();
+      }
+      result = null;
+    }
+
+    private void close(final InputStream stream) {
+      if (stream != null) {
+        try {
+          stream.close();
+        } catch (final IOException e) {
+          // ignore
+        }
+      }
+    }
+  }
+}
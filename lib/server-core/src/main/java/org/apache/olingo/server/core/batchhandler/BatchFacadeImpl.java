@@ -18,19 +18,39 @@
  */
 package org.apache.olingo.server.core.batchhandler;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.ODataHandler;
 import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.batch.BatchExecutionSupport;
 import org.apache.olingo.server.api.batch.BatchFacade;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 import org.apache.olingo.server.api.processor.BatchProcessor;
+import org.apache.olingo.server.core.ODataHandlerImpl;
+import org.apache.olingo.server.core.batchhandler.referenceRewriting.BatchReferenceRewriter;
 import org.apache.olingo.server.core.deserializer.batch.BatchParserCommon;
 
 public class BatchFacadeImpl implements BatchFacade {
+  private final ODataHandlerImpl concurrentHandler;
+  private final BatchProcessor batchProcessor;
+  private final BatchExecutionSupport executionSupport;
+  private final BatchReferenceRewriter rewriter;
   private final BatchPartHandler partHandler;
 
   /**
@@ -41,7 +61,30 @@ public class BatchFacadeImpl implements BatchFacade {
    */
   public BatchFacadeImpl(final ODataHandler oDataHandler, final BatchProcessor batchProcessor,
                          final boolean isStrict) {
-    partHandler = new BatchPartHandler(oDataHandler, batchProcessor, this);
+    this(oDataHandler, null, batchProcessor, null, new BatchReferenceRewriter());
+  }
+
+  /**
+   * Creates a new BatchFacade which executes independent parts concurrently.
+   * @param oDataHandler     handler; copies of it process the concurrently executed parts
+   * @param batchProcessor   batch processor
+   * @param executionSupport determines the executor and the independent change sets;
+   *                         if <code>null</code>, all parts are executed sequentially
+   * @param isStrict         mode switch (currently not used)
+   */
+  public BatchFacadeImpl(final ODataHandlerImpl oDataHandler, final BatchProcessor batchProcessor,
+                         final BatchExecutionSupport executionSupport, final boolean isStrict) {
+    this(oDataHandler, oDataHandler, batchProcessor, executionSupport, new BatchReferenceRewriter());
+  }
+
+  private BatchFacadeImpl(final ODataHandler oDataHandler, final ODataHandlerImpl concurrentHandler,
+      final BatchProcessor batchProcessor, final BatchExecutionSupport executionSupport,
+      final BatchReferenceRewriter rewriter) {
+    this.concurrentHandler = concurrentHandler;
+    this.batchProcessor = batchProcessor;
+    this.executionSupport = executionSupport;
+    this.rewriter = rewriter;
+    partHandler = new BatchPartHandler(oDataHandler, batchProcessor, this, rewriter);
   }
 
   @Override
@@ -56,8 +99,130 @@ public class BatchFacadeImpl implements BatchFacade {
     return partHandler.handleBatchRequest(request);
   }
 
+  @Override
+  public List<ODataResponsePart> handleBatchRequests(final List<BatchRequestPart> requests,
+      final boolean continueOnError) throws ODataApplicationException, ODataLibraryException {
+    final Executor executor = executionSupport == null || concurrentHandler == null ?
+        null : executionSupport.getExecutor();
+    final List<ODataResponsePart> responseParts = new ArrayList<>(requests.size());
+    int start = 0;
+    while (start < requests.size()) {
+      final int end = executor == null ? start + 1 : getEndOfIndependentParts(requests, start, continueOnError);
+      final List<ODataResponsePart> partResponses = end - start == 1 ?
+          Collections.singletonList(handleBatchRequest(requests.get(start))) :
+          handleConcurrently(requests.subList(start, end), executor);
+      for (final ODataResponsePart responsePart : partResponses) {
+        responseParts.add(responsePart); // Also add failed responses.
+        if (!continueOnError && isFailed(responsePart)) {
+          // Responses to parts executed concurrently after the failed one are discarded.
+          return responseParts;
+        }
+      }
+      start = end;
+    }
+    return responseParts;
+  }
+
   @Override
   public String extractBoundaryFromContentType(final String contentType) throws BatchDeserializerException {
     return BatchParserCommon.getBoundary(contentType, 0);
   }
+
+  /**
+   * Determines the end of the sequence of parts starting at <code>start</code> which can run concurrently.
+   * Top-level parts are always GET requests without side effects. Change sets have side effects, so they run
+   * concurrently only if processing continues on errors anyway and if they do not depend on a part of the sequence.
+   * A change set redefining a Content-ID of the sequence depends on it as well, since all parts share one
+   * Content-ID mapping and later references have to resolve to the last definition.
+   */
+  private int getEndOfIndependentParts(final List<BatchRequestPart> requests, final int start,
+      final boolean continueOnError) {
+    final Set<String> contentIds = new HashSet<>();
+    int end = start;
+    while (end < requests.size() && isIndependent(requests.get(end), continueOnError, contentIds)) {
+      for (final ODataRequest request : requests.get(end).getRequests()) {
+        contentIds.add(request.getHeader(HttpHeader.CONTENT_ID));
+      }
+      end++;
+    }
+    return Math.max(end, start + 1);
+  }
+
+  private boolean isIndependent(final BatchRequestPart part, final boolean continueOnError,
+      final Set<String> contentIds) {
+    if (!part.isChangeSet()) {
+      return true;
+    }
+    if (!continueOnError || !executionSupport.isConcurrentChangeSet(part)) {
+      return false;
+    }
+    for (final ODataRequest request : part.getRequests()) {
+      final String reference = rewriter.getReferenceInURI(request);
+      final String contentId = request.getHeader(HttpHeader.CONTENT_ID);
+      if (reference != null && contentIds.contains(reference)
+          || contentId != null && contentIds.contains(contentId)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private List<ODataResponsePart> handleConcurrently(final List<BatchRequestPart> requests, final Executor executor)
+      throws ODataApplicationException, ODataLibraryException {
+    final List<FutureTask<ODataResponsePart>> tasks = new ArrayList<>(requests.size() - 1);
+    for (final BatchRequestPart request : requests.subList(1, requests.size())) {
+      final FutureTask<ODataResponsePart> task = new FutureTask<>(new Callable<ODataResponsePart>() {
+        @Override
+        public ODataResponsePart call() throws ODataApplicationException, ODataLibraryException {
+          // Each part gets its own handler but all parts share the Content-ID mapping.
+          return new BatchFacadeImpl(concurrentHandler.copy(), null, batchProcessor, null, rewriter)
+              .handleBatchRequest(request);
+        }
+      });
+      tasks.add(task);
+      try {
+        executor.execute(task);
+      } catch (final RejectedExecutionException e) {
+        task.run();
+      }
+    }
+
+    final List<ODataResponsePart> responseParts = new ArrayList<>(requests.size());
+    try {
+      // The calling thread handles the first part itself instead of waiting idly.
+      responseParts.add(handleBatchRequest(requests.get(0)));
+      for (final FutureTask<ODataResponsePart> task : tasks) {
+        responseParts.add(task.get());
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ODataRuntimeException(e);
+    } catch (final ExecutionException e) {
+      rethrow(e.getCause());
+    } finally {
+      for (final FutureTask<ODataResponsePart> task : tasks) {
+        task.cancel(true);
+      }
+    }
+    return responseParts;
+  }
+
+  private void rethrow(final Throwable cause) throws ODataApplicationException, ODataLibraryException {
+    if (cause instanceof ODataApplicationException) {
+      throw (ODataApplicationException) cause;
+    } else if (cause instanceof ODataLibraryException) {
+      throw (ODataLibraryException) cause;
+    } else if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    } else if (cause instanceof Error) {
+      throw (Error) cause;
+    } else {
+      throw new ODataRuntimeException((Exception) cause);
+    }
+  }
+
+  private boolean isFailed(final ODataResponsePart responsePart) {
+    final int statusCode = responsePart.getResponses().get(0).getStatusCode();
+    return statusCode >= 400 && statusCode <= 600;
+  }
 }
@@ -28,7 +28,10 @@ import org.apache.olingo.server.api.batch.BatchFacade;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
+import org.apache.olingo.server.api.metrics.ODataMetrics;
+import org.apache.olingo.server.api.metrics.ODataMetrics.Stage;
 import org.apache.olingo.server.api.processor.BatchProcessor;
+import org.apache.olingo.server.core.ODataHandlerImpl;
 import org.apache.olingo.server.core.batchhandler.referenceRewriting.BatchReferenceRewriter;
 
 public class BatchPartHandler {
@@ -39,10 +42,15 @@ public class BatchPartHandler {
 
   public BatchPartHandler(final ODataHandler oDataHandler, final BatchProcessor processor,
                           final BatchFacade batchFacade) {
+    this(oDataHandler, processor, batchFacade, new BatchReferenceRewriter());
+  }
+
+  public BatchPartHandler(final ODataHandler oDataHandler, final BatchProcessor processor,
+                          final BatchFacade batchFacade, final BatchReferenceRewriter rewriter) {
     this.oDataHandler = oDataHandler;
     batchProcessor = processor;
     this.batchFacade = batchFacade;
-    rewriter = new BatchReferenceRewriter();
+    this.rewriter = rewriter;
   }
 
   public ODataResponse handleODataRequest(final ODataRequest request) throws BatchDeserializerException {
@@ -63,6 +71,9 @@ public class BatchPartHandler {
   public ODataResponse handle(final ODataRequest request, final boolean isChangeSet)
       throws BatchDeserializerException {
     ODataResponse response;
+    final ODataMetrics metrics = oDataHandler instanceof ODataHandlerImpl ?
+        ((ODataHandlerImpl) oDataHandler).getMetrics() : null;
+    final long start = metrics == null ? 0 : System.nanoTime();
 
     if (isChangeSet) {
       rewriter.replaceReference(request);
@@ -73,6 +84,9 @@ public class BatchPartHandler {
     } else {
       response = oDataHandler.process(request);
     }
+    if (metrics != null) {
+      metrics.record(Stage.BATCH_PART, System.nanoTime() - start);
+    }
 
     // Add content id to response
     final String contentId = request.getHeader(HttpHeader.CONTENT_ID);
@@ -18,6 +18,7 @@
  */
 package org.apache.olingo.server.core.batchhandler.referenceRewriting;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -35,7 +36,7 @@ public class BatchReferenceRewriter {
   private static final String REG_EX_REFERENCE = "\\$(.*)(/.*)?";
   private static final Pattern REFERENCE_PATTERN = Pattern.compile(REG_EX_REFERENCE);
 
-  private Map<String, String> contentIdMapping = new HashMap<>();
+  private final Map<String, String> contentIdMapping = Collections.synchronizedMap(new HashMap<String, String>());
 
   public String getReferenceInURI(final ODataRequest request) {
     Matcher matcher = REFERENCE_PATTERN.matcher(removeSlash(removeSlash(request.getRawODataPath(), true), false));
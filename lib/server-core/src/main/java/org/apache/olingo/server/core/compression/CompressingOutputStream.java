@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.compression;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <p>Output stream which compresses everything written to it with the content coding <code>gzip</code> or
+ * <code>deflate</code>, unless the whole content is smaller than a minimum size.</p>
+ * <p>The first bytes up to the minimum size are buffered. As soon as they are exceeded, or when the stream is
+ * finished, the content coding is decided and reported to the {@link ContentCodingListener} before the first byte
+ * is written to the target stream, so that the response headers can still be set there.</p>
+ */
+public class CompressingOutputStream extends OutputStream {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  /** Gets notified of the decision about the content coding. */
+  public interface ContentCodingListener {
+
+    /**
+     * Called once before the first byte is written to the target stream.
+     * @param contentCoding the content coding, or <code>null</code> if the content is not compressed
+     */
+    void contentCodingSelected(String contentCoding);
+  }
+
+  private final CountingOutputStream out;
+  private final String contentCoding;
+  private final int level;
+  private final ContentCodingListener listener;
+  private byte[] pending;
+  private int pendingCount;
+  private OutputStream target;
+  private Deflater deflater;
+  private long uncompressedBytes;
+  private boolean finished;
+  private boolean closed;
+
+  /**
+   * Creates a compressing output stream.
+   * @param out the target stream
+   * @param contentCoding <code>gzip</code> or <code>deflate</code>
+   * @param minSize the content size in bytes below which the content is written uncompressed
+   * @param level the compression level from 0 to 9, or -1 for the default level
+   * @param listener the listener for the decision about the content coding
+   */
+  public CompressingOutputStream(final OutputStream out, final String contentCoding, final int minSize,
+      final int level, final ContentCodingListener listener) {
+    if (!ContentCompressionImpl.GZIP.equals(contentCoding) && !ContentCompressionImpl.DEFLATE.equals(contentCoding)) {
+      throw new IllegalArgumentException("Unsupported content coding " + contentCoding);
+    }
+    this.out = new CountingOutputStream(out);
+    this.contentCoding = contentCoding;
+    this.level = level;
+    this.listener = listener;
+    pending = new byte[minSize];
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    write(new byte[] { (byte) b }, 0, 1);
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    if (finished) {
+      throw new IOException("The stream has been finished already.");
+    }
+    uncompressedBytes += len;
+    if (target == null) {
+      if (pendingCount + len < pending.length) {
+        System.arraycopy(b, off, pending, pendingCount, len);
+        pendingCount += len;
+        return;
+      }
+      select(true);
+    }
+    target.write(b, off, len);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (target != null) {
+      target.flush();
+    }
+  }
+
+  /**
+   * Writes the remaining content, including the trailer of the compressed format, without closing the target
+   * stream. Content smaller than the minimum size is written uncompressed.
+   */
+  public void finish() throws IOException {
+    if (finished) {
+      return;
+    }
+    finished = true;
+    try {
+      if (target == null) {
+        select(false);
+      }
+      if (target instanceof DeflaterOutputStream) {
+        ((DeflaterOutputStream) target).finish();
+      }
+      out.flush();
+    } finally {
+      if (deflater != null) {
+        deflater.end();
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      try {
+        finish();
+      } finally {
+        out.close();
+      }
+    }
+  }
+
+  /** Whether the content is compressed; only meaningful after the decision about the content coding. */
+  public boolean isCompressed() {
+    return deflater != null;
+  }
+
+  /** Gets the number of bytes written to this stream. */
+  public long getUncompressedBytes() {
+    return uncompressedBytes;
+  }
+
+  /** Gets the number of bytes written to the target stream. */
+  public long getCompressedBytes() {
+    return out.count;
+  }
+
+  private void select(final boolean compress) throws IOException {
+    listener.contentCodingSelected(compress ? contentCoding : null);
+    if (compress) {
+      if (ContentCompressionImpl.GZIP.equals(contentCoding)) {
+        final GzipStream gzip = new GzipStream(out, level);
+        deflater = gzip.getDeflater();
+        target = gzip;
+      } else {
+        deflater = new Deflater(level);
+        target = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+      }
+    } else {
+      target = out;
+    }
+    target.write(pending, 0, pendingCount);
+    pending = null;
+  }
+
+  /** GZIP stream with configurable compression level. */
+  private static final class GzipStream extends GZIPOutputStream {
+
+    GzipStream(final OutputStream out, final int level) throws IOException {
+      super(out, BUFFER_SIZE);
+      def.setLevel(level);
+    }
+
+    Deflater getDeflater() {
+      return def;
+    }
+  }
+
+  /** Counts the bytes written to the target stream. */
+  private static final class CountingOutputStream extends FilterOutputStream {
+
+    private long count;
+
+    CountingOutputStream(final OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+  }
+}
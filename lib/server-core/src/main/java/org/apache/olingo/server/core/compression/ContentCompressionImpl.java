@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.compression;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.compression.CompressionOptions;
+import org.apache.olingo.server.api.compression.ContentCompression;
+import org.apache.olingo.server.api.deserializer.DeserializerException;
+import org.apache.olingo.server.core.compression.CompressingOutputStream.ContentCodingListener;
+
+public class ContentCompressionImpl implements ContentCompression {
+
+  public static final String GZIP = "gzip";
+  public static final String DEFLATE = "deflate";
+  private static final String X_GZIP = "x-gzip";
+  private static final String ANY = "*";
+  private static final String IDENTITY = "identity";
+
+  private final CompressionOptions options;
+  private final AtomicLong compressedResponses = new AtomicLong();
+  private final AtomicLong uncompressedBytes = new AtomicLong();
+  private final AtomicLong compressedBytes = new AtomicLong();
+  private final AtomicLong decompressedRequests = new AtomicLong();
+
+  public ContentCompressionImpl(final CompressionOptions options) {
+    this.options = options == null ? CompressionOptions.with().build() : options;
+  }
+
+  @Override
+  public CompressionOptions getOptions() {
+    return options;
+  }
+
+  @Override
+  public long getCompressedResponseCount() {
+    return compressedResponses.get();
+  }
+
+  @Override
+  public long getUncompressedBytes() {
+    return uncompressedBytes.get();
+  }
+
+  @Override
+  public long getCompressedBytes() {
+    return compressedBytes.get();
+  }
+
+  @Override
+  public long getDecompressedRequestCount() {
+    return decompressedRequests.get();
+  }
+
+  /**
+   * Replaces the body of a request with content coding <code>gzip</code> or <code>deflate</code>
+   * by its decompressed content and removes the headers describing the compressed content.
+   * Request bodies with other or without content codings are left unchanged.
+   * Reading more decompressed content than {@link CompressionOptions#getMaxDecompressedSize()} fails with a
+   * {@link DecompressedSizeExceededException}.
+   * @param request the OData request
+   * @throws DeserializerException if the body is not in the declared format
+   */
+  public void decompress(final ODataRequest request) throws DeserializerException {
+    final String contentEncoding = request.getHeader(HttpHeader.CONTENT_ENCODING);
+    if (!options.isDecompressRequests() || contentEncoding == null || request.getBody() == null) {
+      return;
+    }
+    final String coding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+    final InputStream body;
+    try {
+      if (GZIP.equals(coding) || X_GZIP.equals(coding)) {
+        body = new GZIPInputStream(request.getBody());
+      } else if (DEFLATE.equals(coding)) {
+        body = new InflaterInputStream(request.getBody());
+      } else {
+        return;
+      }
+    } catch (final IOException e) {
+      throw new DeserializerException("The request body cannot be decompressed.", e,
+          DeserializerException.MessageKeys.IO_EXCEPTION);
+    }
+    request.setBody(new LimitedInputStream(body, options.getMaxDecompressedSize()));
+    request.removeHeader(HttpHeader.CONTENT_ENCODING);
+    request.removeHeader(HttpHeader.CONTENT_LENGTH);
+    decompressedRequests.incrementAndGet();
+  }
+
+  /**
+   * Selects the content coding of a response.
+   * If the response content is compressible, the response gets the header <code>Vary: Accept-Encoding</code>,
+   * since its representation depends on that request header.
+   * @param response the OData response
+   * @param acceptEncoding the value of the Accept-Encoding header of the request, or <code>null</code>
+   * @return <code>gzip</code>, <code>deflate</code>, or <code>null</code> if the response is sent uncompressed
+   */
+  public String negotiate(final ODataResponse response, final String acceptEncoding) {
+    if (!isCompressible(response)) {
+      return null;
+    }
+    addVary(response);
+    return acceptEncoding == null ? null : selectContentCoding(acceptEncoding);
+  }
+
+  /**
+   * Creates a stream compressing the response content according to the options.
+   * @param out the target stream
+   * @param contentCoding the content coding selected by {@link #negotiate(ODataResponse, String)}
+   * @param listener the listener for the decision whether the content is actually compressed
+   */
+  public CompressingOutputStream compress(final OutputStream out, final String contentCoding,
+      final ContentCodingListener listener) {
+    return new CompressingOutputStream(out, contentCoding, options.getMinSize(), options.getLevel(), listener) {
+      private boolean counted;
+
+      @Override
+      public void finish() throws IOException {
+        super.finish();
+        if (!counted && isCompressed()) {
+          counted = true;
+          compressedResponses.incrementAndGet();
+          uncompressedBytes.addAndGet(getUncompressedBytes());
+          compressedBytes.addAndGet(getCompressedBytes());
+        }
+      }
+    };
+  }
+
+  private boolean isCompressible(final ODataResponse response) {
+    final int statusCode = response.getStatusCode();
+    if (response.getContent() == null && response.getODataContent() == null
+        || statusCode == HttpStatusCode.NO_CONTENT.getStatusCode()
+        || statusCode == HttpStatusCode.NOT_MODIFIED.getStatusCode()
+        || response.getHeader(HttpHeader.CONTENT_ENCODING) != null
+        // byte ranges refer to the uncompressed media content
+        || response.getHeader(HttpHeader.ACCEPT_RANGES) != null
+        || response.getHeader(HttpHeader.CONTENT_RANGE) != null
+        || !options.isCompressible(response.getHeader(HttpHeader.CONTENT_TYPE))) {
+      return false;
+    }
+    final String contentLength = response.getHeader(HttpHeader.CONTENT_LENGTH);
+    if (contentLength != null) {
+      try {
+        return Long.parseLong(contentLength.trim()) >= options.getMinSize();
+      } catch (final NumberFormatException e) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void addVary(final ODataResponse response) {
+    final List<String> values = response.getHeaders(HttpHeader.VARY);
+    if (values != null) {
+      for (final String value : values) {
+        for (final String field : value.split(",")) {
+          if (HttpHeader.ACCEPT_ENCODING.equalsIgnoreCase(field.trim()) || ANY.equals(field.trim())) {
+            return;
+          }
+        }
+      }
+    }
+    response.addHeader(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING);
+  }
+
+  /**
+   * Selects the enabled content coding with the highest quality value; <code>gzip</code> wins ties.
+   * The wildcard applies to all codings not listed explicitly.
+   */
+  private String selectContentCoding(final String acceptEncoding) {
+    double gzipQuality = -1;
+    double deflateQuality = -1;
+    double anyQuality = -1;
+    double identityQuality = -1;
+    for (final String element : acceptEncoding.split(",")) {
+      final String[] parts = element.split(";");
+      final String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+      double quality = 1;
+      for (int i = 1; i < parts.length; i++) {
+        final String parameter = parts[i].trim();
+        if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+          try {
+            quality = Double.parseDouble(parameter.substring(2).trim());
+          } catch (final NumberFormatException e) {
+            quality = 0;
+          }
+        }
+      }
+      if (GZIP.equals(coding) || X_GZIP.equals(coding)) {
+        gzipQuality = Math.max(gzipQuality, quality);
+      } else if (DEFLATE.equals(coding)) {
+        deflateQuality = quality;
+      } else if (ANY.equals(coding)) {
+        anyQuality = quality;
+      } else if (IDENTITY.equals(coding)) {
+        identityQuality = quality;
+      }
+    }
+    gzipQuality = options.isGzip() ? (gzipQuality < 0 ? anyQuality : gzipQuality) : 0;
+    deflateQuality = options.isDeflate() ? (deflateQuality < 0 ? anyQuality : deflateQuality) : 0;
+    final double best = Math.max(gzipQuality, deflateQuality);
+    if (best <= 0 || best < identityQuality) {
+      return null;
+    }
+    return gzipQuality >= deflateQuality ? GZIP : DEFLATE;
+  }
+
+  /** Counts the bytes read and fails as soon as they exceed the maximum size. */
+  private static final class LimitedInputStream extends FilterInputStream {
+
+    private final long maxSize;
+    private long count;
+
+    LimitedInputStream(final InputStream in, final long maxSize) {
+      super(in);
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int b = in.read();
+      if (b >= 0) {
+        count(1);
+      }
+      return b;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      final int read = in.read(b, off, len);
+      if (read > 0) {
+        count(read);
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+      final long skipped = in.skip(n);
+      count(skipped);
+      return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    private void count(final long bytes) throws DecompressedSizeExceededException {
+      count += bytes;
+      if (count > maxSize) {
+        throw new DecompressedSizeExceededException(maxSize);
+      }
+    }
+  }
+}
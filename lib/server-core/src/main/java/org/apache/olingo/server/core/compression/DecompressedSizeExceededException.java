@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.compression;
+
+import java.io.IOException;
+
+/**
+ * Signals that decompressed request content exceeds the maximum size of the
+ * {@link org.apache.olingo.server.api.compression.CompressionOptions}.
+ * The handler answers requests failing with this exception, also as cause, with status 413 (Payload Too Large).
+ */
+public class DecompressedSizeExceededException extends IOException {
+
+  private static final long serialVersionUID = 1L;
+
+  public DecompressedSizeExceededException(final long maxSize) {
+    super("The decompressed request body exceeds the maximum size of " + maxSize + " bytes.");
+  }
+
+  /**
+   * Checks whether the given exception has been caused by too large decompressed content.
+   * @param exception the exception, or <code>null</code>
+   */
+  public static boolean isCause(final Throwable exception) {
+    Throwable cause = exception;
+    while (cause != null) {
+      if (cause instanceof DecompressedSizeExceededException) {
+        return true;
+      }
+      cause = cause.getCause() == cause ? null : cause.getCause();
+    }
+    return false;
+  }
+}
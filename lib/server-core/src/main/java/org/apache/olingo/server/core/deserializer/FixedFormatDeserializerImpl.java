@@ -23,6 +23,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 
 import org.apache.olingo.commons.api.data.Parameter;
@@ -39,12 +44,14 @@ import org.apache.olingo.server.api.deserializer.FixedFormatDeserializer;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPartReader;
 import org.apache.olingo.server.core.deserializer.batch.BatchParser;
 import org.apache.olingo.server.core.deserializer.json.ODataJsonDeserializer;
 
 public class FixedFormatDeserializerImpl implements FixedFormatDeserializer {
 
   private static final int DEFAULT_BUFFER_SIZE = 128;
+  private static final int TRANSFER_SIZE = 8192;
 
   @Override
   public byte[] binary(final InputStream content) throws DeserializerException {
@@ -63,6 +70,36 @@ public class FixedFormatDeserializerImpl implements FixedFormatDeserializer {
     return result.toByteArray();
   }
 
+  @Override
+  public long binary(final InputStream content, final WritableByteChannel target) throws DeserializerException {
+    final ReadableByteChannel source = Channels.newChannel(content);
+    long count = 0;
+    try {
+      if (target instanceof FileChannel) {
+        final FileChannel file = (FileChannel) target;
+        final long start = file.position();
+        long transferred;
+        while ((transferred = file.transferFrom(source, start + count, TRANSFER_SIZE)) > 0) {
+          count += transferred;
+        }
+        file.position(start + count);
+      } else {
+        final ByteBuffer buffer = ByteBuffer.allocate(TRANSFER_SIZE);
+        while (source.read(buffer) > -1) {
+          buffer.flip();
+          while (buffer.hasRemaining()) {
+            count += target.write(buffer);
+          }
+          buffer.clear();
+        }
+      }
+    } catch (final IOException e) {
+      throw new DeserializerException("An I/O exception occurred.", e,
+          DeserializerException.MessageKeys.IO_EXCEPTION);
+    }
+    return count;
+  }
+
   @Override
   public Object primitiveValue(final InputStream content, final EdmProperty property) throws DeserializerException {
     if (property == null || !property.isPrimitive()) {
@@ -133,4 +170,10 @@ public class FixedFormatDeserializerImpl implements FixedFormatDeserializer {
 
     return parser.parseBatchRequest(content, boundary, options);
   }
+
+  @Override
+  public BatchRequestPartReader readBatchRequest(final InputStream content, final String boundary,
+      final BatchOptions options) throws BatchDeserializerException {
+    return new BatchParser().readBatchRequest(content, boundary, options);
+  }
 }
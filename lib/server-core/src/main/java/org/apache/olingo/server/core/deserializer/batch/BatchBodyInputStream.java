@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.batch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Body of a part of a batch request.
+ * <p>
+ * As long as the batch reader stays at this part, the stream reads directly from the batch request.
+ * Once the reader moves on, the data not read so far is kept in memory, so the stream stays usable.
+ * Reading can be restricted to a maximum number of bytes, e.g., to the value of the Content-Length header.
+ * </p>
+ */
+public class BatchBodyInputStream extends InputStream {
+
+  private static final int SKIP_BUFFER_SIZE = 4096;
+
+  private final BatchMultipartReader reader;
+  private final byte[] single = new byte[1];
+  private InputStream detached;
+  private long remaining = Long.MAX_VALUE;
+  private boolean ended;
+
+  BatchBodyInputStream(final BatchMultipartReader reader) {
+    this.reader = reader;
+  }
+
+  /**
+   * Restricts the number of bytes this stream returns; additional data in front of the next delimiter is skipped.
+   * @param maxLength maximum number of bytes
+   */
+  public void limit(final long maxLength) {
+    remaining = maxLength;
+  }
+
+  @Override
+  public int read() throws IOException {
+    final int count = read(single, 0, 1);
+    return count == -1 ? -1 : single[0] & 0xFF;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (remaining <= 0) {
+      return -1;
+    }
+    final int max = (int) Math.min(len, remaining);
+    final int count;
+    if (detached != null) {
+      count = detached.read(b, off, max);
+    } else if (ended) {
+      count = -1;
+    } else {
+      count = reader.readBody(b, off, max);
+      if (count == -1) {
+        ended = true;
+        reader.bodyClosed(this);
+      }
+    }
+    if (count > 0) {
+      remaining -= count;
+    }
+    return count;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return detached == null ? 0 : detached.available();
+  }
+
+  /**
+   * Skips the rest of the body, so the batch reader can continue with the next part.
+   */
+  @Override
+  public void close() throws IOException {
+    if (detached == null && !ended) {
+      skipRemainder();
+      reader.bodyClosed(this);
+    }
+    detached = new ByteArrayInputStream(new byte[0]);
+  }
+
+  /**
+   * Called by the reader before it moves on: keeps the unread data (up to the limit) in memory.
+   */
+  void detach() throws IOException {
+    if (detached != null || ended) {
+      return;
+    }
+    final ByteArrayOutputStream data = new ByteArrayOutputStream();
+    final byte[] chunk = new byte[SKIP_BUFFER_SIZE];
+    long toCopy = remaining;
+    while (toCopy > 0 && !ended) {
+      final int count = reader.readBody(chunk, 0, (int) Math.min(chunk.length, toCopy));
+      if (count == -1) {
+        ended = true;
+      } else {
+        data.write(chunk, 0, count);
+        toCopy -= count;
+      }
+    }
+    skipRemainder();
+    detached = new ByteArrayInputStream(data.toByteArray());
+  }
+
+  private void skipRemainder() throws IOException {
+    final byte[] chunk = new byte[SKIP_BUFFER_SIZE];
+    while (!ended) {
+      ended = reader.readBody(chunk, 0, chunk.length) == -1;
+    }
+  }
+}
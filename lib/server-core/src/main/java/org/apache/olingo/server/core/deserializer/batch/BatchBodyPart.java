@@ -18,6 +18,7 @@
  */
 package org.apache.olingo.server.core.deserializer.batch;
 
+import java.io.IOException;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -26,25 +27,25 @@ import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 
 public class BatchBodyPart implements BatchPart {
+  private final BatchMultipartReader reader;
   private final String boundary;
   private final boolean isStrict;
-  private final List<Line> remainingMessage = new LinkedList<>();
 
   private Header headers;
   private boolean isChangeSet;
   private List<BatchQueryOperation> requests;
 
-  public BatchBodyPart(final List<Line> message, final String boundary, final boolean isStrict) {
+  public BatchBodyPart(final BatchMultipartReader reader, final String boundary, final boolean isStrict) {
+    this.reader = reader;
     this.boundary = boundary;
     this.isStrict = isStrict;
-    remainingMessage.addAll(message);
   }
 
-  public BatchBodyPart parse() throws BatchDeserializerException {
-    headers = BatchParserCommon.consumeHeaders(remainingMessage);
-    BatchParserCommon.consumeBlankLine(remainingMessage, isStrict);
+  public BatchBodyPart parse() throws BatchDeserializerException, IOException {
+    headers = BatchParserCommon.consumeHeaders(reader);
+    BatchParserCommon.consumeBlankLine(reader, isStrict);
     isChangeSet = isChangeSet(headers);
-    requests = consumeRequest(remainingMessage);
+    requests = isChangeSet ? consumeChangeSet() : consumeQueryOperation();
 
     return this;
   }
@@ -67,31 +68,33 @@ public class BatchBodyPart implements BatchPart {
     return changeSet;
   }
 
-  private List<BatchQueryOperation> consumeRequest(final List<Line> remainingMessage)
-      throws BatchDeserializerException {
-    return isChangeSet ? consumeChangeSet(remainingMessage) : consumeQueryOperation(remainingMessage);
-  }
-
-  private List<BatchQueryOperation> consumeChangeSet(final List<Line> remainingMessage)
-      throws BatchDeserializerException {
-    final List<List<Line>> changeRequests = splitChangeSet(remainingMessage);
-    final List<BatchQueryOperation> requestList = new LinkedList<>();
-
-    for (List<Line> changeRequest : changeRequests) {
-      requestList.add(new BatchChangeSetPart(changeRequest, isStrict).parse());
-    }
-
-    return requestList;
-  }
-
-  private List<List<Line>> splitChangeSet(final List<Line> remainingMessage) throws BatchDeserializerException {
-
+  private List<BatchQueryOperation> consumeChangeSet() throws BatchDeserializerException, IOException {
     final HeaderField contentTypeField = headers.getHeaderField(HttpHeader.CONTENT_TYPE);
     final String changeSetBoundary = BatchParserCommon.getBoundary(contentTypeField.getValue(),
         contentTypeField.getLineNumber());
     validateChangeSetBoundary(changeSetBoundary, headers);
 
-    return BatchParserCommon.splitMessageByBoundary(remainingMessage, changeSetBoundary);
+    final List<BatchQueryOperation> requestList = new LinkedList<>();
+    reader.pushBoundary(changeSetBoundary);
+    try {
+      // The preamble of the change set is ignored.
+      int delimiter = reader.skipToDelimiter();
+      while (delimiter == BatchMultipartReader.DELIMITER) {
+        reader.skipLine();
+        requestList.add(new BatchChangeSetPart(reader, isStrict).parse());
+        delimiter = reader.skipToDelimiter();
+      }
+      if (delimiter != BatchMultipartReader.CLOSE_DELIMITER) {
+        throw new BatchDeserializerException("Missing close boundary delimiter",
+            BatchDeserializerException.MessageKeys.MISSING_CLOSE_DELIMITER,
+            Integer.toString(headers.getLineNumber()));
+      }
+      reader.skipLine();
+    } finally {
+      reader.popBoundary();
+    }
+
+    return requestList;
   }
 
   private void validateChangeSetBoundary(final String changeSetBoundary, final Header header)
@@ -103,10 +106,9 @@ public class BatchBodyPart implements BatchPart {
     }
   }
 
-  private List<BatchQueryOperation> consumeQueryOperation(final List<Line> remainingMessage)
-      throws BatchDeserializerException {
+  private List<BatchQueryOperation> consumeQueryOperation() throws BatchDeserializerException, IOException {
     final List<BatchQueryOperation> requestList = new LinkedList<>();
-    requestList.add(new BatchQueryOperation(remainingMessage, isStrict).parse());
+    requestList.add(new BatchQueryOperation(reader, isStrict).parse());
 
     return requestList;
   }
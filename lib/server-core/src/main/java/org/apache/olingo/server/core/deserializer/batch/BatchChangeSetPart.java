@@ -6,9 +6,9 @@
  * to you under the Apache License, Version 2.0 (the
  * "License"); you may not use this file except in compliance
  * with the License. You may obtain a copy of the License at
- * 
+ *
  * http://www.apache.org/licenses/LICENSE-2.0
- * 
+ *
  * Unless required by applicable law or agreed to in writing,
  * software distributed under the License is distributed on an
  * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
@@ -18,23 +18,23 @@
  */
 package org.apache.olingo.server.core.deserializer.batch;
 
-import java.util.List;
+import java.io.IOException;
 
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 
 public class BatchChangeSetPart extends BatchQueryOperation {
   private BatchQueryOperation request;
 
-  public BatchChangeSetPart(final List<Line> message, final boolean isStrict) throws BatchDeserializerException {
-    super(message, isStrict);
+  public BatchChangeSetPart(final BatchMultipartReader reader, final boolean isStrict) {
+    super(reader, isStrict);
   }
 
   @Override
-  public BatchChangeSetPart parse() throws BatchDeserializerException {
-    headers = BatchParserCommon.consumeHeaders(message);
-    BatchParserCommon.consumeBlankLine(message, isStrict);
+  public BatchChangeSetPart parse() throws BatchDeserializerException, IOException {
+    headers = BatchParserCommon.consumeHeaders(reader);
+    BatchParserCommon.consumeBlankLine(reader, isStrict);
 
-    request = new BatchQueryOperation(message, isStrict).parse();
+    request = new BatchQueryOperation(reader, isStrict).parse();
 
     return this;
   }
@@ -44,7 +44,7 @@ public class BatchChangeSetPart extends BatchQueryOperation {
   }
 
   @Override
-  public List<Line> getBody() {
+  public BatchBodyInputStream getBody() {
     return request.getBody();
   }
 
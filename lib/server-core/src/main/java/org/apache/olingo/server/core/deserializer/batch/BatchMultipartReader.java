@@ -0,0 +1,340 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.batch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Byte-oriented reader for multipart batch messages.
+ * <p>
+ * The reader pulls the message from the underlying stream incrementally and never holds more than the current
+ * line (or a buffer full of body data) in memory. Only lines of the multipart structure (boundaries, MIME headers,
+ * request lines and request headers) are decoded to strings; request bodies are handed out as
+ * {@link BatchBodyInputStream}s reading the bytes up to the next boundary delimiter.
+ * </p>
+ * <p>
+ * Like the line-based parsing it replaces, the line break in front of a boundary delimiter belongs to the delimiter
+ * and is therefore removed from the last line of a part.
+ * </p>
+ */
+public class BatchMultipartReader {
+
+  /** No boundary delimiter at the given position. */
+  public static final int NO_DELIMITER = 0;
+  /** Boundary delimiter separating two parts. */
+  public static final int DELIMITER = 1;
+  /** Close delimiter ending the multipart message. */
+  public static final int CLOSE_DELIMITER = 2;
+
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+  private static final byte DASH = '-';
+  private static final int BUFFER_SIZE = 8192;
+  private static final Charset DEFAULT_CHARSET = Charset.forName("ISO-8859-1");
+
+  private final InputStream in;
+  private final List<byte[]> boundaries = new ArrayList<>();
+  private byte[] buffer;
+  private int pos;
+  private int limit;
+  private boolean eof;
+  private int lineNumber = 1;
+  private boolean lineStart = true;
+  private BatchBodyInputStream currentBody;
+
+  public BatchMultipartReader(final InputStream in, final String boundary) {
+    this(in, boundary, BUFFER_SIZE);
+  }
+
+  public BatchMultipartReader(final InputStream in, final String boundary, final int bufferSize) {
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("Buffer size must be greater than zero.");
+    }
+    this.in = in;
+    buffer = new byte[bufferSize];
+    pushBoundary(boundary);
+  }
+
+  /**
+   * Adds the boundary of a nested multipart message, e.g., of a change set.
+   * Delimiters of all boundaries added so far end a part.
+   */
+  public void pushBoundary(final String boundary) {
+    boundaries.add(("--" + boundary).getBytes(DEFAULT_CHARSET));
+  }
+
+  /** Removes the boundary added last. */
+  public void popBoundary() {
+    boundaries.remove(boundaries.size() - 1);
+  }
+
+  /** @return number of the line at the current position */
+  public int getLineNumber() {
+    return lineNumber;
+  }
+
+  /**
+   * Checks whether the current line is a boundary delimiter.
+   * @return {@link #NO_DELIMITER}, or {@link #DELIMITER} or {@link #CLOSE_DELIMITER} of the innermost boundary;
+   * delimiters of enclosing boundaries are reported as negative values
+   */
+  public int peekDelimiter() throws IOException {
+    finishBody();
+    return delimiterAt(0);
+  }
+
+  /**
+   * Reads the next line of the current part.
+   * The line break is removed if the line is the last one in front of a boundary delimiter.
+   * @return the line including its line break, or <code>null</code> at a boundary delimiter or at the end of the
+   * message
+   */
+  public Line peekLine() throws IOException {
+    finishBody();
+    final int length = lineLength(0);
+    if (length == 0 || delimiterAt(0) != NO_DELIMITER) {
+      return null;
+    }
+    int contentLength = length;
+    if (length >= 2 && buffer[pos + length - 2] == CR && buffer[pos + length - 1] == LF
+        && delimiterAt(length) != NO_DELIMITER) {
+      contentLength -= 2;
+    }
+    return new Line(new String(buffer, pos, contentLength, DEFAULT_CHARSET), lineNumber);
+  }
+
+  /**
+   * Consumes the current line, regardless whether it is a boundary delimiter or not.
+   * @return <code>false</code> at the end of the message
+   */
+  public boolean skipLine() throws IOException {
+    finishBody();
+    final int length = lineLength(0);
+    if (length == 0) {
+      return false;
+    }
+    consume(length);
+    return true;
+  }
+
+  /**
+   * Consumes lines up to the next boundary delimiter of any active boundary.
+   * @return the delimiter as described in {@link #peekDelimiter()}; {@link #NO_DELIMITER} at the end of the message
+   */
+  public int skipToDelimiter() throws IOException {
+    int delimiter;
+    while ((delimiter = peekDelimiter()) == NO_DELIMITER) {
+      if (!skipLine()) {
+        return NO_DELIMITER;
+      }
+    }
+    return delimiter;
+  }
+
+  /**
+   * Starts reading the body of the current part; it ends in front of the next boundary delimiter.
+   * Unread data of a body stream is buffered automatically as soon as the reader is asked for anything else.
+   */
+  public BatchBodyInputStream readBody() throws IOException {
+    finishBody();
+    currentBody = new BatchBodyInputStream(this);
+    return currentBody;
+  }
+
+  /**
+   * Reads body bytes up to the next boundary delimiter.
+   * @return number of bytes read, or -1 at the delimiter or at the end of the message
+   */
+  int readBody(final byte[] b, final int off, final int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (available(1) == 0) {
+      return -1;
+    }
+    if (buffer[pos] == CR && available(2) >= 2 && buffer[pos + 1] == LF) {
+      // Line break in front of a delimiter belongs to the delimiter.
+      if (delimiterAt(2) != NO_DELIMITER) {
+        consume(2);
+        return -1;
+      }
+      final int count = Math.min(len, 2);
+      System.arraycopy(buffer, pos, b, off, count);
+      consume(count);
+      return count;
+    }
+    if (lineStart && delimiterAt(0) != NO_DELIMITER) {
+      return -1;
+    }
+
+    // Copy up to the next line break; a line break stays in front of the buffer so that the following line
+    // can be checked for a delimiter.
+    final int max = Math.min(len, limit - pos);
+    int count = 0;
+    while (count < max) {
+      final byte current = buffer[pos + count];
+      if (current == CR) {
+        if (count > 0) {
+          break;
+        }
+        if (available(2) < 2 || buffer[pos + 1] != LF) {
+          count = 1;
+        }
+        break;
+      }
+      count++;
+      if (current == LF) {
+        break;
+      }
+    }
+    System.arraycopy(buffer, pos, b, off, count);
+    consume(count);
+    return count;
+  }
+
+  void bodyClosed(final BatchBodyInputStream body) {
+    if (currentBody == body) {
+      currentBody = null;
+    }
+  }
+
+  private void finishBody() throws IOException {
+    if (currentBody != null) {
+      final BatchBodyInputStream body = currentBody;
+      currentBody = null;
+      body.detach();
+    }
+  }
+
+  /**
+   * Checks whether the line starting <code>offset</code> bytes after the current position is a delimiter.
+   */
+  private int delimiterAt(final int offset) throws IOException {
+    if (available(offset + 2) < offset + 2 || buffer[pos + offset] != DASH || buffer[pos + offset + 1] != DASH) {
+      return NO_DELIMITER;
+    }
+    for (int level = boundaries.size() - 1; level >= 0; level--) {
+      final byte[] boundary = boundaries.get(level);
+      if (startsWith(offset, boundary)) {
+        int index = offset + boundary.length;
+        int type = DELIMITER;
+        if (available(index + 2) >= index + 2 && buffer[pos + index] == DASH && buffer[pos + index + 1] == DASH) {
+          type = CLOSE_DELIMITER;
+          index += 2;
+        }
+        if (isWhitespaceUpToLineEnd(index)) {
+          return level == boundaries.size() - 1 ? type : -type;
+        }
+      }
+    }
+    return NO_DELIMITER;
+  }
+
+  private boolean startsWith(final int offset, final byte[] prefix) throws IOException {
+    if (available(offset + prefix.length) < offset + prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (buffer[pos + offset + i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isWhitespaceUpToLineEnd(final int offset) throws IOException {
+    int index = offset;
+    while (available(index + 1) > index) {
+      final byte current = buffer[pos + index];
+      if (current == LF || current == CR) {
+        return true;
+      } else if (current != ' ' && current != '\t' && current != 0x0B && current != '\f') {
+        return false;
+      }
+      index++;
+    }
+    return true;
+  }
+
+  /**
+   * Determines the length of the line starting <code>offset</code> bytes after the current position,
+   * including its line break.
+   */
+  private int lineLength(final int offset) throws IOException {
+    int index = offset;
+    while (available(index + 1) > index) {
+      final byte current = buffer[pos + index++];
+      if (current == LF) {
+        break;
+      } else if (current == CR) {
+        if (available(index + 1) > index && buffer[pos + index] == LF) {
+          index++;
+        }
+        break;
+      }
+    }
+    return index - offset;
+  }
+
+  private void consume(final int count) {
+    for (int i = pos; i < pos + count; i++) {
+      if (buffer[i] == LF || buffer[i] == CR && (i + 1 >= limit || buffer[i + 1] != LF)) {
+        lineNumber++;
+      }
+    }
+    pos += count;
+    final byte last = buffer[pos - 1];
+    lineStart = last == LF || last == CR;
+  }
+
+  /**
+   * Makes sure that the buffer contains at least <code>count</code> bytes from the current position on,
+   * unless the end of the message is reached.
+   * @return number of available bytes
+   */
+  private int available(final int count) throws IOException {
+    while (limit - pos < count && !eof) {
+      if (pos > 0) {
+        System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+        limit -= pos;
+        pos = 0;
+      }
+      if (limit == buffer.length) {
+        final byte[] larger = new byte[buffer.length * 2];
+        System.arraycopy(buffer, 0, larger, 0, limit);
+        buffer = larger;
+      }
+      final int read = in.read(buffer, limit, buffer.length - limit);
+      if (read == -1) {
+        eof = true;
+      } else {
+        limit += read;
+      }
+    }
+    return limit - pos;
+  }
+
+  public void close() throws IOException {
+    in.close();
+  }
+}
@@ -27,50 +27,107 @@ import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPartReader;
 
 public class BatchParser {
 
-  private BatchOptions options;
-
   public List<BatchRequestPart> parseBatchRequest(final InputStream content, final String boundary,
       final BatchOptions options)
       throws BatchDeserializerException {
-    this.options = options;
+    final List<BatchRequestPart> resultList = new LinkedList<>();
+    final BatchRequestPartReader reader = readBatchRequest(content, boundary, options);
+    try {
+      BatchRequestPart part;
+      while ((part = reader.next()) != null) {
+        resultList.add(part);
+      }
+    } finally {
+      try {
+        reader.close();
+      } catch (final IOException e) {
+        throw new ODataRuntimeException(e);
+      }
+    }
 
-    BatchRequestTransformator transformator = new BatchRequestTransformator(options.getRawBaseUri(),
-        options.getRawServiceResolutionUri());
-    return parse(content, boundary, transformator);
+    return resultList;
   }
 
-  private List<BatchRequestPart> parse(final InputStream in, final String boundary,
-      final BatchRequestTransformator transformator)
-      throws BatchDeserializerException {
-    try {
-      return parseBatch(in, boundary, transformator);
-    } catch (IOException e) {
-      throw new ODataRuntimeException(e);
-    }
+  public BatchRequestPartReader readBatchRequest(final InputStream content, final String boundary,
+      final BatchOptions options) {
+    return new PartReader(new BatchMultipartReader(content, boundary), boundary, options);
   }
 
-  private List<BatchRequestPart> parseBatch(final InputStream in, final String boundary,
-      final BatchRequestTransformator transformator) throws IOException, BatchDeserializerException {
-    final List<BatchRequestPart> resultList = new LinkedList<>();
-    final List<List<Line>> bodyPartStrings = splitBodyParts(in, boundary);
+  /**
+   * Parses the batch request part by part from the multipart reader.
+   */
+  private static class PartReader implements BatchRequestPartReader {
+    private final BatchMultipartReader reader;
+    private final String boundary;
+    private final boolean isStrict;
+    private final BatchRequestTransformator transformator;
+    private boolean started;
+    private boolean finished;
 
-    for (List<Line> bodyPartString : bodyPartStrings) {
-      BatchBodyPart bodyPart = new BatchBodyPart(bodyPartString, boundary, options.isStrict()).parse();
-      resultList.addAll(transformator.transform(bodyPart));
+    PartReader(final BatchMultipartReader reader, final String boundary, final BatchOptions options) {
+      this.reader = reader;
+      this.boundary = boundary;
+      isStrict = options.isStrict();
+      transformator = new BatchRequestTransformator(options.getRawBaseUri(), options.getRawServiceResolutionUri());
     }
 
-    return resultList;
-  }
+    @Override
+    public BatchRequestPart next() throws BatchDeserializerException {
+      if (finished) {
+        return null;
+      }
+      try {
+        final int firstLine = reader.getLineNumber();
+        // The preamble in front of the first delimiter is ignored.
+        final int delimiter = reader.skipToDelimiter();
+        if (delimiter == BatchMultipartReader.NO_DELIMITER) {
+          finished = true;
+          throw missingCloseDelimiter(started ? firstLine : 1);
+        }
+        started = true;
+        reader.skipLine();
+        if (delimiter == BatchMultipartReader.CLOSE_DELIMITER) {
+          finished = true;
+          return null;
+        }
+
+        try {
+          final BatchBodyPart bodyPart = new BatchBodyPart(reader, boundary, isStrict).parse();
+          return transformator.transform(bodyPart).get(0);
+        } catch (final BatchDeserializerException e) {
+          // A missing close delimiter is reported in favor of errors it may have caused.
+          finished = true;
+          if (!hasCloseDelimiter()) {
+            throw missingCloseDelimiter(1);
+          }
+          throw e;
+        }
+      } catch (final IOException e) {
+        throw new ODataRuntimeException(e);
+      }
+    }
 
-  private List<List<Line>> splitBodyParts(final InputStream in, final String boundary) throws IOException,
-      BatchDeserializerException {
-    final BatchLineReader reader = new BatchLineReader(in);
-    final List<Line> message = reader.toLineList();
-    reader.close();
+    private boolean hasCloseDelimiter() throws IOException {
+      int delimiter;
+      while ((delimiter = reader.skipToDelimiter()) == BatchMultipartReader.DELIMITER) {
+        reader.skipLine();
+      }
+      return delimiter == BatchMultipartReader.CLOSE_DELIMITER;
+    }
+
+    private BatchDeserializerException missingCloseDelimiter(final int line) {
+      return new BatchDeserializerException("Missing close boundary delimiter",
+          BatchDeserializerException.MessageKeys.MISSING_CLOSE_DELIMITER, Integer.toString(line));
+    }
 
-    return BatchParserCommon.splitMessageByBoundary(message, boundary);
+    @Override
+    public void close() throws IOException {
+      finished = true;
+      reader.close();
+    }
   }
 }
@@ -19,6 +19,7 @@
 package org.apache.olingo.server.core.deserializer.batch;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.Iterator;
@@ -40,6 +41,7 @@ public class BatchParserCommon {
   private static final Pattern PATTERN_BOUNDARY = Pattern.compile(
       "((?:\\w|[-.'+]){1,70})|"
           + "\"((?:\\w|[-.'+(),/:=?]|\\s){0,69}(?:\\w|[-.'+(),/:=?]))\"");
+  private static final Pattern PATTERN_BLANK_LINE = Pattern.compile("\\s*\r?\n\\s*");
   private static final Pattern PATTERN_LAST_CRLF = Pattern.compile("(.*)\\r\\n\\s*", Pattern.DOTALL);
   // HTTP header fields are defined in RFC 7230:
   //     header-field   = field-name ":" OWS field-value OWS
@@ -178,15 +180,8 @@ public class BatchParserCommon {
 
     while (iter.hasNext() && isHeader) {
       currentLine = iter.next();
-      final Matcher headerMatcher = PATTERN_HEADER_LINE.matcher(currentLine.toString());
-
-      if (headerMatcher.matches() && headerMatcher.groupCount() == 2) {
+      if (addHeaderLine(headers, currentLine)) {
         iter.remove();
-
-        String headerName = headerMatcher.group(1).trim();
-        String headerValue = headerMatcher.group(2).trim();
-
-        headers.addHeader(headerName, Header.splitValuesByComma(headerValue), currentLine.getLineNumber());
       } else {
         isHeader = false;
       }
@@ -195,9 +190,37 @@ public class BatchParserCommon {
     return headers;
   }
 
+  /**
+   * Reads the header lines at the current position of the reader.
+   * @param reader batch reader positioned at the first header line
+   * @return the headers
+   */
+  public static Header consumeHeaders(final BatchMultipartReader reader) throws IOException {
+    final Header headers = new Header(reader.getLineNumber());
+    Line currentLine;
+    while ((currentLine = reader.peekLine()) != null && addHeaderLine(headers, currentLine)) {
+      reader.skipLine();
+    }
+
+    return headers;
+  }
+
+  private static boolean addHeaderLine(final Header headers, final Line line) {
+    final Matcher headerMatcher = PATTERN_HEADER_LINE.matcher(line.toString());
+
+    if (headerMatcher.matches() && headerMatcher.groupCount() == 2) {
+      String headerName = headerMatcher.group(1).trim();
+      String headerValue = headerMatcher.group(2).trim();
+
+      headers.addHeader(headerName, Header.splitValuesByComma(headerValue), line.getLineNumber());
+      return true;
+    }
+    return false;
+  }
+
   public static void consumeBlankLine(final List<Line> remainingMessage, final boolean isStrict)
       throws BatchDeserializerException {
-    if (!remainingMessage.isEmpty() && remainingMessage.get(0).toString().matches("\\s*\r?\n\\s*")) {
+    if (!remainingMessage.isEmpty() && PATTERN_BLANK_LINE.matcher(remainingMessage.get(0).toString()).matches()) {
       remainingMessage.remove(0);
     } else {
       if (isStrict) {
@@ -208,6 +231,25 @@ public class BatchParserCommon {
     }
   }
 
+  /**
+   * Consumes the blank line at the current position of the reader.
+   * @param reader batch reader
+   * @param isStrict whether a missing blank line is an error
+   */
+  public static void consumeBlankLine(final BatchMultipartReader reader, final boolean isStrict)
+      throws BatchDeserializerException, IOException {
+    final Line line = reader.peekLine();
+    if (line != null && PATTERN_BLANK_LINE.matcher(line.toString()).matches()) {
+      reader.skipLine();
+    } else {
+      if (isStrict) {
+        final int lineNumber = line != null ? line.getLineNumber() : 0;
+        throw new BatchDeserializerException("Missing blank line",
+            BatchDeserializerException.MessageKeys.MISSING_BLANK_LINE, "[None]", Integer.toString(lineNumber));
+      }
+    }
+  }
+
   public static InputStream convertLineListToInputStream(final List<Line> messageList, final Charset charset) {
     final String message = lineListToString(messageList);
 
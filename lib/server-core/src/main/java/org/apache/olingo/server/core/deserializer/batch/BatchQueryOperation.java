@@ -6,9 +6,9 @@
  * to you under the Apache License, Version 2.0 (the
  * "License"); you may not use this file except in compliance
  * with the License. You may obtain a copy of the License at
- * 
+ *
  * http://www.apache.org/licenses/LICENSE-2.0
- * 
+ *
  * Unless required by applicable law or agreed to in writing,
  * software distributed under the License is distributed on an
  * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
@@ -18,41 +18,40 @@
  */
 package org.apache.olingo.server.core.deserializer.batch;
 
-import java.util.List;
+import java.io.IOException;
 
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 
 public class BatchQueryOperation implements BatchPart {
 
+  protected final BatchMultipartReader reader;
   protected final boolean isStrict;
   protected Line httpStatusLine;
   protected Header headers;
-  protected List<Line> body;
-  protected int bodySize;
-  protected List<Line> message;
+  protected BatchBodyInputStream body;
 
-  public BatchQueryOperation(final List<Line> message, final boolean isStrict) {
+  public BatchQueryOperation(final BatchMultipartReader reader, final boolean isStrict) {
+    this.reader = reader;
     this.isStrict = isStrict;
-    this.message = message;
   }
 
-  public BatchQueryOperation parse() throws BatchDeserializerException {
-    httpStatusLine = consumeHttpStatusLine(message);
-    headers = BatchParserCommon.consumeHeaders(message);
-    BatchParserCommon.consumeBlankLine(message, isStrict);
-    body = message;
+  public BatchQueryOperation parse() throws BatchDeserializerException, IOException {
+    httpStatusLine = consumeHttpStatusLine();
+    headers = BatchParserCommon.consumeHeaders(reader);
+    BatchParserCommon.consumeBlankLine(reader, isStrict);
+    body = reader.readBody();
 
     return this;
   }
 
-  protected Line consumeHttpStatusLine(final List<Line> message) throws BatchDeserializerException {
-    if (!message.isEmpty() && !"".equals(message.get(0).toString().trim())) {
-      final Line method = message.get(0);
-      message.remove(0);
+  protected Line consumeHttpStatusLine() throws BatchDeserializerException, IOException {
+    final Line method = reader.peekLine();
+    if (method != null && !"".equals(method.toString().trim())) {
+      reader.skipLine();
 
       return method;
     } else {
-      final int line = (!message.isEmpty()) ? message.get(0).getLineNumber() : 0;
+      final int line = method != null ? method.getLineNumber() : 0;
       throw new BatchDeserializerException("Missing http request line",
           BatchDeserializerException.MessageKeys.INVALID_STATUS_LINE, "" + line);
     }
@@ -62,14 +61,10 @@ public class BatchQueryOperation implements BatchPart {
     return httpStatusLine;
   }
 
-  public List<Line> getBody() {
+  public BatchBodyInputStream getBody() {
     return body;
   }
 
-  public int getBodySize() {
-    return bodySize;
-  }
-
   @Override
   public Header getHeaders() {
     return headers;
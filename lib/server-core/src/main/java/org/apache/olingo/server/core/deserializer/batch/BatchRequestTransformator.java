@@ -19,8 +19,8 @@
 package org.apache.olingo.server.core.deserializer.batch;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -42,7 +42,8 @@ public class BatchRequestTransformator {
     rawServiceResolutionUri = serviceResolutionUri;
   }
 
-  public List<BatchRequestPart> transform(final BatchBodyPart bodyPart) throws BatchDeserializerException {
+  public List<BatchRequestPart> transform(final BatchBodyPart bodyPart)
+      throws BatchDeserializerException, IOException {
     final List<ODataRequest> requests = new LinkedList<>();
     final List<BatchRequestPart> resultList = new ArrayList<>();
 
@@ -57,7 +58,7 @@ public class BatchRequestTransformator {
   }
 
   private ODataRequest processQueryOperation(final BatchBodyPart bodyPart, final String baseUri,
-      final BatchQueryOperation queryOperation) throws BatchDeserializerException {
+      final BatchQueryOperation queryOperation) throws BatchDeserializerException, IOException {
     if (bodyPart.isChangeSet()) {
       BatchQueryOperation encapsulatedQueryOperation = ((BatchChangeSetPart) queryOperation).getRequest();
       handleContentId(queryOperation, encapsulatedQueryOperation);
@@ -98,15 +99,14 @@ public class BatchRequestTransformator {
   }
 
   private ODataRequest createRequest(final BatchQueryOperation operation, final String baseUri,
-      final boolean isChangeSet) throws BatchDeserializerException {
+      final boolean isChangeSet) throws BatchDeserializerException, IOException {
     final HttpRequestStatusLine statusLine =
         new HttpRequestStatusLine(operation.getHttpStatusLine(), baseUri, rawServiceResolutionUri);
     statusLine.validateHttpMethod(isChangeSet);
     BatchTransformatorCommon.validateHost(operation.getHeaders(), baseUri);
 
     validateBody(statusLine, operation);
-    Charset charset = getCharset(operation);
-    InputStream bodyStream = getBodyStream(operation, statusLine, charset);
+    InputStream bodyStream = getBodyStream(operation, statusLine);
 
     validateForbiddenHeader(operation);
 
@@ -126,21 +126,6 @@ public class BatchRequestTransformator {
     return request;
   }
 
-  private Charset getCharset(final BatchQueryOperation operation) {
-    final ContentType contentType = ContentType.parse(operation.getHeaders().getHeader(HttpHeader.CONTENT_TYPE));
-    if (contentType != null) {
-      final String charsetValue = contentType.getParameter(ContentType.PARAMETER_CHARSET);
-      if (charsetValue == null) {
-        if (contentType.isCompatible(ContentType.APPLICATION_JSON) || contentType.getSubtype().contains("xml")) {
-          return Charset.forName("UTF-8");
-        }
-      } else {
-        return Charset.forName(charsetValue);
-      }
-    }
-    return Charset.forName("ISO-8859-1");
-  }
-
   private void validateForbiddenHeader(final BatchQueryOperation operation) throws BatchDeserializerException {
     final Header header = operation.getHeaders();
 
@@ -152,32 +137,48 @@ public class BatchRequestTransformator {
     }
   }
 
-  private InputStream getBodyStream(final BatchQueryOperation operation, final HttpRequestStatusLine statusLine,
-      final Charset charset) throws BatchDeserializerException {
+  private InputStream getBodyStream(final BatchQueryOperation operation, final HttpRequestStatusLine statusLine)
+      throws BatchDeserializerException {
     if (statusLine.getMethod().equals(HttpMethod.GET)) {
       return new ByteArrayInputStream(new byte[0]);
     } else {
       int contentLength = BatchTransformatorCommon.getContentLength(operation.getHeaders());
+      final BatchBodyInputStream body = operation.getBody();
 
-      if (contentLength == -1) {
-        return BatchParserCommon.convertLineListToInputStream(operation.getBody(), charset);
-      } else {
-        return BatchParserCommon.convertLineListToInputStream(operation.getBody(), charset, contentLength);
+      if (contentLength != -1) {
+        body.limit(contentLength);
       }
+      return body;
     }
   }
 
   private void validateBody(final HttpRequestStatusLine statusLine, final BatchQueryOperation operation)
-      throws BatchDeserializerException {
+      throws BatchDeserializerException, IOException {
     if (statusLine.getMethod().equals(HttpMethod.GET) && isInvalidGetRequestBody(operation)) {
       throw new BatchDeserializerException("Invalid request line", MessageKeys.INVALID_CONTENT,
           Integer.toString(statusLine.getLineNumber()));
     }
   }
 
-  private boolean isInvalidGetRequestBody(final BatchQueryOperation operation) {
-    return operation.getBody().size() > 1
-        || operation.getBody().size() == 1 && !operation.getBody().get(0).toString().trim().isEmpty();
+  /**
+   * The body of a GET request may consist of at most one line containing only whitespace.
+   */
+  private boolean isInvalidGetRequestBody(final BatchQueryOperation operation) throws IOException {
+    final InputStream body = operation.getBody();
+    try {
+      int previous = -1;
+      int current;
+      while ((current = body.read()) != -1) {
+        final boolean afterLineBreak = previous == '\n' || previous == '\r' && current != '\n';
+        if (afterLineBreak || current > ' ') {
+          return true;
+        }
+        previous = current;
+      }
+      return false;
+    } finally {
+      body.close();
+    }
   }
 
   private void validateHeaders(final Header headers, final boolean isChangeSet) throws BatchDeserializerException {
@@ -22,12 +22,10 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.math.BigDecimal;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -40,10 +38,7 @@ import org.apache.olingo.commons.api.Constants;
 import org.apache.olingo.commons.api.IConstants;
 import org.apache.olingo.commons.api.constants.Constantsv00;
 import org.apache.olingo.commons.api.constants.Constantsv01;
-import org.apache.olingo.commons.api.data.Annotation;
 import org.apache.olingo.commons.api.data.ComplexValue;
-import org.apache.olingo.commons.api.data.DeletedEntity;
-import org.apache.olingo.commons.api.data.DeletedEntity.Reason;
 import org.apache.olingo.commons.api.data.Delta;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
@@ -54,45 +49,27 @@ import org.apache.olingo.commons.api.data.ValueType;
 import org.apache.olingo.commons.api.edm.EdmAction;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
-import org.apache.olingo.commons.api.edm.EdmEnumType;
 import org.apache.olingo.commons.api.edm.EdmMapping;
 import org.apache.olingo.commons.api.edm.EdmNavigationProperty;
 import org.apache.olingo.commons.api.edm.EdmParameter;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
-import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
-import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
 import org.apache.olingo.commons.api.edm.EdmProperty;
 import org.apache.olingo.commons.api.edm.EdmStructuredType;
 import org.apache.olingo.commons.api.edm.EdmType;
-import org.apache.olingo.commons.api.edm.EdmTypeDefinition;
-import org.apache.olingo.commons.api.edm.FullQualifiedName;
 import org.apache.olingo.commons.api.edm.constants.EdmTypeKind;
-import org.apache.olingo.commons.api.edm.geo.Geospatial;
-import org.apache.olingo.commons.api.edm.geo.GeospatialCollection;
-import org.apache.olingo.commons.api.edm.geo.LineString;
-import org.apache.olingo.commons.api.edm.geo.MultiLineString;
-import org.apache.olingo.commons.api.edm.geo.MultiPoint;
-import org.apache.olingo.commons.api.edm.geo.MultiPolygon;
-import org.apache.olingo.commons.api.edm.geo.Point;
-import org.apache.olingo.commons.api.edm.geo.Polygon;
-import org.apache.olingo.commons.api.edm.geo.SRID;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.deserializer.DeserializerException.MessageKeys;
 import org.apache.olingo.server.api.deserializer.DeserializerResult;
 import org.apache.olingo.server.api.deserializer.ODataDeserializer;
-import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.core.deserializer.DeserializerResultImpl;
 import org.apache.olingo.server.core.deserializer.helper.ExpandTreeBuilder;
 import org.apache.olingo.server.core.deserializer.helper.ExpandTreeBuilderImpl;
-import org.apache.olingo.server.core.serializer.utils.ContentTypeHelper;
 
 import com.fasterxml.jackson.core.JsonFactory;
-import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -100,53 +77,27 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 
 public class ODataJsonDeserializer implements ODataDeserializer {
 
-  private static final Map<String, Class<? extends Geospatial>> jsonNameToGeoDataType;
-  static {
-    Map<String, Class<? extends Geospatial>> temp = new HashMap<>();
-    temp.put(Constants.ELEM_POINT, Point.class);
-    temp.put(Constants.ELEM_MULTIPOINT, MultiPoint.class);
-    temp.put(Constants.ELEM_LINESTRING, LineString.class);
-    temp.put("MultiLineString", MultiLineString.class);
-    temp.put(Constants.ELEM_POLYGON, Polygon.class);
-    temp.put("MultiPolygon", MultiPolygon.class);
-    temp.put("GeometryCollection", GeospatialCollection.class);
-    jsonNameToGeoDataType = Collections.unmodifiableMap(temp);
-  }
-
   private static final String ODATA_ANNOTATION_MARKER = "@";
   private static final String ODATA_CONTROL_INFORMATION_PREFIX = "@odata.";
-  private static final String REASON = "reason";
-  private static final String ODATA_STREAM_PROPERTY_MEDIA_READ_LINK = "mediaReadLink";
-  private static final String ODATA_STREAM_PROPERTY_MEDIA_EDIT_LINK = "mediaEditLink";
-  private static final String ODATA_STREAM_PROPERTY_MEDIA_MIME_TYPE = "mediaMimeType";
 
-  private final boolean isIEEE754Compatible;
-  private ServiceMetadata serviceMetadata;
   private IConstants constants;
-  private ODataJsonInstanceAnnotationDeserializer instanceAnnotDeserializer;
+  private final ODataJsonDeserializerHelper helper;
 
   public ODataJsonDeserializer(final ContentType contentType) {
     this(contentType, null, new Constantsv00());
   }
 
   public ODataJsonDeserializer(final ContentType contentType, final ServiceMetadata serviceMetadata) {
-    isIEEE754Compatible = ContentTypeHelper.isODataIEEE754Compatible(contentType);
-    this.serviceMetadata = serviceMetadata;
-    this.constants = new Constantsv00();
-    instanceAnnotDeserializer = new ODataJsonInstanceAnnotationDeserializer();
+    this(contentType, serviceMetadata, new Constantsv00());
   }
 
   public ODataJsonDeserializer(ContentType contentType, ServiceMetadata serviceMetadata, IConstants constants) {
-    isIEEE754Compatible = ContentTypeHelper.isODataIEEE754Compatible(contentType);
-    this.serviceMetadata = serviceMetadata;
     this.constants = constants;
-    instanceAnnotDeserializer = new ODataJsonInstanceAnnotationDeserializer();
+    helper = new ODataJsonDeserializerHelper(contentType, serviceMetadata, constants);
   }
 
   public ODataJsonDeserializer(ContentType contentType, IConstants constants) {
-    isIEEE754Compatible = ContentTypeHelper.isODataIEEE754Compatible(contentType);
-    this.constants = constants;
-    instanceAnnotDeserializer = new ODataJsonInstanceAnnotationDeserializer();
+    this(contentType, null, constants);
   }
 
   @Override
@@ -157,7 +108,7 @@ public class ODataJsonDeserializer implements ODataDeserializer {
           consumeEntityCollectionNode(edmEntityType, parseJsonTree(stream), null))
           .build();
     } catch (final IOException e) {
-      throw wrapParseException(e);
+      throw helper.wrapParseException(e);
     }
   }
 
@@ -178,7 +129,7 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     if (tree.isObject()) {
       removeAnnotations(tree);
     }
-    assertJsonNodeIsEmpty(tree);
+    helper.assertJsonNodeIsEmpty(tree);
 
     return entitySet;
   }
@@ -215,7 +166,7 @@ public class ODataJsonDeserializer implements ODataDeserializer {
           .expandOption(expandBuilder.build())
           .build();
     } catch (final IOException e) {
-      throw wrapParseException(e);
+      throw helper.wrapParseException(e);
     }
   }
 
@@ -239,7 +190,7 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     // consume remaining json node fields
     consumeRemainingJsonNodeFields(edmEntityType, tree, entity);
 
-    assertJsonNodeIsEmpty(tree);
+    helper.assertJsonNodeIsEmpty(tree);
 
     return entity;
   }
@@ -264,27 +215,7 @@ public class ODataJsonDeserializer implements ODataDeserializer {
             String removed = Constants.AT + Constants.REMOVED;
             if (arrayElement.get(removed) != null) {
               //if @removed is present create a DeletedEntity Object
-              JsonNode reasonNode = arrayElement.get(removed);
-              DeletedEntity deletedEntity = new DeletedEntity();
-              Reason reason = null;
-              if (reasonNode.get(REASON) != null) {
-                if(reasonNode.get(REASON).asText().equals(Reason.changed.name())){
-                  reason = Reason.changed;
-                }else if(reasonNode.get(REASON).asText().equals(Reason.deleted.name())){
-                  reason = Reason.deleted;
-                }
-              }else{
-                throw new DeserializerException("DeletedEntity reason is null.",
-                    SerializerException.MessageKeys.MISSING_DELTA_PROPERTY, Constants.REASON);
-              }
-              deletedEntity.setReason(reason);
-              try {
-                deletedEntity.setId(new URI(arrayElement.get(constants.getId()).asText()));
-              } catch (URISyntaxException e) {
-                throw new DeserializerException("Could not set Id for deleted Entity", e,
-                    DeserializerException.MessageKeys.UNKNOWN_CONTENT);
-              }
-              deltaValue.getDeletedEntities().add(deletedEntity);
+              deltaValue.getDeletedEntities().add(helper.createDeletedEntity(arrayElement));
             } else {
               //For @id and properties create normal entity
             	Entity inlineEntity = consumeEntityNode(edmNavigationProperty.getType(), 
@@ -332,12 +263,12 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     	      if (tree.isObject()) {
     	        removeAnnotations(tree);
     	      }
-    	      assertJsonNodeIsEmpty(tree);
+    	      helper.assertJsonNodeIsEmpty(tree);
       	  }
       return DeserializerResultImpl.with().actionParameters(parameters).build();
 
     } catch (final IOException e) {
-      throw wrapParseException(e);
+      throw helper.wrapParseException(e);
     }
   }
 
@@ -433,11 +364,11 @@ public class ODataJsonDeserializer implements ODataDeserializer {
       final Parameter result = createParameter(node, parameter.getName(), parameter);
       if (node.isObject()) {
         removeAnnotations((ObjectNode) node);
-        assertJsonNodeIsEmpty(node);
+        helper.assertJsonNodeIsEmpty(node);
       }
       return result;
     } catch (final IOException e) {
-      throw wrapParseException(e);
+      throw helper.wrapParseException(e);
     }
   }
 
@@ -456,36 +387,8 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     Iterator<Entry<String, JsonNode>> fieldsIterator = node.fields();
     while (fieldsIterator.hasNext()) {
       Entry<String, JsonNode> field = fieldsIterator.next();
-
-      if (field.getKey().contains(constants.getBind())) {
-        Link bindingLink = consumeBindingLink(field.getKey(), field.getValue(), edmEntityType);
-        entity.getNavigationBindings().add(bindingLink);
-        toRemove.add(field.getKey());
-      } else if (!field.getKey().contains(ODATA_CONTROL_INFORMATION_PREFIX) && 
-    		  field.getKey().contains(ODATA_ANNOTATION_MARKER) &&
-    		  field.getKey().substring(field.getKey().indexOf(ODATA_ANNOTATION_MARKER))
-    		  .contains(".")) {
-    	// Instance annotations start with @ sign followed by 
-          // alias or namespace 
-          // followed by a dot and then term name
-    	  String[] keySplit = field.getKey().split(ODATA_ANNOTATION_MARKER);
-    	  String termName = keySplit[1];
-    	  Annotation annotation = instanceAnnotDeserializer.consumeInstanceAnnotation(termName, field.getValue());
-    	  // If keySplit has a value at zeroth index then instance annotation is specified like 
-    	  // propertyName@Term
-    	  if (!keySplit[0].isEmpty()) {
-    		  if (edmEntityType.getPropertyNames().contains(keySplit[0])) {
-    			  entity.getProperty(keySplit[0]).getAnnotations().add(annotation);
-    		  } else if (edmEntityType.getNavigationPropertyNames().contains(keySplit[0])) {
-    			  Link link = entity.getNavigationLink(keySplit[0]);
-    			  link.getAnnotations().add(annotation);
-    		  }
-    	  } else {
-    		  entity.getAnnotations().add(annotation);
-    	  }
-    	  toRemove.add(field.getKey());
-      } else if (isStreamPropertyNode(field.getKey())) {
-        consumeStreamPropertyNode(entity, edmEntityType, field);
+      if (helper.isRemainingField(field.getKey())) {
+        helper.consumeRemainingField(edmEntityType, field.getKey(), field.getValue(), entity);
         toRemove.add(field.getKey());
       }
     }
@@ -495,53 +398,6 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     removeAnnotations(node);
   }
 
-  /**
-   * Process stream property instance annotation,
-   * include
-   * <ul>
-   * <li>odata.mediaReadLink for 4.0 or mediaReadLink for 4.01</li>
-   * <li>odata.mediaEditLink for 4.0 or mediaEditLink for 4.01</li>
-   * <li>odata.mediaMimeType for 4.0 or mediaMimeType for 4.01</li>
-   * </ul>
-   *
-   * @return true if jsonNodeKey present stream property annotation, false for otherwise
-   */
-  private boolean isStreamPropertyNode(String jsonNodeKey) {
-    return jsonNodeKey.endsWith(ODATA_STREAM_PROPERTY_MEDIA_READ_LINK)
-      || jsonNodeKey.endsWith(ODATA_STREAM_PROPERTY_MEDIA_EDIT_LINK)
-      || jsonNodeKey.endsWith(ODATA_STREAM_PROPERTY_MEDIA_MIME_TYPE);
-  }
-
-  /**
-   * Construct a empty {@code Property} and fill stream property annotation data into it
-   *
-   * @param entity entity instance which is filled
-   * @param edmEntityType edm entity type which for which the json node is consumed
-   * @param field Json field entry which current consuming
-   *
-   * @throws DeserializerException thrown by {@code instanceAnnotDeserializer} if consume
-   * instance annotation failed
-   */
-  private void consumeStreamPropertyNode(final Entity entity,
-                                         final EdmEntityType edmEntityType,
-                                         final Entry<String, JsonNode> field) throws DeserializerException {
-    String[] keySplit = field.getKey().split(ODATA_ANNOTATION_MARKER);
-    String termName = keySplit[1];
-    Annotation annotation = instanceAnnotDeserializer.consumeInstanceAnnotation(termName, field.getValue());
-    String propertyName = keySplit[0];
-    if(edmEntityType.getProperty(propertyName) == null) {
-      return;
-    }
-
-    Property property = entity.getProperty(propertyName);
-    if(property == null) {
-      property = new Property();
-      property.setName(propertyName);
-      entity.addProperty(property);
-    }
-    property.getAnnotations().add(annotation);
-  }
-
   private void consumeEntityProperties(final EdmEntityType edmEntityType, final ObjectNode node,
       final Entity entity) throws DeserializerException {
     List<String> propertyNames = edmEntityType.getPropertyNames();
@@ -626,58 +482,6 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     return link;
   }
   
-  private Link consumeBindingLink(final String key, final JsonNode jsonNode, final EdmEntityType edmEntityType)
-      throws DeserializerException {
-    String[] splitKey = key.split(ODATA_ANNOTATION_MARKER);
-    String navigationPropertyName = splitKey[0];
-    EdmNavigationProperty edmNavigationProperty = edmEntityType.getNavigationProperty(navigationPropertyName);
-    if (edmNavigationProperty == null) {
-      throw new DeserializerException("Invalid navigationPropertyName: " + navigationPropertyName,
-          DeserializerException.MessageKeys.NAVIGATION_PROPERTY_NOT_FOUND, navigationPropertyName);
-    }
-    Link bindingLink = new Link();
-    bindingLink.setTitle(navigationPropertyName);
-
-    if (edmNavigationProperty.isCollection()) {
-      assertIsNullNode(key, jsonNode);
-      if (!jsonNode.isArray()) {
-        throw new DeserializerException("Binding annotation: " + key + " must be an array.",
-            DeserializerException.MessageKeys.INVALID_ANNOTATION_TYPE, key);
-      }
-      List<String> bindingLinkStrings = new ArrayList<>();
-      for (JsonNode arrayValue : jsonNode) {
-        assertIsNullNode(key, arrayValue);
-        if (!arrayValue.isTextual()) {
-          throw new DeserializerException("Binding annotation: " + key + " must have string valued array.",
-              DeserializerException.MessageKeys.INVALID_ANNOTATION_TYPE, key);
-        }
-        bindingLinkStrings.add(arrayValue.asText());
-      }
-      bindingLink.setType(Constants.ENTITY_COLLECTION_BINDING_LINK_TYPE);
-      bindingLink.setBindingLinks(bindingLinkStrings);
-    } else {
-      if (!jsonNode.isValueNode()) {
-        throw new DeserializerException("Binding annotation: " + key + " must be a string value.",
-            DeserializerException.MessageKeys.INVALID_ANNOTATION_TYPE, key);
-      }
-      if (edmNavigationProperty.isNullable() && jsonNode.isNull()) {
-        bindingLink.setBindingLink(null);
-      } else {
-        assertIsNullNode(key, jsonNode);
-        bindingLink.setBindingLink(jsonNode.asText());        
-      }
-      bindingLink.setType(Constants.ENTITY_BINDING_LINK_TYPE);
-    }
-    return bindingLink;
-  }
-
-  private void assertIsNullNode(final String key, final JsonNode jsonNode) throws DeserializerException {
-    if (jsonNode.isNull()) {
-      throw new DeserializerException("Annotation: " + key + "must not have a null value.",
-          DeserializerException.MessageKeys.INVALID_NULL_ANNOTATION, key);
-    }
-  }
-
   private Property consumePropertyNode(final String name, final EdmType type, final boolean isCollection,
       final boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
       final boolean isUnicode, final EdmMapping mapping, final JsonNode jsonNode) throws DeserializerException {
@@ -702,7 +506,7 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     case PRIMITIVE:
     case DEFINITION:
     case ENUM:
-      Object value = readPrimitiveValue(name, (EdmPrimitiveType) type,
+      Object value = helper.readPrimitiveValue(name, (EdmPrimitiveType) type,
           isNullable, maxLength, precision, scale, isUnicode, mapping, jsonNode);
       property.setValue(type.getKind() == EdmTypeKind.ENUM ? ValueType.ENUM : ValueType.PRIMITIVE,
           value);
@@ -732,7 +536,7 @@ public class ODataJsonDeserializer implements ODataDeserializer {
       removeAnnotations((ObjectNode) jsonNode);
     }
     // Afterwards the node must be empty
-    assertJsonNodeIsEmpty(jsonNode);
+    helper.assertJsonNodeIsEmpty(jsonNode);
 
     return value;
   }
@@ -755,7 +559,7 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     case ENUM:
       while (iterator.hasNext()) {
         JsonNode arrayElement = iterator.next();
-        Object value = readPrimitiveValue(name, (EdmPrimitiveType) type,
+        Object value = helper.readPrimitiveValue(name, (EdmPrimitiveType) type,
             isNullable, maxLength, precision, scale, isUnicode, mapping, arrayElement);
         valueArray.add(value);
       }
@@ -778,7 +582,7 @@ public class ODataJsonDeserializer implements ODataDeserializer {
 
   private ComplexValue readComplexValue(final String name, final EdmType type,
       final boolean isNullable, final JsonNode jsonNode) throws DeserializerException {
-    if (isValidNull(name, isNullable, jsonNode)) {
+    if (helper.isValidNull(name, isNullable, jsonNode)) {
       return null;
     }
     if (jsonNode.isArray() || !jsonNode.isContainerNode()) {
@@ -815,203 +619,6 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     return complexValue;
   }
 
-  private Object readPrimitiveValue(final String name, final EdmPrimitiveType type,
-      final boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
-      final boolean isUnicode, final EdmMapping mapping, final JsonNode jsonNode) throws DeserializerException {
-    if (isValidNull(name, isNullable, jsonNode)) {
-      return null;
-    }
-    final boolean isGeoType = type.getName().startsWith("Geo");
-    if (!isGeoType) {
-      checkForValueNode(name, jsonNode);
-    }
-    checkJsonTypeBasedOnPrimitiveType(name, type, jsonNode);
-    try {
-      if (isGeoType) {
-        return readPrimitiveGeoValue(name, type, (ObjectNode) jsonNode);
-      }
-      return type.valueOfString(jsonNode.asText(),
-          isNullable, maxLength, precision, scale, isUnicode,
-          getJavaClassForPrimitiveType(mapping, type));
-    } catch (final EdmPrimitiveTypeException e) {
-      throw new DeserializerException(
-          "Invalid value: " + jsonNode.asText() + " for property: " + name, e,
-          DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
-    }
-  }
-
-  private boolean isValidNull(final String name, final boolean isNullable, final JsonNode jsonNode)
-      throws DeserializerException {
-    if (jsonNode.isNull()) {
-      if (isNullable) {
-        return true;
-      } else {
-        throw new DeserializerException("Property: " + name + " must not be null.",
-            DeserializerException.MessageKeys.INVALID_NULL_PROPERTY, name);
-      }
-    }
-    return false;
-  }
-
-  /**
-   * Reads a geospatial JSON value following the GeoJSON specification defined in RFC 7946.
-   * @param name property name
-   * @param type EDM type of the value
-   *             (can be <code>null</code> for recursive calls while parsing a GeometryCollection)
-   */
-  private Geospatial readPrimitiveGeoValue(final String name, final EdmPrimitiveType type, ObjectNode jsonNode)
-      throws DeserializerException, EdmPrimitiveTypeException {
-    JsonNode typeNode = jsonNode.remove(Constants.ATTR_TYPE);
-    if (typeNode != null && typeNode.isTextual()) {
-      final Class<? extends Geospatial> geoDataType = jsonNameToGeoDataType.get(typeNode.asText());
-      if (geoDataType != null && (type == null || geoDataType.equals(type.getDefaultType()))) {
-        final JsonNode topNode = jsonNode.remove(
-            geoDataType.equals(GeospatialCollection.class) ? Constants.JSON_GEOMETRIES : Constants.JSON_COORDINATES);
-
-        SRID srid = null;
-        if (jsonNode.has(Constants.JSON_CRS)) {
-          srid = SRID.valueOf(
-          jsonNode.remove(Constants.JSON_CRS).get(Constants.PROPERTIES).
-            get(Constants.JSON_NAME).asText().split(":")[1]);
-        }
-        
-        assertJsonNodeIsEmpty(jsonNode);
-
-        if (topNode != null && topNode.isArray()) {
-          final Geospatial.Dimension dimension = type == null || type.getName().startsWith("Geometry") ?
-              Geospatial.Dimension.GEOMETRY :
-              Geospatial.Dimension.GEOGRAPHY;
-          if (geoDataType.equals(Point.class)) {
-            return readGeoPointValue(name, dimension, topNode, srid);
-          } else if (geoDataType.equals(MultiPoint.class)) {
-            return new MultiPoint(dimension, srid, readGeoPointValues(name, dimension, 0, false, topNode));
-          } else if (geoDataType.equals(LineString.class)) {
-            // Although a line string with less than two points is not really one, the OData specification says:
-            // "The coordinates member of a LineString can have zero or more positions".
-            // Therefore the required minimal size of the points array currently is zero.
-            return new LineString(dimension, srid, readGeoPointValues(name, dimension, 0, false, topNode));
-          } else if (geoDataType.equals(MultiLineString.class)) {
-            List<LineString> lines = new ArrayList<>();
-            for (final JsonNode element : topNode) {
-              // Line strings can be empty (see above).
-              lines.add(new LineString(dimension, srid, readGeoPointValues(name, dimension, 0, false, element)));
-            }
-            return new MultiLineString(dimension, srid, lines);
-          } else if (geoDataType.equals(Polygon.class)) {
-            return readGeoPolygon(name, dimension, topNode, srid);
-          } else if (geoDataType.equals(MultiPolygon.class)) {
-            List<Polygon> polygons = new ArrayList<>();
-            for (final JsonNode element : topNode) {
-              polygons.add(readGeoPolygon(name, dimension, element, null));
-            }
-            return new MultiPolygon(dimension, srid, polygons);
-          } else if (geoDataType.equals(GeospatialCollection.class)) {
-            List<Geospatial> elements = new ArrayList<>();
-            for (final JsonNode element : topNode) {
-              if (element.isObject()) {
-                elements.add(readPrimitiveGeoValue(name, null, (ObjectNode) element));
-              } else {
-                throw new DeserializerException("Invalid value '" + element + "' in property: " + name,
-                    DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
-              }
-            }
-            return new GeospatialCollection(dimension, srid, elements);
-          }
-        }
-      }
-    }
-    throw new DeserializerException("Invalid value '" + jsonNode + "' for property: " + name,
-        DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
-  }
-
-  private Point readGeoPointValue(final String name, final Geospatial.Dimension dimension, JsonNode node, SRID srid)
-      throws DeserializerException, EdmPrimitiveTypeException {
-    if (node.isArray() && (node.size() ==2 || node.size() == 3)
-        && node.get(0).isNumber() && node.get(1).isNumber() && (node.get(2) == null || node.get(2).isNumber())) {
-      Point point = new Point(dimension, srid);
-      point.setX(getDoubleValue(node.get(0).asText()));
-      point.setY(getDoubleValue(node.get(1).asText()));
-      if (node.get(2) != null) {
-        point.setZ(getDoubleValue(node.get(2).asText()));
-      }
-      return point;
-    }
-    throw new DeserializerException("Invalid point value '" + node + "' in property: " + name,
-        DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
-  }
-
-  private double getDoubleValue(final String value) throws EdmPrimitiveTypeException {
-    final BigDecimal bigDecimalValue = new BigDecimal(value);
-    final Double result = bigDecimalValue.doubleValue();
-    // "Real" infinite values cannot occur, so we can throw an exception
-    // if the conversion to a double results in an infinite value.
-    // An exception is also thrown if the number cannot be stored in a double without loss.
-    if (result.isInfinite() || BigDecimal.valueOf(result).compareTo(bigDecimalValue) != 0) {
-      throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
-    }
-    return result;
-  }
-
-  private List<Point> readGeoPointValues(final String name, final Geospatial.Dimension dimension,
-      final int minimalSize, final boolean closed, JsonNode node)
-      throws DeserializerException, EdmPrimitiveTypeException {
-    if (node.isArray()) {
-      List<Point> points = new ArrayList<>();
-      for (final JsonNode element : node) {
-        points.add(readGeoPointValue(name, dimension, element, null));
-      }
-      if (points.size() >= minimalSize
-          && (!closed || points.get(points.size() - 1).equals(points.get(0)))) {
-          return points;
-      }
-    }
-    throw new DeserializerException("Invalid point values '" + node + "' in property: " + name,
-        DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
-  }
-
-  private Polygon readGeoPolygon(final String name, final Geospatial.Dimension dimension, JsonNode node, SRID srid)
-      throws DeserializerException, EdmPrimitiveTypeException {
-    // There could be a more strict verification that the lines describe boundaries and have the correct winding order.
-    if (node.isArray() && (node.size() >= 1)) {
-      List<LineString> interiors = new ArrayList<>();
-      for (int i = 1; i < node.size(); i++) {
-        interiors.add(new LineString(dimension, srid, readGeoPointValues(name, dimension, 4, true, node.get(i))));
-      }
-      return new Polygon(dimension, srid, interiors,
-          new LineString(dimension, srid, readGeoPointValues(name, dimension, 4, true, node.get(0))));
-    }
-    throw new DeserializerException("Invalid polygon values '" + node + "' in property: " + name,
-        DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
-  }
-
-  /**
-   * Returns the primitive type's default class or the manually mapped class if present.
-   * @param mapping
-   * @param type
-   * @return the java class to be used during deserialization
-   */
-  private Class<?> getJavaClassForPrimitiveType(final EdmMapping mapping, final EdmPrimitiveType type) {
-    final EdmPrimitiveType edmPrimitiveType =
-        type.getKind() == EdmTypeKind.ENUM ? ((EdmEnumType) type).getUnderlyingType() : type
-            .getKind() == EdmTypeKind.DEFINITION ? ((EdmTypeDefinition) type).getUnderlyingType() : type;
-    return mapping == null || mapping.getMappedJavaClass() == null ? edmPrimitiveType.getDefaultType() : mapping
-        .getMappedJavaClass();
-  }
-
-  /**
-   * Check if JsonNode is a value node (<code>jsonNode.isValueNode()</code>) and if not throw
-   * an DeserializerException.
-   * @param name name of property which is checked
-   * @param jsonNode node which is checked
-   * @throws DeserializerException is thrown if json node is not a value node
-   */
-  private void checkForValueNode(final String name, final JsonNode jsonNode) throws DeserializerException {
-    if (!jsonNode.isValueNode()) {
-      throw new DeserializerException("Invalid value for property: " + name + " must not be an object or array.",
-          DeserializerException.MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
-    }
-  }
-
   private void removeAnnotations(final ObjectNode tree) throws DeserializerException {
     List<String> toRemove = new ArrayList<>();
     Iterator<Entry<String, JsonNode>> fieldsIterator = tree.fields();
@@ -1034,80 +641,6 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     tree.remove(toRemove);
   }
 
-  /**
-   * Validates that node is empty (<code>node.size() == 0</code>).
-   * @param node node to be checked
-   * @throws DeserializerException if node is not empty
-   */
-  private void assertJsonNodeIsEmpty(final JsonNode node) throws DeserializerException {
-    if (node.size() != 0) {
-      final String unknownField = node.fieldNames().next();
-      throw new DeserializerException("Tree should be empty but still has content left: " + unknownField,
-          DeserializerException.MessageKeys.UNKNOWN_CONTENT, unknownField);
-    }
-  }
-
-  private void checkJsonTypeBasedOnPrimitiveType(final String propertyName, final EdmPrimitiveType edmPrimitiveType,
-      final JsonNode jsonNode) throws DeserializerException {
-    boolean valid = true;
-    if (edmPrimitiveType.getKind() == EdmTypeKind.DEFINITION) {
-      checkJsonTypeBasedOnPrimitiveType(propertyName,
-          ((EdmTypeDefinition) edmPrimitiveType).getUnderlyingType(), jsonNode);
-    } else if (edmPrimitiveType.getKind() == EdmTypeKind.ENUM) {
-      // Enum values must be strings.
-      valid = jsonNode.isTextual();
-    } else {
-      final String name = edmPrimitiveType.getName();
-      EdmPrimitiveTypeKind primKind;
-      try {
-        primKind = EdmPrimitiveTypeKind.valueOf(name);
-      } catch (final IllegalArgumentException e) {
-        throw new DeserializerException("Unknown Primitive Type: " + name, e,
-            DeserializerException.MessageKeys.UNKNOWN_PRIMITIVE_TYPE, name, propertyName);
-      }
-      valid = matchTextualCase(jsonNode, primKind)
-          || matchNumberCase(jsonNode, primKind)
-          || matchBooleanCase(jsonNode, primKind)
-          || matchIEEENumberCase(jsonNode, primKind)
-          || jsonNode.isObject() && name.startsWith("Geo");
-    }
-    if (!valid) {
-      throw new DeserializerException(
-          "Invalid json type: " + jsonNode.getNodeType() + " for " + edmPrimitiveType + " property: " + propertyName,
-          DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, propertyName);
-    }
-  }
-
-  private boolean matchIEEENumberCase(final JsonNode node, final EdmPrimitiveTypeKind primKind) {
-    return (isIEEE754Compatible ? node.isTextual() : node.isNumber())
-        && (primKind == EdmPrimitiveTypeKind.Int64 || primKind == EdmPrimitiveTypeKind.Decimal);
-  }
-
-  private boolean matchBooleanCase(final JsonNode node, final EdmPrimitiveTypeKind primKind) {
-    return node.isBoolean() && primKind == EdmPrimitiveTypeKind.Boolean;
-  }
-
-  private boolean matchNumberCase(final JsonNode node, final EdmPrimitiveTypeKind primKind) {
-    return node.isNumber() &&
-        (primKind == EdmPrimitiveTypeKind.Int16
-            || primKind == EdmPrimitiveTypeKind.Int32
-            || primKind == EdmPrimitiveTypeKind.Byte
-            || primKind == EdmPrimitiveTypeKind.SByte
-            || primKind == EdmPrimitiveTypeKind.Single
-            || primKind == EdmPrimitiveTypeKind.Double);
-  }
-
-  private boolean matchTextualCase(final JsonNode node, final EdmPrimitiveTypeKind primKind) {
-    return node.isTextual() &&
-        (primKind == EdmPrimitiveTypeKind.String
-            || primKind == EdmPrimitiveTypeKind.Binary
-            || primKind == EdmPrimitiveTypeKind.Date
-            || primKind == EdmPrimitiveTypeKind.DateTimeOffset
-            || primKind == EdmPrimitiveTypeKind.Duration
-            || primKind == EdmPrimitiveTypeKind.Guid
-            || primKind == EdmPrimitiveTypeKind.TimeOfDay);
-  }
-
   @Override
   public DeserializerResult property(final InputStream stream, final EdmProperty edmProperty)
       throws DeserializerException {
@@ -1132,7 +665,7 @@ public class ODataJsonDeserializer implements ODataDeserializer {
       }
       return DeserializerResultImpl.with().property(property).build();
     } catch (final IOException e) {
-      throw wrapParseException(e);
+      throw helper.wrapParseException(e);
     }
   }
 
@@ -1166,60 +699,16 @@ public class ODataJsonDeserializer implements ODataDeserializer {
       }
       return DeserializerResultImpl.with().entityReferences(parsedValues).build();
     } catch (final IOException e) {
-      throw wrapParseException(e);
+      throw helper.wrapParseException(e);
     } catch (final URISyntaxException e) {
       throw new DeserializerException("failed to read @odata.id", e,
           DeserializerException.MessageKeys.UNKNOWN_CONTENT);
     }
   }
 
-  private DeserializerException wrapParseException(final IOException e) {
-    if (e instanceof JsonParseException) {
-      return new DeserializerException("A JsonParseException occurred.", e,
-          DeserializerException.MessageKeys.JSON_SYNTAX_EXCEPTION);
-    } else if (e instanceof JsonMappingException) {
-      return new DeserializerException("Duplicate json property detected.", e,
-          DeserializerException.MessageKeys.DUPLICATE_PROPERTY);
-    } else {
-      return new DeserializerException("An IOException occurred.", e,
-          DeserializerException.MessageKeys.IO_EXCEPTION);
-    }
-  }
-
   private EdmType getDerivedType(final EdmStructuredType edmType, final JsonNode jsonNode)
       throws DeserializerException {
     JsonNode odataTypeNode = jsonNode.get(constants.getType());
-    if (odataTypeNode != null) {
-      String odataType = odataTypeNode.asText();
-      if (!odataType.isEmpty()) {
-        odataType = odataType.substring(1);
-
-        if (odataType.equalsIgnoreCase(edmType.getFullQualifiedName().getFullQualifiedNameAsString())) {
-          return edmType;
-        } else if (this.serviceMetadata == null) {
-          throw new DeserializerException(
-              "Failed to resolve Odata type " + odataType + " due to metadata is not available",
-              DeserializerException.MessageKeys.UNKNOWN_CONTENT);
-        }
-
-        final EdmStructuredType currentEdmType = edmType.getKind() == EdmTypeKind.ENTITY ?
-            serviceMetadata.getEdm().getEntityType(new FullQualifiedName(odataType)) :
-            serviceMetadata.getEdm().getComplexType(new FullQualifiedName(odataType));
-        if (!isAssignable(edmType, currentEdmType)) {
-          throw new DeserializerException("Odata type " + odataType + " not allowed here",
-              DeserializerException.MessageKeys.UNKNOWN_CONTENT);
-        }
-
-        return currentEdmType;
-      }
-    }
-    return edmType;
-  }
-
-  private boolean isAssignable(final EdmStructuredType edmStructuredType,
-      final EdmStructuredType edmStructuredTypeToAssign) {
-    return edmStructuredTypeToAssign != null
-        && (edmStructuredType.getFullQualifiedName().equals(edmStructuredTypeToAssign.getFullQualifiedName())
-            || isAssignable(edmStructuredType, edmStructuredTypeToAssign.getBaseType()));
+    return helper.getDerivedType(edmType, odataTypeNode == null ? null : odataTypeNode.asText());
   }
 }
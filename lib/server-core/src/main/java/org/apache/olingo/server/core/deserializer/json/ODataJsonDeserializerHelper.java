@@ -0,0 +1,630 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.olingo.commons.api.Constants;
+import org.apache.olingo.commons.api.IConstants;
+import org.apache.olingo.commons.api.data.Annotation;
+import org.apache.olingo.commons.api.data.DeletedEntity;
+import org.apache.olingo.commons.api.data.DeletedEntity.Reason;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.Link;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmEnumType;
+import org.apache.olingo.commons.api.edm.EdmMapping;
+import org.apache.olingo.commons.api.edm.EdmNavigationProperty;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.commons.api.edm.EdmTypeDefinition;
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.edm.constants.EdmTypeKind;
+import org.apache.olingo.commons.api.edm.geo.Geospatial;
+import org.apache.olingo.commons.api.edm.geo.GeospatialCollection;
+import org.apache.olingo.commons.api.edm.geo.LineString;
+import org.apache.olingo.commons.api.edm.geo.MultiLineString;
+import org.apache.olingo.commons.api.edm.geo.MultiPoint;
+import org.apache.olingo.commons.api.edm.geo.MultiPolygon;
+import org.apache.olingo.commons.api.edm.geo.Point;
+import org.apache.olingo.commons.api.edm.geo.Polygon;
+import org.apache.olingo.commons.api.edm.geo.SRID;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.deserializer.DeserializerException;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.core.serializer.utils.ContentTypeHelper;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Reading and validation shared by the tree-based and the streaming JSON deserializer:
+ * primitive and geospatial values, type checks, derived types, binding links, instance annotations,
+ * stream property annotations, and deleted entities.
+ */
+final class ODataJsonDeserializerHelper {
+
+  private static final Map<String, Class<? extends Geospatial>> jsonNameToGeoDataType;
+  static {
+    Map<String, Class<? extends Geospatial>> temp = new HashMap<>();
+    temp.put(Constants.ELEM_POINT, Point.class);
+    temp.put(Constants.ELEM_MULTIPOINT, MultiPoint.class);
+    temp.put(Constants.ELEM_LINESTRING, LineString.class);
+    temp.put("MultiLineString", MultiLineString.class);
+    temp.put(Constants.ELEM_POLYGON, Polygon.class);
+    temp.put("MultiPolygon", MultiPolygon.class);
+    temp.put("GeometryCollection", GeospatialCollection.class);
+    jsonNameToGeoDataType = Collections.unmodifiableMap(temp);
+  }
+
+  static final String ODATA_ANNOTATION_MARKER = "@";
+  static final String ODATA_CONTROL_INFORMATION_PREFIX = "@odata.";
+  private static final String REASON = "reason";
+  private static final String ODATA_STREAM_PROPERTY_MEDIA_READ_LINK = "mediaReadLink";
+  private static final String ODATA_STREAM_PROPERTY_MEDIA_EDIT_LINK = "mediaEditLink";
+  private static final String ODATA_STREAM_PROPERTY_MEDIA_MIME_TYPE = "mediaMimeType";
+
+  private final boolean isIEEE754Compatible;
+  private final ServiceMetadata serviceMetadata;
+  private final IConstants constants;
+  private final ODataJsonInstanceAnnotationDeserializer instanceAnnotDeserializer;
+
+  ODataJsonDeserializerHelper(final ContentType contentType, final ServiceMetadata serviceMetadata,
+      final IConstants constants) {
+    isIEEE754Compatible = ContentTypeHelper.isODataIEEE754Compatible(contentType);
+    this.serviceMetadata = serviceMetadata;
+    this.constants = constants;
+    instanceAnnotDeserializer = new ODataJsonInstanceAnnotationDeserializer();
+  }
+
+  IConstants getConstants() {
+    return constants;
+  }
+
+  /**
+   * Creates the deleted entity for an element of a delta representation which has a <code>@removed</code> member.
+   * @param arrayElement the element
+   */
+  DeletedEntity createDeletedEntity(final JsonNode arrayElement) throws DeserializerException {
+    JsonNode reasonNode = arrayElement.get(Constants.AT + Constants.REMOVED);
+    DeletedEntity deletedEntity = new DeletedEntity();
+    Reason reason = null;
+    if (reasonNode.get(REASON) != null) {
+      if(reasonNode.get(REASON).asText().equals(Reason.changed.name())){
+        reason = Reason.changed;
+      }else if(reasonNode.get(REASON).asText().equals(Reason.deleted.name())){
+        reason = Reason.deleted;
+      }
+    }else{
+      throw new DeserializerException("DeletedEntity reason is null.",
+          SerializerException.MessageKeys.MISSING_DELTA_PROPERTY, Constants.REASON);
+    }
+    deletedEntity.setReason(reason);
+    try {
+      deletedEntity.setId(new URI(arrayElement.get(constants.getId()).asText()));
+    } catch (URISyntaxException e) {
+      throw new DeserializerException("Could not set Id for deleted Entity", e,
+          DeserializerException.MessageKeys.UNKNOWN_CONTENT);
+    }
+    return deletedEntity;
+  }
+
+  /**
+   * Checks whether a field of an entity is a binding link, an instance annotation,
+   * or a stream property annotation.
+   * @param key name of the field
+   */
+  boolean isRemainingField(final String key) {
+    return key.contains(constants.getBind())
+        || isInstanceAnnotation(key)
+        || isStreamPropertyNode(key);
+  }
+
+  private boolean isInstanceAnnotation(final String key) {
+    // Instance annotations start with @ sign followed by 
+    // alias or namespace 
+    // followed by a dot and then term name
+    return !key.contains(ODATA_CONTROL_INFORMATION_PREFIX)
+        && key.contains(ODATA_ANNOTATION_MARKER)
+        && key.substring(key.indexOf(ODATA_ANNOTATION_MARKER)).contains(".");
+  }
+
+  /**
+   * Consumes a field for which {@link #isRemainingField(String)} is <code>true</code>.
+   * Properties and navigation links of the entity must have been consumed already.
+   * @param edmEntityType edm entity type of the entity
+   * @param key name of the field
+   * @param value value of the field
+   * @param entity entity instance which is filled
+   * @throws DeserializerException if an exception during consumation occurs
+   */
+  void consumeRemainingField(final EdmEntityType edmEntityType, final String key, final JsonNode value,
+      final Entity entity) throws DeserializerException {
+    if (key.contains(constants.getBind())) {
+      Link bindingLink = consumeBindingLink(key, value, edmEntityType);
+      entity.getNavigationBindings().add(bindingLink);
+    } else if (isInstanceAnnotation(key)) {
+      String[] keySplit = key.split(ODATA_ANNOTATION_MARKER);
+      String termName = keySplit[1];
+      Annotation annotation = instanceAnnotDeserializer.consumeInstanceAnnotation(termName, value);
+      // If keySplit has a value at zeroth index then instance annotation is specified like 
+      // propertyName@Term
+      if (!keySplit[0].isEmpty()) {
+        if (edmEntityType.getPropertyNames().contains(keySplit[0])) {
+          entity.getProperty(keySplit[0]).getAnnotations().add(annotation);
+        } else if (edmEntityType.getNavigationPropertyNames().contains(keySplit[0])) {
+          Link link = entity.getNavigationLink(keySplit[0]);
+          link.getAnnotations().add(annotation);
+        }
+      } else {
+        entity.getAnnotations().add(annotation);
+      }
+    } else {
+      consumeStreamPropertyNode(entity, edmEntityType, key, value);
+    }
+  }
+
+  /**
+   * Process stream property instance annotation,
+   * include
+   * <ul>
+   * <li>odata.mediaReadLink for 4.0 or mediaReadLink for 4.01</li>
+   * <li>odata.mediaEditLink for 4.0 or mediaEditLink for 4.01</li>
+   * <li>odata.mediaMimeType for 4.0 or mediaMimeType for 4.01</li>
+   * </ul>
+   *
+   * @return true if jsonNodeKey present stream property annotation, false for otherwise
+   */
+  private boolean isStreamPropertyNode(String jsonNodeKey) {
+    return jsonNodeKey.endsWith(ODATA_STREAM_PROPERTY_MEDIA_READ_LINK)
+      || jsonNodeKey.endsWith(ODATA_STREAM_PROPERTY_MEDIA_EDIT_LINK)
+      || jsonNodeKey.endsWith(ODATA_STREAM_PROPERTY_MEDIA_MIME_TYPE);
+  }
+
+  /**
+   * Construct a empty {@code Property} and fill stream property annotation data into it
+   *
+   * @param entity entity instance which is filled
+   * @param edmEntityType edm entity type which for which the json node is consumed
+   * @param key name of the field which is currently consumed
+   * @param value value of the field which is currently consumed
+   *
+   * @throws DeserializerException thrown by {@code instanceAnnotDeserializer} if consume
+   * instance annotation failed
+   */
+  private void consumeStreamPropertyNode(final Entity entity,
+                                         final EdmEntityType edmEntityType,
+                                         final String key,
+                                         final JsonNode value) throws DeserializerException {
+    String[] keySplit = key.split(ODATA_ANNOTATION_MARKER);
+    String termName = keySplit[1];
+    Annotation annotation = instanceAnnotDeserializer.consumeInstanceAnnotation(termName, value);
+    String propertyName = keySplit[0];
+    if(edmEntityType.getProperty(propertyName) == null) {
+      return;
+    }
+
+    Property property = entity.getProperty(propertyName);
+    if(property == null) {
+      property = new Property();
+      property.setName(propertyName);
+      entity.addProperty(property);
+    }
+    property.getAnnotations().add(annotation);
+  }
+
+  private Link consumeBindingLink(final String key, final JsonNode jsonNode, final EdmEntityType edmEntityType)
+      throws DeserializerException {
+    String[] splitKey = key.split(ODATA_ANNOTATION_MARKER);
+    String navigationPropertyName = splitKey[0];
+    EdmNavigationProperty edmNavigationProperty = edmEntityType.getNavigationProperty(navigationPropertyName);
+    if (edmNavigationProperty == null) {
+      throw new DeserializerException("Invalid navigationPropertyName: " + navigationPropertyName,
+          DeserializerException.MessageKeys.NAVIGATION_PROPERTY_NOT_FOUND, navigationPropertyName);
+    }
+    Link bindingLink = new Link();
+    bindingLink.setTitle(navigationPropertyName);
+
+    if (edmNavigationProperty.isCollection()) {
+      assertIsNullNode(key, jsonNode);
+      if (!jsonNode.isArray()) {
+        throw new DeserializerException("Binding annotation: " + key + " must be an array.",
+            DeserializerException.MessageKeys.INVALID_ANNOTATION_TYPE, key);
+      }
+      List<String> bindingLinkStrings = new ArrayList<>();
+      for (JsonNode arrayValue : jsonNode) {
+        assertIsNullNode(key, arrayValue);
+        if (!arrayValue.isTextual()) {
+          throw new DeserializerException("Binding annotation: " + key + " must have string valued array.",
+              DeserializerException.MessageKeys.INVALID_ANNOTATION_TYPE, key);
+        }
+        bindingLinkStrings.add(arrayValue.asText());
+      }
+      bindingLink.setType(Constants.ENTITY_COLLECTION_BINDING_LINK_TYPE);
+      bindingLink.setBindingLinks(bindingLinkStrings);
+    } else {
+      if (!jsonNode.isValueNode()) {
+        throw new DeserializerException("Binding annotation: " + key + " must be a string value.",
+            DeserializerException.MessageKeys.INVALID_ANNOTATION_TYPE, key);
+      }
+      if (edmNavigationProperty.isNullable() && jsonNode.isNull()) {
+        bindingLink.setBindingLink(null);
+      } else {
+        assertIsNullNode(key, jsonNode);
+        bindingLink.setBindingLink(jsonNode.asText());        
+      }
+      bindingLink.setType(Constants.ENTITY_BINDING_LINK_TYPE);
+    }
+    return bindingLink;
+  }
+
+  private void assertIsNullNode(final String key, final JsonNode jsonNode) throws DeserializerException {
+    if (jsonNode.isNull()) {
+      throw new DeserializerException("Annotation: " + key + "must not have a null value.",
+          DeserializerException.MessageKeys.INVALID_NULL_ANNOTATION, key);
+    }
+  }
+
+  Object readPrimitiveValue(final String name, final EdmPrimitiveType type,
+      final boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
+      final boolean isUnicode, final EdmMapping mapping, final JsonNode jsonNode) throws DeserializerException {
+    if (isValidNull(name, isNullable, jsonNode)) {
+      return null;
+    }
+    final boolean isGeoType = type.getName().startsWith("Geo");
+    if (!isGeoType) {
+      checkForValueNode(name, jsonNode);
+    }
+    checkJsonTypeBasedOnPrimitiveType(name, type, jsonNode);
+    try {
+      if (isGeoType) {
+        return readPrimitiveGeoValue(name, type, (ObjectNode) jsonNode);
+      }
+      return type.valueOfString(jsonNode.asText(),
+          isNullable, maxLength, precision, scale, isUnicode,
+          getJavaClassForPrimitiveType(mapping, type));
+    } catch (final EdmPrimitiveTypeException e) {
+      throw new DeserializerException(
+          "Invalid value: " + jsonNode.asText() + " for property: " + name, e,
+          DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
+    }
+  }
+
+  boolean isValidNull(final String name, final boolean isNullable, final JsonNode jsonNode)
+      throws DeserializerException {
+    if (jsonNode.isNull()) {
+      if (isNullable) {
+        return true;
+      } else {
+        throw new DeserializerException("Property: " + name + " must not be null.",
+            DeserializerException.MessageKeys.INVALID_NULL_PROPERTY, name);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Reads a geospatial JSON value following the GeoJSON specification defined in RFC 7946.
+   * @param name property name
+   * @param type EDM type of the value
+   *             (can be <code>null</code> for recursive calls while parsing a GeometryCollection)
+   */
+  private Geospatial readPrimitiveGeoValue(final String name, final EdmPrimitiveType type, ObjectNode jsonNode)
+      throws DeserializerException, EdmPrimitiveTypeException {
+    JsonNode typeNode = jsonNode.remove(Constants.ATTR_TYPE);
+    if (typeNode != null && typeNode.isTextual()) {
+      final Class<? extends Geospatial> geoDataType = jsonNameToGeoDataType.get(typeNode.asText());
+      if (geoDataType != null && (type == null || geoDataType.equals(type.getDefaultType()))) {
+        final JsonNode topNode = jsonNode.remove(
+            geoDataType.equals(GeospatialCollection.class) ? Constants.JSON_GEOMETRIES : Constants.JSON_COORDINATES);
+
+        SRID srid = null;
+        if (jsonNode.has(Constants.JSON_CRS)) {
+          srid = SRID.valueOf(
+          jsonNode.remove(Constants.JSON_CRS).get(Constants.PROPERTIES).
+            get(Constants.JSON_NAME).asText().split(":")[1]);
+        }
+        
+        assertJsonNodeIsEmpty(jsonNode);
+
+        if (topNode != null && topNode.isArray()) {
+          final Geospatial.Dimension dimension = type == null || type.getName().startsWith("Geometry") ?
+              Geospatial.Dimension.GEOMETRY :
+              Geospatial.Dimension.GEOGRAPHY;
+          if (geoDataType.equals(Point.class)) {
+            return readGeoPointValue(name, dimension, topNode, srid);
+          } else if (geoDataType.equals(MultiPoint.class)) {
+            return new MultiPoint(dimension, srid, readGeoPointValues(name, dimension, 0, false, topNode));
+          } else if (geoDataType.equals(LineString.class)) {
+            // Although a line string with less than two points is not really one, the OData specification says:
+            // "The coordinates member of a LineString can have zero or more positions".
+            // Therefore the required minimal size of the points array currently is zero.
+            return new LineString(dimension, srid, readGeoPointValues(name, dimension, 0, false, topNode));
+          } else if (geoDataType.equals(MultiLineString.class)) {
+            List<LineString> lines = new ArrayList<>();
+            for (final JsonNode element : topNode) {
+              // Line strings can be empty (see above).
+              lines.add(new LineString(dimension, srid, readGeoPointValues(name, dimension, 0, false, element)));
+            }
+            return new MultiLineString(dimension, srid, lines);
+          } else if (geoDataType.equals(Polygon.class)) {
+            return readGeoPolygon(name, dimension, topNode, srid);
+          } else if (geoDataType.equals(MultiPolygon.class)) {
+            List<Polygon> polygons = new ArrayList<>();
+            for (final JsonNode element : topNode) {
+              polygons.add(readGeoPolygon(name, dimension, element, null));
+            }
+            return new MultiPolygon(dimension, srid, polygons);
+          } else if (geoDataType.equals(GeospatialCollection.class)) {
+            List<Geospatial> elements = new ArrayList<>();
+            for (final JsonNode element : topNode) {
+              if (element.isObject()) {
+                elements.add(readPrimitiveGeoValue(name, null, (ObjectNode) element));
+              } else {
+                throw new DeserializerException("Invalid value '" + element + "' in property: " + name,
+                    DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
+              }
+            }
+            return new GeospatialCollection(dimension, srid, elements);
+          }
+        }
+      }
+    }
+    throw new DeserializerException("Invalid value '" + jsonNode + "' for property: " + name,
+        DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
+  }
+
+  private Point readGeoPointValue(final String name, final Geospatial.Dimension dimension, JsonNode node, SRID srid)
+      throws DeserializerException, EdmPrimitiveTypeException {
+    if (node.isArray() && (node.size() ==2 || node.size() == 3)
+        && node.get(0).isNumber() && node.get(1).isNumber() && (node.get(2) == null || node.get(2).isNumber())) {
+      Point point = new Point(dimension, srid);
+      point.setX(getDoubleValue(node.get(0).asText()));
+      point.setY(getDoubleValue(node.get(1).asText()));
+      if (node.get(2) != null) {
+        point.setZ(getDoubleValue(node.get(2).asText()));
+      }
+      return point;
+    }
+    throw new DeserializerException("Invalid point value '" + node + "' in property: " + name,
+        DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
+  }
+
+  private double getDoubleValue(final String value) throws EdmPrimitiveTypeException {
+    final BigDecimal bigDecimalValue = new BigDecimal(value);
+    final Double result = bigDecimalValue.doubleValue();
+    // "Real" infinite values cannot occur, so we can throw an exception
+    // if the conversion to a double results in an infinite value.
+    // An exception is also thrown if the number cannot be stored in a double without loss.
+    if (result.isInfinite() || BigDecimal.valueOf(result).compareTo(bigDecimalValue) != 0) {
+      throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
+    }
+    return result;
+  }
+
+  private List<Point> readGeoPointValues(final String name, final Geospatial.Dimension dimension,
+      final int minimalSize, final boolean closed, JsonNode node)
+      throws DeserializerException, EdmPrimitiveTypeException {
+    if (node.isArray()) {
+      List<Point> points = new ArrayList<>();
+      for (final JsonNode element : node) {
+        points.add(readGeoPointValue(name, dimension, element, null));
+      }
+      if (points.size() >= minimalSize
+          && (!closed || points.get(points.size() - 1).equals(points.get(0)))) {
+          return points;
+      }
+    }
+    throw new DeserializerException("Invalid point values '" + node + "' in property: " + name,
+        DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
+  }
+
+  private Polygon readGeoPolygon(final String name, final Geospatial.Dimension dimension, JsonNode node, SRID srid)
+      throws DeserializerException, EdmPrimitiveTypeException {
+    // There could be a more strict verification that the lines describe boundaries and have the correct winding order.
+    if (node.isArray() && (node.size() >= 1)) {
+      List<LineString> interiors = new ArrayList<>();
+      for (int i = 1; i < node.size(); i++) {
+        interiors.add(new LineString(dimension, srid, readGeoPointValues(name, dimension, 4, true, node.get(i))));
+      }
+      return new Polygon(dimension, srid, interiors,
+          new LineString(dimension, srid, readGeoPointValues(name, dimension, 4, true, node.get(0))));
+    }
+    throw new DeserializerException("Invalid polygon values '" + node + "' in property: " + name,
+        DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
+  }
+
+  /**
+   * Returns the primitive type's default class or the manually mapped class if present.
+   * @param mapping
+   * @param type
+   * @return the java class to be used during deserialization
+   */
+  Class<?> getJavaClassForPrimitiveType(final EdmMapping mapping, final EdmPrimitiveType type) {
+    final EdmPrimitiveType edmPrimitiveType =
+        type.getKind() == EdmTypeKind.ENUM ? ((EdmEnumType) type).getUnderlyingType() : type
+            .getKind() == EdmTypeKind.DEFINITION ? ((EdmTypeDefinition) type).getUnderlyingType() : type;
+    return mapping == null || mapping.getMappedJavaClass() == null ? edmPrimitiveType.getDefaultType() : mapping
+        .getMappedJavaClass();
+  }
+
+  /**
+   * Check if JsonNode is a value node (<code>jsonNode.isValueNode()</code>) and if not throw
+   * an DeserializerException.
+   * @param name name of property which is checked
+   * @param jsonNode node which is checked
+   * @throws DeserializerException is thrown if json node is not a value node
+   */
+  private void checkForValueNode(final String name, final JsonNode jsonNode) throws DeserializerException {
+    if (!jsonNode.isValueNode()) {
+      throw new DeserializerException("Invalid value for property: " + name + " must not be an object or array.",
+          DeserializerException.MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
+    }
+  }
+
+  /**
+   * Validates that node is empty (<code>node.size() == 0</code>).
+   * @param node node to be checked
+   * @throws DeserializerException if node is not empty
+   */
+  void assertJsonNodeIsEmpty(final JsonNode node) throws DeserializerException {
+    if (node.size() != 0) {
+      final String unknownField = node.fieldNames().next();
+      throw new DeserializerException("Tree should be empty but still has content left: " + unknownField,
+          DeserializerException.MessageKeys.UNKNOWN_CONTENT, unknownField);
+    }
+  }
+
+  private void checkJsonTypeBasedOnPrimitiveType(final String propertyName, final EdmPrimitiveType edmPrimitiveType,
+      final JsonNode jsonNode) throws DeserializerException {
+    checkJsonTypeBasedOnPrimitiveType(propertyName, edmPrimitiveType, jsonNode.getNodeType());
+  }
+
+  void checkJsonTypeBasedOnPrimitiveType(final String propertyName, final EdmPrimitiveType edmPrimitiveType,
+      final JsonNodeType jsonNodeType) throws DeserializerException {
+    boolean valid = true;
+    if (edmPrimitiveType.getKind() == EdmTypeKind.DEFINITION) {
+      checkJsonTypeBasedOnPrimitiveType(propertyName,
+          ((EdmTypeDefinition) edmPrimitiveType).getUnderlyingType(), jsonNodeType);
+    } else if (edmPrimitiveType.getKind() == EdmTypeKind.ENUM) {
+      // Enum values must be strings.
+      valid = jsonNodeType == JsonNodeType.STRING;
+    } else {
+      final String name = edmPrimitiveType.getName();
+      EdmPrimitiveTypeKind primKind;
+      try {
+        primKind = EdmPrimitiveTypeKind.valueOf(name);
+      } catch (final IllegalArgumentException e) {
+        throw new DeserializerException("Unknown Primitive Type: " + name, e,
+            DeserializerException.MessageKeys.UNKNOWN_PRIMITIVE_TYPE, name, propertyName);
+      }
+      valid = matchTextualCase(jsonNodeType, primKind)
+          || matchNumberCase(jsonNodeType, primKind)
+          || matchBooleanCase(jsonNodeType, primKind)
+          || matchIEEENumberCase(jsonNodeType, primKind)
+          || jsonNodeType == JsonNodeType.OBJECT && name.startsWith("Geo");
+    }
+    if (!valid) {
+      throw new DeserializerException(
+          "Invalid json type: " + jsonNodeType + " for " + edmPrimitiveType + " property: " + propertyName,
+          DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, propertyName);
+    }
+  }
+
+  private boolean matchIEEENumberCase(final JsonNodeType nodeType, final EdmPrimitiveTypeKind primKind) {
+    return (isIEEE754Compatible ? nodeType == JsonNodeType.STRING : nodeType == JsonNodeType.NUMBER)
+        && (primKind == EdmPrimitiveTypeKind.Int64 || primKind == EdmPrimitiveTypeKind.Decimal);
+  }
+
+  private boolean matchBooleanCase(final JsonNodeType nodeType, final EdmPrimitiveTypeKind primKind) {
+    return nodeType == JsonNodeType.BOOLEAN && primKind == EdmPrimitiveTypeKind.Boolean;
+  }
+
+  private boolean matchNumberCase(final JsonNodeType nodeType, final EdmPrimitiveTypeKind primKind) {
+    return nodeType == JsonNodeType.NUMBER &&
+        (primKind == EdmPrimitiveTypeKind.Int16
+            || primKind == EdmPrimitiveTypeKind.Int32
+            || primKind == EdmPrimitiveTypeKind.Byte
+            || primKind == EdmPrimitiveTypeKind.SByte
+            || primKind == EdmPrimitiveTypeKind.Single
+            || primKind == EdmPrimitiveTypeKind.Double);
+  }
+
+  private boolean matchTextualCase(final JsonNodeType nodeType, final EdmPrimitiveTypeKind primKind) {
+    return nodeType == JsonNodeType.STRING &&
+        (primKind == EdmPrimitiveTypeKind.String
+            || primKind == EdmPrimitiveTypeKind.Binary
+            || primKind == EdmPrimitiveTypeKind.Date
+            || primKind == EdmPrimitiveTypeKind.DateTimeOffset
+            || primKind == EdmPrimitiveTypeKind.Duration
+            || primKind == EdmPrimitiveTypeKind.Guid
+            || primKind == EdmPrimitiveTypeKind.TimeOfDay);
+  }
+
+  DeserializerException wrapParseException(final IOException e) {
+    if (e instanceof JsonParseException) {
+      return new DeserializerException("A JsonParseException occurred.", e,
+          DeserializerException.MessageKeys.JSON_SYNTAX_EXCEPTION);
+    } else if (e instanceof JsonMappingException) {
+      return new DeserializerException("Duplicate json property detected.", e,
+          DeserializerException.MessageKeys.DUPLICATE_PROPERTY);
+    } else {
+      return new DeserializerException("An IOException occurred.", e,
+          DeserializerException.MessageKeys.IO_EXCEPTION);
+    }
+  }
+
+  /**
+   * Resolves the type given in an <code>odata.type</code> annotation.
+   * @param edmType the declared type
+   * @param odataTypeValue value of the annotation or <code>null</code> if there is none
+   * @return the declared type or the derived type named in the annotation
+   * @throws DeserializerException if the named type is unknown or not derived from the declared type
+   */
+  EdmStructuredType getDerivedType(final EdmStructuredType edmType, final String odataTypeValue)
+      throws DeserializerException {
+    if (odataTypeValue != null) {
+      String odataType = odataTypeValue;
+      if (!odataType.isEmpty()) {
+        odataType = odataType.substring(1);
+
+        if (odataType.equalsIgnoreCase(edmType.getFullQualifiedName().getFullQualifiedNameAsString())) {
+          return edmType;
+        } else if (this.serviceMetadata == null) {
+          throw new DeserializerException(
+              "Failed to resolve Odata type " + odataType + " due to metadata is not available",
+              DeserializerException.MessageKeys.UNKNOWN_CONTENT);
+        }
+
+        final EdmStructuredType currentEdmType = edmType.getKind() == EdmTypeKind.ENTITY ?
+            serviceMetadata.getEdm().getEntityType(new FullQualifiedName(odataType)) :
+            serviceMetadata.getEdm().getComplexType(new FullQualifiedName(odataType));
+        if (!isAssignable(edmType, currentEdmType)) {
+          throw new DeserializerException("Odata type " + odataType + " not allowed here",
+              DeserializerException.MessageKeys.UNKNOWN_CONTENT);
+        }
+
+        return currentEdmType;
+      }
+    }
+    return edmType;
+  }
+
+  private boolean isAssignable(final EdmStructuredType edmStructuredType,
+      final EdmStructuredType edmStructuredTypeToAssign) {
+    return edmStructuredTypeToAssign != null
+        && (edmStructuredType.getFullQualifiedName().equals(edmStructuredTypeToAssign.getFullQualifiedName())
+            || isAssignable(edmStructuredType, edmStructuredTypeToAssign.getBaseType()));
+  }
+}
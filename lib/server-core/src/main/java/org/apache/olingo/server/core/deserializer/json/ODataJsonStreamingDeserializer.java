@@ -0,0 +1,637 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.olingo.commons.api.Constants;
+import org.apache.olingo.commons.api.IConstants;
+import org.apache.olingo.commons.api.constants.Constantsv00;
+import org.apache.olingo.commons.api.constants.Constantsv01;
+import org.apache.olingo.commons.api.data.ComplexValue;
+import org.apache.olingo.commons.api.data.Delta;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.Link;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.commons.api.edm.EdmComplexType;
+import org.apache.olingo.commons.api.edm.EdmElement;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmMapping;
+import org.apache.olingo.commons.api.edm.EdmNavigationProperty;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.commons.api.edm.EdmType;
+import org.apache.olingo.commons.api.edm.constants.EdmTypeKind;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.deserializer.DeserializerException;
+import org.apache.olingo.server.api.deserializer.DeserializerException.MessageKeys;
+import org.apache.olingo.server.api.deserializer.DeserializerResult;
+import org.apache.olingo.server.core.deserializer.DeserializerResultImpl;
+import org.apache.olingo.server.core.deserializer.helper.ExpandTreeBuilder;
+import org.apache.olingo.server.core.deserializer.helper.ExpandTreeBuilderImpl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * JSON deserializer which reads entities and entity collections directly from the token stream
+ * instead of reading the whole payload into a JSON tree first.
+ * <p>The EDM type of the structure being read decides how each field is consumed;
+ * property values and expanded navigation properties are converted while they are read.
+ * Binding links, instance annotations, geospatial values, and the elements of delta links are small parts
+ * of the payload; they are read as trees and handled like in {@link ODataJsonDeserializer}.
+ * Fields not known for the current type are kept until the end of their structure
+ * because a later <code>odata.type</code> annotation may declare a derived type containing them.</p>
+ * <p>The validation is the same as in the tree-based deserializer;
+ * for a payload with several errors, the reported one may differ.
+ * All other content (parameters, properties, references) is read with the tree-based implementation.</p>
+ * <p>This deserializer is not used by default;
+ * see {@link org.apache.olingo.server.core.ODataImpl#setStreamingJsonDeserializer(boolean)}.</p>
+ */
+public class ODataJsonStreamingDeserializer extends ODataJsonDeserializer {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper(JsonFactory.builder()
+      .enable(StreamReadFeature.STRICT_DUPLICATE_DETECTION)
+      .disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+      .build())
+      .configure(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY, true)
+      .configure(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS, true);
+  /** Start of the message of the exception the parser throws for a duplicate field name. */
+  private static final String DUPLICATE_FIELD_MESSAGE = "Duplicate field '";
+  private static final String DELTA_SUFFIX = Constants.AT + Constants.DELTAVALUE;
+  private static final String REMOVED = Constants.AT + Constants.REMOVED;
+
+  private final IConstants constants;
+  private final ODataJsonDeserializerHelper helper;
+
+  public ODataJsonStreamingDeserializer(final ContentType contentType) {
+    this(contentType, null, new Constantsv00());
+  }
+
+  public ODataJsonStreamingDeserializer(final ContentType contentType, final ServiceMetadata serviceMetadata) {
+    this(contentType, serviceMetadata, new Constantsv00());
+  }
+
+  public ODataJsonStreamingDeserializer(final ContentType contentType, final ServiceMetadata serviceMetadata,
+      final IConstants constants) {
+    super(contentType, serviceMetadata, constants);
+    this.constants = constants;
+    helper = new ODataJsonDeserializerHelper(contentType, serviceMetadata, constants);
+  }
+
+  public ODataJsonStreamingDeserializer(final ContentType contentType, final IConstants constants) {
+    this(contentType, null, constants);
+  }
+
+  @Override
+  public DeserializerResult entityCollection(final InputStream stream, final EdmEntityType edmEntityType)
+      throws DeserializerException {
+    try (JsonParser parser = createParser(stream)) {
+      return DeserializerResultImpl.with().entityCollection(readEntityCollection(parser, edmEntityType)).build();
+    } catch (final IOException e) {
+      throw wrapParseException(e);
+    }
+  }
+
+  @Override
+  public DeserializerResult entity(final InputStream stream, final EdmEntityType edmEntityType)
+      throws DeserializerException {
+    try (JsonParser parser = createParser(stream)) {
+      final ExpandTreeBuilder expandBuilder = ExpandTreeBuilderImpl.create();
+      final Entity entity = readEntity(parser, edmEntityType, expandBuilder);
+      return DeserializerResultImpl.with().entity(entity)
+          .expandOption(expandBuilder.build())
+          .build();
+    } catch (final IOException e) {
+      throw wrapParseException(e);
+    }
+  }
+
+  private DeserializerException wrapParseException(final IOException e) {
+    // The tree-based deserializer detects duplicates while building the tree, the streaming parser does it itself.
+    if (e instanceof JsonParseException && ((JsonParseException) e).getOriginalMessage() != null
+        && ((JsonParseException) e).getOriginalMessage().startsWith(DUPLICATE_FIELD_MESSAGE)) {
+      return new DeserializerException("Duplicate json property detected.", e,
+          DeserializerException.MessageKeys.DUPLICATE_PROPERTY);
+    }
+    return helper.wrapParseException(e);
+  }
+
+  private JsonParser createParser(final InputStream stream) throws IOException, DeserializerException {
+    final JsonParser parser = MAPPER.getFactory().createParser(stream);
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      parser.close();
+      throw new DeserializerException("Invalid JSON syntax.",
+          DeserializerException.MessageKeys.JSON_SYNTAX_EXCEPTION);
+    }
+    return parser;
+  }
+
+  private EntityCollection readEntityCollection(final JsonParser parser, final EdmEntityType edmEntityType)
+      throws IOException, DeserializerException {
+    EntityCollection entitySet = null;
+    final UnconsumedFields unconsumed = new UnconsumedFields();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.getCurrentName();
+      parser.nextToken();
+      if (Constants.VALUE.equals(name)) {
+        entitySet = new EntityCollection();
+        entitySet.getEntities().addAll(readEntitySetArray(parser, edmEntityType, null));
+      } else if (!skipAnnotation(parser, name, unconsumed)) {
+        unconsumed.unknown(name);
+        parser.skipChildren();
+      }
+    }
+    if (entitySet == null) {
+      throw new DeserializerException("Could not find value array.",
+          DeserializerException.MessageKeys.VALUE_ARRAY_NOT_PRESENT);
+    }
+    unconsumed.check();
+    return entitySet;
+  }
+
+  private List<Entity> readEntitySetArray(final JsonParser parser, final EdmEntityType edmEntityType,
+      final ExpandTreeBuilder expandBuilder) throws IOException, DeserializerException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      throw new DeserializerException("The content of the value tag must be an Array but is not.",
+          DeserializerException.MessageKeys.VALUE_TAG_MUST_BE_AN_ARRAY);
+    }
+    List<Entity> entities = new ArrayList<>();
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      if (parser.currentToken() != JsonToken.START_OBJECT) {
+        throw new DeserializerException("Nested Arrays and primitive values are not allowed for an entity value.",
+            DeserializerException.MessageKeys.INVALID_ENTITY);
+      }
+      entities.add(readEntity(parser, edmEntityType, expandBuilder));
+    }
+    return entities;
+  }
+
+  /** Reads the entity starting at the current token, which must be the start of an object. */
+  private Entity readEntity(final JsonParser parser, final EdmEntityType edmEntityType,
+      final ExpandTreeBuilder expandBuilder) throws IOException, DeserializerException {
+    final Entity entity = new Entity();
+    EdmEntityType type = edmEntityType;
+    final Map<String, Property> properties = new HashMap<>();
+    final Map<String, Link> navigationLinks = new HashMap<>();
+    Map<String, Link> deltaLinks = null;
+    List<Entry<String, JsonNode>> remainingFields = null;
+    List<Entry<String, TokenBuffer>> bufferedFields = null;
+    final UnconsumedFields unconsumed = new UnconsumedFields();
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.getCurrentName();
+      parser.nextToken();
+      EdmProperty edmProperty;
+      EdmNavigationProperty edmNavigationProperty;
+      if (name.equals(constants.getType())) {
+        type = (EdmEntityType) helper.getDerivedType(edmEntityType, getTypeValue(parser));
+      } else if (constants instanceof Constantsv01 && name.equals(constants.getId())) {
+        try {
+          entity.setId(new URI(parser.currentToken() == JsonToken.VALUE_STRING ? parser.getText() : null));
+        } catch (URISyntaxException e) {
+          throw new DeserializerException("Could not form Id", e,
+              DeserializerException.MessageKeys.UNKNOWN_CONTENT);
+        }
+        parser.skipChildren();
+      } else if ((edmProperty = getStructuralProperty(type, name)) != null) {
+        properties.put(name, readStructuralProperty(parser, edmProperty));
+      } else if ((edmNavigationProperty = type.getNavigationProperty(name)) != null) {
+        navigationLinks.put(name, readNavigationLink(parser, edmNavigationProperty, expandBuilder));
+      } else if (constants instanceof Constantsv01 && name.endsWith(DELTA_SUFFIX)) {
+        edmNavigationProperty = type.getNavigationProperty(name.substring(0, name.length() - DELTA_SUFFIX.length()));
+        if (edmNavigationProperty != null && edmNavigationProperty.isCollection()
+            && parser.currentToken() == JsonToken.START_ARRAY) {
+          if (deltaLinks == null) {
+            deltaLinks = new HashMap<>();
+          }
+          deltaLinks.put(edmNavigationProperty.getName(),
+              readDeltaLink(parser, edmNavigationProperty, expandBuilder));
+        } else {
+          // Annotations are ignored in version 4.01.
+          parser.skipChildren();
+        }
+      } else if (helper.isRemainingField(name)) {
+        if (remainingFields == null) {
+          remainingFields = new ArrayList<>();
+        }
+        remainingFields.add(new SimpleEntry<String, JsonNode>(name, (JsonNode) parser.readValueAsTree()));
+      } else if (!skipAnnotation(parser, name, unconsumed)) {
+        if (bufferedFields == null) {
+          bufferedFields = new ArrayList<>();
+        }
+        bufferedFields.add(new SimpleEntry<String, TokenBuffer>(name, buffer(parser)));
+      }
+    }
+
+    if (bufferedFields != null) {
+      // The final type may be a derived type which knows these fields.
+      for (final Entry<String, TokenBuffer> field : bufferedFields) {
+        final EdmProperty edmProperty = getStructuralProperty(type, field.getKey());
+        final EdmNavigationProperty edmNavigationProperty = type.getNavigationProperty(field.getKey());
+        if (edmProperty == null && edmNavigationProperty == null) {
+          unconsumed.unknown(field.getKey());
+        } else {
+          try (JsonParser bufferParser = replay(field.getValue(), parser)) {
+            if (edmProperty == null) {
+              navigationLinks.put(field.getKey(),
+                  readNavigationLink(bufferParser, edmNavigationProperty, expandBuilder));
+            } else {
+              properties.put(field.getKey(), readStructuralProperty(bufferParser, edmProperty));
+            }
+          }
+        }
+      }
+    }
+
+    entity.setType(type.getFullQualifiedName().getFullQualifiedNameAsString());
+    addInOrder(type.getPropertyNames(), properties, entity.getProperties());
+    addInOrder(type.getNavigationPropertyNames(), navigationLinks, entity.getNavigationLinks());
+    if (deltaLinks != null) {
+      addInOrder(type.getNavigationPropertyNames(), deltaLinks, entity.getNavigationLinks());
+    }
+    if (remainingFields != null) {
+      for (final Entry<String, JsonNode> field : remainingFields) {
+        helper.consumeRemainingField(type, field.getKey(), field.getValue(), entity);
+      }
+    }
+    unconsumed.check();
+    return entity;
+  }
+
+  /** Looks up a structural property with {@link EdmStructuredType#getProperty(String)} like the tree-based code. */
+  private EdmProperty getStructuralProperty(final EdmStructuredType type, final String name) {
+    final EdmElement element = type.getProperty(name);
+    return element instanceof EdmProperty ? (EdmProperty) element : null;
+  }
+
+  /** Reads the delta representation of an expanded collection navigation property (v4.01). */
+  private Link readDeltaLink(final JsonParser parser, final EdmNavigationProperty edmNavigationProperty,
+      final ExpandTreeBuilder expandBuilder) throws IOException, DeserializerException {
+    Link link = new Link();
+    link.setType(Constants.ENTITY_SET_NAVIGATION_LINK_TYPE);
+    link.setTitle(edmNavigationProperty.getName());
+    Delta deltaValue = new Delta();
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      if (parser.currentToken() != JsonToken.START_OBJECT) {
+        throw new DeserializerException("Nested Arrays and primitive values are not allowed for an entity value.",
+            DeserializerException.MessageKeys.INVALID_ENTITY);
+      }
+      // Whether the element is a deleted entity is only known once it has been read completely.
+      final JsonNode element = parser.readValueAsTree();
+      if (element.get(REMOVED) == null) {
+        try (JsonParser elementParser = element.traverse(parser.getCodec())) {
+          elementParser.nextToken();
+          deltaValue.getEntities().add(readEntity(elementParser, edmNavigationProperty.getType(), expandBuilder));
+        }
+      } else {
+        deltaValue.getDeletedEntities().add(helper.createDeletedEntity(element));
+      }
+    }
+    link.setInlineEntitySet(deltaValue);
+    return link;
+  }
+
+  private Link readNavigationLink(final JsonParser parser, final EdmNavigationProperty edmNavigationProperty,
+      final ExpandTreeBuilder expandBuilder) throws IOException, DeserializerException {
+    final String name = edmNavigationProperty.getName();
+    final JsonToken token = parser.currentToken();
+    if (token == JsonToken.VALUE_NULL
+        && (!edmNavigationProperty.isNullable() || edmNavigationProperty.isCollection())) {
+      throw new DeserializerException("Property: " + name + " must not be null.",
+          MessageKeys.INVALID_NULL_PROPERTY, name);
+    }
+    Link link = new Link();
+    link.setTitle(name);
+    final ExpandTreeBuilder childExpandBuilder = expandBuilder == null ? null :
+        expandBuilder.expand(edmNavigationProperty);
+    if (token == JsonToken.START_ARRAY && edmNavigationProperty.isCollection()) {
+      link.setType(Constants.ENTITY_SET_NAVIGATION_LINK_TYPE);
+      EntityCollection inlineEntitySet = new EntityCollection();
+      inlineEntitySet.getEntities().addAll(
+          readEntitySetArray(parser, edmNavigationProperty.getType(), childExpandBuilder));
+      link.setInlineEntitySet(inlineEntitySet);
+    } else if ((token == JsonToken.START_OBJECT || token == JsonToken.VALUE_NULL)
+        && !edmNavigationProperty.isCollection()) {
+      link.setType(Constants.ENTITY_NAVIGATION_LINK_TYPE);
+      if (token == JsonToken.START_OBJECT) {
+        link.setInlineEntity(readEntity(parser, edmNavigationProperty.getType(), childExpandBuilder));
+      }
+    } else {
+      throw new DeserializerException("Invalid value: " + getNodeType(token)
+          + " for expanded navigation property: " + name,
+          MessageKeys.INVALID_VALUE_FOR_NAVIGATION_PROPERTY, name);
+    }
+    return link;
+  }
+
+  private Property readStructuralProperty(final JsonParser parser, final EdmProperty edmProperty)
+      throws IOException, DeserializerException {
+    if (parser.currentToken() == JsonToken.VALUE_NULL && !edmProperty.isNullable()) {
+      throw new DeserializerException("Property: " + edmProperty.getName() + " must not be null.",
+          DeserializerException.MessageKeys.INVALID_NULL_PROPERTY, edmProperty.getName());
+    }
+    return readProperty(parser, edmProperty.getName(), edmProperty.getType(), edmProperty.isCollection(),
+        edmProperty.isNullable(), edmProperty.getMaxLength(), edmProperty.getPrecision(), edmProperty.getScale(),
+        edmProperty.isUnicode(), edmProperty.getMapping());
+  }
+
+  private Property readProperty(final JsonParser parser, final String name, final EdmType type,
+      final boolean isCollection, final boolean isNullable, final Integer maxLength, final Integer precision,
+      final Integer scale, final boolean isUnicode, final EdmMapping mapping)
+      throws IOException, DeserializerException {
+    Property property = new Property();
+    property.setName(name);
+    property.setType(type.getFullQualifiedName().getFullQualifiedNameAsString());
+    final EdmTypeKind kind = type.getKind();
+    if (kind != EdmTypeKind.PRIMITIVE && kind != EdmTypeKind.DEFINITION && kind != EdmTypeKind.ENUM
+        && kind != EdmTypeKind.COMPLEX) {
+      throw new DeserializerException("Invalid Type Kind for a property found: " + kind,
+          DeserializerException.MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
+    }
+    if (isCollection) {
+      List<Object> values = new ArrayList<>();
+      if (parser.currentToken() == JsonToken.START_ARRAY) {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          values.add(readValue(parser, name, type, isNullable, maxLength, precision, scale, isUnicode, mapping));
+        }
+      } else {
+        values.add(readValue(parser, name, type, isNullable, maxLength, precision, scale, isUnicode, mapping));
+      }
+      property.setValue(kind == EdmTypeKind.COMPLEX ? ValueType.COLLECTION_COMPLEX :
+          kind == EdmTypeKind.ENUM ? ValueType.COLLECTION_ENUM : ValueType.COLLECTION_PRIMITIVE,
+          values);
+    } else {
+      final Object value = readValue(parser, name, type, isNullable, maxLength, precision, scale, isUnicode, mapping);
+      if (kind == EdmTypeKind.COMPLEX && value != null) {
+        property.setType(((ComplexValue) value).getTypeName());
+      }
+      property.setValue(kind == EdmTypeKind.COMPLEX ? ValueType.COMPLEX :
+          kind == EdmTypeKind.ENUM ? ValueType.ENUM : ValueType.PRIMITIVE,
+          value);
+    }
+    return property;
+  }
+
+  private Object readValue(final JsonParser parser, final String name, final EdmType type,
+      final boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
+      final boolean isUnicode, final EdmMapping mapping) throws IOException, DeserializerException {
+    return type.getKind() == EdmTypeKind.COMPLEX ?
+        readComplexValue(parser, name, (EdmComplexType) type, isNullable) :
+        readPrimitiveValue(parser, name, (EdmPrimitiveType) type,
+            isNullable, maxLength, precision, scale, isUnicode, mapping);
+  }
+
+  private ComplexValue readComplexValue(final JsonParser parser, final String name, final EdmComplexType edmType,
+      final boolean isNullable) throws IOException, DeserializerException {
+    if (isValidNull(parser, name, isNullable)) {
+      return null;
+    }
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      throw new DeserializerException(
+          "Invalid value for property: " + name + " must not be an array or primitive value.",
+          DeserializerException.MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
+    }
+    EdmComplexType type = edmType;
+    final Map<String, Property> properties = new HashMap<>();
+    List<Entry<String, TokenBuffer>> bufferedFields = null;
+    final UnconsumedFields unconsumed = new UnconsumedFields();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String fieldName = parser.getCurrentName();
+      parser.nextToken();
+      EdmProperty edmProperty;
+      if (fieldName.equals(constants.getType())) {
+        type = (EdmComplexType) helper.getDerivedType(edmType, getTypeValue(parser));
+      } else if ((edmProperty = getStructuralProperty(type, fieldName)) != null) {
+        properties.put(fieldName, readStructuralProperty(parser, edmProperty));
+      } else if (!skipAnnotation(parser, fieldName, unconsumed)) {
+        if (bufferedFields == null) {
+          bufferedFields = new ArrayList<>();
+        }
+        bufferedFields.add(new SimpleEntry<String, TokenBuffer>(fieldName, buffer(parser)));
+      }
+    }
+    if (bufferedFields != null) {
+      for (final Entry<String, TokenBuffer> field : bufferedFields) {
+        final EdmProperty edmProperty = getStructuralProperty(type, field.getKey());
+        if (edmProperty == null) {
+          unconsumed.unknown(field.getKey());
+        } else {
+          try (JsonParser bufferParser = replay(field.getValue(), parser)) {
+            properties.put(field.getKey(), readStructuralProperty(bufferParser, edmProperty));
+          }
+        }
+      }
+    }
+    // Even if there are no properties defined we have to give back an empty list
+    ComplexValue complexValue = new ComplexValue();
+    addInOrder(type.getPropertyNames(), properties, complexValue.getValue());
+    complexValue.setTypeName(type.getFullQualifiedName().getFullQualifiedNameAsString());
+    unconsumed.check();
+    return complexValue;
+  }
+
+  private Object readPrimitiveValue(final JsonParser parser, final String name, final EdmPrimitiveType type,
+      final boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
+      final boolean isUnicode, final EdmMapping mapping) throws IOException, DeserializerException {
+    if (type.getName().startsWith("Geo")) {
+      return helper.readPrimitiveValue(name, type, isNullable, maxLength, precision, scale, isUnicode, mapping,
+          (JsonNode) parser.readValueAsTree());
+    }
+    if (isValidNull(parser, name, isNullable)) {
+      return null;
+    }
+    final JsonToken token = parser.currentToken();
+    if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+      throw new DeserializerException("Invalid value for property: " + name + " must not be an object or array.",
+          DeserializerException.MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
+    }
+    helper.checkJsonTypeBasedOnPrimitiveType(name, type, getNodeType(token));
+    final String text = getScalarText(parser);
+    try {
+      return type.valueOfString(text, isNullable, maxLength, precision, scale, isUnicode,
+          helper.getJavaClassForPrimitiveType(mapping, type));
+    } catch (final EdmPrimitiveTypeException e) {
+      throw new DeserializerException(
+          "Invalid value: " + text + " for property: " + name, e,
+          DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
+    }
+  }
+
+  private boolean isValidNull(final JsonParser parser, final String name, final boolean isNullable)
+      throws DeserializerException {
+    if (parser.currentToken() == JsonToken.VALUE_NULL) {
+      if (isNullable) {
+        return true;
+      } else {
+        throw new DeserializerException("Property: " + name + " must not be null.",
+            DeserializerException.MessageKeys.INVALID_NULL_PROPERTY, name);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Skips the value of a field if it is control information or an annotation,
+   * recording annotations which are not supported.
+   * @return <code>true</code> if the field has been skipped
+   */
+  private boolean skipAnnotation(final JsonParser parser, final String name, final UnconsumedFields unconsumed)
+      throws IOException {
+    if (name.contains(ODataJsonDeserializerHelper.ODATA_CONTROL_INFORMATION_PREFIX)) {
+      // Control Information is ignored for requests as per specification chapter "4.5 Control Information"
+      parser.skipChildren();
+      return true;
+    } else if (name.contains(ODataJsonDeserializerHelper.ODATA_ANNOTATION_MARKER)) {
+      if (!(constants instanceof Constantsv01)) {
+        unconsumed.annotation(name);
+      }
+      parser.skipChildren();
+      return true;
+    }
+    return false;
+  }
+
+  /** Reads the value of an <code>odata.type</code> annotation the way the tree-based deserializer sees it. */
+  private String getTypeValue(final JsonParser parser) throws IOException {
+    final JsonToken token = parser.currentToken();
+    if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+      parser.skipChildren();
+      return "";
+    }
+    return getScalarText(parser);
+  }
+
+  /** Returns the text of a scalar value in the same form as the corresponding JSON-tree node. */
+  private String getScalarText(final JsonParser parser) throws IOException {
+    switch (parser.currentToken()) {
+    case VALUE_NUMBER_INT:
+      return parser.getNumberValue().toString();
+    case VALUE_NUMBER_FLOAT:
+      return JsonNodeFactory.instance.numberNode(parser.getDecimalValue()).asText();
+    default:
+      return parser.getText();
+    }
+  }
+
+  private JsonNodeType getNodeType(final JsonToken token) {
+    switch (token) {
+    case START_OBJECT:
+      return JsonNodeType.OBJECT;
+    case START_ARRAY:
+      return JsonNodeType.ARRAY;
+    case VALUE_STRING:
+      return JsonNodeType.STRING;
+    case VALUE_NUMBER_INT:
+    case VALUE_NUMBER_FLOAT:
+      return JsonNodeType.NUMBER;
+    case VALUE_TRUE:
+    case VALUE_FALSE:
+      return JsonNodeType.BOOLEAN;
+    case VALUE_NULL:
+      return JsonNodeType.NULL;
+    default:
+      return JsonNodeType.POJO;
+    }
+  }
+
+  private TokenBuffer buffer(final JsonParser parser) throws IOException {
+    TokenBuffer buffer = new TokenBuffer(parser);
+    buffer.copyCurrentStructure(parser);
+    return buffer;
+  }
+
+  private JsonParser replay(final TokenBuffer buffer, final JsonParser parser) throws IOException {
+    final JsonParser bufferParser = buffer.asParser(parser.getCodec());
+    bufferParser.nextToken();
+    return bufferParser;
+  }
+
+  /**
+   * Adds properties or links in the order of the given names, which is the order the tree-based
+   * deserializer produces.
+   * @param names the names in the order of the type definition
+   * @param items the properties or links read, by name
+   * @param target the list to add them to
+   */
+  private <T> void addInOrder(final List<String> names, final Map<String, T> items, final List<T> target) {
+    if (items.size() <= 1) {
+      target.addAll(items.values());
+      return;
+    }
+    for (final String name : names) {
+      final T item = items.get(name);
+      if (item != null) {
+        target.add(item);
+      }
+    }
+  }
+
+  /** Remembers the first unsupported annotation and the first unknown field of a JSON object. */
+  private static final class UnconsumedFields {
+    private String annotation;
+    private String unknown;
+
+    private void annotation(final String name) {
+      if (annotation == null) {
+        annotation = name;
+      }
+    }
+
+    private void unknown(final String name) {
+      if (unknown == null) {
+        unknown = name;
+      }
+    }
+
+    private void check() throws DeserializerException {
+      if (annotation != null) {
+        throw new DeserializerException("Custom annotation with field name: " + annotation + " not supported",
+            DeserializerException.MessageKeys.NOT_IMPLEMENTED);
+      }
+      if (unknown != null) {
+        throw new DeserializerException("Tree should be empty but still has content left: " + unknown,
+            DeserializerException.MessageKeys.UNKNOWN_CONTENT, unknown);
+      }
+    }
+  }
+}
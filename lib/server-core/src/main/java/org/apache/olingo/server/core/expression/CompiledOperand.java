@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.expression;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
+import org.apache.olingo.server.core.expression.operand.VisitorOperand;
+
+/**
+ * An expression compiled by {@link ExpressionCompiler} into the operands of {@link ExpressionVisitorImpl};
+ * it can be evaluated against any number of entities without walking the expression tree again.
+ */
+public interface CompiledOperand {
+
+  /**
+   * Evaluates the expression for the given entity.
+   * @param entity the entity
+   * @return the resulting operand
+   */
+  VisitorOperand evaluate(Entity entity) throws ExpressionVisitException, ODataApplicationException;
+}
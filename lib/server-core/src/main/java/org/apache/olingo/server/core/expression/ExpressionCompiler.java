@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.edm.EdmEnumType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmType;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceProperty;
+import org.apache.olingo.server.api.uri.queryoption.expression.BinaryOperatorKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitor;
+import org.apache.olingo.server.api.uri.queryoption.expression.FunctionCallHandler;
+import org.apache.olingo.server.api.uri.queryoption.expression.Literal;
+import org.apache.olingo.server.api.uri.queryoption.expression.Member;
+import org.apache.olingo.server.api.uri.queryoption.expression.MethodKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.UnaryOperatorKind;
+import org.apache.olingo.server.core.expression.operand.TypedOperand;
+import org.apache.olingo.server.core.expression.operand.UntypedOperand;
+import org.apache.olingo.server.core.expression.operand.VisitorOperand;
+
+/**
+ * Compiles an expression tree once into a {@link CompiledOperand}.
+ * <br/>
+ * The compiled expression evaluates to the same operands as {@link ExpressionVisitorImpl}, but literals are typed
+ * only once and property paths are resolved up front, so evaluating it for every entity of a collection neither
+ * walks the tree nor creates a visitor per entity. Members which cannot be resolved up front (functions, lambda
+ * expressions, navigation) are delegated to {@link ExpressionVisitorImpl}.
+ */
+public class ExpressionCompiler implements ExpressionVisitor<CompiledOperand> {
+
+  private final UriInfoResource uriInfo;
+  private final FunctionCallHandler functionCallHandler;
+  /** Operators do not depend on the current entity, so a single visitor applies them all. */
+  private final ExpressionVisitorImpl operators;
+
+  public ExpressionCompiler(final UriInfoResource uriInfo, final FunctionCallHandler functionCallHandler) {
+    this.uriInfo = uriInfo;
+    this.functionCallHandler = functionCallHandler;
+    operators = new ExpressionVisitorImpl((Entity) null, uriInfo, functionCallHandler);
+  }
+
+  /**
+   * Compiles the given expression.
+   * @param expression the expression
+   * @param uriInfo the URI info, used to resolve aliases and function parameters
+   * @param functionCallHandler handler for functions used as members, or <code>null</code>
+   * @return the compiled expression
+   */
+  public static CompiledOperand compile(final Expression expression, final UriInfoResource uriInfo,
+      final FunctionCallHandler functionCallHandler) throws ExpressionVisitException, ODataApplicationException {
+    return expression.accept(new ExpressionCompiler(uriInfo, functionCallHandler));
+  }
+
+  @Override
+  public CompiledOperand visitBinaryOperator(final BinaryOperatorKind operator, final CompiledOperand left,
+      final CompiledOperand right) throws ExpressionVisitException, ODataApplicationException {
+    return new CompiledOperand() {
+      @Override
+      public VisitorOperand evaluate(final Entity entity) throws ExpressionVisitException, ODataApplicationException {
+        return operators.visitBinaryOperator(operator, left.evaluate(entity), right.evaluate(entity));
+      }
+    };
+  }
+
+  @Override
+  public CompiledOperand visitBinaryOperator(final BinaryOperatorKind operator, final CompiledOperand left,
+      final List<CompiledOperand> right) throws ExpressionVisitException, ODataApplicationException {
+    return new CompiledOperand() {
+      @Override
+      public VisitorOperand evaluate(final Entity entity) throws ExpressionVisitException, ODataApplicationException {
+        return operators.visitBinaryOperator(operator, left.evaluate(entity), evaluateAll(right, entity));
+      }
+    };
+  }
+
+  @Override
+  public CompiledOperand visitUnaryOperator(final UnaryOperatorKind operator, final CompiledOperand operand)
+      throws ExpressionVisitException, ODataApplicationException {
+    return new CompiledOperand() {
+      @Override
+      public VisitorOperand evaluate(final Entity entity) throws ExpressionVisitException, ODataApplicationException {
+        return operators.visitUnaryOperator(operator, operand.evaluate(entity));
+      }
+    };
+  }
+
+  @Override
+  public CompiledOperand visitMethodCall(final MethodKind methodCall, final List<CompiledOperand> parameters)
+      throws ExpressionVisitException, ODataApplicationException {
+    return new CompiledOperand() {
+      @Override
+      public VisitorOperand evaluate(final Entity entity) throws ExpressionVisitException, ODataApplicationException {
+        return operators.visitMethodCall(methodCall, evaluateAll(parameters, entity));
+      }
+    };
+  }
+
+  private static List<VisitorOperand> evaluateAll(final List<CompiledOperand> expressions, final Entity entity)
+      throws ExpressionVisitException, ODataApplicationException {
+    List<VisitorOperand> operands = new ArrayList<VisitorOperand>(expressions.size());
+    for (final CompiledOperand expression : expressions) {
+      operands.add(expression.evaluate(entity));
+    }
+    return operands;
+  }
+
+  @Override
+  public CompiledOperand visitLambdaExpression(final String lambdaFunction, final String lambdaVariable,
+      final Expression expression) throws ExpressionVisitException, ODataApplicationException {
+    return notImplemented();
+  }
+
+  @Override
+  public CompiledOperand visitLiteral(final Literal literal)
+      throws ExpressionVisitException, ODataApplicationException {
+    final VisitorOperand operand = new LiteralOperand(literal.getText());
+    return new CompiledOperand() {
+      @Override
+      public VisitorOperand evaluate(final Entity entity) {
+        return operand;
+      }
+    };
+  }
+
+  @Override
+  public CompiledOperand visitMember(final Member member)
+      throws ExpressionVisitException, ODataApplicationException {
+    final List<UriResource> uriResourceParts = member.getResourcePath().getUriResourceParts();
+    final EdmProperty[] path = new EdmProperty[uriResourceParts.size()];
+    for (int i = 0; i < path.length; i++) {
+      if (uriResourceParts.get(i) instanceof UriResourceProperty) {
+        path[i] = ((UriResourceProperty) uriResourceParts.get(i)).getProperty();
+      } else {
+        return new CompiledOperand() {
+          @Override
+          public VisitorOperand evaluate(final Entity entity)
+              throws ExpressionVisitException, ODataApplicationException {
+            return member.accept(new ExpressionVisitorImpl(entity, uriInfo, functionCallHandler));
+          }
+        };
+      }
+    }
+
+    return new CompiledOperand() {
+      @Override
+      public VisitorOperand evaluate(final Entity entity) {
+        // Same traversal as ExpressionVisitorImpl#visitMember, without looking at the URI resources again.
+        EdmProperty currentEdmProperty = path[0];
+        Property currentProperty = entity.getProperty(currentEdmProperty.getName());
+        for (int i = 1; i < path.length; i++) {
+          if (currentProperty.isComplex()) {
+            currentEdmProperty = path[i];
+            for (final Property innerProperty : currentProperty.asComplex().getValue()) {
+              if (innerProperty.getName().equals(currentEdmProperty.getName())) {
+                currentProperty = innerProperty;
+                break;
+              }
+            }
+          }
+        }
+        return new TypedOperand(currentProperty.getValue(), currentEdmProperty.getType(), currentEdmProperty);
+      }
+    };
+  }
+
+  @Override
+  public CompiledOperand visitAlias(final String aliasName)
+      throws ExpressionVisitException, ODataApplicationException {
+    final String aliasValue = uriInfo.getValueForAlias(aliasName);
+    final VisitorOperand literal = new LiteralOperand(aliasValue);
+    return new CompiledOperand() {
+      @Override
+      public VisitorOperand evaluate(final Entity entity) {
+        final Property property = entity.getProperty(aliasValue);
+        return property == null ? literal : new UntypedOperand(String.valueOf(property.getValue()));
+      }
+    };
+  }
+
+  @Override
+  public CompiledOperand visitTypeLiteral(final EdmType type)
+      throws ExpressionVisitException, ODataApplicationException {
+    return notImplemented();
+  }
+
+  @Override
+  public CompiledOperand visitLambdaReference(final String variableName)
+      throws ExpressionVisitException, ODataApplicationException {
+    return notImplemented();
+  }
+
+  @Override
+  public CompiledOperand visitEnum(final EdmEnumType type, final List<String> enumValues)
+      throws ExpressionVisitException, ODataApplicationException {
+    Long result = null;
+    try {
+      for (final String enumValue : enumValues) {
+        final Long value = type.valueOfString(enumValue, null, null, null, null, null, Long.class);
+        result = result == null ? value : result | value;
+      }
+    } catch (final EdmPrimitiveTypeException e) {
+      return fail(new ODataApplicationException("Illegal enum value.",
+          HttpStatusCode.BAD_REQUEST.getStatusCode(), Locale.ROOT, e));
+    }
+    final VisitorOperand operand = new TypedOperand(result, type);
+    return new CompiledOperand() {
+      @Override
+      public VisitorOperand evaluate(final Entity entity) {
+        return operand;
+      }
+    };
+  }
+
+  private CompiledOperand notImplemented() {
+    return fail(new ODataApplicationException("Not implemented", HttpStatusCode.NOT_IMPLEMENTED.getStatusCode(),
+        Locale.ROOT));
+  }
+
+  /**
+   * Errors are raised on evaluation, as the visitor does, so that an empty collection is never rejected.
+   */
+  private CompiledOperand fail(final ODataApplicationException exception) {
+    return new CompiledOperand() {
+      @Override
+      public VisitorOperand evaluate(final Entity entity) throws ODataApplicationException {
+        throw exception;
+      }
+    };
+  }
+
+  /**
+   * A literal which determines its type only once.
+   * Typed operands are never modified by the operators, so the result can be shared between evaluations.
+   */
+  private static class LiteralOperand extends UntypedOperand {
+
+    private TypedOperand typedOperand;
+
+    LiteralOperand(final String literal) {
+      super(literal);
+    }
+
+    @Override
+    public TypedOperand asTypedOperand() throws ODataApplicationException {
+      if (typedOperand == null) {
+        typedOperand = determineType();
+      }
+      return typedOperand;
+    }
+  }
+}
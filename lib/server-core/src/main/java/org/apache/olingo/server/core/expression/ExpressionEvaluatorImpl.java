@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.expression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.queryoption.FilterOption;
+import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledExpression;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionEvaluator;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
+import org.apache.olingo.server.api.uri.queryoption.expression.FunctionCallHandler;
+import org.apache.olingo.server.core.expression.operand.TypedOperand;
+
+public class ExpressionEvaluatorImpl implements ExpressionEvaluator {
+
+  private static final EdmPrimitiveType BOOLEAN = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Boolean);
+
+  private final FunctionCallHandler functionCallHandler;
+
+  public ExpressionEvaluatorImpl(final FunctionCallHandler functionCallHandler) {
+    this.functionCallHandler = functionCallHandler;
+  }
+
+  @Override
+  public CompiledExpression compile(final Expression expression, final UriInfoResource uriInfo)
+      throws ExpressionVisitException, ODataApplicationException {
+    final CompiledOperand operand = ExpressionCompiler.compile(expression, uriInfo, functionCallHandler);
+    return new CompiledExpression() {
+      @Override
+      public Object evaluate(final Entity entity) throws ExpressionVisitException, ODataApplicationException {
+        final TypedOperand result = operand.evaluate(entity).asTypedOperand();
+        return result.isNull() ? null : result.getValue();
+      }
+    };
+  }
+
+  @Override
+  public void applyFilter(final FilterOption filterOption, final List<Entity> entities,
+      final UriInfoResource uriInfo) throws ODataApplicationException {
+    if (filterOption == null) {
+      return;
+    }
+
+    try {
+      final CompiledOperand filter =
+          ExpressionCompiler.compile(filterOption.getExpression(), uriInfo, functionCallHandler);
+      final Iterator<Entity> iter = entities.iterator();
+
+      while (iter.hasNext()) {
+        final TypedOperand typedOperand = filter.evaluate(iter.next()).asTypedOperand();
+
+        if (typedOperand.is(BOOLEAN)) {
+          if (Boolean.FALSE.equals(typedOperand.getTypedValue(Boolean.class))) {
+            iter.remove();
+          }
+        } else {
+          throw new ODataApplicationException(
+              "Invalid filter expression. Filter expressions must return a value of type Edm.Boolean",
+              HttpStatusCode.BAD_REQUEST.getStatusCode(), Locale.ROOT);
+        }
+      }
+
+    } catch (final ExpressionVisitException e) {
+      throw new ODataApplicationException("Exception in filter evaluation",
+          HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode(), Locale.ROOT, e);
+    }
+  }
+
+  @Override
+  public void applyOrderBy(final OrderByOption orderByOption, final List<Entity> entities,
+      final UriInfoResource uriInfo) throws ODataApplicationException {
+    if (orderByOption == null || entities.size() < 2) {
+      return;
+    }
+    final List<OrderByItem> orders = orderByOption.getOrders();
+
+    // Evaluate every order option once per entity and sort on these keys,
+    // instead of evaluating both entities again in every comparison.
+    final List<SortEntry> entries = new ArrayList<SortEntry>(entities.size());
+    try {
+      final CompiledOperand[] expressions = new CompiledOperand[orders.size()];
+      for (int i = 0; i < expressions.length; i++) {
+        expressions[i] = ExpressionCompiler.compile(orders.get(i).getExpression(), uriInfo, functionCallHandler);
+      }
+      for (final Entity entity : entities) {
+        final TypedOperand[] keys = new TypedOperand[expressions.length];
+        for (int i = 0; i < keys.length; i++) {
+          keys[i] = expressions[i].evaluate(entity).asTypedOperand();
+        }
+        entries.add(new SortEntry(entity, keys));
+      }
+    } catch (final ExpressionVisitException e) {
+      throw new ODataApplicationException("Exception in orderBy evaluation",
+          HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode(), Locale.ROOT, e);
+    }
+
+    Collections.sort(entries, new Comparator<SortEntry>() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public int compare(final SortEntry e1, final SortEntry e2) {
+        // Compare the first order option for both entities.
+        // If and only if the result of the previous order option is equal to 0
+        // compare the next order option until all options are compared or they are not equal.
+        int result = 0;
+
+        for (int i = 0; i < orders.size() && result == 0; i++) {
+          final TypedOperand op1 = e1.keys[i];
+          final TypedOperand op2 = e2.keys[i];
+
+          if (op1.isNull() || op2.isNull()) {
+            if (op1.isNull() && op2.isNull()) {
+              result = 0; // null is equals to null
+            } else {
+              result = op1.isNull() ? -1 : 1;
+            }
+          } else {
+            Object o1 = op1.getValue();
+            Object o2 = op2.getValue();
+
+            if (o1.getClass() == o2.getClass() && o1 instanceof Comparable) {
+              result = ((Comparable<Object>) o1).compareTo(o2);
+            } else {
+              result = 0;
+            }
+          }
+
+          result = orders.get(i).isDescending() ? result * -1 : result;
+        }
+        return result;
+      }
+    });
+
+    for (int i = 0; i < entries.size(); i++) {
+      entities.set(i, entries.get(i).entity);
+    }
+  }
+
+  private static class SortEntry {
+    private final Entity entity;
+    private final TypedOperand[] keys;
+
+    private SortEntry(final Entity entity, final TypedOperand[] keys) {
+      this.entity = entity;
+      this.keys = keys;
+    }
+  }
+}
@@ -16,7 +16,7 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.olingo.server.tecsvc.processor.queryoptions.expression;
+package org.apache.olingo.server.core.expression;
 
 import java.util.Iterator;
 import java.util.List;
@@ -26,7 +26,6 @@ import org.apache.olingo.commons.api.data.ComplexValue;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.Link;
 import org.apache.olingo.commons.api.data.Property;
-import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
 import org.apache.olingo.commons.api.edm.EdmEnumType;
 import org.apache.olingo.commons.api.edm.EdmFunction;
@@ -35,12 +34,10 @@ import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
 import org.apache.olingo.commons.api.edm.EdmProperty;
 import org.apache.olingo.commons.api.edm.EdmType;
-import org.apache.olingo.commons.api.edm.constants.EdmTypeKind;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.uri.UriInfoResource;
-import org.apache.olingo.server.api.uri.UriParameter;
 import org.apache.olingo.server.api.uri.UriResource;
 import org.apache.olingo.server.api.uri.UriResourceFunction;
 import org.apache.olingo.server.api.uri.UriResourceLambdaAny;
@@ -52,36 +49,42 @@ import org.apache.olingo.server.api.uri.queryoption.expression.BinaryOperatorKin
 import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
 import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
 import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitor;
+import org.apache.olingo.server.api.uri.queryoption.expression.FunctionCallHandler;
 import org.apache.olingo.server.api.uri.queryoption.expression.Literal;
 import org.apache.olingo.server.api.uri.queryoption.expression.Member;
 import org.apache.olingo.server.api.uri.queryoption.expression.MethodKind;
 import org.apache.olingo.server.api.uri.queryoption.expression.UnaryOperatorKind;
 import org.apache.olingo.server.core.uri.UriResourceLambdaVarImpl;
-import org.apache.olingo.server.tecsvc.data.DataProvider;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.TypedOperand;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.UntypedOperand;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.VisitorOperand;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operation.BinaryOperator;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operation.MethodCallOperator;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operation.UnaryOperator;
+import org.apache.olingo.server.core.expression.operand.TypedOperand;
+import org.apache.olingo.server.core.expression.operand.UntypedOperand;
+import org.apache.olingo.server.core.expression.operand.VisitorOperand;
+import org.apache.olingo.server.core.expression.operation.BinaryOperator;
+import org.apache.olingo.server.core.expression.operation.MethodCallOperator;
+import org.apache.olingo.server.core.expression.operation.UnaryOperator;
 
+/**
+ * Evaluates an expression for a single entity held in memory.
+ * Functions used as members are called through the given {@link FunctionCallHandler}.
+ */
 public class ExpressionVisitorImpl implements ExpressionVisitor<VisitorOperand> {
 
   private Entity entity;
   private final UriInfoResource uriInfo;
-  private final Edm edm;
+  private final FunctionCallHandler functionCallHandler;
   private ComplexValue complexValue;
 
-  public ExpressionVisitorImpl(final Entity entity, final UriInfoResource uriInfo, final Edm edm) {
+  public ExpressionVisitorImpl(final Entity entity, final UriInfoResource uriInfo,
+      final FunctionCallHandler functionCallHandler) {
     this.entity = entity;
     this.uriInfo = uriInfo;
-    this.edm = edm;
+    this.functionCallHandler = functionCallHandler;
   }
 
-  public ExpressionVisitorImpl(final ComplexValue complexValue, final UriInfoResource uriInfo, final Edm edm) {
+  public ExpressionVisitorImpl(final ComplexValue complexValue, final UriInfoResource uriInfo,
+      final FunctionCallHandler functionCallHandler) {
     this.complexValue = complexValue;
     this.uriInfo = uriInfo;
-    this.edm = edm;
+    this.functionCallHandler = functionCallHandler;
   }
 
   @Override
@@ -229,7 +232,8 @@ public class ExpressionVisitorImpl implements ExpressionVisitor<VisitorOperand>
                 Iterator<ComplexValue> itr = complex.iterator();
                 while (itr.hasNext()) {
                   final ComplexValue value = itr.next();
-                  VisitorOperand operand = expression.accept(new ExpressionVisitorImpl(value, uriInfo, edm));
+                  VisitorOperand operand =
+                      expression.accept(new ExpressionVisitorImpl(value, uriInfo, functionCallHandler));
                   final TypedOperand typedOperand = operand.asTypedOperand();
                   if (typedOperand.is(OData.newInstance().createPrimitiveTypeInstance
                       (EdmPrimitiveTypeKind.Boolean))) {
@@ -255,19 +259,11 @@ public class ExpressionVisitorImpl implements ExpressionVisitor<VisitorOperand>
       return new TypedOperand(currentProperty.getValue(), currentEdmProperty.getType(), currentEdmProperty);
     } else if (initialPart instanceof UriResourceFunction) {
       final EdmFunction function = ((UriResourceFunction) initialPart).getFunction();
-      if (uriResourceParts.size() > 1) {
+      if (uriResourceParts.size() > 1 || functionCallHandler == null) {
         return throwNotImplemented();
       }
-      final EdmType type = function.getReturnType().getType();
-      final DataProvider dataProvider = new DataProvider(OData.newInstance(), edm);
-      final List<UriParameter> parameters = ((UriResourceFunction) initialPart).getParameters();
-      return new TypedOperand(
-        type.getKind() == EdmTypeKind.ENTITY ?
-            function.getReturnType().isCollection() ?
-                dataProvider.readFunctionEntityCollection(function, parameters, uriInfo) :
-                dataProvider.readFunctionEntity(function, parameters, uriInfo) :
-            dataProvider.readFunctionPrimitiveComplex(function, parameters, uriInfo),
-        type);
+      return new TypedOperand(functionCallHandler.callFunction((UriResourceFunction) initialPart, uriInfo),
+          function.getReturnType().getType());
 
     } else if (initialPart instanceof UriResourceLambdaVariable) {
       EdmComplexType complexType = (EdmComplexType) ((UriResourceLambdaVarImpl)initialPart).getTypeFilter();
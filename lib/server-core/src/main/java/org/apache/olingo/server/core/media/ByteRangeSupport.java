@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.media;
+
+import java.util.Locale;
+
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+
+/**
+ * Support of byte-range requests on media content according to
+ * <a href="http://www.rfc-editor.org/rfc/rfc7233.txt">RFC 7233</a>.
+ */
+public final class ByteRangeSupport {
+
+  private static final String BYTES = "bytes";
+  private static final long[] UNSATISFIABLE = new long[0];
+
+  private ByteRangeSupport() {}
+
+  /**
+   * Serves a range request for media content.
+   * A successful response with media content of known length gets the headers <code>Accept-Ranges</code>
+   * and <code>Content-Length</code>. If the request asks for a single byte range and the If-Range condition
+   * (if any) holds, the response is turned into a 206 (Partial Content) response with only this range,
+   * or into a 416 (Range Not Satisfiable) response if the range lies outside the content.
+   * Multiple and malformed ranges are ignored, as RFC 7233 permits, so the complete content is sent.
+   * @param request the OData request
+   * @param response the OData response of the processor
+   */
+  public static void apply(final ODataRequest request, final ODataResponse response) {
+    if (response.getStatusCode() != HttpStatusCode.OK.getStatusCode()
+        || !(response.getODataContent() instanceof MediaContent)) {
+      return;
+    }
+    final MediaContent content = (MediaContent) response.getODataContent();
+    final long length = content.getLength();
+    if (length < 0) {
+      return;
+    }
+    response.setHeader(HttpHeader.ACCEPT_RANGES, BYTES);
+    response.setHeader(HttpHeader.CONTENT_LENGTH, Long.toString(length));
+
+    final String range = request.getHeader(HttpHeader.RANGE);
+    if (range == null || !isIfRangeFulfilled(request.getHeader(HttpHeader.IF_RANGE), response)) {
+      return;
+    }
+    final long[] bounds = parseRange(range, length);
+    if (bounds == null) {
+      return;
+    }
+    if (bounds == UNSATISFIABLE) {
+      content.close();
+      response.setODataContent(null);
+      response.setStatusCode(HttpStatusCode.RANGE_NOT_SATISFIABLE.getStatusCode());
+      response.setHeader(HttpHeader.CONTENT_RANGE, BYTES + " */" + length);
+      response.setHeader(HttpHeader.CONTENT_LENGTH, "0");
+      return;
+    }
+    final long count = bounds[1] - bounds[0] + 1;
+    response.setStatusCode(HttpStatusCode.PARTIAL_CONTENT.getStatusCode());
+    response.setHeader(HttpHeader.CONTENT_RANGE, BYTES + " " + bounds[0] + "-" + bounds[1] + "/" + length);
+    response.setHeader(HttpHeader.CONTENT_LENGTH, Long.toString(count));
+    response.setODataContent(content.range(bounds[0], count));
+  }
+
+  /**
+   * Checks the If-Range condition: the range is only served if the validator matches the current
+   * representation, i.e., it is equal to the strong entity tag or to the last-modification date.
+   */
+  private static boolean isIfRangeFulfilled(final String ifRange, final ODataResponse response) {
+    if (ifRange == null) {
+      return true;
+    }
+    final String validator = ifRange.trim();
+    if (validator.startsWith("W/")) {
+      return false;
+    }
+    final String current = response.getHeader(validator.startsWith("\"") ? HttpHeader.ETAG : HttpHeader.LAST_MODIFIED);
+    return current != null && !current.startsWith("W/") && current.trim().equals(validator);
+  }
+
+  /**
+   * Parses a Range header with a single byte range.
+   * @return the positions of the first and the last byte of the range, {@link #UNSATISFIABLE},
+   *         or <code>null</code> if the header has to be ignored
+   */
+  private static long[] parseRange(final String range, final long length) {
+    final int equals = range.indexOf('=');
+    if (equals < 0 || !BYTES.equals(range.substring(0, equals).trim().toLowerCase(Locale.ROOT))) {
+      return null;
+    }
+    final String spec = range.substring(equals + 1).trim();
+    final int dash = spec.indexOf('-');
+    if (dash < 0 || spec.indexOf(',') >= 0) {
+      return null;
+    }
+    try {
+      if (dash == 0) {
+        final long suffix = Long.parseLong(spec.substring(1).trim());
+        if (suffix < 0) {
+          return null;
+        } else if (suffix == 0 || length == 0) {
+          return UNSATISFIABLE;
+        }
+        return new long[] { Math.max(0, length - suffix), length - 1 };
+      }
+      final long first = Long.parseLong(spec.substring(0, dash).trim());
+      final String lastPosition = spec.substring(dash + 1).trim();
+      final long last = lastPosition.isEmpty() ? Long.MAX_VALUE : Long.parseLong(lastPosition);
+      if (first < 0 || last < first) {
+        return null;
+      }
+      return first >= length ? UNSATISFIABLE : new long[] { first, Math.min(last, length - 1) };
+    } catch (final NumberFormatException e) {
+      return null;
+    }
+  }
+}
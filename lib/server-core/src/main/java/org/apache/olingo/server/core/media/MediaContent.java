@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.media;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.apache.olingo.server.api.ODataContent;
+
+/**
+ * Media resource content read from a channel.
+ * <p/>
+ * The content can be restricted to a byte range of the media resource.
+ * Content read from a {@link FileChannel} is written with {@link FileChannel#transferTo(long, long,
+ * WritableByteChannel)}, so the bytes do not pass through the heap; the HTTP handlers use
+ * {@link #getFileChannel()} to hand the file region to the network layer directly.
+ * The channel is closed after the content has been written.
+ */
+public class MediaContent implements ODataContent, Closeable {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final ReadableByteChannel channel;
+  private final long length;
+  private final long offset;
+  private final long count;
+
+  /**
+   * Creates media content.
+   * @param channel the channel the media resource is read from
+   * @param length the length of the media resource in bytes, or -1 if unknown
+   */
+  public MediaContent(final ReadableByteChannel channel, final long length) {
+    this(channel, length, 0, length);
+  }
+
+  private MediaContent(final ReadableByteChannel channel, final long length, final long offset, final long count) {
+    this.channel = channel;
+    this.length = length;
+    this.offset = offset;
+    this.count = count;
+  }
+
+  /**
+   * Returns the content restricted to a byte range of the media resource.
+   * @param first the position of the first byte
+   * @param rangeCount the number of bytes
+   */
+  public MediaContent range(final long first, final long rangeCount) {
+    return new MediaContent(channel, length, first, rangeCount);
+  }
+
+  /** Returns the length of the complete media resource in bytes, or -1 if unknown. */
+  public long getLength() {
+    return length;
+  }
+
+  /** Returns the position of the first byte of the content within the media resource. */
+  public long getOffset() {
+    return offset;
+  }
+
+  /** Returns the number of bytes of the content, or -1 if unknown. */
+  public long getCount() {
+    return count;
+  }
+
+  /** Returns the file channel the content is read from, or <code>null</code> if it is not read from a file. */
+  public FileChannel getFileChannel() {
+    return channel instanceof FileChannel ? (FileChannel) channel : null;
+  }
+
+  @Override
+  public void write(final WritableByteChannel target) {
+    try {
+      if (channel instanceof FileChannel) {
+        transfer((FileChannel) channel, target);
+      } else {
+        copy(target);
+      }
+    } catch (final IOException e) {
+      throw new ODataRuntimeException("Error on writing media content", e);
+    } finally {
+      close();
+    }
+  }
+
+  @Override
+  public void write(final OutputStream stream) {
+    write(Channels.newChannel(stream));
+  }
+
+  @Override
+  public void close() {
+    try {
+      channel.close();
+    } catch (final IOException e) {
+      // ignore
+    }
+  }
+
+  private void transfer(final FileChannel file, final WritableByteChannel target) throws IOException {
+    long position = offset;
+    long remaining = count < 0 ? file.size() - offset : count;
+    while (remaining > 0) {
+      final long transferred = file.transferTo(position, remaining, target);
+      if (transferred <= 0) {
+        // the file is shorter than expected
+        break;
+      }
+      position += transferred;
+      remaining -= transferred;
+    }
+  }
+
+  private void copy(final WritableByteChannel target) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    if (offset > 0) {
+      skip(buffer);
+    }
+    long remaining = count < 0 ? Long.MAX_VALUE : count;
+    while (remaining > 0) {
+      buffer.clear();
+      if (remaining < buffer.capacity()) {
+        buffer.limit((int) remaining);
+      }
+      if (channel.read(buffer) < 0) {
+        break;
+      }
+      buffer.flip();
+      remaining -= buffer.remaining();
+      while (buffer.hasRemaining()) {
+        target.write(buffer);
+      }
+    }
+  }
+
+  private void skip(final ByteBuffer buffer) throws IOException {
+    if (channel instanceof SeekableByteChannel) {
+      ((SeekableByteChannel) channel).position(offset);
+      return;
+    }
+    long remaining = offset;
+    while (remaining > 0) {
+      buffer.clear();
+      if (remaining < buffer.capacity()) {
+        buffer.limit((int) remaining);
+      }
+      final int read = channel.read(buffer);
+      if (read < 0) {
+        break;
+      }
+      remaining -= read;
+    }
+  }
+}
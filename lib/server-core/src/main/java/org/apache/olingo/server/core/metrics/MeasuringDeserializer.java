@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.metrics;
+
+import java.io.InputStream;
+
+import org.apache.olingo.commons.api.edm.EdmAction;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.server.api.deserializer.DeserializerException;
+import org.apache.olingo.server.api.deserializer.DeserializerResult;
+import org.apache.olingo.server.api.deserializer.ODataDeserializer;
+import org.apache.olingo.server.api.metrics.ODataMetrics;
+import org.apache.olingo.server.api.metrics.ODataMetrics.Stage;
+
+/**
+ * Deserializer recording the time spent in the wrapped deserializer.
+ */
+class MeasuringDeserializer implements ODataDeserializer {
+
+  private final ODataDeserializer deserializer;
+  private final ODataMetrics metrics;
+
+  MeasuringDeserializer(final ODataDeserializer deserializer, final ODataMetrics metrics) {
+    this.deserializer = deserializer;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public DeserializerResult entity(final InputStream stream, final EdmEntityType edmEntityType)
+      throws DeserializerException {
+    final long start = System.nanoTime();
+    try {
+      return deserializer.entity(stream, edmEntityType);
+    } finally {
+      metrics.record(Stage.DESERIALIZATION, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public DeserializerResult entityCollection(final InputStream stream, final EdmEntityType edmEntityType)
+      throws DeserializerException {
+    final long start = System.nanoTime();
+    try {
+      return deserializer.entityCollection(stream, edmEntityType);
+    } finally {
+      metrics.record(Stage.DESERIALIZATION, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public DeserializerResult actionParameters(final InputStream stream, final EdmAction edmAction)
+      throws DeserializerException {
+    final long start = System.nanoTime();
+    try {
+      return deserializer.actionParameters(stream, edmAction);
+    } finally {
+      metrics.record(Stage.DESERIALIZATION, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public DeserializerResult property(final InputStream stream, final EdmProperty edmProperty)
+      throws DeserializerException {
+    final long start = System.nanoTime();
+    try {
+      return deserializer.property(stream, edmProperty);
+    } finally {
+      metrics.record(Stage.DESERIALIZATION, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public DeserializerResult entityReferences(final InputStream stream) throws DeserializerException {
+    final long start = System.nanoTime();
+    try {
+      return deserializer.entityReferences(stream);
+    } finally {
+      metrics.record(Stage.DESERIALIZATION, System.nanoTime() - start);
+    }
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.metrics;
+
+import org.apache.olingo.commons.api.data.AbstractEntityCollection;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityIterator;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.edm.EdmComplexType;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.server.api.ODataServerError;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.metrics.ODataMetrics;
+import org.apache.olingo.server.api.metrics.ODataMetrics.Stage;
+import org.apache.olingo.server.api.serializer.ComplexSerializerOptions;
+import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions;
+import org.apache.olingo.server.api.serializer.EntitySerializerOptions;
+import org.apache.olingo.server.api.serializer.ODataSerializer;
+import org.apache.olingo.server.api.serializer.PrimitiveSerializerOptions;
+import org.apache.olingo.server.api.serializer.ReferenceCollectionSerializerOptions;
+import org.apache.olingo.server.api.serializer.ReferenceSerializerOptions;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.serializer.SerializerResult;
+import org.apache.olingo.server.api.serializer.SerializerStreamResult;
+
+/**
+ * Serializer recording the time spent in the wrapped serializer.
+ * The content of streamed results is written later on and is therefore not part of the measurement.
+ */
+class MeasuringSerializer implements ODataSerializer {
+
+  private final ODataSerializer serializer;
+  private final ODataMetrics metrics;
+
+  MeasuringSerializer(final ODataSerializer serializer, final ODataMetrics metrics) {
+    this.serializer = serializer;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public SerializerResult serviceDocument(final ServiceMetadata serviceMetadata, final String serviceRoot)
+      throws SerializerException {
+    final long start = System.nanoTime();
+    try {
+      return serializer.serviceDocument(serviceMetadata, serviceRoot);
+    } finally {
+      metrics.record(Stage.SERIALIZATION, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public SerializerResult metadataDocument(final ServiceMetadata serviceMetadata) throws SerializerException {
+    final long start = System.nanoTime();
+    try {
+      return serializer.metadataDocument(serviceMetadata);
+    } finally {
+      metrics.record(Stage.SERIALIZATION, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public SerializerResult error(final ODataServerError error) throws SerializerException {
+    final long start = System.nanoTime();
+    try {
+      return serializer.error(error);
+    } finally {
+      metrics.record(Stage.SERIALIZATION, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public SerializerResult entityCollection(final ServiceMetadata metadata, final EdmEntityType entityType,
+      final AbstractEntityCollection entitySet, final EntityCollectionSerializerOptions options)
+      throws SerializerException {
+    final long start = System.nanoTime();
+    try {
+      return serializer.entityCollection(metadata, entityType, entitySet, options);
+    } finally {
+      metrics.record(Stage.SERIALIZATION, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public SerializerStreamResult entityCollectionStreamed(final ServiceMetadata metadata, final EdmEntityType entityType,
+      final EntityIterator entities, final EntityCollectionSerializerOptions options) throws SerializerException {
+    final long start = System.nanoTime();
+    try {
+      return serializer.entityCollectionStreamed(metadata, entityType, entities, options);
+    } finally {
+      metrics.record(Stage.SERIALIZATION, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public SerializerResult entity(final ServiceMetadata metadata, final EdmEntityType entityType, final Entity entity,
+      final EntitySerializerOptions options) throws SerializerException {
+    final long start = System.nanoTime();
+    try {
+      return serializer.entity(metadata, entityType, entity, options);
+    } finally {
+      metrics.record(Stage.SERIALIZATION, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public SerializerResult primitive(final ServiceMetadata metadata, final EdmPrimitiveType type,
+      final Property property, final PrimitiveSerializerOptions options) throws SerializerException {
+    final long start = System.nanoTime();
+    try {
+      return serializer.primitive(metadata, type, property, options);
+    } finally {
+      metrics.record(Stage.SERIALIZATION, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public SerializerResult complex(final ServiceMetadata metadata, final EdmComplexType type, final Property property,
+      final ComplexSerializerOptions options) throws SerializerException {
+    final long start = System.nanoTime();
+    try {
+      return serializer.complex(metadata, type, property, options);
+    } finally {
+      metrics.record(Stage.SERIALIZATION, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public SerializerResult primitiveCollection(final ServiceMetadata metadata, final EdmPrimitiveType type,
+      final Property property, final PrimitiveSerializerOptions options) throws SerializerException {
+    final long start = System.nanoTime();
+    try {
+      return serializer.primitiveCollection(metadata, type, property, options);
+    } finally {
+      metrics.record(Stage.SERIALIZATION, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public SerializerResult complexCollection(final ServiceMetadata metadata, final EdmComplexType type,
+      final Property property, final ComplexSerializerOptions options) throws SerializerException {
+    final long start = System.nanoTime();
+    try {
+      return serializer.complexCollection(metadata, type, property, options);
+    } finally {
+      metrics.record(Stage.SERIALIZATION, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public SerializerResult reference(final ServiceMetadata metadata, final EdmEntitySet edmEntitySet,
+      final Entity entity, final ReferenceSerializerOptions options) throws SerializerException {
+    final long start = System.nanoTime();
+    try {
+      return serializer.reference(metadata, edmEntitySet, entity, options);
+    } finally {
+      metrics.record(Stage.SERIALIZATION, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public SerializerResult referenceCollection(final ServiceMetadata metadata, final EdmEntitySet edmEntitySet,
+      final AbstractEntityCollection entityCollection, final ReferenceCollectionSerializerOptions options)
+      throws SerializerException {
+    final long start = System.nanoTime();
+    try {
+      return serializer.referenceCollection(metadata, edmEntitySet, entityCollection, options);
+    } finally {
+      metrics.record(Stage.SERIALIZATION, System.nanoTime() - start);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.metrics;
+
+import org.apache.olingo.server.api.deserializer.ODataDeserializer;
+import org.apache.olingo.server.api.metrics.ODataMetrics;
+import org.apache.olingo.server.api.serializer.ODataSerializer;
+
+/**
+ * Makes the {@link ODataMetrics} of the request in process available to the serializers and deserializers
+ * created while processing it.
+ * As long as no handler with metrics has processed a request, nothing is looked up at all.
+ */
+public final class MetricsContext {
+
+  private static final ThreadLocal<ODataMetrics> CURRENT = new ThreadLocal<ODataMetrics>();
+
+  private static volatile boolean used;
+
+  private MetricsContext() {
+    // static helper
+  }
+
+  /**
+   * Sets the metrics of the request processed by the current thread.
+   * @param metrics the metrics
+   * @return the metrics set before, to be passed to {@link #leave(ODataMetrics)}
+   */
+  public static ODataMetrics enter(final ODataMetrics metrics) {
+    used = true;
+    final ODataMetrics previous = CURRENT.get();
+    CURRENT.set(metrics);
+    return previous;
+  }
+
+  /**
+   * Restores the metrics set before {@link #enter(ODataMetrics)}.
+   * @param previous the value returned by {@link #enter(ODataMetrics)}
+   */
+  public static void leave(final ODataMetrics previous) {
+    // setting null instead of removing the entry avoids re-creating it for the next request
+    CURRENT.set(previous);
+  }
+
+  /**
+   * Gets the metrics of the request processed by the current thread.
+   * @return the metrics or <code>null</code>
+   */
+  public static ODataMetrics current() {
+    return used ? CURRENT.get() : null;
+  }
+
+  /**
+   * Wraps the serializer so that its work is recorded if the current request has metrics.
+   * @param serializer the serializer
+   * @return the measuring serializer, or the serializer itself without metrics
+   */
+  public static ODataSerializer measure(final ODataSerializer serializer) {
+    final ODataMetrics metrics = current();
+    return metrics == null ? serializer : new MeasuringSerializer(serializer, metrics);
+  }
+
+  /**
+   * Wraps the deserializer so that its work is recorded if the current request has metrics.
+   * @param deserializer the deserializer
+   * @return the measuring deserializer, or the deserializer itself without metrics
+   */
+  public static ODataDeserializer measure(final ODataDeserializer deserializer) {
+    final ODataMetrics metrics = current();
+    return metrics == null ? deserializer : new MeasuringDeserializer(deserializer, metrics);
+  }
+}
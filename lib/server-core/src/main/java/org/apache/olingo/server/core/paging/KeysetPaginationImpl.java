@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.paging;
+
+import java.net.URI;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.server.api.paging.KeysetPagination;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.uri.queryoption.SystemQueryOptionKind;
+
+public class KeysetPaginationImpl implements KeysetPagination {
+
+  private final KeysetPagingHelperImpl helper;
+  private final String rawRequestUri;
+  private final EdmEntityType entityType;
+  private final SortKey[] sortKeys;
+  private final int pageSize;
+
+  KeysetPaginationImpl(final KeysetPagingHelperImpl helper, final String rawRequestUri,
+      final EdmEntityType entityType, final SortKey[] sortKeys, final int pageSize) {
+    this.helper = helper;
+    this.rawRequestUri = rawRequestUri;
+    this.entityType = entityType;
+    this.sortKeys = sortKeys;
+    this.pageSize = pageSize;
+  }
+
+  @Override
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  @Override
+  public URI createNextLink(final Entity lastEntity) throws SerializerException {
+    // Remove a maybe existing skiptoken, making sure that the query part is not empty.
+    String nextLink = rawRequestUri.indexOf('?') < 0 ? rawRequestUri :
+        rawRequestUri.replaceAll("(\\$|%24)skiptoken=[^&]*&?", "").replaceAll("(\\?|&)$", "");
+    // The skiptoken consists only of characters that need no percent encoding.
+    nextLink += (nextLink.indexOf('?') < 0 ? '?' : '&')
+        + SystemQueryOptionKind.SKIPTOKEN.toString().replace("$", "%24")
+        + '=' + helper.createSkipToken(entityType, sortKeys, lastEntity);
+    return URI.create(nextLink);
+  }
+}
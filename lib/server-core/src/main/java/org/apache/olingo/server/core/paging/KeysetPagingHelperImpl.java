@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.paging;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmKeyPropertyRef;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.apache.olingo.server.api.paging.KeysetPagination;
+import org.apache.olingo.server.api.paging.KeysetPagingException;
+import org.apache.olingo.server.api.paging.KeysetPagingHelper;
+import org.apache.olingo.server.api.paging.KeysetPosition;
+import org.apache.olingo.server.api.paging.KeysetValue;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceComplexProperty;
+import org.apache.olingo.server.api.uri.UriResourceProperty;
+import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.api.uri.queryoption.expression.Member;
+
+/**
+ * <p>Keyset-based paging with signed skiptokens.</p>
+ * <p>A skiptoken consists of the Base64URL-encoded sort-key values and the Base64URL-encoded HMAC-SHA256
+ * signature, separated by a dot. The signature also covers the entity type and the sort keys,
+ * so a skiptoken is not accepted for another $orderby.</p>
+ */
+public class KeysetPagingHelperImpl implements KeysetPagingHelper {
+
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final byte VERSION = 1;
+
+  private final SecretKeySpec signingKey;
+
+  public KeysetPagingHelperImpl(final byte[] signingKey) {
+    if (signingKey == null || signingKey.length == 0) {
+      throw new IllegalArgumentException("A signing key is required.");
+    }
+    this.signingKey = new SecretKeySpec(signingKey, ALGORITHM);
+  }
+
+  @Override
+  public KeysetPosition getPosition(final UriInfo uriInfo, final EdmEntityType entityType)
+      throws KeysetPagingException {
+    if (uriInfo.getSkipTokenOption() == null) {
+      return null;
+    }
+    final SortKey[] sortKeys = getSortKeys(uriInfo, entityType);
+    final String skipToken = uriInfo.getSkipTokenOption().getValue();
+    final int separator = skipToken.indexOf('.');
+    try {
+      if (separator < 0) {
+        throw new IllegalArgumentException("Missing signature.");
+      }
+      final byte[] payload = Base64.getUrlDecoder().decode(skipToken.substring(0, separator));
+      if (!MessageDigest.isEqual(sign(entityType, sortKeys, payload),
+          Base64.getUrlDecoder().decode(skipToken.substring(separator + 1)))) {
+        throw new IllegalArgumentException("Wrong signature.");
+      }
+      final DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+      if (input.readByte() != VERSION) {
+        throw new IllegalArgumentException("Unknown version.");
+      }
+      List<KeysetValue> values = new ArrayList<KeysetValue>(sortKeys.length);
+      for (final SortKey sortKey : sortKeys) {
+        values.add(new KeysetValueImpl(sortKey, sortKey.valueOfString(readString(input))));
+      }
+      if (input.read() != -1) {
+        throw new IllegalArgumentException("Too many values.");
+      }
+      return new KeysetPositionImpl(values);
+    } catch (final IllegalArgumentException | IOException | SerializerException e) {
+      throw new KeysetPagingException("The skiptoken '" + skipToken + "' is invalid.", e,
+          KeysetPagingException.MessageKeys.INVALID_SKIPTOKEN);
+    }
+  }
+
+  @Override
+  public String createSkipToken(final UriInfo uriInfo, final EdmEntityType entityType, final Entity lastEntity)
+      throws KeysetPagingException, SerializerException {
+    return createSkipToken(entityType, getSortKeys(uriInfo, entityType), lastEntity);
+  }
+
+  @Override
+  public KeysetPagination createPagination(final String rawRequestUri, final UriInfo uriInfo,
+      final EdmEntityType entityType, final int pageSize) throws KeysetPagingException {
+    return new KeysetPaginationImpl(this, rawRequestUri, entityType, getSortKeys(uriInfo, entityType), pageSize);
+  }
+
+  String createSkipToken(final EdmEntityType entityType, final SortKey[] sortKeys, final Entity lastEntity)
+      throws SerializerException {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    final DataOutputStream output = new DataOutputStream(buffer);
+    try {
+      output.writeByte(VERSION);
+      for (final SortKey sortKey : sortKeys) {
+        writeString(output, sortKey.valueToString(lastEntity));
+      }
+      output.close();
+    } catch (final IOException e) {
+      throw new SerializerException("An I/O exception occurred.", e, SerializerException.MessageKeys.IO_EXCEPTION);
+    }
+    final byte[] payload = buffer.toByteArray();
+    final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    return encoder.encodeToString(payload) + '.' + encoder.encodeToString(sign(entityType, sortKeys, payload));
+  }
+
+  private static void writeString(final DataOutputStream output, final String value) throws IOException {
+    if (value == null) {
+      output.writeInt(-1);
+    } else {
+      final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      output.writeInt(bytes.length);
+      output.write(bytes);
+    }
+  }
+
+  private static String readString(final DataInputStream input) throws IOException {
+    final int length = input.readInt();
+    if (length < -1 || length > input.available()) {
+      throw new IllegalArgumentException("Wrong length.");
+    }
+    if (length == -1) {
+      return null;
+    }
+    final byte[] bytes = new byte[length];
+    input.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private byte[] sign(final EdmEntityType entityType, final SortKey[] sortKeys, final byte[] payload) {
+    final StringBuilder context = new StringBuilder(entityType.getFullQualifiedName().getFullQualifiedNameAsString());
+    for (final SortKey sortKey : sortKeys) {
+      context.append(' ').append(sortKey).append(sortKey.isDescending() ? " desc" : " asc");
+    }
+    try {
+      final Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(signingKey);
+      mac.update(context.toString().getBytes(StandardCharsets.UTF_8));
+      mac.update((byte) 0);
+      return mac.doFinal(payload);
+    } catch (final GeneralSecurityException e) {
+      // Every Java platform is required to support HmacSHA256.
+      throw new ODataRuntimeException(e);
+    }
+  }
+
+  /** Gets the sort keys: the $orderby expressions followed by the key properties not contained in $orderby. */
+  private SortKey[] getSortKeys(final UriInfo uriInfo, final EdmEntityType entityType)
+      throws KeysetPagingException {
+    List<SortKey> sortKeys = new ArrayList<SortKey>();
+    final OrderByOption orderByOption = uriInfo.getOrderByOption();
+    if (orderByOption != null) {
+      for (final OrderByItem item : orderByOption.getOrders()) {
+        sortKeys.add(getSortKey(item.getExpression(), item.isDescending()));
+      }
+    }
+    for (final EdmKeyPropertyRef keyPropertyRef : entityType.getKeyPropertyRefs()) {
+      final List<String> path = Arrays.asList(keyPropertyRef.getName().split("/"));
+      if (!containsPath(sortKeys, path)) {
+        sortKeys.add(new SortKey(path, (EdmPrimitiveType) getProperty(entityType, path).getType(), false));
+      }
+    }
+    return sortKeys.toArray(new SortKey[sortKeys.size()]);
+  }
+
+  private SortKey getSortKey(final Expression expression, final boolean descending) throws KeysetPagingException {
+    if (expression instanceof Member
+        && !((Member) expression).isCollection()
+        && ((Member) expression).getStartTypeFilter() == null) {
+      List<String> path = new ArrayList<String>();
+      EdmProperty property = null;
+      for (final UriResource part : ((Member) expression).getResourcePath().getUriResourceParts()) {
+        if (!(part instanceof UriResourceProperty)
+            || part instanceof UriResourceComplexProperty
+                && ((UriResourceComplexProperty) part).getComplexTypeFilter() != null) {
+          property = null;
+          break;
+        }
+        property = ((UriResourceProperty) part).getProperty();
+        path.add(property.getName());
+      }
+      if (property != null && property.isPrimitive()
+          && Comparable.class.isAssignableFrom(((EdmPrimitiveType) property.getType()).getDefaultType())) {
+        return new SortKey(path, (EdmPrimitiveType) property.getType(), descending);
+      }
+    }
+    throw new KeysetPagingException("The orderby expression '" + expression + "' is not supported for paging.",
+        KeysetPagingException.MessageKeys.UNSUPPORTED_ORDERBY, String.valueOf(expression));
+  }
+
+  private static boolean containsPath(final List<SortKey> sortKeys, final List<String> path) {
+    for (final SortKey sortKey : sortKeys) {
+      if (sortKey.getPath().equals(path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static EdmProperty getProperty(final EdmStructuredType type, final List<String> path) {
+    EdmStructuredType currentType = type;
+    EdmProperty property = null;
+    for (final String name : path) {
+      property = currentType.getStructuralProperty(name);
+      if (!property.isPrimitive()) {
+        currentType = (EdmStructuredType) property.getType();
+      }
+    }
+    return property;
+  }
+}
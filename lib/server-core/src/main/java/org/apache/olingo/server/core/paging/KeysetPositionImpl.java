@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.paging;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.apache.olingo.server.api.paging.KeysetPosition;
+import org.apache.olingo.server.api.paging.KeysetValue;
+import org.apache.olingo.server.api.serializer.SerializerException;
+
+public class KeysetPositionImpl implements KeysetPosition {
+
+  private final List<KeysetValue> values;
+
+  KeysetPositionImpl(final List<KeysetValue> values) {
+    this.values = Collections.unmodifiableList(values);
+  }
+
+  @Override
+  public List<KeysetValue> getValues() {
+    return values;
+  }
+
+  @Override
+  public boolean isAfter(final Entity entity) {
+    for (final KeysetValue keysetValue : values) {
+      final SortKey sortKey = ((KeysetValueImpl) keysetValue).getSortKey();
+      final Object value;
+      try {
+        value = sortKey.getValue(entity);
+      } catch (final SerializerException e) {
+        throw new ODataRuntimeException("Cannot compare the entity with the position.", e);
+      }
+      final int result = compare(value, keysetValue.getValue());
+      if (result != 0) {
+        return sortKey.isDescending() ? result < 0 : result > 0;
+      }
+    }
+    // The entity is the one at the position.
+    return false;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static int compare(final Object value1, final Object value2) {
+    return value1 == null ?
+        value2 == null ? 0 : -1 :
+        value2 == null ? 1 : ((Comparable<Object>) value1).compareTo(value2);
+  }
+}
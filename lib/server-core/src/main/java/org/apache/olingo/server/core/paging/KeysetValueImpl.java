@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.paging;
+
+import java.util.List;
+
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.server.api.paging.KeysetValue;
+
+public class KeysetValueImpl implements KeysetValue {
+
+  private final SortKey sortKey;
+  private final Object value;
+
+  KeysetValueImpl(final SortKey sortKey, final Object value) {
+    this.sortKey = sortKey;
+    this.value = value;
+  }
+
+  @Override
+  public List<String> getPath() {
+    return sortKey.getPath();
+  }
+
+  @Override
+  public EdmPrimitiveType getType() {
+    return sortKey.getType();
+  }
+
+  @Override
+  public Object getValue() {
+    return value;
+  }
+
+  @Override
+  public boolean isDescending() {
+    return sortKey.isDescending();
+  }
+
+  SortKey getSortKey() {
+    return sortKey;
+  }
+}
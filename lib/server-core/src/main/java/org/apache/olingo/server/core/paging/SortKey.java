@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.paging;
+
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.server.api.serializer.SerializerException;
+
+/**
+ * One sort key of keyset-based paging: the path to a primitive property and the sort direction.
+ */
+class SortKey {
+
+  private final List<String> path;
+  private final EdmPrimitiveType type;
+  private final boolean descending;
+
+  SortKey(final List<String> path, final EdmPrimitiveType type, final boolean descending) {
+    this.path = path;
+    this.type = type;
+    this.descending = descending;
+  }
+
+  List<String> getPath() {
+    return path;
+  }
+
+  EdmPrimitiveType getType() {
+    return type;
+  }
+
+  boolean isDescending() {
+    return descending;
+  }
+
+  /**
+   * Gets the value of this key from the entity, converted to the default Java type of the property type,
+   * so that it can be compared with values read from a skiptoken.
+   */
+  Object getValue(final Entity entity) throws SerializerException {
+    return valueOfString(valueToString(entity));
+  }
+
+  /** Gets the value of this key from the entity in its string representation. */
+  String valueToString(final Entity entity) throws SerializerException {
+    Property property = entity.getProperty(path.get(0));
+    for (int i = 1; i < path.size() && property != null; i++) {
+      if (property.isNull()) {
+        return null;
+      }
+      property = getProperty(property.asComplex().getValue(), path.get(i));
+    }
+    if (property == null) {
+      throw new SerializerException("Sort-key property is missing.",
+          SerializerException.MessageKeys.MISSING_PROPERTY, toString());
+    }
+    try {
+      return type.valueToString(property.getValue(), null, null, null, null, null);
+    } catch (final EdmPrimitiveTypeException e) {
+      throw new SerializerException("Wrong value for sort-key property.", e,
+          SerializerException.MessageKeys.WRONG_PROPERTY_VALUE, toString(), String.valueOf(property.getValue()));
+    }
+  }
+
+  /** Converts a string representation created by {@link #valueToString(Entity)} back. */
+  Object valueOfString(final String value) throws SerializerException {
+    try {
+      return type.valueOfString(value, null, null, null, null, null, type.getDefaultType());
+    } catch (final EdmPrimitiveTypeException e) {
+      throw new SerializerException("Wrong value for sort-key property.", e,
+          SerializerException.MessageKeys.WRONG_PROPERTY_VALUE, toString(), value);
+    }
+  }
+
+  private Property getProperty(final List<Property> properties, final String name) {
+    for (final Property property : properties) {
+      if (name.equals(property.getName())) {
+        return property;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder result = new StringBuilder();
+    for (final String name : path) {
+      result.append(result.length() == 0 ? "" : "/").append(name);
+    }
+    return result.toString();
+  }
+}
@@ -18,10 +18,13 @@
  */
 package org.apache.olingo.server.core.serializer;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
@@ -48,82 +51,106 @@ public class BatchResponseSerializer {
   private static final String COLON = ":";
   private static final String SP = " ";
   private static final String CRLF = "\r\n";
+  private static final Charset CHARSET_ISO_8859_1 = Charset.forName("iso-8859-1");
 
   public InputStream serialize(final List<ODataResponsePart> responses, final String boundary)
       throws BatchSerializerException {
-    BodyBuilder builder = createBody(responses, boundary);
-
-    return new ByteArrayInputStream(builder.getContent());
+    final ByteArrayOutputStream output = new ByteArrayOutputStream(BUFFER_SIZE);
+    try {
+      writeBody(responses, boundary, output, false);
+    } catch (final IOException e) {
+      throw new ODataRuntimeException("Error on writing batch response content", e);
+    }
+    return new ByteArrayInputStream(output.toByteArray());
   }
 
-  private BodyBuilder createBody(final List<ODataResponsePart> batchResponses, final String boundary)
+  /**
+   * Serializes the batch response as streamed content.
+   * Each response part is written to the output as soon as it has been serialized.
+   * Part content given as {@link ODataContent} is copied straight through without intermediate buffering;
+   * these parts therefore carry no Content-Length header and are delimited by the boundary only.
+   * @param responses the response parts
+   * @param boundary the boundary between the parts
+   * @return the content of the batch response
+   */
+  public ODataContent serializeStreamed(final List<ODataResponsePart> responses, final String boundary)
       throws BatchSerializerException {
-    final BodyBuilder builder = new BodyBuilder();
+    // Checked in advance because the content is written later without the option to throw this exception.
+    for (final ODataResponsePart part : responses) {
+      if (part.isChangeSet()) {
+        for (final ODataResponse response : part.getResponses()) {
+          getContentId(response);
+        }
+      }
+    }
+    return new BatchResponseContent(responses, boundary);
+  }
 
+  private void writeBody(final List<ODataResponsePart> batchResponses, final String boundary,
+      final OutputStream output, final boolean streamed) throws BatchSerializerException, IOException {
     for (final ODataResponsePart part : batchResponses) {
-      builder.append(getDashBoundary(boundary));
+      append(getDashBoundary(boundary), output);
 
       if (part.isChangeSet()) {
-        appendChangeSet(part, builder);
+        appendChangeSet(part, output, streamed);
       } else {
-        appendBodyPart(part.getResponses().get(0), builder, false);
+        appendBodyPart(part.getResponses().get(0), output, false, streamed);
       }
+      output.flush();
     }
-    builder.append(getCloseDelimiter(boundary));
-
-    return builder;
+    append(getCloseDelimiter(boundary), output);
+    output.flush();
   }
 
-  private void appendChangeSet(final ODataResponsePart part, final BodyBuilder builder)
-      throws BatchSerializerException {
+  private void appendChangeSet(final ODataResponsePart part, final OutputStream output, final boolean streamed)
+      throws BatchSerializerException, IOException {
     final String changeSetBoundary = generateBoundary("changeset");
 
-    appendChangeSetHeader(builder, changeSetBoundary);
-    builder.append(CRLF);
+    appendChangeSetHeader(output, changeSetBoundary);
+    append(CRLF, output);
 
     for (final ODataResponse response : part.getResponses()) {
-      builder.append(getDashBoundary(changeSetBoundary));
-      appendBodyPart(response, builder, true);
+      append(getDashBoundary(changeSetBoundary), output);
+      appendBodyPart(response, output, true, streamed);
     }
 
-    builder.append(getCloseDelimiter(changeSetBoundary));
+    append(getCloseDelimiter(changeSetBoundary), output);
   }
 
-  private void appendBodyPart(final ODataResponse response, final BodyBuilder builder, final boolean isChangeSet)
-      throws BatchSerializerException {
-
-    appendBodyPartHeader(response, builder, isChangeSet);
-    builder.append(CRLF);
-
-    appendStatusLine(response, builder);
-    Body body = new Body(response);
-    appendResponseHeader(response, body.getLength(), builder);
-    builder.append(CRLF);
-
-    builder.append(body);
-    builder.append(CRLF);
+  private void appendBodyPart(final ODataResponse response, final OutputStream output, final boolean isChangeSet,
+      final boolean streamed) throws BatchSerializerException, IOException {
+
+    appendBodyPartHeader(response, output, isChangeSet);
+    append(CRLF, output);
+
+    appendStatusLine(response, output);
+    if (streamed && response.getContent() == null && response.getODataContent() != null) {
+      appendResponseHeader(response, output);
+      append(CRLF, output);
+      response.getODataContent().write(new NonClosingOutputStream(output));
+    } else {
+      final Body body = new Body(response);
+      appendResponseHeader(response, output);
+      appendHeader(HttpHeader.CONTENT_LENGTH, Integer.toString(body.getLength()), output);
+      append(CRLF, output);
+      output.write(body.getContent());
+    }
+    append(CRLF, output);
   }
 
-  private void appendChangeSetHeader(final BodyBuilder builder, final String changeSetBoundary) {
+  private void appendChangeSetHeader(final OutputStream output, final String changeSetBoundary)
+      throws IOException {
     appendHeader(HttpHeader.CONTENT_TYPE, ContentType.MULTIPART_MIXED
-        + "; boundary=" + changeSetBoundary, builder);
+        + "; boundary=" + changeSetBoundary, output);
   }
 
-  private void appendHeader(final String name, final String value, final BodyBuilder builder) {
-    builder.append(name)
-        .append(COLON)
-        .append(SP)
-        .append(value)
-        .append(CRLF);
+  private void appendHeader(final String name, final String value, final OutputStream output)
+      throws IOException {
+    append(name + COLON + SP + value + CRLF, output);
   }
 
-  private void appendStatusLine(final ODataResponse response, final BodyBuilder builder) {
-    builder.append("HTTP/1.1")
-        .append(SP)
-        .append(response.getStatusCode())
-        .append(SP)
-        .append(getStatusCodeInfo(response))
-        .append(CRLF);
+  private void appendStatusLine(final ODataResponse response, final OutputStream output) throws IOException {
+    append("HTTP/1.1" + SP + response.getStatusCode() + SP + getStatusCodeInfo(response) + CRLF, output);
   }
 
   private String getStatusCodeInfo(final ODataResponse response) {
@@ -134,32 +161,37 @@ public class BatchResponseSerializer {
     return status.getInfo();
   }
 
-  private void appendResponseHeader(final ODataResponse response, final int contentLength,
-      final BodyBuilder builder) {
+  private void appendResponseHeader(final ODataResponse response, final OutputStream output) throws IOException {
     final Map<String, List<String>> header = response.getAllHeaders();
 
     for (final Map.Entry<String, List<String>> entry : header.entrySet()) {
       // Requests never have a content id header.
       if (!entry.getKey().equalsIgnoreCase(HttpHeader.CONTENT_ID)) {
-        appendHeader(entry.getKey(), entry.getValue().get(0), builder);
+        appendHeader(entry.getKey(), entry.getValue().get(0), output);
       }
     }
-
-    appendHeader(HttpHeader.CONTENT_LENGTH, Integer.toString(contentLength), builder);
   }
 
-  private void appendBodyPartHeader(final ODataResponse response, final BodyBuilder builder,
-      final boolean isChangeSet) throws BatchSerializerException {
-    appendHeader(HttpHeader.CONTENT_TYPE, ContentType.APPLICATION_HTTP.toContentTypeString(), builder);
-    appendHeader(BatchParserCommon.CONTENT_TRANSFER_ENCODING, BatchParserCommon.BINARY_ENCODING, builder);
+  private void appendBodyPartHeader(final ODataResponse response, final OutputStream output,
+      final boolean isChangeSet) throws BatchSerializerException, IOException {
+    appendHeader(HttpHeader.CONTENT_TYPE, ContentType.APPLICATION_HTTP.toContentTypeString(), output);
+    appendHeader(BatchParserCommon.CONTENT_TRANSFER_ENCODING, BatchParserCommon.BINARY_ENCODING, output);
 
     if (isChangeSet) {
-      if (response.getHeader(HttpHeader.CONTENT_ID) != null) {
-        appendHeader(HttpHeader.CONTENT_ID, response.getHeader(HttpHeader.CONTENT_ID), builder);
-      } else {
-        throw new BatchSerializerException("Missing content id", MessageKeys.MISSING_CONTENT_ID);
-      }
+      appendHeader(HttpHeader.CONTENT_ID, getContentId(response), output);
+    }
+  }
+
+  private String getContentId(final ODataResponse response) throws BatchSerializerException {
+    final String contentId = response.getHeader(HttpHeader.CONTENT_ID);
+    if (contentId == null) {
+      throw new BatchSerializerException("Missing content id", MessageKeys.MISSING_CONTENT_ID);
     }
+    return contentId;
+  }
+
+  private void append(final String string, final OutputStream output) throws IOException {
+    output.write(string.getBytes(CHARSET_ISO_8859_1));
   }
 
   private String getDashBoundary(final String boundary) {
@@ -175,53 +207,51 @@ public class BatchResponseSerializer {
   }
 
   /**
-   * Builder class to create the body and the header.
+   * Batch response content which is serialized while it is written.
    */
-  private static class BodyBuilder {
-    private static final Charset CHARSET_ISO_8859_1 = Charset.forName("iso-8859-1");
-    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
-    private boolean isClosed = false;
-
-    public byte[] getContent() {
-      isClosed = true;
-      byte[] tmp = new byte[buffer.position()];
-      buffer.flip();
-      buffer.get(tmp, 0, buffer.limit());
-      return tmp;
+  private class BatchResponseContent implements ODataContent {
+    private final List<ODataResponsePart> responses;
+    private final String boundary;
+
+    BatchResponseContent(final List<ODataResponsePart> responses, final String boundary) {
+      this.responses = responses;
+      this.boundary = boundary;
     }
 
-    public BodyBuilder append(final String string) {
-      byte[] b = string.getBytes(CHARSET_ISO_8859_1);
-      put(b);
-      return this;
+    @Override
+    public void write(final WritableByteChannel channel) {
+      write(Channels.newOutputStream(channel));
     }
 
-    private void put(final byte[] b) {
-      if (isClosed) {
-        throw new ODataRuntimeException("BodyBuilder is closed.");
-      }
-      if (buffer.remaining() < b.length) {
-        buffer.flip();
-        int newSize = (buffer.limit() * 2) + b.length;
-        ByteBuffer tmp = ByteBuffer.allocate(newSize);
-        tmp.put(buffer);
-        buffer = tmp;
+    @Override
+    public void write(final OutputStream stream) {
+      try {
+        writeBody(responses, boundary, new BufferedOutputStream(stream, BUFFER_SIZE), true);
+      } catch (final IOException e) {
+        throw new ODataRuntimeException("Error on writing batch response content", e);
+      } catch (final BatchSerializerException e) {
+        throw new ODataRuntimeException(e);
       }
-      buffer.put(b);
     }
+  }
 
-    public BodyBuilder append(final int statusCode) {
-      return append(String.valueOf(statusCode));
+  /**
+   * Shields the batch output from the part content, which closes its output stream when it is done.
+   */
+  private static class NonClosingOutputStream extends FilterOutputStream {
+
+    NonClosingOutputStream(final OutputStream output) {
+      super(output);
     }
 
-    public BodyBuilder append(final Body body) {
-      put(body.getContent());
-      return this;
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      out.write(b, off, len);
     }
 
     @Override
-    public String toString() {
-      return new String(buffer.array(), 0, buffer.position(), CHARSET_ISO_8859_1);
+    public void close() throws IOException {
+      flush();
     }
   }
 
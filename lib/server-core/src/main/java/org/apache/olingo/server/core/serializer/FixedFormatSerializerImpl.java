@@ -36,6 +36,7 @@ import org.apache.olingo.server.api.serializer.PrimitiveValueSerializerOptions;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.serializer.SerializerStreamResult;
 import org.apache.olingo.server.core.ODataWritableContent;
+import org.apache.olingo.server.core.media.MediaContent;
 
 public class FixedFormatSerializerImpl implements FixedFormatSerializer {
 
@@ -60,6 +61,10 @@ public class FixedFormatSerializerImpl implements FixedFormatSerializer {
   
   @Override
   public SerializerStreamResult mediaEntityStreamed(EntityMediaObject mediaEntity) throws SerializerException {
+    if (mediaEntity.getChannel() != null) {
+      return SerializerStreamResultImpl.with()
+          .content(new MediaContent(mediaEntity.getChannel(), mediaEntity.getLength())).build();
+    }
 	  return ODataWritableContent.with(mediaEntity, this).build();
   }
 
@@ -104,4 +109,12 @@ public class FixedFormatSerializerImpl implements FixedFormatSerializer {
 
     return serializer.serialize(batchResponses, boundary);
   }
+
+  @Override
+  public SerializerStreamResult batchResponseStreamed(final List<ODataResponsePart> batchResponses,
+      final String boundary) throws BatchSerializerException {
+    final BatchResponseSerializer serializer = new BatchResponseSerializer();
+
+    return SerializerStreamResultImpl.with().content(serializer.serializeStreamed(batchResponses, boundary)).build();
+  }
 }
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer;
+
+import javax.xml.stream.XMLOutputFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+/**
+ * <p>Holds the default JSON and XML writer factories used by the serializers.</p>
+ * <p>Creating a factory is expensive compared to creating a single generator or writer:
+ * <code>XMLOutputFactory.newInstance()</code> performs a service-loader lookup, and every new
+ * <code>JsonFactory</code> starts with empty symbol tables. Both factories are thread-safe once
+ * configured, so one instance of each serves all requests.</p>
+ * <p>The defaults are never reconfigured. Pre-configured factories, e.g., the Aalto
+ * <code>com.fasterxml.aalto.stax.OutputFactoryImpl</code> for XML, are set per
+ * {@link org.apache.olingo.server.core.ODataImpl ODataImpl} instance instead.</p>
+ */
+public final class SerializerFactories {
+
+  private static final JsonFactory DEFAULT_JSON_FACTORY = new JsonFactory();
+  private static final XMLOutputFactory DEFAULT_XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+  private SerializerFactories() {
+    // Private constructor for utility class
+  }
+
+  /**
+   * Gets the default JSON factory used for creating JSON generators.
+   * @return the shared default JSON factory
+   */
+  public static JsonFactory getJsonFactory() {
+    return DEFAULT_JSON_FACTORY;
+  }
+
+  /**
+   * Gets the default XML output factory used for creating XML stream writers.
+   * @return the shared default XML output factory
+   */
+  public static XMLOutputFactory getXmlOutputFactory() {
+    return DEFAULT_XML_OUTPUT_FACTORY;
+  }
+}
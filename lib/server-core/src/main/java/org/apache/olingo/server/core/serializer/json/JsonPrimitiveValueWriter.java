@@ -0,0 +1,420 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * <p>Writes primitive values directly to a JSON generator.</p>
+ * <p>Formatting with {@link EdmPrimitiveType#valueToString} creates a string for every value,
+ * and date/time values additionally go through java.time objects and formatters.
+ * For the common combinations of type and value class this writer checks the same facets
+ * and produces the same text, but writes numbers through the generator's own number output
+ * and formats date/time values into a per-thread character buffer.
+ * All other combinations, including values violating the facets, are left to the caller,
+ * which formats them with the primitive type as before.</p>
+ */
+public final class JsonPrimitiveValueWriter {
+
+  private static final EdmPrimitiveType BOOLEAN = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Boolean);
+  private static final EdmPrimitiveType BYTE = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Byte);
+  private static final EdmPrimitiveType SBYTE = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.SByte);
+  private static final EdmPrimitiveType INT16 = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int16);
+  private static final EdmPrimitiveType INT32 = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int32);
+  private static final EdmPrimitiveType INT64 = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int64);
+  private static final EdmPrimitiveType SINGLE = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Single);
+  private static final EdmPrimitiveType DOUBLE = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Double);
+  private static final EdmPrimitiveType DECIMAL = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Decimal);
+  private static final EdmPrimitiveType STRING = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.String);
+  private static final EdmPrimitiveType DATE = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Date);
+  private static final EdmPrimitiveType DATE_TIME_OFFSET =
+      EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.DateTimeOffset);
+  private static final EdmPrimitiveType TIME_OF_DAY =
+      EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.TimeOfDay);
+
+  private static final int SECONDS_PER_DAY = 86400;
+  private static final int NANOS_PER_MILLI = 1000000;
+  /**
+   * Calendar values before 1900 are left to java.time, since the historical zone offsets
+   * of the calendar's time zone are not guaranteed to match the java.time zone rules.
+   */
+  private static final long MIN_CALENDAR_MILLIS = -2208988800000L;
+
+  private static final ThreadLocal<char[]> BUFFER = new ThreadLocal<char[]>() {
+    @Override
+    protected char[] initialValue() {
+      return new char[40];
+    }
+  };
+
+  private JsonPrimitiveValueWriter() {
+    // Utility class
+  }
+
+  /**
+   * Writes a primitive value if the combination of type and value class has a direct formatting path.
+   * @param type the primitive type
+   * @param value the value, not <code>null</code>
+   * @param isIEEE754Compatible whether Int64 and Decimal values are written as strings
+   * @return <code>true</code> if the value has been written, <code>false</code> if the caller has to write it
+   */
+  public static boolean write(final EdmPrimitiveType type, final Object value, final Integer maxLength,
+      final Integer precision, final Integer scale, final Boolean isUnicode, final boolean isIEEE754Compatible,
+      final JsonGenerator json) throws IOException {
+    if (type == STRING) {
+      return value instanceof String && writeString((String) value, maxLength, isUnicode, json);
+    } else if (type == INT32) {
+      return writeIntegral(value, Integer.MIN_VALUE, Integer.MAX_VALUE, json);
+    } else if (type == INT64) {
+      return !isIEEE754Compatible && writeIntegral(value, Long.MIN_VALUE, Long.MAX_VALUE, json);
+    } else if (type == INT16) {
+      return writeIntegral(value, Short.MIN_VALUE, Short.MAX_VALUE, json);
+    } else if (type == BYTE) {
+      return writeIntegral(value, 0, (1 << Byte.SIZE) - 1, json);
+    } else if (type == SBYTE) {
+      return writeIntegral(value, Byte.MIN_VALUE, Byte.MAX_VALUE, json);
+    } else if (type == BOOLEAN) {
+      if (value instanceof Boolean) {
+        json.writeBoolean((Boolean) value);
+        return true;
+      }
+      return false;
+    } else if (type == DOUBLE) {
+      return writeFloatingPoint(value, 1L << 51, true, json);
+    } else if (type == SINGLE) {
+      return writeFloatingPoint(value, 1L << 22, false, json);
+    } else if (type == DECIMAL) {
+      return !isIEEE754Compatible && writeDecimal(value, precision, scale, json);
+    } else if (type == DATE_TIME_OFFSET) {
+      return writeDateTimeOffset(value, json);
+    } else if (type == DATE) {
+      return writeDate(value, json);
+    } else if (type == TIME_OF_DAY) {
+      return writeTimeOfDay(value, json);
+    }
+    return false;
+  }
+
+  private static boolean writeString(final String value, final Integer maxLength, final Boolean isUnicode,
+      final JsonGenerator json) throws IOException {
+    if (maxLength != null && maxLength < value.length()) {
+      return false;
+    }
+    if (isUnicode != null && !isUnicode) {
+      for (int i = 0; i < value.length(); i++) {
+        if (value.charAt(i) > 0x7F) {
+          return false;
+        }
+      }
+    }
+    json.writeString(value);
+    return true;
+  }
+
+  private static boolean writeIntegral(final Object value, final long min, final long max, final JsonGenerator json)
+      throws IOException {
+    if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      final int intValue = ((Number) value).intValue();
+      if (intValue >= min && intValue <= max) {
+        json.writeNumber(intValue);
+        return true;
+      }
+    } else if (value instanceof Long) {
+      final long longValue = (Long) value;
+      if (longValue >= min && longValue <= max) {
+        json.writeNumber(longValue);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Writes Double and Single values; integral values must be smaller than the given limit
+   * to be represented exactly. Double values for the Single type are left to the caller,
+   * which checks that they can be represented as float.
+   */
+  private static boolean writeFloatingPoint(final Object value, final long limit, final boolean isDouble,
+      final JsonGenerator json) throws IOException {
+    if (value instanceof Double) {
+      final double doubleValue = (Double) value;
+      if (isDouble && !Double.isNaN(doubleValue) && !Double.isInfinite(doubleValue)) {
+        json.writeNumber(doubleValue);
+        return true;
+      }
+    } else if (value instanceof Float) {
+      final float floatValue = (Float) value;
+      if (!Float.isNaN(floatValue) && !Float.isInfinite(floatValue)) {
+        json.writeNumber(floatValue);
+        return true;
+      }
+    } else if (value instanceof Long || value instanceof Integer) {
+      final long longValue = ((Number) value).longValue();
+      if (Math.abs(longValue) < limit) {
+        json.writeNumber(longValue);
+        return true;
+      }
+    } else if (value instanceof Short || value instanceof Byte) {
+      json.writeNumber(((Number) value).intValue());
+      return true;
+    }
+    return false;
+  }
+
+  private static boolean writeDecimal(final Object value, final Integer precision, final Integer scale,
+      final JsonGenerator json) throws IOException {
+    if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      final long longValue = ((Number) value).longValue();
+      if (precision != null && precision < digits(longValue)) {
+        return false;
+      }
+      json.writeNumber(longValue);
+      return true;
+    } else if (value instanceof BigDecimal) {
+      // BigDecimal offers no allocation-free access to its digits, so the plain string is still created.
+      final BigDecimal bigDecimal = (BigDecimal) value;
+      final int digits = bigDecimal.scale() >= 0
+          ? Math.max(bigDecimal.precision(), bigDecimal.scale())
+          : bigDecimal.precision() - bigDecimal.scale();
+      if ((precision == null || precision >= digits) && bigDecimal.scale() <= (scale == null ? 0 : scale)) {
+        json.writeNumber(bigDecimal.toPlainString());
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int digits(final long value) {
+    int digits = 1;
+    for (long rest = value; rest <= -10 || rest >= 10; rest /= 10) {
+      digits++;
+    }
+    return digits;
+  }
+
+  private static boolean writeDateTimeOffset(final Object value, final JsonGenerator json) throws IOException {
+    final long epochSecond;
+    final int nano;
+    final int offsetSeconds;
+    if (value instanceof ZonedDateTime) {
+      final ZonedDateTime zonedDateTime = (ZonedDateTime) value;
+      epochSecond = zonedDateTime.toEpochSecond();
+      nano = zonedDateTime.getNano();
+      offsetSeconds = zonedDateTime.getOffset().getTotalSeconds();
+    } else if (value instanceof Instant) {
+      epochSecond = ((Instant) value).getEpochSecond();
+      nano = ((Instant) value).getNano();
+      offsetSeconds = 0;
+    } else if (value instanceof GregorianCalendar) {
+      final Calendar calendar = (Calendar) value;
+      final long millis = calendar.getTimeInMillis();
+      if (millis < MIN_CALENDAR_MILLIS) {
+        return false;
+      }
+      epochSecond = Math.floorDiv(millis, 1000);
+      nano = (int) Math.floorMod(millis, 1000) * NANOS_PER_MILLI;
+      offsetSeconds = (calendar.get(Calendar.ZONE_OFFSET) + calendar.get(Calendar.DST_OFFSET)) / 1000;
+    } else if (value instanceof Timestamp) {
+      epochSecond = Math.floorDiv(((Timestamp) value).getTime(), 1000);
+      nano = ((Timestamp) value).getNanos();
+      offsetSeconds = 0;
+    } else if (value instanceof java.util.Date && !(value instanceof java.sql.Date)
+        && !(value instanceof java.sql.Time) || value instanceof Long) {
+      final long millis = value instanceof Long ? (Long) value : ((java.util.Date) value).getTime();
+      epochSecond = Math.floorDiv(millis, 1000);
+      nano = (int) Math.floorMod(millis, 1000) * NANOS_PER_MILLI;
+      offsetSeconds = 0;
+    } else {
+      return false;
+    }
+
+    final long localSecond = epochSecond + offsetSeconds;
+    final char[] buffer = BUFFER.get();
+    int position = appendDate(buffer, 0, Math.floorDiv(localSecond, SECONDS_PER_DAY));
+    if (position < 0) {
+      return false;
+    }
+    buffer[position++] = 'T';
+    final int secondOfDay = (int) Math.floorMod(localSecond, SECONDS_PER_DAY);
+    position = appendTwoDigits(buffer, position, secondOfDay / 3600);
+    buffer[position++] = ':';
+    position = appendTwoDigits(buffer, position, secondOfDay / 60 % 60);
+    buffer[position++] = ':';
+    position = appendTwoDigits(buffer, position, secondOfDay % 60);
+    if (nano > 0) {
+      buffer[position++] = '.';
+      int digits = 9;
+      int fraction = nano;
+      while (fraction % 10 == 0) {
+        fraction /= 10;
+        digits--;
+      }
+      position = appendDigits(buffer, position, fraction, digits);
+    }
+    position = appendOffset(buffer, position, offsetSeconds);
+    json.writeString(buffer, 0, position);
+    return true;
+  }
+
+  private static boolean writeDate(final Object value, final JsonGenerator json) throws IOException {
+    final long epochDay;
+    if (value instanceof LocalDate) {
+      epochDay = ((LocalDate) value).toEpochDay();
+    } else if (value instanceof GregorianCalendar) {
+      final long localMillis = localMillis((Calendar) value);
+      if (localMillis == Long.MIN_VALUE) {
+        return false;
+      }
+      epochDay = Math.floorDiv(localMillis, SECONDS_PER_DAY * 1000L);
+    } else {
+      return false;
+    }
+    final char[] buffer = BUFFER.get();
+    final int position = appendDate(buffer, 0, epochDay);
+    if (position < 0) {
+      return false;
+    }
+    json.writeString(buffer, 0, position);
+    return true;
+  }
+
+  /** Writes time-of-day values in the format of {@link LocalTime#toString()}. */
+  private static boolean writeTimeOfDay(final Object value, final JsonGenerator json) throws IOException {
+    final int secondOfDay;
+    final int nano;
+    if (value instanceof LocalTime) {
+      secondOfDay = ((LocalTime) value).toSecondOfDay();
+      nano = ((LocalTime) value).getNano();
+    } else if (value instanceof GregorianCalendar) {
+      final long localMillis = localMillis((Calendar) value);
+      if (localMillis == Long.MIN_VALUE) {
+        return false;
+      }
+      final long millisOfDay = Math.floorMod(localMillis, SECONDS_PER_DAY * 1000L);
+      secondOfDay = (int) (millisOfDay / 1000);
+      nano = (int) (millisOfDay % 1000) * NANOS_PER_MILLI;
+    } else {
+      return false;
+    }
+    final char[] buffer = BUFFER.get();
+    int position = appendTwoDigits(buffer, 0, secondOfDay / 3600);
+    buffer[position++] = ':';
+    position = appendTwoDigits(buffer, position, secondOfDay / 60 % 60);
+    if (secondOfDay % 60 > 0 || nano > 0) {
+      buffer[position++] = ':';
+      position = appendTwoDigits(buffer, position, secondOfDay % 60);
+      if (nano > 0) {
+        buffer[position++] = '.';
+        if (nano % NANOS_PER_MILLI == 0) {
+          position = appendDigits(buffer, position, nano / NANOS_PER_MILLI, 3);
+        } else if (nano % 1000 == 0) {
+          position = appendDigits(buffer, position, nano / 1000, 6);
+        } else {
+          position = appendDigits(buffer, position, nano, 9);
+        }
+      }
+    }
+    json.writeString(buffer, 0, position);
+    return true;
+  }
+
+  /**
+   * Gets the milliseconds since the epoch shifted by the zone offset of the calendar,
+   * or {@link Long#MIN_VALUE} for calendar values before 1900.
+   */
+  private static long localMillis(final Calendar calendar) {
+    final long millis = calendar.getTimeInMillis();
+    return millis < MIN_CALENDAR_MILLIS ? Long.MIN_VALUE
+        : millis + calendar.get(Calendar.ZONE_OFFSET) + calendar.get(Calendar.DST_OFFSET);
+  }
+
+  /**
+   * Appends the date of the given day in the proleptic Gregorian calendar as <code>yyyy-MM-dd</code>.
+   * @return the new position, or -1 if the year is not between 0 and 9999
+   */
+  private static int appendDate(final char[] buffer, final int position, final long epochDay) {
+    // civil-from-days conversion, with eras of 400 years starting on March 1st
+    final long zeroDay = epochDay + 719468;
+    final long era = Math.floorDiv(zeroDay, 146097);
+    final int dayOfEra = (int) (zeroDay - era * 146097);
+    final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    final int shiftedMonth = (5 * dayOfYear + 2) / 153;
+    final int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+    final int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+    final long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+    if (year < 0 || year > 9999) {
+      return -1;
+    }
+    int next = appendDigits(buffer, position, (int) year, 4);
+    buffer[next++] = '-';
+    next = appendTwoDigits(buffer, next, month);
+    buffer[next++] = '-';
+    return appendTwoDigits(buffer, next, day);
+  }
+
+  /** Appends the offset in the format of the ZoneOffset identifier. */
+  private static int appendOffset(final char[] buffer, final int position, final int offsetSeconds) {
+    int next = position;
+    if (offsetSeconds == 0) {
+      buffer[next++] = 'Z';
+      return next;
+    }
+    final int absolute = Math.abs(offsetSeconds);
+    buffer[next++] = offsetSeconds < 0 ? '-' : '+';
+    next = appendTwoDigits(buffer, next, absolute / 3600);
+    buffer[next++] = ':';
+    next = appendTwoDigits(buffer, next, absolute / 60 % 60);
+    if (absolute % 60 != 0) {
+      buffer[next++] = ':';
+      next = appendTwoDigits(buffer, next, absolute % 60);
+    }
+    return next;
+  }
+
+  private static int appendTwoDigits(final char[] buffer, final int position, final int value) {
+    buffer[position] = (char) ('0' + value / 10);
+    buffer[position + 1] = (char) ('0' + value % 10);
+    return position + 2;
+  }
+
+  /** Appends a non-negative value with the given number of digits, padded with leading zeros. */
+  private static int appendDigits(final char[] buffer, final int position, final int value, final int digits) {
+    int rest = value;
+    for (int i = position + digits - 1; i >= position; i--) {
+      buffer[i] = (char) ('0' + rest % 10);
+      rest /= 10;
+    }
+    return position + digits;
+  }
+}
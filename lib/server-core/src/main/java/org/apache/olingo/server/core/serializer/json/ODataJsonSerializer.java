@@ -85,16 +85,21 @@ import org.apache.olingo.server.api.uri.queryoption.LevelsExpandOption;
 import org.apache.olingo.server.api.uri.queryoption.SelectOption;
 import org.apache.olingo.server.core.ODataWritableContent;
 import org.apache.olingo.server.core.serializer.AbstractODataSerializer;
+import org.apache.olingo.server.core.serializer.SerializerFactories;
 import org.apache.olingo.server.core.serializer.SerializerResultImpl;
 import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
 import org.apache.olingo.server.core.serializer.utils.ContentTypeHelper;
 import org.apache.olingo.server.core.serializer.utils.ContextURLBuilder;
 import org.apache.olingo.server.core.serializer.utils.ExpandSelectHelper;
+import org.apache.olingo.server.core.serializer.utils.PaginatedEntityCollection;
+import org.apache.olingo.server.core.serializer.utils.SerializationPlan;
+import org.apache.olingo.server.core.serializer.utils.SerializationPlan.PropertyPlan;
 import org.apache.olingo.server.core.uri.UriHelperImpl;
 import org.apache.olingo.server.core.uri.queryoption.ExpandOptionImpl;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
 
 public class ODataJsonSerializer extends AbstractODataSerializer {
 
@@ -116,21 +121,25 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
   private final boolean isODataMetadataFull;
   private IConstants constants;
   private ODataJsonInstanceAnnotationSerializer instanceAnnotSerializer;
+  private final JsonFactory jsonFactory;
+  private final SerializationPlan.Cache serializationPlans = new SerializationPlan.Cache();
 
-  public ODataJsonSerializer(final ContentType contentType, final IConstants constants) {
+  public ODataJsonSerializer(final ContentType contentType, final IConstants constants,
+      final JsonFactory jsonFactory) {
     isIEEE754Compatible = ContentTypeHelper.isODataIEEE754Compatible(contentType);
     isODataMetadataNone = ContentTypeHelper.isODataMetadataNone(contentType);
     isODataMetadataFull = ContentTypeHelper.isODataMetadataFull(contentType);
     this.constants = constants;
+    this.jsonFactory = jsonFactory;
     instanceAnnotSerializer = new ODataJsonInstanceAnnotationSerializer(contentType, constants);
   }
 
+  public ODataJsonSerializer(final ContentType contentType, final IConstants constants) {
+    this(contentType, constants, SerializerFactories.getJsonFactory());
+  }
+
   public ODataJsonSerializer(final ContentType contentType) {
-    isIEEE754Compatible = ContentTypeHelper.isODataIEEE754Compatible(contentType);
-    isODataMetadataNone = ContentTypeHelper.isODataMetadataNone(contentType);
-    isODataMetadataFull = ContentTypeHelper.isODataMetadataFull(contentType);
-    this.constants = new Constantsv00();
-    instanceAnnotSerializer = new ODataJsonInstanceAnnotationSerializer(contentType, constants);
+    this(contentType, new Constantsv00());
   }
 
   @Override
@@ -141,7 +150,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
 
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
       new ServiceDocumentJsonSerializer(metadata, serviceRoot, isODataMetadataNone).writeServiceDocument(json);
 
       json.close();
@@ -163,7 +172,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
       new MetadataDocumentJsonSerializer(serviceMetadata).writeMetadataDocument(json);
       json.close();
       return SerializerResultImpl.with().content(buffer.getInputStream()).build();
@@ -183,7 +192,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
       new ODataErrorSerializer().writeErrorDocument(json, error);
 
       json.close();
@@ -207,7 +216,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
       json.writeStartObject();
 
       final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
@@ -221,14 +230,19 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       }
       writeOperations(entitySet.getOperations(), json);
       json.writeFieldName(Constants.VALUE);
+      final PaginatedEntityCollection paginated = PaginatedEntityCollection.wrap(entitySet, options);
+      final AbstractEntityCollection entities = paginated == null ? entitySet : paginated;
       if (options == null) {
-        writeEntitySet(metadata, entityType, entitySet, null, null, null, false, null, name, json);
+        writeEntitySet(metadata, entityType, entities, null, null, null, false, null, name, json);
       } else {
-        writeEntitySet(metadata, entityType, entitySet,
+        writeEntitySet(metadata, entityType, entities,
             options.getExpand(), null, options.getSelect(), options.getWriteOnlyReferences(), null, name, json);
       }
-      writeNextLink(entitySet, json, pagination);
-      writeDeltaLink(entitySet, json, pagination);
+      if (paginated != null) {
+        paginated.createNextLink();
+      }
+      writeNextLink(entities, json, pagination);
+      writeDeltaLink(entities, json, pagination);
 
       json.close();
       return SerializerResultImpl.with().content(buffer.getInputStream()).build();
@@ -256,7 +270,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     SerializerException cachedException;
     boolean pagination = false;
     try {
-      JsonGenerator json = new JsonFactory().createGenerator(outputStream);
+      JsonGenerator json = jsonFactory.createGenerator(outputStream);
       json.writeStartObject();
 
       final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
@@ -269,14 +283,19 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       }
       json.writeFieldName(Constants.VALUE);
       String name =  contextURL == null ? null:contextURL.getEntitySetOrSingletonOrType() ;
+      final PaginatedEntityCollection paginated = PaginatedEntityCollection.wrap(entitySet, options);
+      final AbstractEntityCollection entities = paginated == null ? entitySet : paginated;
       if (options == null) {
-        writeEntitySet(metadata, entityType, entitySet, null, null, null, false, null, name, json);
+        writeEntitySet(metadata, entityType, entities, null, null, null, false, null, name, json);
       } else {
-        writeEntitySet(metadata, entityType, entitySet,
+        writeEntitySet(metadata, entityType, entities,
             options.getExpand(), null, options.getSelect(), options.getWriteOnlyReferences(), null, name, json);
       }
       // next link support for streaming results
-      writeNextLink(entitySet, json, pagination);
+      if (paginated != null) {
+        paginated.createNextLink();
+      }
+      writeNextLink(entities, json, pagination);
 
       json.close();
     } catch (final IOException | DecoderException e) {
@@ -295,7 +314,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
       String name =  contextURL == null ? null:contextURL.getEntitySetOrSingletonOrType();
       writeEntity(metadata, entityType, entity, contextURL,
           options == null ? null : options.getExpand(),
@@ -364,17 +383,8 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     return entity.getId().toASCIIString();
   }
 
-  private boolean areKeyPredicateNamesSelected(SelectOption select, EdmEntityType type) {
-    if (select == null || ExpandSelectHelper.isAll(select)) {
-      return true;
-    }
-    final Set<String> selected = ExpandSelectHelper.getSelectedPropertyNames(select.getSelectItems());
-    for (String key : type.getKeyPredicateNames()) {
-      if (!selected.contains(key)) {
-        return false;
-      }
-    }
-    return true;
+  private boolean areKeyPredicateNamesSelected(SelectOption select, EdmEntityType type, ExpandOption expand) {
+    return select == null || serializationPlans.get(type, select, expand).areKeyPropertiesSelected();
   }
 
   protected void writeEntity(final ServiceMetadata metadata, final EdmEntityType entityType, final Entity entity,
@@ -422,7 +432,8 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
         if ((!isODataMetadataNone && !resolvedType.equals(entityType)) || isODataMetadataFull) {
           json.writeStringField(constants.getType(), "#" + entity.getType());
         }
-        if ((!isODataMetadataNone && !areKeyPredicateNamesSelected(select, resolvedType)) || isODataMetadataFull) {
+        if ((!isODataMetadataNone && !areKeyPredicateNamesSelected(select, resolvedType, expand))
+            || isODataMetadataFull) {
           json.writeStringField(constants.getId(), getEntityId(entity, resolvedType, name));
         }
         
@@ -511,30 +522,16 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       final List<Property> properties,
       final SelectOption select, final JsonGenerator json, Linked linked, ExpandOption expand)
       throws IOException, SerializerException, DecoderException {
-    final boolean all = ExpandSelectHelper.isAll(select);
-    final Set<String> selected = all ? new HashSet<>() :
-        ExpandSelectHelper.getSelectedPropertyNames(select.getSelectItems());
-    addKeyPropertiesToSelected(selected, type);
-    Set<List<String>> expandedPaths = ExpandSelectHelper.getExpandedItemsPath(expand);
-    for (final String propertyName : type.getPropertyNames()) {
-      if (all || selected.contains(propertyName)) {
-        final EdmProperty edmProperty = type.getStructuralProperty(propertyName);
-        final Property property = findProperty(propertyName, properties);
-        final Set<List<String>> selectedPaths = all || edmProperty.isPrimitive() ? null :
-            ExpandSelectHelper.getSelectedPaths(select.getSelectItems(), propertyName);
-        writeProperty(metadata, edmProperty, property, selectedPaths, json, expandedPaths, linked, expand);
-      }
-    }
-  }
-  
-  private void addKeyPropertiesToSelected(Set<String> selected, EdmStructuredType type) {
-    if (!selected.isEmpty() && type instanceof EdmEntityType) {
-      List<String> keyNames = ((EdmEntityType) type).getKeyPredicateNames();
-      for (String key : keyNames) {
-        if (!selected.contains(key)) {
-          selected.add(key);
-        }
+    final SerializationPlan plan = serializationPlans.get(type, select, expand);
+    int position = 0;
+    for (final PropertyPlan propertyPlan : plan.getProperties()) {
+      final int index = propertyPlan.indexIn(properties, position);
+      if (index >= 0) {
+        position = index + 1;
       }
+      writeProperty(metadata, propertyPlan.getEdmProperty(), propertyPlan.getJsonName(),
+          index < 0 ? null : properties.get(index), propertyPlan.getSelectedPaths(), json,
+          plan.getExpandedPaths(), linked, expand);
     }
   }
 
@@ -682,13 +679,25 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       final EdmProperty edmProperty, final Property property,
       final Set<List<String>> selectedPaths, final JsonGenerator json, 
       Set<List<String>> expandedPaths, Linked linked, ExpandOption expand)
+      throws IOException, SerializerException, DecoderException  {
+    writeProperty(metadata, edmProperty, null, property, selectedPaths, json, expandedPaths, linked, expand);
+  }
+
+  private void writeProperty(final ServiceMetadata metadata,
+      final EdmProperty edmProperty, final SerializableString fieldName, final Property property,
+      final Set<List<String>> selectedPaths, final JsonGenerator json,
+      Set<List<String>> expandedPaths, Linked linked, ExpandOption expand)
       throws IOException, SerializerException, DecoderException  {
 	
 	instanceAnnotSerializer.writeInstanceAnnotationsOnProperties(edmProperty, property, json);
     boolean isStreamProperty = isStreamProperty(edmProperty);
     writePropertyType(edmProperty, json);
     if (!isStreamProperty) {
-      json.writeFieldName(edmProperty.getName());
+      if (fieldName == null) {
+        json.writeFieldName(edmProperty.getName());
+      } else {
+        json.writeFieldName(fieldName);
+      }
     }
     if (property == null || property.isNull()) {
       if (edmProperty.isNullable() == Boolean.FALSE && !isStreamProperty) {
@@ -920,6 +929,10 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
   protected void writePrimitiveValue(final String name, final EdmPrimitiveType type, final Object primitiveValue,
       final Boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
       final Boolean isUnicode, final JsonGenerator json) throws EdmPrimitiveTypeException, IOException {
+    if (primitiveValue != null && JsonPrimitiveValueWriter.write(type, primitiveValue,
+        maxLength, precision, scale, isUnicode, isIEEE754Compatible, json)) {
+      return;
+    }
     final String value = type.valueToString(primitiveValue,
         isNullable, maxLength, precision, scale, isUnicode);
     if (value == null) {
@@ -1112,7 +1125,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
       json.writeStartObject();
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);
@@ -1157,7 +1170,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
         contextURL.getEntitySetOrSingletonOrType();
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      JsonGenerator json = new JsonFactory().createGenerator(outputStream);
+      JsonGenerator json = jsonFactory.createGenerator(outputStream);
       json.writeStartObject();
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);      
@@ -1212,7 +1225,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
       json.writeStartObject();
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);
@@ -1250,7 +1263,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
       json.writeStartObject();
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);
@@ -1296,7 +1309,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     final UriHelper uriHelper = new UriHelperImpl();
     outputStream = buffer.getOutputStream();
-    try (final JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (final JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
 
       json.writeStartObject();
       writeContextURL(contextURL, json);
@@ -1326,7 +1339,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     final UriHelper uriHelper = new UriHelperImpl();
     outputStream = buffer.getOutputStream();
-    try (final JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (final JsonGenerator json = jsonFactory.createGenerator(outputStream)) {
       json.writeStartObject();
 
       writeContextURL(contextURL, json);
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.utils;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.AbstractEntityCollection;
+import org.apache.olingo.commons.api.data.Annotation;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.Operation;
+import org.apache.olingo.server.api.paging.KeysetPagination;
+import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions;
+import org.apache.olingo.server.api.serializer.SerializerException;
+
+/**
+ * Wraps an entity collection to create its next link with the pagination from the serializer options.
+ * The last entity is remembered while the serializer iterates over the collection, so that this works
+ * also for entity iterators that can be read only once.
+ */
+public class PaginatedEntityCollection extends AbstractEntityCollection {
+
+  private final AbstractEntityCollection entityCollection;
+  private final KeysetPagination pagination;
+  private Entity lastEntity;
+  private int entityCount;
+  private URI next;
+
+  private PaginatedEntityCollection(final AbstractEntityCollection entityCollection,
+      final KeysetPagination pagination) {
+    this.entityCollection = entityCollection;
+    this.pagination = pagination;
+  }
+
+  /**
+   * Wraps the entity collection if the options contain a pagination and the collection has no next link.
+   * @return the wrapped collection or <code>null</code>
+   */
+  public static PaginatedEntityCollection wrap(final AbstractEntityCollection entityCollection,
+      final EntityCollectionSerializerOptions options) {
+    return entityCollection != null && entityCollection.getNext() == null
+        && options != null && options.getPagination() != null ?
+        new PaginatedEntityCollection(entityCollection, options.getPagination()) :
+        null;
+  }
+
+  /**
+   * Creates the next link if the page is full.
+   * For an entity collection, this is possible already before the serialization of the entities;
+   * for an entity iterator, this has to be called after all entities have been iterated over.
+   * @return the next link or <code>null</code>
+   */
+  public URI createNextLink() throws SerializerException {
+    if (entityCollection instanceof EntityCollection) {
+      final List<Entity> entities = ((EntityCollection) entityCollection).getEntities();
+      entityCount = entities.size();
+      lastEntity = entities.isEmpty() ? null : entities.get(entities.size() - 1);
+    }
+    next = entityCount >= pagination.getPageSize() && lastEntity != null ?
+        pagination.createNextLink(lastEntity) :
+        null;
+    return next;
+  }
+
+  @Override
+  public Iterator<Entity> iterator() {
+    final Iterator<Entity> iterator = entityCollection.iterator();
+    return new Iterator<Entity>() {
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public Entity next() {
+        lastEntity = iterator.next();
+        entityCount++;
+        return lastEntity;
+      }
+
+      @Override
+      public void remove() {
+        iterator.remove();
+      }
+    };
+  }
+
+  @Override
+  public Integer getCount() {
+    return entityCollection.getCount();
+  }
+
+  /** Returns the next link created by {@link #createNextLink()}. */
+  @Override
+  public URI getNext() {
+    return next;
+  }
+
+  @Override
+  public URI getDeltaLink() {
+    return entityCollection.getDeltaLink();
+  }
+
+  @Override
+  public List<Operation> getOperations() {
+    return entityCollection.getOperations();
+  }
+
+  @Override
+  public URI getBaseURI() {
+    return entityCollection.getBaseURI();
+  }
+
+  @Override
+  public URI getId() {
+    return entityCollection.getId();
+  }
+
+  @Override
+  public String getTitle() {
+    return entityCollection.getTitle();
+  }
+
+  @Override
+  public List<Annotation> getAnnotations() {
+    return entityCollection.getAnnotations();
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
+import org.apache.olingo.server.api.uri.queryoption.SelectOption;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * <p>The result of evaluating <code>$select</code> and <code>$expand</code> for the structural
+ * properties of one structured type.</p>
+ * <p>Serializing an entity collection writes the same properties for every entity;
+ * the plan computes the selected properties in type order, their selected sub-paths,
+ * the expanded complex-property paths and the pre-encoded JSON field names only once.
+ * Plans are immutable and may be shared between threads.</p>
+ */
+public final class SerializationPlan {
+
+  private final EdmStructuredType type;
+  private final SelectOption select;
+  private final ExpandOption expand;
+  private final List<PropertyPlan> properties;
+  private final Set<List<String>> expandedPaths;
+  private final boolean keyPropertiesSelected;
+
+  private SerializationPlan(final EdmStructuredType type, final SelectOption select, final ExpandOption expand) {
+    this.type = type;
+    this.select = select;
+    this.expand = expand;
+    final boolean all = ExpandSelectHelper.isAll(select);
+    final Set<String> selected = all ? new HashSet<String>() :
+        ExpandSelectHelper.getSelectedPropertyNames(select.getSelectItems());
+    if (type instanceof EdmEntityType) {
+      final List<String> keyNames = ((EdmEntityType) type).getKeyPredicateNames();
+      keyPropertiesSelected = all || selected.containsAll(keyNames);
+      if (!selected.isEmpty()) {
+        selected.addAll(keyNames);
+      }
+    } else {
+      keyPropertiesSelected = true;
+    }
+    List<PropertyPlan> plans = new ArrayList<>();
+    for (final String propertyName : type.getPropertyNames()) {
+      if (all || selected.contains(propertyName)) {
+        final EdmProperty edmProperty = type.getStructuralProperty(propertyName);
+        final Set<List<String>> selectedPaths = all || edmProperty.isPrimitive() ? null :
+            ExpandSelectHelper.getSelectedPaths(select.getSelectItems(), propertyName);
+        plans.add(new PropertyPlan(edmProperty, selectedPaths));
+      }
+    }
+    properties = Collections.unmodifiableList(plans);
+    expandedPaths = ExpandSelectHelper.getExpandedItemsPath(expand);
+  }
+
+  /**
+   * Creates a plan for the structural properties of the given type.
+   * @param type   the structured type
+   * @param select the select option (may be <code>null</code>)
+   * @param expand the expand option (may be <code>null</code>)
+   * @return the plan
+   */
+  public static SerializationPlan create(final EdmStructuredType type, final SelectOption select,
+      final ExpandOption expand) {
+    return new SerializationPlan(type, select, expand);
+  }
+
+  /** Gets the properties to be written, in the order of the type definition. */
+  public List<PropertyPlan> getProperties() {
+    return properties;
+  }
+
+  /** Gets the paths of expanded items that start with a complex property. */
+  public Set<List<String>> getExpandedPaths() {
+    return expandedPaths;
+  }
+
+  /**
+   * Determines whether all key properties have been selected explicitly (or implicitly by selecting all);
+   * key properties are always serialized but their selection decides whether the entity ID has to be written.
+   */
+  public boolean areKeyPropertiesSelected() {
+    return keyPropertiesSelected;
+  }
+
+  private boolean isFor(final EdmStructuredType type, final SelectOption select, final ExpandOption expand) {
+    return this.type == type && this.select == select && this.expand == expand;
+  }
+
+  /**
+   * A property selected for serialization.
+   */
+  public static final class PropertyPlan {
+    private final EdmProperty edmProperty;
+    private final SerializedString jsonName;
+    private final Set<List<String>> selectedPaths;
+
+    private PropertyPlan(final EdmProperty edmProperty, final Set<List<String>> selectedPaths) {
+      this.edmProperty = edmProperty;
+      this.jsonName = new SerializedString(edmProperty.getName());
+      this.selectedPaths = selectedPaths;
+    }
+
+    public EdmProperty getEdmProperty() {
+      return edmProperty;
+    }
+
+    /** Gets the property name, quoted and encoded for JSON output once. */
+    public SerializedString getJsonName() {
+      return jsonName;
+    }
+
+    /** Gets the selected sub-paths or <code>null</code> if the property is selected completely. */
+    public Set<List<String>> getSelectedPaths() {
+      return selectedPaths;
+    }
+
+    /**
+     * Finds the value of this property in the list of an entity's or complex value's properties.
+     * Property values are usually in the order of the type definition, so the search starts at the
+     * given position, normally the one following the previously found property, and wraps around.
+     * @param values the property values
+     * @param start  the position to start the search at
+     * @return the position of the property or -1 if not present
+     */
+    public int indexIn(final List<Property> values, final int start) {
+      final String name = edmProperty.getName();
+      final int size = values.size();
+      for (int count = 0, index = start < size ? start : 0; count < size; count++) {
+        if (name.equals(values.get(index).getName())) {
+          return index;
+        }
+        index = index + 1 < size ? index + 1 : 0;
+      }
+      return -1;
+    }
+  }
+
+  /**
+   * <p>Bounded cache of plans, keyed by the identity of type, select option and expand option.</p>
+   * <p>A serializer holds one cache; since the metadata level is fixed per serializer instance,
+   * it is part of the key implicitly.</p>
+   */
+  public static final class Cache {
+    private static final int MAX_SIZE = 64;
+
+    private final ConcurrentMap<Key, SerializationPlan> plans = new ConcurrentHashMap<>();
+    private volatile SerializationPlan last;
+
+    public SerializationPlan get(final EdmStructuredType type, final SelectOption select,
+        final ExpandOption expand) {
+      final SerializationPlan lastPlan = last;
+      if (lastPlan != null && lastPlan.isFor(type, select, expand)) {
+        return lastPlan;
+      }
+      final Key key = new Key(type, select, expand);
+      SerializationPlan plan = plans.get(key);
+      if (plan == null) {
+        if (plans.size() >= MAX_SIZE) {
+          plans.clear();
+        }
+        plan = create(type, select, expand);
+        plans.put(key, plan);
+      }
+      last = plan;
+      return plan;
+    }
+  }
+
+  private static final class Key {
+    private final EdmStructuredType type;
+    private final SelectOption select;
+    private final ExpandOption expand;
+
+    private Key(final EdmStructuredType type, final SelectOption select, final ExpandOption expand) {
+      this.type = type;
+      this.select = select;
+      this.expand = expand;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return type == other.type && select == other.select && expand == other.expand;
+    }
+
+    @Override
+    public int hashCode() {
+      return (31 * System.identityHashCode(type) + System.identityHashCode(select)) * 31
+          + System.identityHashCode(expand);
+    }
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriInfoCache;
+import org.apache.olingo.server.core.uri.parser.UriDecoder;
+import org.apache.olingo.server.core.uri.parser.UriInfoTemplate;
+import org.apache.olingo.server.core.uri.parser.UriParserSyntaxException;
+import org.apache.olingo.server.core.uri.parser.UriShape;
+
+/**
+ * Least-recently-used cache of parsed URIs for a single EDM.
+ * <br/>
+ * Parse results are cached per {@link UriShape}, so URIs differing only in the literal values of key predicates,
+ * of the $filter expression, or of $top and $skip share one entry; the cached result is bound to the literals
+ * of the requested URI with a {@link UriInfoTemplate}. Parse results that cannot be bound to other literals
+ * are cached for their exact URI.
+ * <br/>
+ * The entries are distributed over independently locked segments, each with its own least-recently-used order,
+ * so concurrent requests rarely wait for each other; small caches have a single segment with an exact order.
+ * Entries of a previous EDM are dropped as soon as the cache is used with another EDM instance;
+ * since a parse result may still be put with the previous EDM while the cache changes over, each entry
+ * records its EDM and is only returned for the same EDM instance.
+ */
+public class UriInfoCacheImpl implements UriInfoCache {
+
+  private static final int MAX_SEGMENTS = 16;
+  private static final int MIN_SEGMENT_SIZE = 32;
+
+  private final Segment[] segments;
+  private volatile Edm edm;
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  public UriInfoCacheImpl(final int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("The maximum size must be positive.");
+    }
+    final int count = Math.max(1, Math.min(MAX_SEGMENTS, maxSize / MIN_SEGMENT_SIZE));
+    segments = new Segment[count];
+    for (int index = 0; index < count; index++) {
+      segments[index] = new Segment(maxSize / count + (index < maxSize % count ? 1 : 0));
+    }
+  }
+
+  @Override
+  public UriInfo get(final Edm edm, final String path, final String query, final String baseUri) {
+    final UriInfo uriInfo = edm == this.edm ? lookup(edm, path, query, baseUri) : null;
+    if (uriInfo == null) {
+      missCount.incrementAndGet();
+    } else {
+      hitCount.incrementAndGet();
+    }
+    return uriInfo;
+  }
+
+  private UriInfo lookup(final Edm edm, final String path, final String query, final String baseUri) {
+    final UriShape shape = shape(path, query, baseUri);
+    if (shape == null) {
+      return null;
+    }
+    final Object entry = segment(shape.getKey()).get(edm, shape.getKey());
+    if (entry instanceof UriInfoTemplate) {
+      return ((UriInfoTemplate) entry).bind(shape);
+    } else {
+      final String exactKey = exactKey(path, query, baseUri);
+      return (UriInfo) segment(exactKey).get(edm, exactKey);
+    }
+  }
+
+  @Override
+  public void put(final Edm edm, final String path, final String query, final String baseUri,
+      final UriInfo uriInfo) {
+    if (edm != this.edm) {
+      synchronized (this) {
+        if (edm != this.edm) {
+          clear();
+          this.edm = edm;
+        }
+      }
+    }
+    final UriShape shape = shape(path, query, baseUri);
+    final UriInfoTemplate template = shape == null ? null : UriInfoTemplate.create(uriInfo, shape);
+    if (template == null) {
+      final String exactKey = exactKey(path, query, baseUri);
+      segment(exactKey).put(exactKey, new Entry(edm, uriInfo));
+    } else {
+      segment(shape.getKey()).put(shape.getKey(), new Entry(edm, template));
+    }
+  }
+
+  private static UriShape shape(final String path, final String query, final String baseUri) {
+    try {
+      return UriShape.of(path, query, baseUri);
+    } catch (final UriParserSyntaxException e) {
+      // The parser reports the error.
+      return null;
+    }
+  }
+
+  private static String exactKey(final String path, final String query, final String baseUri) {
+    StringBuilder key = new StringBuilder(UriDecoder.isFormEncoding(query) ? "EF" : "E");
+    for (final String part : new String[] { path, query, baseUri }) {
+      if (part == null) {
+        key.append('-');
+      } else {
+        key.append(part.length()).append(':').append(part);
+      }
+    }
+    return key.toString();
+  }
+
+  private Segment segment(final String key) {
+    final int hash = key.hashCode();
+    return segments[((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % segments.length];
+  }
+
+  @Override
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  @Override
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  @Override
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (final Segment segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  @Override
+  public void clear() {
+    for (final Segment segment : segments) {
+      segment.clear();
+    }
+  }
+
+  /** Cached parse result or template together with the EDM it has been parsed with. */
+  private static final class Entry {
+    private final Edm edm;
+    private final Object value;
+
+    private Entry(final Edm edm, final Object value) {
+      this.edm = edm;
+      this.value = value;
+    }
+  }
+
+  /** Part of the cache with its own lock and least-recently-used order. */
+  private final class Segment {
+    private final Map<String, Entry> entries;
+
+    private Segment(final int maxSize) {
+      entries = new LinkedHashMap<String, Entry>(16, 0.75F, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+          if (size() > maxSize) {
+            evictionCount.incrementAndGet();
+            return true;
+          }
+          return false;
+        }
+      };
+    }
+
+    private synchronized Object get(final Edm edm, final String key) {
+      final Entry entry = entries.get(key);
+      return entry == null || entry.edm != edm ? null : entry.value;
+    }
+
+    private synchronized void put(final String key, final Entry entry) {
+      entries.put(key, entry);
+    }
+
+    private synchronized int size() {
+      return entries.size();
+    }
+
+    private synchronized void clear() {
+      entries.clear();
+    }
+  }
+}
@@ -474,7 +474,7 @@ public class ExpressionParser {
     }
   }
 
-  private EdmPrimitiveTypeKind determineIntegerType(final String intValueAsString) throws UriParserSyntaxException {
+  static EdmPrimitiveTypeKind determineIntegerType(final String intValueAsString) {
     EdmPrimitiveTypeKind typeKind = null;
     try {
       final long value = Long.parseLong(intValueAsString);
@@ -101,10 +101,11 @@ public class Parser {
     // System query options that can only be parsed with context from the resource path will be post-processed later.
     final List<QueryOption> options =
         query == null ? Collections.<QueryOption> emptyList() : UriDecoder.splitAndDecodeOptions(query);
+    final boolean formEncoding = UriDecoder.isFormEncoding(query);
     for (final QueryOption option : options) {
       final String optionName = option.getName();
       String value = option.getText();
-      if(UriDecoder.isFormEncoding()){
+      if (formEncoding) {
         value = getFormEncodedValue(value);
       }
       // Parse the untyped option and retrieve a system-option or alias-option instance (or null for a custom option).
@@ -35,6 +35,25 @@ public class UriDecoder {
     return formEncoding;
   }
 
+  /**
+   * Determines whether the query options of the given query are form-encoded,
+   * i.e., whether a '+' character in a value stands for a space.
+   * Unlike {@link #isFormEncoding()}, the result does not depend on the query split last.
+   * @param query the raw query, or <code>null</code>
+   */
+  public static boolean isFormEncoding(final String query) {
+    boolean result = false;
+    if (query != null) {
+      for (final String option : split(query, '&')) {
+        final int pos = option.indexOf('=');
+        if (pos >= 0 && ACCEPT_FORM_ENCODING.equals(option.substring(0, pos))) {
+          result = Boolean.parseBoolean(option.substring(pos + 1));
+        }
+      }
+    }
+    return result;
+  }
+
   /** Splits the path string at '/' characters and percent-decodes the resulting path segments. */
   protected static List<String> splitAndDecodePath(final String path) throws UriParserSyntaxException {
     List<String> pathSegmentsDecoded = new ArrayList<>();
@@ -0,0 +1,326 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.parser;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmKeyPropertyRef;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmType;
+import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriParameter;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.queryoption.AliasQueryOption;
+import org.apache.olingo.server.api.uri.queryoption.CustomQueryOption;
+import org.apache.olingo.server.api.uri.queryoption.SystemQueryOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.core.uri.UriInfoImpl;
+import org.apache.olingo.server.core.uri.UriParameterImpl;
+import org.apache.olingo.server.core.uri.UriResourceEntitySetImpl;
+import org.apache.olingo.server.core.uri.UriResourceNavigationPropertyImpl;
+import org.apache.olingo.server.core.uri.UriResourceWithKeysImpl;
+import org.apache.olingo.server.core.uri.queryoption.FilterOptionImpl;
+import org.apache.olingo.server.core.uri.queryoption.SkipOptionImpl;
+import org.apache.olingo.server.core.uri.queryoption.TopOptionImpl;
+import org.apache.olingo.server.core.uri.queryoption.expression.BinaryImpl;
+import org.apache.olingo.server.core.uri.queryoption.expression.LiteralImpl;
+import org.apache.olingo.server.core.uri.queryoption.expression.MethodImpl;
+import org.apache.olingo.server.core.uri.queryoption.expression.UnaryImpl;
+
+/**
+ * Parse result of a URI that can be re-used for all URIs of the same {@link UriShape}.
+ * <br/>
+ * A template is only created if the lifted literals of the shape are exactly the literals the parser has put
+ * into the key predicates of entity sets and navigation properties, into the literal nodes of the $filter
+ * expression (outside of lambda expressions and member paths), and into $top and $skip.
+ * Binding another URI of the same shape copies the affected parts with the new literals;
+ * key values are validated against the facets of their key properties again.
+ */
+public final class UriInfoTemplate {
+
+  private static final EdmPrimitiveType STRING = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.String);
+
+  private final UriInfoImpl uriInfo;
+  private final UriShape shape;
+
+  private UriInfoTemplate(final UriInfoImpl uriInfo, final UriShape shape) {
+    this.uriInfo = uriInfo;
+    this.shape = shape;
+  }
+
+  /**
+   * Creates a template from a parse result.
+   * @param uriInfo the parse result of the URI
+   * @param shape the shape of the same URI
+   * @return the template or <code>null</code> if the parse result cannot be re-used for other literals
+   */
+  public static UriInfoTemplate create(final UriInfo uriInfo, final UriShape shape) {
+    if (!(uriInfo instanceof UriInfoImpl)) {
+      return null;
+    }
+    List<String> pathLiterals = new ArrayList<>();
+    for (final UriResource part : uriInfo.getUriResourceParts()) {
+      if (hasBindableKeys(part)) {
+        for (final UriParameter key : ((UriResourceWithKeysImpl) part).getKeyPredicates()) {
+          if (isBindable(key)) {
+            pathLiterals.add(key.getText());
+          }
+        }
+      }
+    }
+    List<String> filterLiterals = new ArrayList<>();
+    if (uriInfo.getFilterOption() != null) {
+      collectLiterals(uriInfo.getFilterOption().getExpression(), filterLiterals);
+    }
+    return pathLiterals.equals(shape.getPathLiterals())
+        && filterLiterals.equals(shape.getFilterLiterals())
+        && (shape.getTopLiteral() == null || shape.getTopLiteral().equals(uriInfo.getTopOption().getText()))
+        && (shape.getSkipLiteral() == null || shape.getSkipLiteral().equals(uriInfo.getSkipOption().getText())) ?
+        new UriInfoTemplate((UriInfoImpl) uriInfo, shape) :
+        null;
+  }
+
+  /**
+   * Gets the parse result for a URI of the same shape.
+   * @param other the shape of the URI; it must have the same key as the shape of the template
+   * @return the parse result or <code>null</code> if the literals are not valid;
+   *         the URI has to be parsed then to get the correct error
+   */
+  public UriInfo bind(final UriShape other) {
+    if (shape.hasSameLiterals(other)) {
+      return uriInfo;
+    }
+    UriInfoImpl result = new UriInfoImpl()
+        .setKind(uriInfo.getKind())
+        .setEntityTypeCast(uriInfo.getEntityTypeCast())
+        .setFragment(uriInfo.getFragment());
+    for (final String entitySetName : uriInfo.getEntitySetNames()) {
+      result.addEntitySetName(entitySetName);
+    }
+
+    final Iterator<String> pathLiterals = other.getPathLiterals().iterator();
+    for (final UriResource part : uriInfo.getUriResourceParts()) {
+      if (hasBindableKeys(part)) {
+        final UriResource boundPart = bindKeys((UriResourceWithKeysImpl) part, pathLiterals);
+        if (boundPart == null) {
+          return null;
+        }
+        result.addResourcePart(boundPart);
+      } else {
+        result.addResourcePart(part);
+      }
+    }
+
+    for (final SystemQueryOption option : uriInfo.getSystemQueryOptions()) {
+      switch (option.getKind()) {
+      case FILTER:
+        if (other.getFilterLiterals().equals(shape.getFilterLiterals())) {
+          result.setSystemQueryOption(option);
+        } else {
+          FilterOptionImpl filter = new FilterOptionImpl().setExpression(
+              bindLiterals(uriInfo.getFilterOption().getExpression(), other.getFilterLiterals().iterator()));
+          filter.setText(other.getFilterText());
+          result.setSystemQueryOption(filter);
+        }
+        break;
+      case TOP:
+        if (other.getTopLiteral() == null || other.getTopLiteral().equals(shape.getTopLiteral())) {
+          result.setSystemQueryOption(option);
+        } else {
+          final Integer top = parseInteger(other.getTopLiteral());
+          if (top == null) {
+            return null;
+          }
+          TopOptionImpl topOption = new TopOptionImpl().setValue(top);
+          topOption.setText(other.getTopLiteral());
+          result.setSystemQueryOption(topOption);
+        }
+        break;
+      case SKIP:
+        if (other.getSkipLiteral() == null || other.getSkipLiteral().equals(shape.getSkipLiteral())) {
+          result.setSystemQueryOption(option);
+        } else {
+          final Integer skip = parseInteger(other.getSkipLiteral());
+          if (skip == null) {
+            return null;
+          }
+          SkipOptionImpl skipOption = new SkipOptionImpl().setValue(skip);
+          skipOption.setText(other.getSkipLiteral());
+          result.setSystemQueryOption(skipOption);
+        }
+        break;
+      default:
+        result.setSystemQueryOption(option);
+      }
+    }
+    for (final AliasQueryOption alias : uriInfo.getAliases()) {
+      result.addAlias(alias);
+    }
+    for (final CustomQueryOption option : uriInfo.getCustomQueryOptions()) {
+      result.addCustomQueryOption(option);
+    }
+    return result;
+  }
+
+  private static boolean hasBindableKeys(final UriResource part) {
+    return part instanceof UriResourceEntitySetImpl || part instanceof UriResourceNavigationPropertyImpl;
+  }
+
+  private static boolean isBindable(final UriParameter key) {
+    return key.getAlias() == null && key.getReferencedProperty() == null && key.getText() != null
+        && (isString(key.getText()) || isInteger(key.getText()));
+  }
+
+  private static boolean isBindable(final LiteralImpl literal) {
+    final String text = literal.getText();
+    final EdmType type = literal.getType();
+    return type != null
+        && (isString(text) && STRING.equals(type)
+        || isInteger(text) && EdmPrimitiveTypeFactory.getInstance(ExpressionParser.determineIntegerType(text))
+            .equals(type));
+  }
+
+  private static boolean isString(final String text) {
+    return text.length() > 1 && text.charAt(0) == '\'';
+  }
+
+  private static boolean isInteger(final String text) {
+    final int start = text.startsWith("-") ? 1 : 0;
+    if (text.length() <= start) {
+      return false;
+    }
+    for (int index = start; index < text.length(); index++) {
+      if (text.charAt(index) < '0' || text.charAt(index) > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void collectLiterals(final Expression expression, List<String> literals) {
+    if (expression instanceof BinaryImpl) {
+      final BinaryImpl binary = (BinaryImpl) expression;
+      collectLiterals(binary.getLeftOperand(), literals);
+      if (binary.getExpressions() == null) {
+        collectLiterals(binary.getRightOperand(), literals);
+      } else {
+        for (final Expression right : binary.getExpressions()) {
+          collectLiterals(right, literals);
+        }
+      }
+    } else if (expression instanceof UnaryImpl) {
+      collectLiterals(((UnaryImpl) expression).getOperand(), literals);
+    } else if (expression instanceof MethodImpl) {
+      for (final Expression parameter : ((MethodImpl) expression).getParameters()) {
+        collectLiterals(parameter, literals);
+      }
+    } else if (expression instanceof LiteralImpl && isBindable((LiteralImpl) expression)) {
+      literals.add(((LiteralImpl) expression).getText());
+    }
+  }
+
+  /** Copies the expression with the literals in the order of {@link #collectLiterals(Expression, List)}. */
+  private static Expression bindLiterals(final Expression expression, final Iterator<String> literals) {
+    if (expression instanceof BinaryImpl) {
+      final BinaryImpl binary = (BinaryImpl) expression;
+      final Expression left = bindLiterals(binary.getLeftOperand(), literals);
+      if (binary.getExpressions() == null) {
+        return new BinaryImpl(left, binary.getOperator(), bindLiterals(binary.getRightOperand(), literals),
+            binary.getType());
+      } else {
+        List<Expression> right = new ArrayList<>();
+        for (final Expression item : binary.getExpressions()) {
+          right.add(bindLiterals(item, literals));
+        }
+        return new BinaryImpl(left, binary.getOperator(), right, binary.getType());
+      }
+    } else if (expression instanceof UnaryImpl) {
+      final UnaryImpl unary = (UnaryImpl) expression;
+      return new UnaryImpl(unary.getOperator(), bindLiterals(unary.getOperand(), literals), unary.getType());
+    } else if (expression instanceof MethodImpl) {
+      List<Expression> parameters = new ArrayList<>();
+      for (final Expression parameter : ((MethodImpl) expression).getParameters()) {
+        parameters.add(bindLiterals(parameter, literals));
+      }
+      return new MethodImpl(((MethodImpl) expression).getMethod(), parameters);
+    } else if (expression instanceof LiteralImpl && isBindable((LiteralImpl) expression)) {
+      return new LiteralImpl(literals.next(), ((LiteralImpl) expression).getType());
+    } else {
+      return expression;
+    }
+  }
+
+  private static UriResource bindKeys(final UriResourceWithKeysImpl part, final Iterator<String> literals) {
+    final EdmEntityType entityType = (EdmEntityType) part.getType();
+    List<UriParameter> keys = new ArrayList<>();
+    boolean bound = false;
+    for (final UriParameter key : part.getKeyPredicates()) {
+      if (isBindable(key)) {
+        bound = true;
+        final String text = literals.next();
+        if (!isValidKey(entityType.getKeyPropertyRef(key.getName()), text)) {
+          return null;
+        }
+        keys.add(new UriParameterImpl().setName(key.getName()).setText(text));
+      } else {
+        keys.add(key);
+      }
+    }
+    if (!bound) {
+      // Collections have no key predicates at all, so they must not get an empty list.
+      return part;
+    }
+    final UriResourceWithKeysImpl result = part instanceof UriResourceEntitySetImpl ?
+        new UriResourceEntitySetImpl(((UriResourceEntitySetImpl) part).getEntitySet()) :
+        new UriResourceNavigationPropertyImpl(((UriResourceNavigationPropertyImpl) part).getProperty());
+    return result
+        .setCollectionTypeFilter(part.getTypeFilterOnCollection())
+        .setEntryTypeFilter(part.getTypeFilterOnEntry())
+        .setKeyPredicates(keys);
+  }
+
+  private static boolean isValidKey(final EdmKeyPropertyRef keyPropertyRef, final String text) {
+    final EdmProperty property = keyPropertyRef == null ? null : keyPropertyRef.getProperty();
+    if (property == null) {
+      return false;
+    }
+    final EdmPrimitiveType type = (EdmPrimitiveType) property.getType();
+    try {
+      return type.validate(type.fromUriLiteral(text), property.isNullable(),
+          property.getMaxLength(), property.getPrecision(), property.getScale(), property.isUnicode());
+    } catch (final EdmPrimitiveTypeException e) {
+      return false;
+    }
+  }
+
+  private static Integer parseInteger(final String text) {
+    try {
+      return Integer.parseInt(text);
+    } catch (final NumberFormatException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.server.api.uri.queryoption.QueryOption;
+import org.apache.olingo.server.api.uri.queryoption.SystemQueryOptionKind;
+
+/**
+ * Request URI with the literal values of key predicates, of the $filter expression and of
+ * $top and $skip replaced by placeholders.
+ * <br/>
+ * The shape key is computed from the decoded path segments and query options, exactly as the {@link Parser}
+ * sees them; string literals and integer literals are recognized lexically and only in positions where the
+ * parser could read them as literals. The placeholder of an integer literal in $filter contains its EDM type
+ * since the parser types integer literals by their value.
+ * Everything else, including all other query options, is part of the key verbatim,
+ * so URIs with the same shape key differ at most in the lifted literals.
+ */
+public final class UriShape {
+
+  private static final char QUOTE = '\'';
+
+  private final String key;
+  private final List<String> pathLiterals;
+  private final List<String> filterLiterals;
+  private final String filterText;
+  private final String topLiteral;
+  private final String skipLiteral;
+
+  private UriShape(final String key, final List<String> pathLiterals, final List<String> filterLiterals,
+      final String filterText, final String topLiteral, final String skipLiteral) {
+    this.key = key;
+    this.pathLiterals = pathLiterals;
+    this.filterLiterals = filterLiterals;
+    this.filterText = filterText;
+    this.topLiteral = topLiteral;
+    this.skipLiteral = skipLiteral;
+  }
+
+  /**
+   * Computes the shape of a request URI.
+   * @param path the raw resource path
+   * @param query the raw query, or <code>null</code>
+   * @param baseUri the raw base URI
+   * @return the shape
+   * @throws UriParserSyntaxException if the URI is not correctly percent-encoded
+   */
+  public static UriShape of(final String path, final String query, final String baseUri)
+      throws UriParserSyntaxException {
+    StringBuilder key = new StringBuilder();
+    appendVerbatim(key, baseUri == null ? "" : baseUri);
+
+    List<String> pathLiterals = new ArrayList<>();
+    for (final String segment : UriDecoder.splitAndDecodePath(path)) {
+      key.append('/');
+      lex(segment, false, key, pathLiterals);
+    }
+
+    List<String> filterLiterals = Collections.emptyList();
+    String filterText = null;
+    String topLiteral = null;
+    String skipLiteral = null;
+    if (query != null) {
+      final boolean formEncoding = UriDecoder.isFormEncoding(query);
+      key.append(formEncoding ? "?F" : "?");
+      final List<QueryOption> options = UriDecoder.splitAndDecodeOptions(query);
+      for (final QueryOption option : options) {
+        final String name = option.getName();
+        final String value = formEncoding ? option.getText().replace('+', ' ') : option.getText();
+        key.append('&');
+        appendVerbatim(key, name);
+        key.append('=');
+        if (SystemQueryOptionKind.FILTER.toString().equals(name) && filterText == null) {
+          filterLiterals = new ArrayList<>();
+          filterText = value;
+          lex(value, true, key, filterLiterals);
+        } else if (SystemQueryOptionKind.TOP.toString().equals(name) && topLiteral == null && isDigits(value)) {
+          topLiteral = value;
+          key.append("T;");
+        } else if (SystemQueryOptionKind.SKIP.toString().equals(name) && skipLiteral == null && isDigits(value)) {
+          skipLiteral = value;
+          key.append("T;");
+        } else {
+          appendVerbatim(key, value);
+        }
+      }
+    }
+    return new UriShape(key.toString(), pathLiterals, filterLiterals, filterText, topLiteral, skipLiteral);
+  }
+
+  /**
+   * Splits a path segment or a $filter value into verbatim parts and literals.
+   * A string literal is lifted if it is not the value part of a typed literal like <code>duration'P1D'</code>;
+   * an integer literal is lifted if it starts after a delimiter and is not the start of another literal
+   * like a decimal number, a date, or a GUID.
+   */
+  private static void lex(final String text, final boolean typedIntegers, StringBuilder key,
+      List<String> literals) {
+    final int length = text.length();
+    int verbatimStart = 0;
+    int index = 0;
+    while (index < length) {
+      final char c = text.charAt(index);
+      if (c == QUOTE) {
+        final int end = endOfString(text, index);
+        if (end < 0) {
+          break;
+        }
+        if (index == 0 || !isIdentifierChar(text.charAt(index - 1))) {
+          appendVerbatim(key, text.substring(verbatimStart, index));
+          key.append("S;");
+          literals.add(text.substring(index, end));
+          verbatimStart = end;
+        }
+        index = end;
+      } else if ((c == '-' || isDigit(c)) && (index == 0 || "(,= ".indexOf(text.charAt(index - 1)) >= 0)) {
+        final int start = c == '-' ? index + 1 : index;
+        int end = start;
+        while (end < length && isDigit(text.charAt(end))) {
+          end++;
+        }
+        if (end > start && (end == length || " ),".indexOf(text.charAt(end)) >= 0)) {
+          final String literal = text.substring(index, end);
+          appendVerbatim(key, text.substring(verbatimStart, index));
+          key.append(typedIntegers ? "I" + ExpressionParser.determineIntegerType(literal) : "N").append(';');
+          literals.add(literal);
+          verbatimStart = end;
+        }
+        index = Math.max(end, index + 1);
+      } else {
+        index++;
+      }
+    }
+    appendVerbatim(key, text.substring(verbatimStart));
+  }
+
+  /** Returns the index after the closing quote of the string literal starting at the given index, or -1. */
+  private static int endOfString(final String text, final int start) {
+    int index = start + 1;
+    while (index < text.length()) {
+      if (text.charAt(index) == QUOTE) {
+        if (index + 1 < text.length() && text.charAt(index + 1) == QUOTE) {
+          index += 2;
+        } else {
+          return index + 1;
+        }
+      } else {
+        index++;
+      }
+    }
+    return -1;
+  }
+
+  private static void appendVerbatim(StringBuilder key, final String text) {
+    if (!text.isEmpty()) {
+      // The length prefix keeps the key unambiguous whatever the text contains.
+      key.append('V').append(text.length()).append(':').append(text);
+    }
+  }
+
+  private static boolean isDigits(final String text) {
+    if (text.isEmpty()) {
+      return false;
+    }
+    for (int index = 0; index < text.length(); index++) {
+      if (!isDigit(text.charAt(index))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isDigit(final char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isIdentifierChar(final char c) {
+    return Character.isLetterOrDigit(c) || c == '_';
+  }
+
+  /**
+   * Gets the key; two URIs have the same key if and only if they have the same shape.
+   * @return the shape key
+   */
+  public String getKey() {
+    return key;
+  }
+
+  /**
+   * Gets the lifted string and integer literals of the path segments, in URI order.
+   * @return the literals as written in the URI, e.g., <code>'a''b'</code> or <code>-5</code>
+   */
+  public List<String> getPathLiterals() {
+    return Collections.unmodifiableList(pathLiterals);
+  }
+
+  /**
+   * Gets the lifted string and integer literals of the $filter expression, in URI order.
+   * @return the literals as written in the URI
+   */
+  public List<String> getFilterLiterals() {
+    return Collections.unmodifiableList(filterLiterals);
+  }
+
+  /**
+   * Gets the decoded value of the $filter option.
+   * @return the $filter text or <code>null</code>
+   */
+  public String getFilterText() {
+    return filterText;
+  }
+
+  /**
+   * Gets the value of the $top option if it has been lifted.
+   * @return the $top text or <code>null</code>
+   */
+  public String getTopLiteral() {
+    return topLiteral;
+  }
+
+  /**
+   * Gets the value of the $skip option if it has been lifted.
+   * @return the $skip text or <code>null</code>
+   */
+  public String getSkipLiteral() {
+    return skipLiteral;
+  }
+
+  /**
+   * Determines whether the other shape has the same lifted literals as this one.
+   * @param other shape with the same key
+   * @return <code>true</code> if the URIs are equivalent
+   */
+  public boolean hasSameLiterals(final UriShape other) {
+    return pathLiterals.equals(other.pathLiterals) && filterLiterals.equals(other.filterLiterals)
+        && equal(topLiteral, other.topLiteral) && equal(skipLiteral, other.skipLiteral);
+  }
+
+  private static boolean equal(final String s1, final String s2) {
+    return s1 == null ? s2 == null : s1.equals(s2);
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.netty.server.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.EventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+
+public class NettyRequestBodyInputStreamTest {
+
+  @Test
+  public void readChunks() throws Exception {
+    final EmbeddedChannel channel = new EmbeddedChannel();
+    final NettyRequestBodyInputStream stream = new NettyRequestBodyInputStream(channel);
+    final DefaultHttpContent first = content("{\"a\":");
+    final DefaultLastHttpContent last = new DefaultLastHttpContent(buffer("1}"));
+    stream.offer(first);
+    stream.offer(last);
+    first.release();
+    last.release();
+
+    assertEquals("{\"a\":1}", IOUtils.toString(stream, StandardCharsets.UTF_8));
+    assertEquals(-1, stream.read());
+    stream.close();
+    assertEquals(0, first.refCnt());
+    assertEquals(0, last.refCnt());
+  }
+
+  @Test
+  public void emptyBody() throws Exception {
+    final NettyRequestBodyInputStream stream = new NettyRequestBodyInputStream(new EmbeddedChannel());
+    stream.offer(LastHttpContent.EMPTY_LAST_CONTENT);
+    assertEquals(-1, stream.read());
+    stream.close();
+  }
+
+  @Test
+  public void suspendAndResumeReading() throws Exception {
+    final EmbeddedChannel channel = new EmbeddedChannel();
+    final NettyRequestBodyInputStream stream = new NettyRequestBodyInputStream(channel, 4);
+    stream.offer(content("123"));
+    assertTrue(channel.config().isAutoRead());
+    stream.offer(content("456"));
+    assertFalse(channel.config().isAutoRead());
+
+    final byte[] buffer = new byte[3];
+    assertEquals(3, stream.read(buffer));
+    assertFalse(channel.config().isAutoRead());
+    assertEquals(3, stream.read(buffer));
+    assertTrue(channel.config().isAutoRead());
+    stream.close();
+  }
+
+  @Test
+  public void incompleteBodyOnEventLoop() throws Exception {
+    final NettyRequestBodyInputStream stream = new NettyRequestBodyInputStream(new EmbeddedChannel());
+    stream.offer(content("1"));
+    assertEquals('1', stream.read());
+    try {
+      stream.read();
+      fail("Expected IOException");
+    } catch (final IOException e) {
+      // expected: the embedded channel runs everything on its event loop
+    }
+    stream.close();
+  }
+
+  @Test
+  public void closeReleasesBufferedContent() throws Exception {
+    final NettyRequestBodyInputStream stream = new NettyRequestBodyInputStream(new EmbeddedChannel());
+    final DefaultHttpContent content = content("abc");
+    stream.offer(content);
+    content.release();
+    assertEquals(1, content.refCnt());
+    stream.close();
+    assertEquals(0, content.refCnt());
+  }
+
+  @Test
+  public void failAbortsReading() throws Exception {
+    final NettyRequestBodyInputStream stream = new NettyRequestBodyInputStream(new EmbeddedChannel());
+    final IllegalStateException cause = new IllegalStateException("decoder failure");
+    stream.offer(content("1"));
+    stream.fail(cause);
+    assertEquals('1', stream.read());
+    for (int i = 0; i < 2; i++) {
+      try {
+        stream.read();
+        fail("Expected IOException");
+      } catch (final IOException e) {
+        assertEquals(cause, e.getCause());
+      }
+    }
+    stream.close();
+  }
+
+  @Test
+  public void closedChannelAbortsIncompleteBody() throws Exception {
+    final EmbeddedChannel channel = new EmbeddedChannel();
+    final NettyRequestBodyInputStream stream = new NettyRequestBodyInputStream(channel);
+    stream.offer(content("1"));
+    channel.close();
+    assertEquals('1', stream.read());
+    try {
+      stream.read();
+      fail("Expected IOException");
+    } catch (final IOException e) {
+      assertTrue(e.getCause() instanceof ClosedChannelException);
+    }
+    stream.close();
+  }
+
+  @Test
+  public void closedChannelKeepsCompleteBody() throws Exception {
+    final EmbeddedChannel channel = new EmbeddedChannel();
+    final NettyRequestBodyInputStream stream = new NettyRequestBodyInputStream(channel);
+    stream.offer(new DefaultLastHttpContent(buffer("1")));
+    channel.close();
+    assertEquals("1", IOUtils.toString(stream, StandardCharsets.UTF_8));
+    stream.close();
+  }
+
+  @Test
+  public void readTimesOut() throws Exception {
+    final Channel channel = mock(Channel.class);
+    when(channel.eventLoop()).thenReturn(mock(EventLoop.class));
+    when(channel.closeFuture()).thenReturn(mock(ChannelFuture.class));
+    final NettyRequestBodyInputStream stream = new NettyRequestBodyInputStream(channel, 4, 10);
+    try {
+      stream.read();
+      fail("Expected SocketTimeoutException");
+    } catch (final SocketTimeoutException e) {
+      // expected
+    }
+    stream.close();
+  }
+
+  private static DefaultHttpContent content(final String value) {
+    return new DefaultHttpContent(buffer(value));
+  }
+
+  private static ByteBuf buffer(final String value) {
+    return Unpooled.copiedBuffer(value, StandardCharsets.UTF_8);
+  }
+}
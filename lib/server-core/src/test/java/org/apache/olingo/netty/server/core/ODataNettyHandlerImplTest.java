@@ -19,17 +19,84 @@
 package org.apache.olingo.netty.server.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
 import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.netty.server.api.ODataNettyHandler;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.OlingoExtension;
+import org.apache.olingo.server.api.processor.Processor;
+import org.apache.olingo.server.core.compression.ContentCompressionImpl;
+import org.apache.olingo.server.core.media.MediaContent;
 import org.junit.Test;
 
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.FileRegion;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseEncoder;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.stream.ChunkedWriteHandler;
 
 public class ODataNettyHandlerImplTest {
 
@@ -157,4 +224,350 @@ public class ODataNettyHandlerImplTest {
       assertEquals(rawServiceResolutionUri, odr.getRawServiceResolutionUri());
     }
   }
+
+  @Test
+  public void writeODataContentInChunks() throws Exception {
+    final byte[] data = new byte[3 * ODataNettyHandlerImpl.COPY_BUFFER_SIZE + 10];
+    Arrays.fill(data, (byte) 'x');
+    final ODataResponse odResponse = new ODataResponse();
+    odResponse.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    odResponse.setHeader("Content-Type", "application/json");
+    odResponse.setODataContent(new ODataContent() {
+      @Override
+      public void write(final WritableByteChannel channel) {
+        write(Channels.newOutputStream(channel));
+      }
+
+      @Override
+      public void write(final OutputStream stream) {
+        try {
+          for (int i = 0; i < data.length; i += 100) {
+            stream.write(data, i, Math.min(100, data.length - i));
+          }
+        } catch (final IOException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+    });
+
+    final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    final ChannelFuture future = ODataNettyHandlerImpl.writeResponse(channel.pipeline().firstContext(),
+        HttpVersion.HTTP_1_1, odResponse);
+    assertTrue(future.isSuccess());
+
+    final HttpResponse response = channel.readOutbound();
+    assertEquals(HttpStatusCode.OK.getStatusCode(), response.status().code());
+    assertEquals("application/json", response.headers().get(HttpHeaderNames.CONTENT_TYPE));
+    assertTrue(HttpUtil.isTransferEncodingChunked(response));
+    assertEquals(data.length, readChunks(channel, 5).length);
+  }
+
+  @Test
+  public void writeStreamContentWithChunkedWriteHandler() throws Exception {
+    final byte[] data = "{\"value\":[]}".getBytes(StandardCharsets.UTF_8);
+    final ODataResponse odResponse = new ODataResponse();
+    odResponse.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    odResponse.setContent(new ByteArrayInputStream(data));
+
+    final EmbeddedChannel channel = new EmbeddedChannel(new ChunkedWriteHandler());
+    channel.pipeline().addLast("odata", new ChannelInboundHandlerAdapter());
+    final ChannelHandlerContext ctx = channel.pipeline().context("odata");
+    ODataNettyHandlerImpl.writeResponse(ctx, HttpVersion.HTTP_1_1, odResponse);
+    channel.runPendingTasks();
+
+    final HttpResponse response = channel.readOutbound();
+    assertTrue(HttpUtil.isTransferEncodingChunked(response));
+    assertEquals(new String(data, StandardCharsets.UTF_8),
+        new String(readChunks(channel, -1), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void writeStreamContentWithoutChunkedWriteHandler() throws Exception {
+    final ODataResponse odResponse = new ODataResponse();
+    odResponse.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    odResponse.setContent(new ByteArrayInputStream("abc".getBytes(StandardCharsets.UTF_8)));
+
+    final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    ODataNettyHandlerImpl.writeResponse(channel.pipeline().firstContext(), HttpVersion.HTTP_1_1, odResponse);
+
+    assertTrue(HttpUtil.isTransferEncodingChunked((HttpResponse) channel.readOutbound()));
+    assertEquals("abc", new String(readChunks(channel, 2), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void writeCompressedContent() throws Exception {
+    final byte[] data = new byte[3 * ODataNettyHandlerImpl.COPY_BUFFER_SIZE];
+    Arrays.fill(data, (byte) 'x');
+    final ODataResponse odResponse = new ODataResponse();
+    odResponse.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    odResponse.setHeader("Content-Type", "application/json");
+    odResponse.setContent(new ByteArrayInputStream(data));
+
+    final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    final ChannelFuture future = ODataNettyHandlerImpl.writeResponse(channel.pipeline().firstContext(),
+        HttpVersion.HTTP_1_1, odResponse, new ContentCompressionImpl(null), "gzip");
+    assertTrue(future.isSuccess());
+
+    final HttpResponse response = channel.readOutbound();
+    assertEquals("gzip", response.headers().get(HttpHeaderNames.CONTENT_ENCODING));
+    assertEquals("Accept-Encoding", response.headers().get(HttpHeaderNames.VARY));
+    assertTrue(HttpUtil.isTransferEncodingChunked(response));
+    final byte[] compressed = readChunks(channel, -1);
+    assertTrue(compressed.length < data.length);
+    final InputStream content = new GZIPInputStream(new ByteArrayInputStream(compressed));
+    int count = 0;
+    while (content.read() == 'x') {
+      count++;
+    }
+    assertEquals(data.length, count);
+  }
+
+  @Test
+  public void writeFileRegion() throws Exception {
+    final File file = File.createTempFile("media", ".bin");
+    file.deleteOnExit();
+    Files.write(file.toPath(), "0123456789".getBytes(StandardCharsets.US_ASCII));
+    final FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    final ODataResponse odResponse = new ODataResponse();
+    odResponse.setStatusCode(HttpStatusCode.PARTIAL_CONTENT.getStatusCode());
+    odResponse.setODataContent(new MediaContent(fileChannel, fileChannel.size()).range(2, 5));
+
+    final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    final ChannelFuture future = ODataNettyHandlerImpl.writeResponse(channel.pipeline().firstContext(),
+        HttpVersion.HTTP_1_1, odResponse, new ContentCompressionImpl(null), "gzip");
+    assertTrue(future.isSuccess());
+
+    final HttpResponse response = channel.readOutbound();
+    assertEquals(HttpStatusCode.PARTIAL_CONTENT.getStatusCode(), response.status().code());
+    assertFalse(HttpUtil.isTransferEncodingChunked(response));
+    assertEquals("5", response.headers().get(HttpHeaderNames.CONTENT_LENGTH));
+    final FileRegion region = channel.readOutbound();
+    assertEquals(2, region.position());
+    assertEquals(5, region.count());
+    assertEquals(LastHttpContent.EMPTY_LAST_CONTENT, channel.readOutbound());
+    region.release();
+    assertFalse(fileChannel.isOpen());
+  }
+
+  @Test
+  public void writeResponseWithoutContent() throws Exception {
+    final ODataResponse odResponse = new ODataResponse();
+    odResponse.setStatusCode(HttpStatusCode.NO_CONTENT.getStatusCode());
+
+    final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    ODataNettyHandlerImpl.writeResponse(channel.pipeline().firstContext(), HttpVersion.HTTP_1_1, odResponse);
+
+    final HttpResponse response = channel.readOutbound();
+    assertEquals(HttpStatusCode.NO_CONTENT.getStatusCode(), response.status().code());
+    assertFalse(HttpUtil.isTransferEncodingChunked(response));
+    assertNull(response.headers().get(HttpHeaderNames.CONTENT_LENGTH));
+    assertEquals(LastHttpContent.EMPTY_LAST_CONTENT, channel.readOutbound());
+  }
+
+  @Test
+  public void failingContentClosesChannel() throws Exception {
+    final ODataResponse odResponse = new ODataResponse();
+    odResponse.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    odResponse.setODataContent(new ODataContent() {
+      @Override
+      public void write(final WritableByteChannel channel) {
+        throw new IllegalStateException("serialization failed");
+      }
+
+      @Override
+      public void write(final OutputStream stream) {
+        throw new IllegalStateException("serialization failed");
+      }
+    });
+
+    final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    ODataNettyHandlerImpl.writeResponse(channel.pipeline().firstContext(), HttpVersion.HTTP_1_1, odResponse);
+    assertFalse(channel.isOpen());
+  }
+
+  @Test
+  public void writeHttp10ContentDelimitedByClose() throws Exception {
+    final ODataResponse odResponse = new ODataResponse();
+    odResponse.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    odResponse.setHeader("Content-Length", "3");
+    odResponse.setContent(new ByteArrayInputStream("abc".getBytes(StandardCharsets.UTF_8)));
+
+    final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    final ChannelFuture future = ODataNettyHandlerImpl.writeResponse(channel.pipeline().firstContext(),
+        HttpVersion.HTTP_1_0, odResponse);
+    assertTrue(future.isSuccess());
+
+    final HttpResponse response = channel.readOutbound();
+    assertEquals(HttpVersion.HTTP_1_0, response.protocolVersion());
+    assertFalse(HttpUtil.isTransferEncodingChunked(response));
+    assertFalse(HttpUtil.isKeepAlive(response));
+    assertNull(response.headers().get(HttpHeaderNames.CONTENT_LENGTH));
+    assertEquals("abc", new String(readChunks(channel, 2), StandardCharsets.UTF_8));
+    assertFalse(channel.isOpen());
+  }
+
+  @Test
+  public void contentProducerWaitsForSlowClient() throws Exception {
+    final int size = 64 * 1024 * 1024;
+    final AtomicLong produced = new AtomicLong();
+    final AtomicReference<Thread> producer = new AtomicReference<Thread>();
+    final ODataResponse odResponse = new ODataResponse();
+    odResponse.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    odResponse.setODataContent(new ODataContent() {
+      @Override
+      public void write(final WritableByteChannel channel) {
+        producer.set(Thread.currentThread());
+        final byte[] data = new byte[ODataNettyHandlerImpl.COPY_BUFFER_SIZE];
+        try {
+          while (produced.get() < size) {
+            channel.write(ByteBuffer.wrap(data));
+            produced.addAndGet(data.length);
+          }
+        } catch (final IOException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+
+      @Override
+      public void write(final OutputStream stream) {
+        write(Channels.newChannel(stream));
+      }
+    });
+
+    final EventLoopGroup group = new NioEventLoopGroup(1);
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final BlockingQueue<Channel> accepted = new LinkedBlockingQueue<Channel>();
+      final Channel server = new ServerBootstrap().group(group).channel(NioServerSocketChannel.class)
+          .childOption(ChannelOption.AUTO_READ, false)
+          .childHandler(new ChannelInitializer<Channel>() {
+            @Override
+            protected void initChannel(final Channel channel) {
+              accepted.add(channel);
+            }
+          })
+          .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0)).sync().channel();
+      final Channel client = new Bootstrap().group(group).channel(NioSocketChannel.class)
+          .option(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(16 * 1024, 64 * 1024))
+          .handler(new ChannelInitializer<Channel>() {
+            @Override
+            protected void initChannel(final Channel channel) {
+              channel.pipeline().addLast(new HttpResponseEncoder(), new ChannelInboundHandlerAdapter());
+            }
+          })
+          .connect(server.localAddress()).sync().channel();
+      final Channel reader = accepted.poll(10, TimeUnit.SECONDS);
+
+      final ChannelHandlerContext ctx = client.pipeline().lastContext();
+      final ChannelFuture future = client.eventLoop().submit(new Callable<ChannelFuture>() {
+        @Override
+        public ChannelFuture call() {
+          return ODataNettyHandlerImpl.writeResponse(ctx, HttpVersion.HTTP_1_1, odResponse, null, null, executor);
+        }
+      }).get(10, TimeUnit.SECONDS);
+
+      // the client does not read, so the producer has to stop long before the end of the content
+      long before;
+      do {
+        before = produced.get();
+        Thread.sleep(200);
+      } while (produced.get() != before);
+      assertTrue(produced.get() < size / 2);
+      assertFalse(future.isDone());
+      assertFalse(client.eventLoop().inEventLoop(producer.get()));
+
+      final AtomicLong received = new AtomicLong();
+      reader.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+        @Override
+        public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
+          received.addAndGet(((ByteBuf) msg).readableBytes());
+          ((ByteBuf) msg).release();
+        }
+      });
+      reader.config().setAutoRead(true);
+      assertTrue(future.await(30, TimeUnit.SECONDS));
+      assertTrue(future.isSuccess());
+      assertEquals(size, produced.get());
+      client.close().sync();
+      reader.closeFuture().await(10, TimeUnit.SECONDS);
+      assertTrue(received.get() > size);
+      server.close().sync();
+    } finally {
+      executor.shutdownNow();
+      group.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void rejectedContentIsWrittenOnEventLoop() throws Exception {
+    final ODataResponse odResponse = new ODataResponse();
+    odResponse.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    odResponse.setContent(new ByteArrayInputStream("abc".getBytes(StandardCharsets.UTF_8)));
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    executor.shutdown();
+
+    final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    final ChannelFuture future = ODataNettyHandlerImpl.writeResponse(channel.pipeline().firstContext(),
+        HttpVersion.HTTP_1_1, odResponse, null, null, executor);
+    assertTrue(future.isSuccess());
+
+    assertTrue(HttpUtil.isTransferEncodingChunked((HttpResponse) channel.readOutbound()));
+    assertEquals("abc", new String(readChunks(channel, 2), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void defaultStreamingProcessingAggregatesRequest() throws Exception {
+    final ODataNettyHandler handler = new ODataNettyHandler() {
+      @Override
+      public void processNettyRequest(final HttpRequest request, final HttpResponse response,
+          final Map<String, String> requestParameters) {
+        final ByteBuf content = ((FullHttpRequest) request).content();
+        ((FullHttpResponse) response).content().writeBytes(content.toString(StandardCharsets.UTF_8)
+            .toUpperCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+      }
+
+      @Override
+      public void register(final Processor processor) {
+        // not needed
+      }
+
+      @Override
+      public void register(final OlingoExtension extension) {
+        // not needed
+      }
+    };
+
+    final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    final ChannelFuture future = handler.processNettyRequest(channel.pipeline().firstContext(),
+        new DefaultHttpRequest(HttpVersion.HTTP_1_1, io.netty.handler.codec.http.HttpMethod.POST, "/"),
+        new ByteArrayInputStream("abc".getBytes(StandardCharsets.UTF_8)), Collections.<String, String> emptyMap());
+    assertTrue(future.isSuccess());
+
+    final FullHttpResponse response = channel.readOutbound();
+    assertEquals("3", response.headers().get(HttpHeaderNames.CONTENT_LENGTH));
+    assertEquals("ABC", response.content().toString(StandardCharsets.UTF_8));
+    response.release();
+  }
+
+  /**
+   * Reads all content chunks up to the last one.
+   * @param expectedChunks number of expected chunks including the last one, or -1 to skip the check
+   */
+  private static byte[] readChunks(final EmbeddedChannel channel, final int expectedChunks) {
+    final ByteBuf body = Unpooled.buffer();
+    int chunks = 0;
+    HttpContent chunk;
+    do {
+      chunk = channel.readOutbound();
+      chunks++;
+      body.writeBytes(chunk.content());
+      chunk.release();
+    } while (!(chunk instanceof LastHttpContent));
+    if (expectedChunks >= 0) {
+      assertEquals(expectedChunks, chunks);
+    }
+    final byte[] result = new byte[body.readableBytes()];
+    body.readBytes(result);
+    return result;
+  }
 }
@@ -29,6 +29,7 @@ import org.apache.olingo.server.api.ODataLibraryException.MessageKey;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.etag.PreconditionException;
+import org.apache.olingo.server.api.paging.KeysetPagingException;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.core.uri.parser.UriParserException;
 import org.apache.olingo.server.core.uri.parser.UriParserSemanticException;
@@ -120,6 +121,21 @@ public class ExceptionHelperTest {
     }
   }
 
+  @Test
+  public void keysetPagingTesting() {
+    for (MessageKey key : KeysetPagingException.MessageKeys.values()) {
+      final KeysetPagingException e = new KeysetPagingException(DEV_MSG, key);
+      ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
+      if (e.getMessageKey().equals(KeysetPagingException.MessageKeys.INVALID_SKIPTOKEN)) {
+        checkStatusCode(serverError, HttpStatusCode.BAD_REQUEST, e);
+      } else if (e.getMessageKey().equals(KeysetPagingException.MessageKeys.UNSUPPORTED_ORDERBY)) {
+        checkStatusCode(serverError, HttpStatusCode.NOT_IMPLEMENTED, e);
+      } else {
+        fail("Unexpected message key for: " + e.getClass().getName());
+      }
+    }
+  }
+
   @Test
   public void httpHandlerExceptions() {
     for (MessageKey key : ODataHandlerException.MessageKeys.values()) {
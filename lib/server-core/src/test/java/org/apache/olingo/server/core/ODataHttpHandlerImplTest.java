@@ -18,16 +18,40 @@
  */
 package org.apache.olingo.server.core;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
+import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.core.compression.ContentCompressionImpl;
+import org.apache.olingo.server.core.media.ByteRangeSupport;
+import org.apache.olingo.server.core.media.MediaContent;
 import org.junit.Test;
 
 public class ODataHttpHandlerImplTest {
@@ -224,4 +248,89 @@ public class ODataHttpHandlerImplTest {
     
     }
   }
+
+  @Test
+  public void compressResponseContent() throws Exception {
+    final byte[] data = new byte[4000];
+    Arrays.fill(data, (byte) 'x');
+    final ODataResponse odResponse = new ODataResponse();
+    odResponse.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    odResponse.setHeader(HttpHeader.CONTENT_TYPE, "application/json");
+    odResponse.setHeader(HttpHeader.CONTENT_LENGTH, String.valueOf(data.length));
+    odResponse.setContent(new ByteArrayInputStream(data));
+
+    final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    final HttpServletResponse response = mock(HttpServletResponse.class);
+    when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+      @Override
+      public void write(final int b) {
+        body.write(b);
+      }
+    });
+    ODataHttpHandlerImpl.convertToHttp(response, odResponse, new ContentCompressionImpl(null), "gzip, deflate");
+
+    verify(response).setHeader(HttpHeader.CONTENT_ENCODING, "gzip");
+    verify(response).addHeader(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING);
+    verify(response, never()).addHeader(eq(HttpHeader.CONTENT_LENGTH), anyString());
+    final InputStream content = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()));
+    int count = 0;
+    while (content.read() == 'x') {
+      count++;
+    }
+    assertEquals(data.length, count);
+  }
+
+  @Test
+  public void keepPrecompressedResponseContent() throws Exception {
+    final ODataResponse odResponse = new ODataResponse();
+    odResponse.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    odResponse.setHeader(HttpHeader.CONTENT_TYPE, "application/xml");
+    odResponse.setHeader(HttpHeader.CONTENT_ENCODING, "gzip");
+    odResponse.setContent(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+
+    final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    final HttpServletResponse response = mock(HttpServletResponse.class);
+    when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+      @Override
+      public void write(final int b) {
+        body.write(b);
+      }
+    });
+    ODataHttpHandlerImpl.convertToHttp(response, odResponse, new ContentCompressionImpl(null), "gzip");
+
+    verify(response).addHeader(HttpHeader.CONTENT_ENCODING, "gzip");
+    verify(response, never()).setHeader(eq(HttpHeader.CONTENT_ENCODING), anyString());
+    assertArrayEquals(new byte[] { 1, 2, 3 }, body.toByteArray());
+  }
+
+  @Test
+  public void writePartialMediaContent() throws Exception {
+    final File file = File.createTempFile("media", ".txt");
+    file.deleteOnExit();
+    Files.write(file.toPath(), "0123456789".getBytes(StandardCharsets.US_ASCII));
+    final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    final ODataResponse odResponse = new ODataResponse();
+    odResponse.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    odResponse.setHeader(HttpHeader.CONTENT_TYPE, "text/plain");
+    odResponse.setODataContent(new MediaContent(channel, channel.size()));
+    final ODataRequest odRequest = new ODataRequest();
+    odRequest.addHeader(HttpHeader.RANGE, "bytes=1-3");
+    ByteRangeSupport.apply(odRequest, odResponse);
+
+    final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    final HttpServletResponse response = mock(HttpServletResponse.class);
+    when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+      @Override
+      public void write(final int b) {
+        body.write(b);
+      }
+    });
+    ODataHttpHandlerImpl.convertToHttp(response, odResponse, new ContentCompressionImpl(null), "gzip");
+
+    verify(response).setStatus(HttpStatusCode.PARTIAL_CONTENT.getStatusCode());
+    verify(response).addHeader(HttpHeader.CONTENT_RANGE, "bytes 1-3/10");
+    verify(response).addHeader(HttpHeader.CONTENT_LENGTH, "3");
+    verify(response, never()).setHeader(eq(HttpHeader.CONTENT_ENCODING), anyString());
+    assertEquals("123", new String(body.toByteArray(), StandardCharsets.US_ASCII));
+  }
 }
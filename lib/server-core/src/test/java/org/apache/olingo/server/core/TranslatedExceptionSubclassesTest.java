@@ -26,6 +26,7 @@ import java.util.Properties;
 import java.util.UUID;
 
 import org.apache.olingo.server.api.ODataLibraryException;
+import org.apache.olingo.server.api.paging.KeysetPagingException;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.core.uri.parser.UriParserSemanticException;
 import org.apache.olingo.server.core.uri.parser.UriParserSyntaxException;
@@ -57,6 +58,7 @@ public class TranslatedExceptionSubclassesTest {
     testException(SerializerException.class, SerializerException.MessageKeys.values());
     testException(UriValidationException.class, UriValidationException.MessageKeys.values());
     testException(UriParserSyntaxException.class, UriParserSyntaxException.MessageKeys.values());
+    testException(KeysetPagingException.class, KeysetPagingException.MessageKeys.values());
   }
 
   private void testException(final Class<? extends ODataLibraryException> clazz,
@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.compression;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.compression.CompressionOptions;
+import org.apache.olingo.server.api.deserializer.DeserializerException;
+import org.apache.olingo.server.core.compression.CompressingOutputStream.ContentCodingListener;
+import org.junit.Test;
+
+public class ContentCompressionImplTest {
+
+  private final ContentCompressionImpl compression = new ContentCompressionImpl(null);
+
+  @Test
+  public void negotiateContentCoding() {
+    assertEquals("gzip", compression.negotiate(response("application/json"), "gzip, deflate"));
+    assertEquals("gzip", compression.negotiate(response("application/json"), "x-gzip"));
+    assertEquals("deflate", compression.negotiate(response("application/json"), "gzip;q=0.5, deflate"));
+    assertEquals("gzip", compression.negotiate(response("application/json"), "*"));
+    assertEquals("deflate", compression.negotiate(response("application/json"), "gzip;q=0, *;q=0.1"));
+    assertNull(compression.negotiate(response("application/json"), "gzip;q=0, deflate;q=0.000"));
+    assertNull(compression.negotiate(response("application/json"), "br"));
+    assertNull(compression.negotiate(response("application/json"), "identity, gzip;q=0.5"));
+    assertNull(compression.negotiate(response("application/json"), null));
+
+    final ContentCompressionImpl deflateOnly =
+        new ContentCompressionImpl(CompressionOptions.with().gzip(false).build());
+    assertEquals("deflate", deflateOnly.negotiate(response("application/json"), "gzip, deflate;q=0.1"));
+  }
+
+  @Test
+  public void skipIncompressibleResponses() {
+    assertNull(compression.negotiate(response("image/png"), "gzip"));
+    assertNull(compression.negotiate(response(null), "gzip"));
+
+    final ODataResponse precompressed = response("application/xml");
+    precompressed.setHeader(HttpHeader.CONTENT_ENCODING, "gzip");
+    assertNull(compression.negotiate(precompressed, "gzip"));
+
+    final ODataResponse small = response("application/json;odata.metadata=minimal");
+    small.setHeader(HttpHeader.CONTENT_LENGTH, "100");
+    assertNull(compression.negotiate(small, "gzip"));
+
+    final ODataResponse notModified = response("application/json");
+    notModified.setStatusCode(HttpStatusCode.NOT_MODIFIED.getStatusCode());
+    assertNull(compression.negotiate(notModified, "gzip"));
+  }
+
+  @Test
+  public void varyOnAcceptEncoding() {
+    final ODataResponse response = response("text/plain");
+    assertNull(compression.negotiate(response, null));
+    assertEquals(Arrays.asList(HttpHeader.ACCEPT_ENCODING), response.getHeaders(HttpHeader.VARY));
+    compression.negotiate(response, "gzip");
+    assertEquals(1, response.getHeaders(HttpHeader.VARY).size());
+    assertNull(response("image/png").getHeader(HttpHeader.VARY));
+  }
+
+  @Test
+  public void compressAboveMinimumSize() throws Exception {
+    final byte[] data = content(5000);
+    final ByteArrayOutputStream target = new ByteArrayOutputStream();
+    final String[] selected = { "none" };
+    final CompressingOutputStream stream = compression.compress(target, "gzip", listener(selected));
+    stream.write(data, 0, 1000);
+    assertEquals(0, target.size());
+    assertEquals("none", selected[0]);
+    stream.write(data, 1000, data.length - 1000);
+    assertEquals("gzip", selected[0]);
+    stream.finish();
+
+    assertTrue(stream.isCompressed());
+    assertArrayEquals(data, read(new GZIPInputStream(new ByteArrayInputStream(target.toByteArray()))));
+    assertEquals(1, compression.getCompressedResponseCount());
+    assertEquals(data.length, compression.getUncompressedBytes());
+    assertEquals(target.size(), compression.getCompressedBytes());
+    assertTrue(compression.getCompressedBytes() < compression.getUncompressedBytes());
+  }
+
+  @Test
+  public void deflateWithLevel() throws Exception {
+    final byte[] data = content(5000);
+    final ContentCompressionImpl fastest =
+        new ContentCompressionImpl(CompressionOptions.with().level(1).minSize(0).build());
+    final ByteArrayOutputStream target = new ByteArrayOutputStream();
+    final CompressingOutputStream stream = fastest.compress(target, "deflate", listener(new String[1]));
+    stream.write(data);
+    stream.close();
+    assertArrayEquals(data, read(new InflaterInputStream(new ByteArrayInputStream(target.toByteArray()))));
+  }
+
+  @Test
+  public void keepSmallContentUncompressed() throws Exception {
+    final ByteArrayOutputStream target = new ByteArrayOutputStream();
+    final String[] selected = { "none" };
+    final CompressingOutputStream stream = compression.compress(target, "gzip", listener(selected));
+    stream.write(content(100));
+    stream.finish();
+    assertNull(selected[0]);
+    assertFalse(stream.isCompressed());
+    assertArrayEquals(content(100), target.toByteArray());
+    assertEquals(0, compression.getCompressedResponseCount());
+  }
+
+  @Test
+  public void decompressRequest() throws Exception {
+    final byte[] data = content(2000);
+    final ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+    try (GZIPOutputStream stream = new GZIPOutputStream(gzip)) {
+      stream.write(data);
+    }
+    final ODataRequest request = new ODataRequest();
+    request.setHeader(HttpHeader.CONTENT_ENCODING, "gzip");
+    request.setHeader(HttpHeader.CONTENT_LENGTH, String.valueOf(gzip.size()));
+    request.setBody(new ByteArrayInputStream(gzip.toByteArray()));
+    compression.decompress(request);
+
+    assertNull(request.getHeader(HttpHeader.CONTENT_ENCODING));
+    assertNull(request.getHeader(HttpHeader.CONTENT_LENGTH));
+    assertArrayEquals(data, read(request.getBody()));
+    assertEquals(1, compression.getDecompressedRequestCount());
+  }
+
+  @Test
+  public void decompressRequestUpToMaximumSize() throws Exception {
+    final ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+    try (GZIPOutputStream stream = new GZIPOutputStream(gzip)) {
+      stream.write(new byte[1_000_000]);
+    }
+    final ContentCompressionImpl limited =
+        new ContentCompressionImpl(CompressionOptions.with().maxDecompressedSize(1000).build());
+    final ODataRequest request = new ODataRequest();
+    request.setHeader(HttpHeader.CONTENT_ENCODING, "gzip");
+    request.setBody(new ByteArrayInputStream(gzip.toByteArray()));
+    limited.decompress(request);
+
+    final DataInputStream body = new DataInputStream(request.getBody());
+    body.readFully(new byte[1000]);
+    try {
+      read(body);
+      fail("Expected exception not thrown.");
+    } catch (final DecompressedSizeExceededException e) {
+      assertTrue(DecompressedSizeExceededException.isCause(new IllegalStateException(e)));
+    }
+  }
+
+  @Test
+  public void decompressInvalidRequest() throws Exception {
+    final ODataRequest request = new ODataRequest();
+    request.setHeader(HttpHeader.CONTENT_ENCODING, "gzip");
+    request.setBody(new ByteArrayInputStream(content(100)));
+    try {
+      compression.decompress(request);
+      fail("Expected exception not thrown.");
+    } catch (final DeserializerException e) {
+      assertEquals(DeserializerException.MessageKeys.IO_EXCEPTION, e.getMessageKey());
+    }
+
+    final ODataRequest unsupported = new ODataRequest();
+    unsupported.setHeader(HttpHeader.CONTENT_ENCODING, "br");
+    unsupported.setBody(new ByteArrayInputStream(content(100)));
+    compression.decompress(unsupported);
+    assertEquals("br", unsupported.getHeader(HttpHeader.CONTENT_ENCODING));
+  }
+
+  private static ODataResponse response(final String contentType) {
+    final ODataResponse response = new ODataResponse();
+    response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    if (contentType != null) {
+      response.setHeader(HttpHeader.CONTENT_TYPE, contentType);
+    }
+    response.setContent(new ByteArrayInputStream(new byte[0]));
+    return response;
+  }
+
+  private static ContentCodingListener listener(final String[] selected) {
+    return new ContentCodingListener() {
+      @Override
+      public void contentCodingSelected(final String contentCoding) {
+        selected[0] = contentCoding;
+      }
+    };
+  }
+
+  private static byte[] content(final int size) {
+    final byte[] content = new byte[size];
+    for (int i = 0; i < size; i++) {
+      content[i] = (byte) ('a' + i % 7);
+    }
+    return content;
+  }
+
+  private static byte[] read(final InputStream stream) throws IOException {
+    final ByteArrayOutputStream result = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[1024];
+    int count;
+    while ((count = stream.read(buffer)) > 0) {
+      result.write(buffer, 0, count);
+    }
+    return result.toByteArray();
+  }
+}
@@ -21,6 +21,14 @@ package org.apache.olingo.server.core.deserializer;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
 import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
 import org.apache.olingo.commons.api.edm.EdmProperty;
@@ -50,6 +58,25 @@ public class FixedFormatDeserializerTest {
                 + "ABCDEFGHIJKLMNOPQRSTUVWXYZABCDEFGHIJKLMNOPQRSTUVWXYZABCDEFGHIJKLMNOPQRSTUVWXYZ")).length);
   }
 
+  @Test
+  public void binaryIntoChannel() throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    assertEquals(3, deserializer.binary(IOUtils.toInputStream("ABC"), Channels.newChannel(output)));
+    assertArrayEquals(new byte[] { 0x41, 0x42, 0x43 }, output.toByteArray());
+  }
+
+  @Test
+  public void binaryIntoFile() throws Exception {
+    final File file = File.createTempFile("media", ".bin");
+    file.deleteOnExit();
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] { 0x40 }));
+      assertEquals(3, deserializer.binary(IOUtils.toInputStream("ABC"), channel));
+      assertEquals(4, channel.position());
+    }
+    assertArrayEquals(new byte[] { 0x40, 0x41, 0x42, 0x43 }, Files.readAllBytes(file.toPath()));
+  }
+
   @Test
   public void primitiveValue() throws Exception {
     EdmProperty property = Mockito.mock(EdmProperty.class);
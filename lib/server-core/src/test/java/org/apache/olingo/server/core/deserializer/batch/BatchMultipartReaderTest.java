@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+public class BatchMultipartReaderTest {
+
+  private static final Charset CS_ISO_8859_1 = Charset.forName("ISO-8859-1");
+  private static final String BOUNDARY = "batch_123";
+  private static final String CRLF = "\r\n";
+
+  @Test
+  public void linesAndDelimiters() throws Exception {
+    final BatchMultipartReader reader = create("preamble" + CRLF
+        + "--" + BOUNDARY + CRLF
+        + "Content-Type: application/http" + CRLF
+        + CRLF
+        + "last" + CRLF
+        + "--" + BOUNDARY + "--  " + CRLF
+        + "epilogue", 4);
+
+    assertEquals(BatchMultipartReader.NO_DELIMITER, reader.peekDelimiter());
+    assertEquals(BatchMultipartReader.DELIMITER, reader.skipToDelimiter());
+    assertEquals(2, reader.getLineNumber());
+    assertNull(reader.peekLine());
+    reader.skipLine();
+    assertEquals("Content-Type: application/http" + CRLF, reader.peekLine().toString());
+    reader.skipLine();
+    assertEquals(CRLF, reader.peekLine().toString());
+    reader.skipLine();
+    // The line break in front of a delimiter belongs to the delimiter.
+    assertEquals("last", reader.peekLine().toString());
+    assertEquals(5, reader.peekLine().getLineNumber());
+    reader.skipLine();
+    assertEquals(BatchMultipartReader.CLOSE_DELIMITER, reader.peekDelimiter());
+    reader.skipLine();
+    assertEquals(BatchMultipartReader.NO_DELIMITER, reader.skipToDelimiter());
+    reader.close();
+  }
+
+  @Test
+  public void nestedBoundary() throws Exception {
+    final BatchMultipartReader reader = create("--changeset_1" + CRLF
+        + "--" + BOUNDARY + "x" + CRLF
+        + "--" + BOUNDARY + CRLF, 8);
+    reader.pushBoundary("changeset_1");
+    assertEquals(BatchMultipartReader.DELIMITER, reader.skipToDelimiter());
+    reader.skipLine();
+    assertEquals(-BatchMultipartReader.DELIMITER, reader.skipToDelimiter());
+    reader.popBoundary();
+    assertEquals(BatchMultipartReader.DELIMITER, reader.peekDelimiter());
+    reader.close();
+  }
+
+  @Test
+  public void body() throws Exception {
+    final String body = "line1" + CRLF + CRLF + "line3\n--no delimiter\r" + CRLF;
+    for (int bufferSize = 1; bufferSize < 16; bufferSize++) {
+      final BatchMultipartReader reader = create(body + CRLF + "--" + BOUNDARY + "--", bufferSize);
+      assertEquals(body, IOUtils.toString(reader.readBody(), CS_ISO_8859_1));
+      assertEquals(BatchMultipartReader.CLOSE_DELIMITER, reader.peekDelimiter());
+      reader.close();
+    }
+  }
+
+  @Test
+  public void bodyWithLimit() throws Exception {
+    final BatchMultipartReader reader = create("{\"value\":1}  " + CRLF
+        + "--" + BOUNDARY + CRLF
+        + "next", 4);
+    final BatchBodyInputStream body = reader.readBody();
+    body.limit(11);
+    assertEquals("{\"value\":1}", IOUtils.toString(body, CS_ISO_8859_1));
+    body.close();
+    assertEquals(BatchMultipartReader.DELIMITER, reader.peekDelimiter());
+    reader.close();
+  }
+
+  @Test
+  public void binaryBody() throws Exception {
+    final byte[] content = new byte[1000];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) i;
+    }
+    final byte[] delimiter = (CRLF + "--" + BOUNDARY + "--").getBytes(CS_ISO_8859_1);
+    final byte[] message = new byte[content.length + delimiter.length];
+    System.arraycopy(content, 0, message, 0, content.length);
+    System.arraycopy(delimiter, 0, message, content.length, delimiter.length);
+
+    final BatchMultipartReader reader = new BatchMultipartReader(new ByteArrayInputStream(message), BOUNDARY, 16);
+    final InputStream body = reader.readBody();
+    assertEquals(content.length, IOUtils.toByteArray(body).length);
+    reader.close();
+  }
+
+  @Test
+  public void unreadBodyIsKeptWhenMovingOn() throws Exception {
+    final BatchMultipartReader reader = create("first body" + CRLF
+        + "--" + BOUNDARY + CRLF
+        + "second body" + CRLF
+        + "--" + BOUNDARY + "--", 2);
+    final InputStream first = reader.readBody();
+    assertEquals('f', first.read());
+    assertEquals(BatchMultipartReader.DELIMITER, reader.peekDelimiter());
+    reader.skipLine();
+    final InputStream second = reader.readBody();
+    assertEquals("second body", IOUtils.toString(second, CS_ISO_8859_1));
+    assertEquals("irst body", IOUtils.toString(first, CS_ISO_8859_1));
+    assertEquals(BatchMultipartReader.CLOSE_DELIMITER, reader.peekDelimiter());
+    reader.close();
+  }
+
+  private BatchMultipartReader create(final String message, final int bufferSize) {
+    return new BatchMultipartReader(new ByteArrayInputStream(message.getBytes(CS_ISO_8859_1)), BOUNDARY, bufferSize);
+  }
+}
@@ -32,6 +32,7 @@ import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerExceptio
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException.MessageKeys;
 import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPartReader;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -1096,6 +1097,47 @@ public class BatchRequestParserTest {
     parse(readFile("/batchLarge.batch"), true);
   }
 
+  @Test
+  public void largeBatchReadPartByPart() throws Exception {
+    final int expected = parse(readFile("/batchLarge.batch"), true).size();
+    final BatchRequestPartReader reader = new BatchParser().readBatchRequest(readFile("/batchLarge.batch"), BOUNDARY,
+        BatchOptions.with().isStrict(true).rawBaseUri(SERVICE_ROOT).build());
+    int count = 0;
+    while (reader.next() != null) {
+      count++;
+    }
+    Assert.assertEquals(expected, count);
+    Assert.assertNull(reader.next());
+    reader.close();
+  }
+
+  @Test
+  public void bodyReadableAfterNextPart() throws Exception {
+    final String batch = "--" + BOUNDARY + CRLF
+        + MIME_HEADERS
+        + CRLF
+        + HttpMethod.POST + " ESAllPrim" + HTTP_VERSION + CRLF
+        + "Content-Type: application/json" + CRLF
+        + CRLF
+        + "{\"PropertyInt16\":1}" + CRLF
+        + "--" + BOUNDARY + CRLF
+        + MIME_HEADERS
+        + CRLF
+        + HttpMethod.GET + " " + PROPERTY_URI + HTTP_VERSION + CRLF
+        + CRLF
+        + CRLF
+        + "--" + BOUNDARY + "--";
+    final BatchRequestPartReader reader = new BatchParser().readBatchRequest(IOUtils.toInputStream(batch), BOUNDARY,
+        BatchOptions.with().isStrict(true).rawBaseUri(SERVICE_ROOT).build());
+    final BatchRequestPart first = reader.next();
+    final BatchRequestPart second = reader.next();
+    Assert.assertNull(reader.next());
+    reader.close();
+
+    Assert.assertEquals(HttpMethod.GET, second.getRequests().get(0).getMethod());
+    Assert.assertEquals("{\"PropertyInt16\":1}", IOUtils.toString(first.getRequests().get(0).getBody()));
+  }
+
   @Test
   public void forbiddenHeaderWWWAuthenticate() throws Exception {
     parseBatchWithForbiddenHeader(HttpHeader.WWW_AUTHENTICATE + ": Basic realm=\"simple\"");
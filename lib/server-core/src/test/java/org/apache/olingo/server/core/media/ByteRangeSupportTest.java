@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.media;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.junit.Test;
+
+public class ByteRangeSupportTest {
+
+  private static final String DATA = "0123456789";
+
+  @Test
+  public void completeContent() throws Exception {
+    final ODataResponse response = serve(null, null);
+    assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+    assertEquals("bytes", response.getHeader(HttpHeader.ACCEPT_RANGES));
+    assertEquals("10", response.getHeader(HttpHeader.CONTENT_LENGTH));
+    assertNull(response.getHeader(HttpHeader.CONTENT_RANGE));
+    assertEquals(DATA, content(response));
+  }
+
+  @Test
+  public void range() throws Exception {
+    assertPartial(serve("bytes=2-5", null), "2-5", "2345");
+    assertPartial(serve("bytes=7-", null), "7-9", "789");
+    assertPartial(serve("bytes=-3", null), "7-9", "789");
+    assertPartial(serve("bytes=-30", null), "0-9", DATA);
+    assertPartial(serve("Bytes = 8-20", null), "8-9", "89");
+  }
+
+  @Test
+  public void rangeOfFile() throws Exception {
+    final File file = File.createTempFile("media", ".bin");
+    file.deleteOnExit();
+    Files.write(file.toPath(), DATA.getBytes(StandardCharsets.US_ASCII));
+    final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+    final ODataResponse response = new ODataResponse();
+    response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    response.setODataContent(new MediaContent(channel, channel.size()));
+    ByteRangeSupport.apply(request("bytes=3-4", null), response);
+    assertEquals(channel, ((MediaContent) response.getODataContent()).getFileChannel());
+    assertPartial(response, "3-4", "34");
+    assertFalse(channel.isOpen());
+  }
+
+  @Test
+  public void unsatisfiableRange() throws Exception {
+    final ODataResponse response = serve("bytes=10-", null);
+    assertEquals(HttpStatusCode.RANGE_NOT_SATISFIABLE.getStatusCode(), response.getStatusCode());
+    assertEquals("bytes */10", response.getHeader(HttpHeader.CONTENT_RANGE));
+    assertEquals("0", response.getHeader(HttpHeader.CONTENT_LENGTH));
+    assertNull(response.getODataContent());
+
+    assertEquals(HttpStatusCode.RANGE_NOT_SATISFIABLE.getStatusCode(), serve("bytes=-0", null).getStatusCode());
+  }
+
+  @Test
+  public void ignoredRange() throws Exception {
+    assertEquals(DATA, content(serve("bytes=0-1,4-5", null)));
+    assertEquals(DATA, content(serve("bytes=5-2", null)));
+    assertEquals(DATA, content(serve("bytes=a-b", null)));
+    assertEquals(DATA, content(serve("lines=1-2", null)));
+  }
+
+  @Test
+  public void ifRange() throws Exception {
+    assertPartial(serve("bytes=0-0", "\"1\""), "0-0", "0");
+    assertEquals(DATA, content(serve("bytes=0-0", "\"2\"")));
+    assertEquals(DATA, content(serve("bytes=0-0", "W/\"1\"")));
+    assertPartial(serve("bytes=1-1", "Tue, 15 Nov 1994 08:12:31 GMT"), "1-1", "1");
+    assertEquals(DATA, content(serve("bytes=1-1", "Wed, 16 Nov 1994 08:12:31 GMT")));
+  }
+
+  @Test
+  public void otherContentIsNotTouched() throws Exception {
+    final ODataResponse response = new ODataResponse();
+    response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    response.setContent(new ByteArrayInputStream(DATA.getBytes(StandardCharsets.US_ASCII)));
+    ByteRangeSupport.apply(request("bytes=2-5", null), response);
+    assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+    assertNull(response.getHeader(HttpHeader.ACCEPT_RANGES));
+  }
+
+  private ODataResponse serve(final String range, final String ifRange) {
+    final ODataResponse response = new ODataResponse();
+    response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    response.setHeader(HttpHeader.ETAG, "\"1\"");
+    response.setHeader(HttpHeader.LAST_MODIFIED, "Tue, 15 Nov 1994 08:12:31 GMT");
+    response.setODataContent(new MediaContent(
+        Channels.newChannel(new ByteArrayInputStream(DATA.getBytes(StandardCharsets.US_ASCII))), DATA.length()));
+    ByteRangeSupport.apply(request(range, ifRange), response);
+    return response;
+  }
+
+  private ODataRequest request(final String range, final String ifRange) {
+    final ODataRequest request = new ODataRequest();
+    if (range != null) {
+      request.addHeader(HttpHeader.RANGE, range);
+    }
+    if (ifRange != null) {
+      request.addHeader(HttpHeader.IF_RANGE, ifRange);
+    }
+    return request;
+  }
+
+  private void assertPartial(final ODataResponse response, final String range, final String expected) {
+    assertEquals(HttpStatusCode.PARTIAL_CONTENT.getStatusCode(), response.getStatusCode());
+    assertEquals("bytes " + range + "/10", response.getHeader(HttpHeader.CONTENT_RANGE));
+    assertEquals(Integer.toString(expected.length()), response.getHeader(HttpHeader.CONTENT_LENGTH));
+    assertEquals(expected, content(response));
+  }
+
+  private String content(final ODataResponse response) {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    response.getODataContent().write(output);
+    return new String(output.toByteArray(), StandardCharsets.US_ASCII);
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.Result;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataServerError;
+import org.apache.olingo.server.core.ODataImpl;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+public class SerializerFactoriesTest {
+
+  @Test
+  public void defaultFactoriesAreShared() throws Exception {
+    final JsonFactory jsonFactory = SerializerFactories.getJsonFactory();
+    final XMLOutputFactory xmlOutputFactory = SerializerFactories.getXmlOutputFactory();
+    assertNotNull(jsonFactory);
+    assertNotNull(xmlOutputFactory);
+    assertSame(jsonFactory, SerializerFactories.getJsonFactory());
+    assertSame(xmlOutputFactory, SerializerFactories.getXmlOutputFactory());
+  }
+
+  @Test
+  public void customJsonFactoryIsUsedByItsInstanceOnly() throws Exception {
+    final AtomicInteger generators = new AtomicInteger();
+    final ODataImpl odata = new ODataImpl().setJsonFactory(new JsonFactory() {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public JsonGenerator createGenerator(final OutputStream out) throws IOException {
+        generators.incrementAndGet();
+        return super.createGenerator(out);
+      }
+    });
+
+    final ODataServerError error = new ODataServerError().setCode("500").setMessage("Failure");
+    final String result = IOUtils.toString(odata.createSerializer(ContentType.JSON).error(error).getContent());
+    assertEquals("{\"error\":{\"code\":\"500\",\"message\":\"Failure\"}}", result);
+    odata.createSerializer(ContentType.JSON).error(error);
+    assertEquals(2, generators.get());
+
+    OData.newInstance().createSerializer(ContentType.JSON).error(error);
+    assertEquals(2, generators.get());
+  }
+
+  @Test
+  public void customXmlOutputFactoryIsUsedByItsInstanceOnly() throws Exception {
+    final AtomicInteger writers = new AtomicInteger();
+    final XMLOutputFactory delegate = XMLOutputFactory.newInstance();
+    final ODataImpl odata = new ODataImpl().setXmlOutputFactory(new XMLOutputFactory() {
+      @Override
+      public XMLStreamWriter createXMLStreamWriter(final Writer stream) throws XMLStreamException {
+        return delegate.createXMLStreamWriter(stream);
+      }
+
+      @Override
+      public XMLStreamWriter createXMLStreamWriter(final OutputStream stream) throws XMLStreamException {
+        writers.incrementAndGet();
+        return delegate.createXMLStreamWriter(stream);
+      }
+
+      @Override
+      public XMLStreamWriter createXMLStreamWriter(final OutputStream stream, final String encoding)
+          throws XMLStreamException {
+        writers.incrementAndGet();
+        return delegate.createXMLStreamWriter(stream, encoding);
+      }
+
+      @Override
+      public XMLStreamWriter createXMLStreamWriter(final Result result) throws XMLStreamException {
+        return delegate.createXMLStreamWriter(result);
+      }
+
+      @Override
+      public XMLEventWriter createXMLEventWriter(final Result result) throws XMLStreamException {
+        return delegate.createXMLEventWriter(result);
+      }
+
+      @Override
+      public XMLEventWriter createXMLEventWriter(final OutputStream stream) throws XMLStreamException {
+        return delegate.createXMLEventWriter(stream);
+      }
+
+      @Override
+      public XMLEventWriter createXMLEventWriter(final OutputStream stream, final String encoding)
+          throws XMLStreamException {
+        return delegate.createXMLEventWriter(stream, encoding);
+      }
+
+      @Override
+      public XMLEventWriter createXMLEventWriter(final Writer stream) throws XMLStreamException {
+        return delegate.createXMLEventWriter(stream);
+      }
+
+      @Override
+      public void setProperty(final String name, final Object value) {
+        delegate.setProperty(name, value);
+      }
+
+      @Override
+      public Object getProperty(final String name) {
+        return delegate.getProperty(name);
+      }
+
+      @Override
+      public boolean isPropertySupported(final String name) {
+        return delegate.isPropertySupported(name);
+      }
+    });
+
+    final ODataServerError error = new ODataServerError().setCode("500").setMessage("Failure");
+    odata.createSerializer(ContentType.APPLICATION_XML).error(error);
+    assertEquals(1, writers.get());
+    OData.newInstance().createSerializer(ContentType.APPLICATION_XML).error(error);
+    assertEquals(1, writers.get());
+  }
+
+  @Test
+  public void nullRestoresDefaults() throws Exception {
+    final ODataImpl odata = new ODataImpl().setJsonFactory(new JsonFactory()).setJsonFactory(null)
+        .setXmlOutputFactory(XMLOutputFactory.newInstance()).setXmlOutputFactory(null);
+    final ODataServerError error = new ODataServerError().setCode("500").setMessage("Failure");
+    assertEquals("{\"error\":{\"code\":\"500\",\"message\":\"Failure\"}}",
+        IOUtils.toString(odata.createSerializer(ContentType.JSON).error(error).getContent()));
+    assertNotNull(odata.createSerializer(ContentType.APPLICATION_XML).error(error).getContent());
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+public class JsonPrimitiveValueWriterTest {
+
+  private static final JsonFactory FACTORY = new JsonFactory();
+
+  @Test
+  public void numbers() throws Exception {
+    assertDirect(EdmPrimitiveTypeKind.Int32, Integer.MIN_VALUE, 0, 42, Short.valueOf((short) -7), 123L);
+    assertDirect(EdmPrimitiveTypeKind.Int64, Long.MIN_VALUE, Long.MAX_VALUE, 5, (byte) 3);
+    assertDirect(EdmPrimitiveTypeKind.Int16, Short.MIN_VALUE, 32767, 0L);
+    assertDirect(EdmPrimitiveTypeKind.Byte, 0, 255, (byte) 12, 200L);
+    assertDirect(EdmPrimitiveTypeKind.SByte, (byte) -128, 127, -5L);
+    assertDirect(EdmPrimitiveTypeKind.Double, 1.5, -0.0, 1e300, 4.9e-324, 3.4028235E38f, 12345L, 7);
+    assertDirect(EdmPrimitiveTypeKind.Single, 1.25f, -3.4028235E38f, 1e-7f, 4194303, (short) 5);
+    assertDirect(EdmPrimitiveTypeKind.Decimal, 0L, -123456789L, 99, new BigDecimal("12"), new BigDecimal("1E+3"));
+    assertDirect(EdmPrimitiveTypeKind.Boolean, true, false);
+  }
+
+  @Test
+  public void numbersWithFacets() throws Exception {
+    assertDirect(EdmPrimitiveTypeKind.Decimal, 5, 2, 12345L, new BigDecimal("123.45"), new BigDecimal("0.5"));
+    assertDirect(EdmPrimitiveTypeKind.Decimal, null, 3, new BigDecimal("-0.001"), new BigDecimal("1.000"));
+    assertFallback(EdmPrimitiveTypeKind.Decimal, 3, 0, 1234L, new BigDecimal("1.5"));
+    assertFallback(EdmPrimitiveTypeKind.Decimal, null, null, 1.5, BigDecimal.ONE.toBigInteger());
+  }
+
+  @Test
+  public void outOfRangeNumbers() throws Exception {
+    assertFallback(EdmPrimitiveTypeKind.Int32, null, null, 1L << 40);
+    assertFallback(EdmPrimitiveTypeKind.Int16, null, null, 40000);
+    assertFallback(EdmPrimitiveTypeKind.Byte, null, null, (byte) -1, 256);
+    assertFallback(EdmPrimitiveTypeKind.SByte, null, null, 128);
+    assertFallback(EdmPrimitiveTypeKind.Double, null, null, Double.NaN, Double.POSITIVE_INFINITY, 1L << 52,
+        new BigDecimal("1.5"));
+    assertFallback(EdmPrimitiveTypeKind.Single, null, null, 1.5, Float.NEGATIVE_INFINITY, 1 << 22);
+    assertFallback(EdmPrimitiveTypeKind.Int32, null, null, "1");
+  }
+
+  @Test
+  public void ieee754Compatible() throws Exception {
+    final StringWriter writer = new StringWriter();
+    try (JsonGenerator json = FACTORY.createGenerator(writer)) {
+      assertFalse(JsonPrimitiveValueWriter.write(type(EdmPrimitiveTypeKind.Int64), 1L,
+          null, null, null, null, true, json));
+      assertFalse(JsonPrimitiveValueWriter.write(type(EdmPrimitiveTypeKind.Decimal), BigDecimal.TEN,
+          null, null, null, null, true, json));
+      assertTrue(JsonPrimitiveValueWriter.write(type(EdmPrimitiveTypeKind.Int32), 1,
+          null, null, null, null, true, json));
+    }
+    assertEquals("1", writer.toString());
+  }
+
+  @Test
+  public void strings() throws Exception {
+    assertDirect(EdmPrimitiveTypeKind.String, "", "abc", "quote \" and \\ and ä€\n");
+    assertDirect(EdmPrimitiveTypeKind.String, 3, null, "abc");
+    assertFallback(EdmPrimitiveTypeKind.String, 2, null, "abc", 42);
+    final StringWriter writer = new StringWriter();
+    try (JsonGenerator json = FACTORY.createGenerator(writer)) {
+      assertFalse(JsonPrimitiveValueWriter.write(type(EdmPrimitiveTypeKind.String), "ä",
+          null, null, null, false, false, json));
+      assertTrue(JsonPrimitiveValueWriter.write(type(EdmPrimitiveTypeKind.String), "a",
+          null, null, null, false, false, json));
+    }
+  }
+
+  @Test
+  public void dateTimeOffset() throws Exception {
+    final Timestamp timestamp = Timestamp.valueOf("2012-12-03 07:16:23.000000123");
+    final Timestamp beforeEpoch = new Timestamp(-1500);
+    beforeEpoch.setNanos(123400000);
+    assertDirect(EdmPrimitiveTypeKind.DateTimeOffset,
+        timestamp, beforeEpoch, new Timestamp(0),
+        new Date(1356000000000L), -1L, 1L, 253402300799999L,
+        Instant.parse("2016-02-29T23:59:59.999999999Z"), Instant.ofEpochSecond(-62167219200L),
+        ZonedDateTime.of(2015, 8, 12, 3, 8, 34, 120000000, ZoneId.of("Europe/Berlin")),
+        ZonedDateTime.of(1980, 1, 1, 0, 0, 0, 0, ZoneOffset.ofHoursMinutesSeconds(-5, -30, -15)),
+        ZonedDateTime.of(2000, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC),
+        calendar("America/New_York", 2019, 6, 15, 12, 30, 0),
+        calendar("America/New_York", 2019, 0, 15, 12, 30, 5),
+        calendar("Asia/Kolkata", 1948, 1, 17, 9, 9, 9),
+        calendar("UTC", 1900, 0, 1, 0, 0, 0));
+    assertFallback(EdmPrimitiveTypeKind.DateTimeOffset, null, null,
+        new java.sql.Date(0), new java.sql.Time(0), Instant.parse("+10000-01-01T00:00:00Z"),
+        calendar("Europe/Berlin", 1850, 0, 1, 0, 0, 0));
+  }
+
+  @Test
+  public void dateAndTimeOfDay() throws Exception {
+    assertDirect(EdmPrimitiveTypeKind.Date, LocalDate.of(2012, 12, 3), LocalDate.of(0, 1, 1),
+        LocalDate.of(2000, 2, 29), LocalDate.of(9999, 12, 31), LocalDate.of(1600, 3, 1),
+        calendar("Europe/Berlin", 2013, 11, 12, 0, 0, 0), calendar("Pacific/Kiritimati", 2020, 5, 1, 23, 59, 0));
+    assertFallback(EdmPrimitiveTypeKind.Date, null, null, LocalDate.of(10000, 1, 1), LocalDate.of(-1, 1, 1),
+        new java.sql.Date(0), 0L);
+
+    final GregorianCalendar withMillis = calendar("Europe/Berlin", 1970, 0, 1, 4, 14, 13);
+    withMillis.set(GregorianCalendar.MILLISECOND, 50);
+    assertDirect(EdmPrimitiveTypeKind.TimeOfDay, LocalTime.of(0, 0), LocalTime.of(23, 59, 59),
+        LocalTime.of(1, 2, 0, 1000), LocalTime.of(1, 2, 3, 4000000), LocalTime.of(1, 2, 3, 5),
+        LocalTime.of(12, 0, 0, 999999999), calendar("Asia/Tokyo", 1970, 0, 1, 1, 12, 33), withMillis);
+    assertFallback(EdmPrimitiveTypeKind.TimeOfDay, null, null, new java.sql.Time(0), 0L);
+  }
+
+  private static EdmPrimitiveType type(final EdmPrimitiveTypeKind kind) {
+    return EdmPrimitiveTypeFactory.getInstance(kind);
+  }
+
+  private static GregorianCalendar calendar(final String zone, final int year, final int month, final int day,
+      final int hour, final int minute, final int second) {
+    final GregorianCalendar calendar = new GregorianCalendar(TimeZone.getTimeZone(zone));
+    calendar.clear();
+    calendar.set(year, month, day, hour, minute, second);
+    return calendar;
+  }
+
+  private static void assertDirect(final EdmPrimitiveTypeKind kind, final Object... values) throws Exception {
+    assertDirect(kind, null, null, values);
+  }
+
+  /** Checks that the values are written directly, with the same output as through the primitive type. */
+  private static void assertDirect(final EdmPrimitiveTypeKind kind, final Integer precision, final Integer scale,
+      final Object... values) throws Exception {
+    final Integer maxLength = kind == EdmPrimitiveTypeKind.String ? precision : null;
+    for (final Object value : values) {
+      final StringWriter writer = new StringWriter();
+      try (JsonGenerator json = FACTORY.createGenerator(writer)) {
+        assertTrue("direct path for " + value,
+            JsonPrimitiveValueWriter.write(type(kind), value, maxLength, precision, scale, null, false, json));
+      }
+      assertEquals(String.valueOf(value), formatted(kind, value, maxLength, precision, scale), writer.toString());
+    }
+  }
+
+  private static void assertFallback(final EdmPrimitiveTypeKind kind, final Integer precision, final Integer scale,
+      final Object... values) throws Exception {
+    final Integer maxLength = kind == EdmPrimitiveTypeKind.String ? precision : null;
+    for (final Object value : values) {
+      final StringWriter writer = new StringWriter();
+      try (JsonGenerator json = FACTORY.createGenerator(writer)) {
+        assertFalse("fallback for " + value,
+            JsonPrimitiveValueWriter.write(type(kind), value, maxLength, precision, scale, null, false, json));
+      }
+      assertEquals("", writer.toString());
+    }
+  }
+
+  /** Formats the value the way the serializer does through the primitive type. */
+  private static String formatted(final EdmPrimitiveTypeKind kind, final Object value, final Integer maxLength,
+      final Integer precision, final Integer scale) throws EdmPrimitiveTypeException, IOException {
+    final String text = type(kind).valueToString(value, null, maxLength, precision, scale, null);
+    final StringWriter writer = new StringWriter();
+    try (JsonGenerator json = FACTORY.createGenerator(writer)) {
+      switch (kind) {
+      case Boolean:
+        json.writeBoolean(Boolean.parseBoolean(text));
+        break;
+      case Byte:
+      case SByte:
+      case Int16:
+      case Int32:
+      case Int64:
+      case Single:
+      case Double:
+      case Decimal:
+        json.writeNumber(text);
+        break;
+      default:
+        json.writeString(text);
+      }
+    }
+    return writer.toString();
+  }
+}
@@ -18,25 +18,29 @@
  */
 package org.apache.olingo.server.tecsvc.processor;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.async.AsyncTask;
 import org.apache.olingo.server.api.batch.BatchFacade;
 import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPartReader;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 import org.apache.olingo.server.api.prefer.PreferencesApplied;
 import org.apache.olingo.server.api.processor.BatchProcessor;
-import org.apache.olingo.server.tecsvc.async.AsyncProcessor;
 import org.apache.olingo.server.tecsvc.async.TechnicalAsyncService;
 import org.apache.olingo.server.tecsvc.data.DataProvider;
 
@@ -51,15 +55,14 @@ public class TechnicalBatchProcessor extends TechnicalProcessor implements Batch
       throws ODataApplicationException, ODataLibraryException {
     // only the first batch call (process batch) must be handled in a separate way for async support
     // because a changeset has to be wrapped within a process batch call
-    if(odata.createPreferences(request.getHeaders(HttpHeader.PREFER)).hasRespondAsync()) {
-      TechnicalAsyncService asyncService = TechnicalAsyncService.getInstance();
-      BatchProcessor processor = new TechnicalBatchProcessor(dataProvider);
-      processor.init(odata, serviceMetadata);
-      AsyncProcessor<BatchProcessor> asyncProcessor = asyncService.register(processor, BatchProcessor.class);
-      asyncProcessor.prepareFor().processBatch(facade, request, response);
-      String location = asyncProcessor.processAsync();
-      TechnicalAsyncService.acceptedResponse(response, location);
-      //
+    if (odata.createPreferences(request.getHeaders(HttpHeader.PREFER)).hasRespondAsync()
+        && TechnicalAsyncService.getInstance().processAsynchronously(request, response, new AsyncTask() {
+          @Override
+          public void process(final ODataRequest asyncRequest, final ODataResponse asyncResponse)
+              throws ODataApplicationException, ODataLibraryException {
+            processBatch(facade, asyncRequest, asyncResponse);
+          }
+        })) {
       return;
     }
 
@@ -71,21 +74,32 @@ public class TechnicalBatchProcessor extends TechnicalProcessor implements Batch
     final BatchOptions options = BatchOptions.with()
         .rawBaseUri(request.getRawBaseUri())
         .rawServiceResolutionUri(request.getRawServiceResolutionUri()).build();
-    final List<BatchRequestPart> parts = odata.createFixedFormatDeserializer().parseBatchRequest(request.getBody(),
+    final BatchRequestPartReader reader = odata.createFixedFormatDeserializer().readBatchRequest(request.getBody(),
         boundary, options);
+    // Processing stops at the first failed part unless continue-on-error is preferred,
+    // but responses to all recent requests are serialized.
     final List<ODataResponsePart> responseParts = new ArrayList<ODataResponsePart>();
-
-    for (BatchRequestPart part : parts) {
-      final ODataResponsePart responsePart = facade.handleBatchRequest(part);
-      responseParts.add(responsePart); // Also add failed responses.
-      final int statusCode = responsePart.getResponses().get(0).getStatusCode();
-
-      if ((statusCode >= 400 && statusCode <= 600) && !continueOnError) {
-
-        // Perform some additional actions.
-        // ...
-
-        break; // Stop processing, but serialize responses to all recent requests.
+    try {
+      // Parts without body are collected, so that the facade can execute independent ones concurrently.
+      // A request outside of a change set that may have a body is handled before the next part is read;
+      // so its body is read directly from the batch request instead of being copied.
+      final List<BatchRequestPart> parts = new ArrayList<BatchRequestPart>();
+      boolean stopped = false;
+      BatchRequestPart part;
+      while (!stopped && (part = reader.next()) != null) {
+        parts.add(part);
+        if (!part.isChangeSet() && part.getRequests().get(0).getMethod() != HttpMethod.GET) {
+          stopped = handleBatchRequests(facade, parts, continueOnError, responseParts);
+        }
+      }
+      if (!stopped) {
+        handleBatchRequests(facade, parts, continueOnError, responseParts);
+      }
+    } finally {
+      try {
+        reader.close();
+      } catch (final IOException e) {
+        throw new ODataRuntimeException(e);
       }
     }
 
@@ -101,6 +115,31 @@ public class TechnicalBatchProcessor extends TechnicalProcessor implements Batch
     }
   }
 
+  /**
+   * Handles the collected parts and adds their responses.
+   * @return whether processing has to stop because of a failed part
+   */
+  private boolean handleBatchRequests(final BatchFacade facade, final List<BatchRequestPart> parts,
+      final boolean continueOnError, final List<ODataResponsePart> responseParts)
+      throws ODataApplicationException, ODataLibraryException {
+    if (parts.isEmpty()) {
+      return false;
+    }
+    final List<ODataResponsePart> partResponses = facade.handleBatchRequests(parts, continueOnError);
+    responseParts.addAll(partResponses);
+    parts.clear();
+    if (!continueOnError) {
+      for (final ODataResponsePart partResponse : partResponses) {
+        for (final ODataResponse partResponseItem : partResponse.getResponses()) {
+          if (partResponseItem.getStatusCode() >= 400) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
   @Override
   public ODataResponsePart processChangeSet(final BatchFacade facade, final List<ODataRequest> requests)
       throws ODataApplicationException, ODataLibraryException {
@@ -51,6 +51,7 @@ import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.async.AsyncTask;
 import org.apache.olingo.server.api.deserializer.DeserializerResult;
 import org.apache.olingo.server.api.deserializer.ODataDeserializer;
 import org.apache.olingo.server.api.prefer.Preferences.Return;
@@ -78,15 +79,13 @@ import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
 import org.apache.olingo.server.api.uri.queryoption.IdOption;
 import org.apache.olingo.server.api.uri.queryoption.SelectOption;
 import org.apache.olingo.server.api.uri.queryoption.SystemQueryOption;
-import org.apache.olingo.server.tecsvc.async.AsyncProcessor;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionEvaluator;
 import org.apache.olingo.server.tecsvc.async.TechnicalAsyncService;
 import org.apache.olingo.server.tecsvc.data.DataProvider;
 import org.apache.olingo.server.tecsvc.data.RequestValidator;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.ExpandSystemQueryOptionHandler;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.options.CountHandler;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.options.DeltaTokenHandler;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.options.FilterHandler;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.options.OrderByHandler;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.options.SearchHandler;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.options.ServerSidePagingHandler;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.options.SkipHandler;
@@ -122,7 +121,7 @@ public class TechnicalEntityProcessor extends TechnicalProcessor
     final EntityCollection entitySetInitial = readEntityCollection(uriInfo);
     EntityCollection entitySet = new EntityCollection();
     entitySet.getEntities().addAll(entitySetInitial.getEntities());
-    FilterHandler.applyFilterSystemQuery(uriInfo.getFilterOption(), entitySet, uriInfo, serviceMetadata.getEdm());
+    getExpressionEvaluator().applyFilter(uriInfo.getFilterOption(), entitySet.getEntities(), uriInfo);
     SearchHandler.applySearchSystemQueryOption(uriInfo.getSearchOption(), entitySet);
     int count =  entitySet.getEntities().size();
     for (SystemQueryOption systemQueryOption : uriInfo.getSystemQueryOptions()) {
@@ -193,14 +192,14 @@ public class TechnicalEntityProcessor extends TechnicalProcessor
     }
     checkRequestFormat(requestFormat);
 
-    if (odata.createPreferences(request.getHeaders(HttpHeader.PREFER)).hasRespondAsync()) {
-      TechnicalAsyncService asyncService = TechnicalAsyncService.getInstance();
-      TechnicalEntityProcessor processor = new TechnicalEntityProcessor(dataProvider, serviceMetadata);
-      processor.init(odata, serviceMetadata);
-      AsyncProcessor<EntityProcessor> asyncProcessor = asyncService.register(processor, EntityProcessor.class);
-      asyncProcessor.prepareFor().createEntity(request, response, uriInfo, requestFormat, responseFormat);
-      String location = asyncProcessor.processAsync();
-      TechnicalAsyncService.acceptedResponse(response, location);
+    if (odata.createPreferences(request.getHeaders(HttpHeader.PREFER)).hasRespondAsync()
+        && TechnicalAsyncService.getInstance().processAsynchronously(request, response, new AsyncTask() {
+          @Override
+          public void process(final ODataRequest asyncRequest, final ODataResponse asyncResponse)
+              throws ODataApplicationException, ODataLibraryException {
+            createEntity(asyncRequest, asyncResponse, uriInfo, requestFormat, responseFormat);
+          }
+        })) {
       return;
     }
 
@@ -453,19 +452,16 @@ public class TechnicalEntityProcessor extends TechnicalProcessor
   private void readEntity(final ODataRequest request, final ODataResponse response, final UriInfo uriInfo,
       final ContentType requestedFormat, final boolean isReference)
       throws ODataApplicationException, ODataLibraryException {
-    //
-    if (odata.createPreferences(request.getHeaders(HttpHeader.PREFER)).hasRespondAsync()) {
-      TechnicalAsyncService asyncService = TechnicalAsyncService.getInstance();
-      TechnicalEntityProcessor processor = new TechnicalEntityProcessor(dataProvider, serviceMetadata);
-      processor.init(odata, serviceMetadata);
-      AsyncProcessor<EntityProcessor> asyncProcessor = asyncService.register(processor, EntityProcessor.class);
-      asyncProcessor.prepareFor().readEntity(request, response, uriInfo, requestedFormat);
-      String location = asyncProcessor.processAsync();
-      TechnicalAsyncService.acceptedResponse(response, location);
-      //
+    if (odata.createPreferences(request.getHeaders(HttpHeader.PREFER)).hasRespondAsync()
+        && TechnicalAsyncService.getInstance().processAsynchronously(request, response, new AsyncTask() {
+          @Override
+          public void process(final ODataRequest asyncRequest, final ODataResponse asyncResponse)
+              throws ODataApplicationException, ODataLibraryException {
+            readEntity(asyncRequest, asyncResponse, uriInfo, requestedFormat, isReference);
+          }
+        })) {
       return;
     }
-    //
 
     final EdmEntitySet edmEntitySet = getEdmEntitySet(uriInfo);
     
@@ -575,20 +571,16 @@ public class TechnicalEntityProcessor extends TechnicalProcessor
   private void readEntityCollection(final ODataRequest request, final ODataResponse response,
       final UriInfo uriInfo, final ContentType requestedContentType, final boolean isReference)
       throws ODataApplicationException, ODataLibraryException {
-    //
-    if (odata.createPreferences(request.getHeaders(HttpHeader.PREFER)).hasRespondAsync()) {
-      TechnicalAsyncService asyncService = TechnicalAsyncService.getInstance();
-      TechnicalEntityProcessor processor = new TechnicalEntityProcessor(dataProvider, serviceMetadata);
-      processor.init(odata, serviceMetadata);
-      AsyncProcessor<EntityCollectionProcessor> asyncProcessor =
-          asyncService.register(processor, EntityCollectionProcessor.class);
-      asyncProcessor.prepareFor().readEntityCollection(request, response, uriInfo, requestedContentType);
-      String location = asyncProcessor.processAsync();
-      TechnicalAsyncService.acceptedResponse(response, location);
-      //
+    if (odata.createPreferences(request.getHeaders(HttpHeader.PREFER)).hasRespondAsync()
+        && TechnicalAsyncService.getInstance().processAsynchronously(request, response, new AsyncTask() {
+          @Override
+          public void process(final ODataRequest asyncRequest, final ODataResponse asyncResponse)
+              throws ODataApplicationException, ODataLibraryException {
+            readEntityCollection(asyncRequest, asyncResponse, uriInfo, requestedContentType, isReference);
+          }
+        })) {
       return;
     }
-    //
 
     final EdmEntitySet edmEntitySet = getEdmEntitySet(uriInfo.asUriInfoResource());
     final boolean isContNav = checkIfContNavigation(uriInfo);
@@ -615,9 +607,10 @@ public class TechnicalEntityProcessor extends TechnicalProcessor
 
     // Apply system query options.
     SearchHandler.applySearchSystemQueryOption(uriInfo.getSearchOption(), entitySet);
-    FilterHandler.applyFilterSystemQuery(uriInfo.getFilterOption(), entitySet, uriInfo, serviceMetadata.getEdm());
+    final ExpressionEvaluator evaluator = getExpressionEvaluator();
+    evaluator.applyFilter(uriInfo.getFilterOption(), entitySet.getEntities(), uriInfo);
     CountHandler.applyCountSystemQueryOption(uriInfo.getCountOption(), entitySet);
-    OrderByHandler.applyOrderByOption(uriInfo.getOrderByOption(), entitySet, uriInfo, serviceMetadata.getEdm());
+    evaluator.applyOrderBy(uriInfo.getOrderByOption(), entitySet.getEntities(), uriInfo);
     SkipHandler.applySkipSystemQueryHandler(uriInfo.getSkipOption(), entitySet);
     TopHandler.applyTopSystemQueryOption(uriInfo.getTopOption(), entitySet);
 
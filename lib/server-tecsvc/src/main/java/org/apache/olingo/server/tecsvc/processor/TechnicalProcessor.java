@@ -49,8 +49,10 @@ import org.apache.olingo.server.api.uri.UriResourceFunction;
 import org.apache.olingo.server.api.uri.UriResourceNavigation;
 import org.apache.olingo.server.api.uri.UriResourceSingleton;
 import org.apache.olingo.server.api.uri.queryoption.expression.Binary;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionEvaluator;
 import org.apache.olingo.server.api.uri.queryoption.expression.Member;
 import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.TechnicalFunctionCallHandler;
 
 /**
  * Technical Processor base.
@@ -335,6 +337,10 @@ public abstract class TechnicalProcessor implements Processor {
     }
   }
 
+  protected ExpressionEvaluator getExpressionEvaluator() {
+    return odata.createExpressionEvaluator(new TechnicalFunctionCallHandler(odata, serviceMetadata.getEdm()));
+  }
+
   protected void validateOptions(final UriInfoResource uriInfo) throws ODataApplicationException {
     if (uriInfo.getApplyOption() != null) {
       throw new ODataApplicationException("Not all of the specified options are supported.",
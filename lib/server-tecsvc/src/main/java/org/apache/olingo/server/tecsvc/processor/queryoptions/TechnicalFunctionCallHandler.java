@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.tecsvc.processor.queryoptions;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmFunction;
+import org.apache.olingo.commons.api.edm.constants.EdmTypeKind;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.UriResourceFunction;
+import org.apache.olingo.server.api.uri.queryoption.expression.FunctionCallHandler;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+
+/**
+ * Calls the functions of the technical service used in system query options
+ * on freshly created data, independent of any changes done by previous requests.
+ */
+public class TechnicalFunctionCallHandler implements FunctionCallHandler {
+
+  private final OData odata;
+  private final Edm edm;
+
+  public TechnicalFunctionCallHandler(final OData odata, final Edm edm) {
+    this.odata = odata;
+    this.edm = edm;
+  }
+
+  @Override
+  public Object callFunction(final UriResourceFunction uriResourceFunction, final UriInfoResource uriInfo)
+      throws ODataApplicationException {
+    final EdmFunction function = uriResourceFunction.getFunction();
+    final DataProvider dataProvider = new DataProvider(odata, edm);
+    return function.getReturnType().getType().getKind() == EdmTypeKind.ENTITY ?
+        function.getReturnType().isCollection() ?
+            dataProvider.readFunctionEntityCollection(function, uriResourceFunction.getParameters(), uriInfo) :
+            dataProvider.readFunctionEntity(function, uriResourceFunction.getParameters(), uriInfo) :
+        dataProvider.readFunctionPrimitiveComplex(function, uriResourceFunction.getParameters(), uriInfo);
+  }
+}
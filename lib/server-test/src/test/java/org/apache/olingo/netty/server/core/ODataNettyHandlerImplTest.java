@@ -19,9 +19,11 @@
 package org.apache.olingo.netty.server.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -29,6 +31,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.olingo.commons.api.edmx.EdmxReference;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
@@ -37,17 +40,30 @@ import org.apache.olingo.netty.server.api.ODataNettyHandler;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.processor.EntityProcessor;
 import org.apache.olingo.server.api.processor.MetadataProcessor;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.processor.TechnicalEntityProcessor;
 import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
 import org.junit.Test;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
 
 public class ODataNettyHandlerImplTest {
 
@@ -153,4 +169,81 @@ public class ODataNettyHandlerImplTest {
     nettyResponse.status();
     assertEquals(HttpStatusCode.CREATED.getStatusCode(), HttpResponseStatus.CREATED.code());
   }
+
+  @Test
+  public void streamingReadEntityCollection() throws Exception {
+    final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    final HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1,
+        io.netty.handler.codec.http.HttpMethod.GET, "/odata.svc/ESAllPrim?$format=json");
+    final NettyRequestBodyInputStream body = new NettyRequestBodyInputStream(channel);
+    body.offer(LastHttpContent.EMPTY_LAST_CONTENT);
+
+    final ChannelFuture future = createTechnicalHandler().processNettyRequest(channel.pipeline().firstContext(),
+        request, body, Collections.singletonMap("contextPath", "/odata.svc"));
+    awaitSuccess(future);
+
+    final HttpResponse response = channel.readOutbound();
+    assertEquals(HttpStatusCode.OK.getStatusCode(), response.status().code());
+    assertTrue(HttpUtil.isTransferEncodingChunked(response));
+    final String content = readContent(channel);
+    assertTrue(content.startsWith("{\"@odata.context\":\"$metadata#ESAllPrim\""));
+    assertTrue(content.contains("\"PropertyInt16\":32767"));
+  }
+
+  @Test
+  public void streamingCreateEntityFromChunkedBody() throws Exception {
+    final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    final HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1,
+        io.netty.handler.codec.http.HttpMethod.POST, "/odata.svc/ESTwoPrim");
+    request.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json");
+    final NettyRequestBodyInputStream body = new NettyRequestBodyInputStream(channel);
+    final HttpContent first = new DefaultHttpContent(
+        Unpooled.copiedBuffer("{\"PropertyInt16\":4711,", StandardCharsets.UTF_8));
+    final HttpContent last = new DefaultLastHttpContent(
+        Unpooled.copiedBuffer("\"PropertyString\":\"streamed\"}", StandardCharsets.UTF_8));
+    body.offer(first);
+    body.offer(last);
+    first.release();
+    last.release();
+
+    final ChannelFuture future = createTechnicalHandler().processNettyRequest(channel.pipeline().firstContext(),
+        request, body, Collections.singletonMap("contextPath", "/odata.svc"));
+    awaitSuccess(future);
+
+    final HttpResponse response = channel.readOutbound();
+    assertEquals(HttpStatusCode.CREATED.getStatusCode(), response.status().code());
+    assertTrue(readContent(channel).contains("\"PropertyString\":\"streamed\""));
+  }
+
+  /**
+   * Waits until the response has been written.
+   * The content is produced on another thread; the future of an embedded channel cannot be awaited.
+   */
+  private static void awaitSuccess(final ChannelFuture future) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!future.isDone() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(future.isSuccess());
+  }
+
+  private static ODataNettyHandler createTechnicalHandler() {
+    final ODataNetty odata = ODataNetty.newInstance();
+    final ServiceMetadata metadata = odata.createServiceMetadata(
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    final ODataNettyHandler handler = odata.createNettyHandler(metadata);
+    handler.register(new TechnicalEntityProcessor(new DataProvider(odata, metadata.getEdm()), metadata));
+    return handler;
+  }
+
+  private static String readContent(final EmbeddedChannel channel) {
+    final ByteBuf content = Unpooled.buffer();
+    HttpContent chunk;
+    do {
+      chunk = channel.readOutbound();
+      content.writeBytes(chunk.content());
+      chunk.release();
+    } while (!(chunk instanceof LastHttpContent));
+    return content.toString(StandardCharsets.UTF_8);
+  }
 }
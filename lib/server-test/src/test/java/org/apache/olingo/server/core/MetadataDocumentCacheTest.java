@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.core.debug.ServerCoreDebugger;
+import org.apache.olingo.server.tecsvc.MetadataETagSupport;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class MetadataDocumentCacheTest {
+
+  private static final String BASE_URI = "http://localhost/odata";
+
+  private final OData odata = spy(OData.newInstance());
+  private final ServiceMetadata metadata =
+      odata.createServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+
+  @Test
+  public void renderOnce() throws Exception {
+    final ODataResponse response = dispatch(HttpMethod.GET, "$metadata", null, null);
+    assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+    final String eTag = response.getHeader(HttpHeader.ETAG);
+    assertTrue(eTag.matches("\"\\p{XDigit}+\""));
+    final byte[] content = IOUtils.toByteArray(response.getContent());
+
+    final ODataResponse response2 = dispatch(HttpMethod.GET, "$metadata", null, null);
+    assertEquals(eTag, response2.getHeader(HttpHeader.ETAG));
+    assertArrayEquals(content, IOUtils.toByteArray(response2.getContent()));
+
+    final ODataResponse head = dispatch(HttpMethod.HEAD, "$metadata", null, null);
+    assertEquals(HttpStatusCode.OK.getStatusCode(), head.getStatusCode());
+    assertEquals(eTag, head.getHeader(HttpHeader.ETAG));
+    assertNull(head.getContent());
+
+    verify(odata, times(1)).createSerializer(any(ContentType.class));
+  }
+
+  @Test
+  public void notModified() throws Exception {
+    final String eTag = dispatch(HttpMethod.GET, "$metadata", null, null).getHeader(HttpHeader.ETAG);
+    final ODataResponse response = dispatch(HttpMethod.GET, "$metadata", HttpHeader.IF_NONE_MATCH, eTag);
+    assertEquals(HttpStatusCode.NOT_MODIFIED.getStatusCode(), response.getStatusCode());
+    assertNull(response.getContent());
+    assertEquals(HttpStatusCode.OK.getStatusCode(),
+        dispatch(HttpMethod.GET, "$metadata", HttpHeader.IF_NONE_MATCH, "\"other\"").getStatusCode());
+  }
+
+  @Test
+  public void gzip() throws Exception {
+    final ODataResponse plain = dispatch(HttpMethod.GET, "/", null, null);
+    final ODataResponse compressed = dispatch(HttpMethod.GET, "/", HttpHeader.ACCEPT_ENCODING, "deflate, gzip");
+    assertEquals("gzip", compressed.getHeader(HttpHeader.CONTENT_ENCODING));
+    assertEquals(HttpHeader.ACCEPT_ENCODING, compressed.getHeader(HttpHeader.VARY));
+    assertNotEquals(plain.getHeader(HttpHeader.ETAG), compressed.getHeader(HttpHeader.ETAG));
+    assertArrayEquals(IOUtils.toByteArray(plain.getContent()),
+        IOUtils.toByteArray(new GZIPInputStream(compressed.getContent())));
+
+    assertEquals(HttpStatusCode.NOT_MODIFIED.getStatusCode(), dispatch(HttpMethod.GET, "/",
+        HttpHeader.ACCEPT_ENCODING, "gzip", HttpHeader.IF_NONE_MATCH, compressed.getHeader(HttpHeader.ETAG))
+        .getStatusCode());
+    assertNull(dispatch(HttpMethod.GET, "/", HttpHeader.ACCEPT_ENCODING, "gzip;q=0")
+        .getHeader(HttpHeader.CONTENT_ENCODING));
+  }
+
+  @Test
+  public void perFormat() throws Exception {
+    final ODataResponse json = dispatch(HttpMethod.GET, "/", null, null);
+    final ODataResponse xml = dispatch(HttpMethod.GET, "/", HttpHeader.ACCEPT, ContentType.APPLICATION_XML
+        .toContentTypeString());
+    assertEquals(ContentType.APPLICATION_XML.toContentTypeString(), xml.getHeader(HttpHeader.CONTENT_TYPE));
+    assertNotEquals(json.getHeader(HttpHeader.ETAG), xml.getHeader(HttpHeader.ETAG));
+    verify(odata, times(2)).createSerializer(any(ContentType.class));
+  }
+
+  @Test
+  public void applicationETag() throws Exception {
+    final ServiceMetadata metadataWithETag = odata.createServiceMetadata(new EdmTechProvider(),
+        Collections.<EdmxReference> emptyList(), new MetadataETagSupport("W/\"metadataETag\""));
+    final ODataResponse response = dispatch(metadataWithETag, HttpMethod.GET, "$metadata");
+    assertEquals("W/\"metadataETag\"", response.getHeader(HttpHeader.ETAG));
+    assertEquals(HttpStatusCode.NOT_MODIFIED.getStatusCode(), dispatch(metadataWithETag, HttpMethod.GET, "$metadata",
+        HttpHeader.IF_NONE_MATCH, "W/\"metadataETag\"").getStatusCode());
+    // The precondition is checked without rendering the document.
+    verify(odata, times(1)).createSerializer(any(ContentType.class));
+  }
+
+  private ODataResponse dispatch(final HttpMethod method, final String path, final String... headers) {
+    return dispatch(metadata, method, path, headers);
+  }
+
+  private ODataResponse dispatch(final ServiceMetadata serviceMetadata, final HttpMethod method, final String path,
+      final String... headers) {
+    final ODataRequest request = new ODataRequest();
+    request.setMethod(method);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath(path);
+    request.setRawRequestUri(BASE_URI + (path.startsWith("/") ? "" : "/") + path);
+    for (int i = 0; i < headers.length; i += 2) {
+      if (headers[i] != null) {
+        request.addHeader(headers[i], Collections.singletonList(headers[i + 1]));
+      }
+    }
+    return new ODataHandlerImpl(odata, serviceMetadata, new ServerCoreDebugger(odata)).process(request);
+  }
+}
@@ -32,6 +32,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.Collections;
@@ -39,6 +40,7 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
@@ -58,6 +60,7 @@ import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.batch.BatchFacade;
+import org.apache.olingo.server.api.compression.CompressionOptions;
 import org.apache.olingo.server.api.processor.ActionComplexCollectionProcessor;
 import org.apache.olingo.server.api.processor.ActionComplexProcessor;
 import org.apache.olingo.server.api.processor.ActionEntityCollectionProcessor;
@@ -84,8 +87,11 @@ import org.apache.olingo.server.api.processor.ReferenceCollectionProcessor;
 import org.apache.olingo.server.api.processor.ReferenceProcessor;
 import org.apache.olingo.server.api.processor.ServiceDocumentProcessor;
 import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.core.compression.ContentCompressionImpl;
 import org.apache.olingo.server.core.debug.ServerCoreDebugger;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
 import org.apache.olingo.server.tecsvc.processor.TechnicalActionProcessor;
+import org.apache.olingo.server.tecsvc.processor.TechnicalEntityProcessor;
 import org.apache.olingo.server.tecsvc.provider.ContainerProvider;
 import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
 import org.junit.Test;
@@ -1184,6 +1190,37 @@ public class ODataHandlerImplTest {
     assertNotNull(response);
   }
   
+  @Test
+  public void dispatchTooLargeDecompressedContent() throws Exception {
+    final StringBuilder entity = new StringBuilder("{\"PropertyInt16\":1,");
+    for (int i = 0; i < 1000; i++) {
+      entity.append(' ');
+    }
+    entity.append("\"PropertyString\":\"large\"}");
+    final ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+    try (GZIPOutputStream stream = new GZIPOutputStream(gzip)) {
+      stream.write(entity.toString().getBytes(Charset.forName("UTF-8")));
+    }
+
+    ODataRequest request = new ODataRequest();
+    request.setMethod(HttpMethod.POST);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawRequestUri(BASE_URI + "/ESTwoPrim");
+    request.setRawODataPath("ESTwoPrim");
+    request.addHeader(HttpHeader.CONTENT_TYPE, ContentType.JSON.toContentTypeString());
+    request.addHeader(HttpHeader.CONTENT_ENCODING, "gzip");
+    request.setBody(new ByteArrayInputStream(gzip.toByteArray()));
+    new ContentCompressionImpl(CompressionOptions.with().maxDecompressedSize(500).build()).decompress(request);
+
+    final OData odata = OData.newInstance();
+    final ServiceMetadata metadata = odata.createServiceMetadata(
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    ODataHandlerImpl handler = new ODataHandlerImpl(odata, metadata, new ServerCoreDebugger(odata));
+    handler.register(new TechnicalEntityProcessor(new DataProvider(odata, metadata.getEdm()), metadata));
+
+    assertEquals(HttpStatusCode.PAYLOAD_TOO_LARGE.getStatusCode(), handler.process(request).getStatusCode());
+  }
+
   private ODataResponse dispatch(final HttpMethod method, final String path, final Processor processor) {
     return dispatch(method, path, null, null, null, processor);
   }
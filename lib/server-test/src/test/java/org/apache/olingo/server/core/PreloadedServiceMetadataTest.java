@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.util.Collections;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.apache.olingo.server.tecsvc.provider.EntityTypeProvider;
+import org.junit.Test;
+
+public class PreloadedServiceMetadataTest {
+
+  private final OData odata = OData.newInstance();
+
+  @Test
+  public void loadingTime() {
+    assertEquals(-1, odata.createServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList())
+        .getEdmLoadingTime());
+    assertTrue(odata.createPreloadedServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList(),
+        null).getEdmLoadingTime() >= 0);
+  }
+
+  @Test
+  public void noProviderCallsAfterPreload() throws Exception {
+    final EdmTechProvider provider = spy(new EdmTechProvider());
+    final ServiceMetadata metadata =
+        odata.createPreloadedServiceMetadata(provider, Collections.<EdmxReference> emptyList(), null);
+    reset(provider);
+
+    final Edm edm = metadata.getEdm();
+    final EdmEntitySet entitySet = edm.getEntityContainer().getEntitySet("ESTwoKeyNav");
+    assertNotNull(entitySet);
+    final EdmEntityType entityType = edm.getEntityType(EntityTypeProvider.nameETTwoKeyNav);
+    assertSame(entityType, entitySet.getEntityType());
+    assertNotNull(entityType.getStructuralProperty("PropertyComp").getType());
+    assertNotNull(entityType.getNavigationProperty("NavPropertyETKeyNavOne").getType());
+    assertNotNull(entitySet.getRelatedBindingTarget("NavPropertyETKeyNavOne"));
+    assertNotNull(edm.getEntityType(EntityTypeProvider.nameETAllPrim).getKeyPredicateNames());
+
+    verifyZeroInteractions(provider);
+  }
+
+  @Test
+  public void sameMetadataDocument() throws Exception {
+    final ServiceMetadata lazy =
+        odata.createServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    final ServiceMetadata preloaded =
+        odata.createPreloadedServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList(), null);
+    assertEquals(
+        IOUtils.toString(odata.createSerializer(ContentType.APPLICATION_XML).metadataDocument(lazy).getContent()),
+        IOUtils.toString(odata.createSerializer(ContentType.APPLICATION_XML).metadataDocument(preloaded)
+            .getContent()));
+  }
+}
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.ODataLibraryException;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.async.AsyncRequestOptions;
+import org.apache.olingo.server.api.async.AsyncRequestService;
+import org.apache.olingo.server.api.async.AsyncTask;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AsyncRequestServiceTest {
+
+  private static final String BASE_URI = "http://localhost/service/odata.svc";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final OData odata = OData.newInstance();
+  private AsyncRequestService service;
+
+  @After
+  public void shutdown() {
+    if (service != null) {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  public void submitAndReadResult() throws Exception {
+    service = odata.createAsyncRequestService(null);
+    final CountDownLatch latch = new CountDownLatch(1);
+    final ODataResponse response = new ODataResponse();
+    final String location = service.submit(request(), response, new AsyncTask() {
+      @Override
+      public void process(final ODataRequest request, final ODataResponse response) {
+        await(latch);
+        assertNull(request.getHeader(HttpHeader.PREFER));
+        response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+        response.setHeader(HttpHeader.CONTENT_TYPE, ContentType.TEXT_PLAIN.toContentTypeString());
+        response.setContent(new ByteArrayInputStream("result".getBytes()));
+      }
+    });
+    assertTrue(location.matches("http://localhost/service/status/\\d+"));
+    assertEquals(HttpStatusCode.ACCEPTED.getStatusCode(), response.getStatusCode());
+    assertEquals(location, response.getHeader(HttpHeader.LOCATION));
+    assertEquals("respond-async", response.getHeader(HttpHeader.PREFERENCE_APPLIED));
+
+    assertEquals(HttpStatusCode.ACCEPTED.getStatusCode(), readStatus(location).getStatusCode());
+
+    latch.countDown();
+    final ODataResponse status = awaitResult(location);
+    assertEquals(ContentType.APPLICATION_HTTP.toContentTypeString(), status.getHeader(HttpHeader.CONTENT_TYPE));
+    final String result = IOUtils.toString(status.getContent());
+    assertTrue(result.startsWith("HTTP/1.1 200 OK"));
+    assertTrue(result.endsWith("result"));
+    assertEquals(1, service.getCompletedCount());
+    assertEquals(0, service.getFailedCount());
+
+    // The result can be retrieved only once.
+    assertEquals(HttpStatusCode.NOT_FOUND.getStatusCode(), readStatus(location).getStatusCode());
+  }
+
+  @Test
+  public void failedTask() throws Exception {
+    service = odata.createAsyncRequestService(null);
+    final String location = service.submit(request(), new ODataResponse(), new AsyncTask() {
+      @Override
+      public void process(final ODataRequest request, final ODataResponse response)
+          throws ODataApplicationException {
+        throw new ODataApplicationException("Failure", HttpStatusCode.CONFLICT.getStatusCode(), null);
+      }
+    });
+    final String result = IOUtils.toString(awaitResult(location).getContent());
+    assertTrue(result.startsWith("HTTP/1.1 409 Conflict"));
+    assertTrue(result.contains("Failure"));
+    assertEquals(1, service.getFailedCount());
+  }
+
+  @Test
+  public void rejectWhenQueueIsFull() throws Exception {
+    service = odata.createAsyncRequestService(AsyncRequestOptions.with().maxConcurrency(1).queueCapacity(1).build());
+    final CountDownLatch latch = new CountDownLatch(1);
+    final AsyncTask task = new AsyncTask() {
+      @Override
+      public void process(final ODataRequest request, final ODataResponse response) {
+        await(latch);
+      }
+    };
+    final String first = service.submit(request(), new ODataResponse(), task);
+    final String second = service.submit(request(), new ODataResponse(), task);
+    assertNotNull(first);
+    assertNotNull(second);
+    final ODataResponse response = new ODataResponse();
+    final ODataRequest rejected = request();
+    rejected.setBody(new ByteArrayInputStream("body".getBytes()));
+    assertNull(service.submit(rejected, response, task));
+    assertNull(response.getHeader(HttpHeader.LOCATION));
+    // The caller processes a rejected request synchronously, so its body must still be readable.
+    assertEquals("body", IOUtils.toString(rejected.getBody()));
+    assertEquals(1, service.getRejectedCount());
+    assertEquals(2, service.getSubmittedCount());
+
+    latch.countDown();
+    awaitResult(first);
+    awaitResult(second);
+    assertEquals(0, service.getQueueDepth());
+    assertEquals(2, service.getCompletedCount());
+  }
+
+  @Test
+  public void spillLargeResults() throws Exception {
+    final File directory = folder.newFolder();
+    service = odata.createAsyncRequestService(AsyncRequestOptions.with()
+        .spillThreshold(100).spillDirectory(directory).build());
+    final byte[] content = new byte[1000];
+    Arrays.fill(content, (byte) 'x');
+    final String location = service.submit(request(), new ODataResponse(), new AsyncTask() {
+      @Override
+      public void process(final ODataRequest request, final ODataResponse response) {
+        response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+        response.setContent(new ByteArrayInputStream(content));
+      }
+    });
+    final ODataResponse status = awaitResult(location);
+    assertEquals(1, service.getSpilledCount());
+    assertEquals(1, directory.listFiles().length);
+
+    final InputStream result = status.getContent();
+    assertTrue(IOUtils.toString(result).endsWith(new String(content)));
+    result.close();
+    assertEquals(0, service.getSpilledCount());
+    assertEquals(0, directory.listFiles().length);
+  }
+
+  @Test
+  public void evictExpiredResults() throws Exception {
+    service = odata.createAsyncRequestService(AsyncRequestOptions.with()
+        .resultTimeToLive(1, TimeUnit.MILLISECONDS).build());
+    final String location = service.submit(request(), new ODataResponse(), new AsyncTask() {
+      @Override
+      public void process(final ODataRequest request, final ODataResponse response) {
+        response.setStatusCode(HttpStatusCode.NO_CONTENT.getStatusCode());
+      }
+    });
+    final long timeout = System.currentTimeMillis() + 10000;
+    while (service.getEvictedCount() == 0 && System.currentTimeMillis() < timeout) {
+      Thread.sleep(100);
+      readStatus(BASE_URI + "/status/0");
+    }
+    assertEquals(1, service.getEvictedCount());
+    assertEquals(HttpStatusCode.NOT_FOUND.getStatusCode(), readStatus(location).getStatusCode());
+  }
+
+  @Test
+  public void virtualThreadsFallBack() throws Exception {
+    service = odata.createAsyncRequestService(AsyncRequestOptions.with().virtualThreads(true).build());
+    final String location = service.submit(request(), new ODataResponse(), new AsyncTask() {
+      @Override
+      public void process(final ODataRequest request, final ODataResponse response)
+          throws ODataLibraryException {
+        response.setStatusCode(HttpStatusCode.NO_CONTENT.getStatusCode());
+      }
+    });
+    assertTrue(IOUtils.toString(awaitResult(location).getContent()).startsWith("HTTP/1.1 204 No Content"));
+  }
+
+  private ODataRequest request() {
+    ODataRequest request = new ODataRequest();
+    request.setMethod(HttpMethod.GET);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath("/ESAllPrim");
+    request.setRawRequestUri(BASE_URI + "/ESAllPrim");
+    request.setHeader(HttpHeader.PREFER, "respond-async");
+    return request;
+  }
+
+  private ODataResponse readStatus(final String location) {
+    ODataResponse response = new ODataResponse();
+    service.readStatus(location, response);
+    return response;
+  }
+
+  private ODataResponse awaitResult(final String location) throws InterruptedException {
+    final long timeout = System.currentTimeMillis() + 10000;
+    ODataResponse response = readStatus(location);
+    while (response.getStatusCode() == HttpStatusCode.ACCEPTED.getStatusCode()
+        && System.currentTimeMillis() < timeout) {
+      Thread.sleep(10);
+      response = readStatus(location);
+    }
+    assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+    return response;
+  }
+
+  private static void await(final CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.batchhandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.batch.BatchExecutionSupport;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.core.ODataHandlerImpl;
+import org.apache.olingo.server.core.debug.ServerCoreDebugger;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.processor.TechnicalBatchProcessor;
+import org.apache.olingo.server.tecsvc.processor.TechnicalEntityProcessor;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConcurrentBatchExecutionTest {
+
+  private static final String BASE_URI = "http://localhost/odata";
+  private static final String BOUNDARY = "batch_123";
+  private static final String CRLF = "\r\n";
+  private static final String NEW_ENTITY = "{\"PropertyInt16\":42,\"PropertyString\":\"new\"}";
+
+  private ExecutorService executorService;
+  private final AtomicInteger executedTasks = new AtomicInteger();
+
+  @Before
+  public void before() {
+    executorService = Executors.newFixedThreadPool(4);
+  }
+
+  @After
+  public void after() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void getRequestsAndDependentChangeSet() throws Exception {
+    final String content = get("ESAllPrim(32767)")
+        + get("ESTwoPrim(32766)")
+        + get("ESAllPrim(0)")
+        + "--" + BOUNDARY + CRLF
+        + "Content-Type: multipart/mixed; boundary=changeset_1" + CRLF
+        + CRLF
+        + changeSetRequest("changeset_1", "1", "POST ESTwoPrim", NEW_ENTITY)
+        + changeSetRequest("changeset_1", "2", "PATCH $1", "{\"PropertyString\":\"changed\"}")
+        + "--changeset_1--" + CRLF
+        + get("ESAllPrim(-32768)")
+        + get("ESTwoPrim(32767)")
+        + "--" + BOUNDARY + "--";
+
+    final String response = process(content, false, false);
+
+    assertEquals(Arrays.asList("200", "200", "200", "201", "200", "200", "200"), getStatusCodes(response));
+    assertOrder(response, "\"PropertyInt16\":32767", "\"PropertyInt16\":32766", "\"PropertyInt16\":0",
+        "\"PropertyString\":\"changed\"", "\"PropertyInt16\":-32768", "\"PropertyInt16\":32767");
+    // Two groups of GET requests; the first part of each group runs on the calling thread.
+    assertEquals(2 + 1, executedTasks.get());
+  }
+
+  @Test
+  public void stopAtFailedPart() throws Exception {
+    final String content = get("ESAllPrim(32767)")
+        + get("ESAllPrim(1)")
+        + get("ESAllPrim(0)")
+        + "--" + BOUNDARY + CRLF
+        + "Content-Type: multipart/mixed; boundary=changeset_1" + CRLF
+        + CRLF
+        + changeSetRequest("changeset_1", "1", "POST ESTwoPrim", NEW_ENTITY)
+        + "--changeset_1--" + CRLF
+        + "--" + BOUNDARY + "--";
+
+    assertEquals(Arrays.asList("200", "404"), getStatusCodes(process(content, false, true)));
+    assertEquals(Arrays.asList("200", "404", "200", "201"), getStatusCodes(process(content, true, true)));
+  }
+
+  @Test
+  public void concurrentChangeSets() throws Exception {
+    final String content = get("ESAllPrim(32767)")
+        + "--" + BOUNDARY + CRLF
+        + "Content-Type: multipart/mixed; boundary=changeset_1" + CRLF
+        + CRLF
+        + changeSetRequest("changeset_1", "1", "POST ESTwoPrim", NEW_ENTITY)
+        + "--changeset_1--" + CRLF
+        + "--" + BOUNDARY + CRLF
+        + "Content-Type: multipart/mixed; boundary=changeset_2" + CRLF
+        + CRLF
+        + changeSetRequest("changeset_2", "2", "PATCH $1", "{\"PropertyString\":\"changed\"}")
+        + "--changeset_2--" + CRLF
+        + "--" + BOUNDARY + "--";
+
+    // The second change set depends on the first one, so it starts a new group.
+    final String response = process(content, true, true);
+    assertEquals(Arrays.asList("200", "201", "200"), getStatusCodes(response));
+    assertTrue(response.contains("\"PropertyString\":\"changed\""));
+    assertEquals(1, executedTasks.get());
+  }
+
+  @Test
+  public void changeSetRedefiningContentId() throws Exception {
+    final String content = get("ESAllPrim(32767)")
+        + "--" + BOUNDARY + CRLF
+        + "Content-Type: multipart/mixed; boundary=changeset_1" + CRLF
+        + CRLF
+        + changeSetRequest("changeset_1", "1", "POST ESTwoPrim", NEW_ENTITY)
+        + "--changeset_1--" + CRLF
+        + "--" + BOUNDARY + CRLF
+        + "Content-Type: multipart/mixed; boundary=changeset_2" + CRLF
+        + CRLF
+        + changeSetRequest("changeset_2", "1", "POST ESTwoPrim", NEW_ENTITY)
+        + "--changeset_2--" + CRLF
+        + "--" + BOUNDARY + CRLF
+        + "Content-Type: multipart/mixed; boundary=changeset_3" + CRLF
+        + CRLF
+        + changeSetRequest("changeset_3", "2", "PATCH $1", "{\"PropertyString\":\"changed\"}")
+        + "--changeset_3--" + CRLF
+        + "--" + BOUNDARY + "--";
+
+    // The second change set redefines Content-ID 1, so it must not run concurrently with the first one.
+    final String response = process(content, true, true);
+    assertEquals(Arrays.asList("200", "201", "201", "200"), getStatusCodes(response));
+    // The service assigns the keys 1 and 2; the reference resolves to the entity created last.
+    assertTrue(response.contains("\"PropertyInt16\":2,\"PropertyString\":\"changed\""));
+    assertEquals(1, executedTasks.get());
+  }
+
+  @Test
+  public void requestWithBodyOutsideOfChangeSet() throws Exception {
+    final String content = get("ESAllPrim(32767)")
+        + changeSetRequest(BOUNDARY, "1", "POST ESTwoPrim", NEW_ENTITY)
+        + get("ESAllPrim(-32768)")
+        + get("ESAllPrim(0)")
+        + "--" + BOUNDARY + "--";
+
+    // The request with body is handled together with the parts before it, before the next part is read.
+    assertEquals(Arrays.asList("200", "201", "200", "200"), getStatusCodes(process(content, false, false)));
+    assertEquals(1 + 1, executedTasks.get());
+
+    final String failing = get("ESAllPrim(32767)")
+        + changeSetRequest(BOUNDARY, "1", "POST ESTwoPrim", "{\"PropertyInt16\":")
+        + get("ESAllPrim(-32768)")
+        + "--" + BOUNDARY + "--";
+    assertEquals(Arrays.asList("200", "400"), getStatusCodes(process(failing, false, false)));
+  }
+
+  private String process(final String content, final boolean continueOnError, final boolean concurrentChangeSets)
+      throws Exception {
+    final OData odata = OData.newInstance();
+    final ServiceMetadata metadata = odata.createServiceMetadata(new EdmTechProvider(),
+        Collections.<EdmxReference> emptyList());
+    final DataProvider dataProvider = new DataProvider(odata, metadata.getEdm());
+    final ODataHandlerImpl handler = new ODataHandlerImpl(odata, metadata, new ServerCoreDebugger(odata));
+    handler.register(new TechnicalEntityProcessor(dataProvider, metadata));
+    handler.register(new TechnicalBatchProcessor(dataProvider));
+    handler.register(new BatchExecutionSupport() {
+      @Override
+      public Executor getExecutor() {
+        return new Executor() {
+          @Override
+          public void execute(final Runnable command) {
+            executedTasks.incrementAndGet();
+            executorService.execute(command);
+          }
+        };
+      }
+
+      @Override
+      public boolean isConcurrentChangeSet(final BatchRequestPart changeSet) {
+        return concurrentChangeSets;
+      }
+    });
+
+    final ODataRequest request = new ODataRequest();
+    request.setMethod(HttpMethod.POST);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawRequestUri(BASE_URI + "/$batch");
+    request.setRawODataPath("$batch");
+    request.addHeader(HttpHeader.CONTENT_TYPE, ContentType.MULTIPART_MIXED + ";boundary=" + BOUNDARY);
+    if (continueOnError) {
+      request.addHeader(HttpHeader.PREFER, "odata.continue-on-error");
+    }
+    request.setBody(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+
+    final ODataResponse response = handler.process(request);
+    assertEquals(200, response.getStatusCode());
+    return IOUtils.toString(response.getContent(), StandardCharsets.UTF_8);
+  }
+
+  private String get(final String resource) {
+    return "--" + BOUNDARY + CRLF
+        + "Content-Type: application/http" + CRLF
+        + "Content-Transfer-Encoding: binary" + CRLF
+        + CRLF
+        + "GET " + resource + " HTTP/1.1" + CRLF
+        + "Accept: application/json;odata.metadata=minimal" + CRLF
+        + CRLF
+        + CRLF;
+  }
+
+  private String changeSetRequest(final String boundary, final String contentId, final String requestLine,
+      final String body) {
+    return "--" + boundary + CRLF
+        + "Content-Type: application/http" + CRLF
+        + "Content-Transfer-Encoding: binary" + CRLF
+        + "Content-ID: " + contentId + CRLF
+        + CRLF
+        + requestLine + " HTTP/1.1" + CRLF
+        + "Content-Type: application/json" + CRLF
+        + "Prefer: return=representation" + CRLF
+        + CRLF
+        + body + CRLF;
+  }
+
+  private List<String> getStatusCodes(final String response) {
+    final List<String> statusCodes = new ArrayList<>();
+    for (final String line : response.split(CRLF)) {
+      if (line.startsWith("HTTP/1.1 ")) {
+        statusCodes.add(line.substring(9, 12));
+      }
+    }
+    return statusCodes;
+  }
+
+  private void assertOrder(final String response, final String... fragments) {
+    int index = 0;
+    for (final String fragment : fragments) {
+      index = response.indexOf(fragment, index);
+      assertTrue("Missing or out of order: " + fragment, index >= 0);
+    }
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.json;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.constants.Constantsv01;
+import org.apache.olingo.commons.api.data.ComplexValue;
+import org.apache.olingo.commons.api.data.DeletedEntity;
+import org.apache.olingo.commons.api.data.Delta;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.Link;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.deserializer.DeserializerException;
+import org.apache.olingo.server.api.deserializer.DeserializerException.MessageKeys;
+import org.apache.olingo.server.api.deserializer.ODataDeserializer;
+import org.apache.olingo.server.core.ODataImpl;
+import org.apache.olingo.server.core.deserializer.AbstractODataDeserializerTest;
+import org.junit.Test;
+
+/** Compares the streaming JSON deserializer with the tree-based one. */
+public class ODataJsonStreamingDeserializerTest extends AbstractODataDeserializerTest {
+
+  private final ODataDeserializer tree = new ODataJsonDeserializer(ContentType.JSON, metadata);
+  private final ODataDeserializer streaming = new ODataJsonStreamingDeserializer(ContentType.JSON, metadata);
+
+  @Test
+  public void entityCollections() throws Exception {
+    assertSameEntityCollection(read("ESAllPrim.json"), "ETAllPrim");
+    assertSameEntityCollection(read("ESCompCollComp.json"), "ETCompCollComp");
+    assertSameEntityCollection(read("ESAllPrimWithODataAnnotations.json"), "ETAllPrim");
+  }
+
+  @Test
+  public void entities() throws Exception {
+    assertSameEntity(read("EntityESAllPrimExpandedNavPropertyETTwoPrimMany.json"), "ETAllPrim");
+    assertSameEntity(read("EntityESAllPrimExpandedNavPropertyETTwoPrimOneWithODataAnnotations.json"), "ETAllPrim");
+    assertSameEntity(read("EntityETMixEnumDefCollComp.json"), "ETMixEnumDefCollComp");
+    assertSameEntity("{\"PropertyInt16\":1,\"PropertyDouble\":-1.5E10,\"PropertyDecimal\":34.0,"
+        + "\"PropertySingle\":1.0,\"PropertyInt64\":9007199254740993}", "ETAllPrim");
+  }
+
+  @Test
+  public void v401Delta() throws Exception {
+    final String payload = read("EntityESAllPrimExpandedNavPropertyETTwoPrimManyDelta.json");
+    assertSame(
+        new ODataJsonDeserializer(ContentType.JSON, metadata, new Constantsv01())
+            .entity(stream(payload), entityType("ETAllPrim")).getEntity(),
+        new ODataJsonStreamingDeserializer(ContentType.JSON, metadata, new Constantsv01())
+            .entity(stream(payload), entityType("ETAllPrim")).getEntity());
+  }
+
+  @Test
+  public void notUsedByDefault() throws Exception {
+    final ODataImpl odata = new ODataImpl();
+    assertEquals(ODataJsonDeserializer.class, odata.createDeserializer(ContentType.JSON, metadata).getClass());
+    odata.setStreamingJsonDeserializer(true);
+    assertEquals(ODataJsonStreamingDeserializer.class,
+        odata.createDeserializer(ContentType.JSON, metadata).getClass());
+  }
+
+  @Test
+  public void typeAnnotationAfterProperties() throws Exception {
+    final String payload = "{\"PropertyInt16\":32767,\"AdditionalPropertyString_5\":\"Additional\","
+        + "\"PropertyString\":\"First\",\"@odata.type\":\"#olingo.odata.test1.ETBase\"}";
+    final Entity entity = assertSameEntity(payload, "ETTwoPrim");
+    assertEquals("olingo.odata.test1.ETBase", entity.getType());
+    assertEquals(3, entity.getProperties().size());
+    assertEquals("Additional", entity.getProperty("AdditionalPropertyString_5").getValue());
+  }
+
+  @Test
+  public void sameErrors() throws Exception {
+    assertSameError("{\"PropertyInt16\":1,\"Unknown\":2}", "ETAllPrim", MessageKeys.UNKNOWN_CONTENT);
+    assertSameError("{\"PropertyInt16\":1,\"PropertyInt16\":2}", "ETAllPrim", MessageKeys.DUPLICATE_PROPERTY);
+    assertSameError("{\"PropertyInt16\":1,\"NavPropertyETTwoPrimOne\":{\"PropertyInt16\":1,\"PropertyInt16\":2}}",
+        "ETAllPrim", MessageKeys.DUPLICATE_PROPERTY);
+    assertSameError("{\"PropertyInt16\":\"1\"}", "ETAllPrim", MessageKeys.INVALID_VALUE_FOR_PROPERTY);
+    assertSameError("{\"PropertyInt16\":null}", "ETAllPrim", MessageKeys.INVALID_NULL_PROPERTY);
+    assertSameError("{\"PropertyInt16\":1,\"Custom@Annotation\":1}", "ETAllPrim", MessageKeys.NOT_IMPLEMENTED);
+    assertSameError("{\"PropertyInt16\":1,\"NavPropertyETTwoPrimMany\":{}}", "ETAllPrim",
+        MessageKeys.INVALID_VALUE_FOR_NAVIGATION_PROPERTY);
+    assertSameError("{\"PropertyInt16\":1", "ETAllPrim", MessageKeys.JSON_SYNTAX_EXCEPTION);
+    assertSameError("[]", "ETAllPrim", MessageKeys.JSON_SYNTAX_EXCEPTION);
+  }
+
+  private Entity assertSameEntity(final String payload, final String entityTypeName) throws DeserializerException {
+    final Entity expected = tree.entity(stream(payload), entityType(entityTypeName)).getEntity();
+    final Entity actual = streaming.entity(stream(payload), entityType(entityTypeName)).getEntity();
+    assertSame(expected, actual);
+    return actual;
+  }
+
+  private void assertSameEntityCollection(final String payload, final String entityTypeName)
+      throws DeserializerException {
+    final EntityCollection expected = tree.entityCollection(stream(payload), entityType(entityTypeName))
+        .getEntityCollection();
+    final EntityCollection actual = streaming.entityCollection(stream(payload), entityType(entityTypeName))
+        .getEntityCollection();
+    assertSame(expected.getEntities(), actual.getEntities());
+  }
+
+  private void assertSame(final List<Entity> expected, final List<Entity> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertSame(expected.get(i), actual.get(i));
+    }
+  }
+
+  private void assertSame(final Entity expected, final Entity actual) {
+    assertEquals(expected.getType(), actual.getType());
+    assertEquals(expected.getId(), actual.getId());
+    assertEquals(expected.getAnnotations(), actual.getAnnotations());
+    assertEquals(expected.getNavigationBindings(), actual.getNavigationBindings());
+    assertSameProperties(expected.getProperties(), actual.getProperties());
+    assertEquals(expected.getNavigationLinks().size(), actual.getNavigationLinks().size());
+    for (int i = 0; i < expected.getNavigationLinks().size(); i++) {
+      final Link expectedLink = expected.getNavigationLinks().get(i);
+      final Link actualLink = actual.getNavigationLinks().get(i);
+      assertEquals(expectedLink.getTitle(), actualLink.getTitle());
+      assertEquals(expectedLink.getType(), actualLink.getType());
+      assertEquals(expectedLink.getAnnotations(), actualLink.getAnnotations());
+      if (expectedLink.getInlineEntity() == null) {
+        assertNull(actualLink.getInlineEntity());
+      } else {
+        assertSame(expectedLink.getInlineEntity(), actualLink.getInlineEntity());
+      }
+      if (expectedLink.getInlineEntitySet() == null) {
+        assertNull(actualLink.getInlineEntitySet());
+      } else {
+        assertEquals(expectedLink.getInlineEntitySet().getClass(), actualLink.getInlineEntitySet().getClass());
+        assertSame(expectedLink.getInlineEntitySet().getEntities(), actualLink.getInlineEntitySet().getEntities());
+        if (expectedLink.getInlineEntitySet() instanceof Delta) {
+          assertSameDeleted(((Delta) expectedLink.getInlineEntitySet()).getDeletedEntities(),
+              ((Delta) actualLink.getInlineEntitySet()).getDeletedEntities());
+        }
+      }
+    }
+  }
+
+  private void assertSameDeleted(final List<DeletedEntity> expected, final List<DeletedEntity> actual) {
+    assertTrue(!expected.isEmpty());
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getId(), actual.get(i).getId());
+      assertEquals(expected.get(i).getReason(), actual.get(i).getReason());
+    }
+  }
+
+  private void assertSameProperties(final List<Property> expected, final List<Property> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getName(), actual.get(i).getName());
+      assertEquals(expected.get(i).getType(), actual.get(i).getType());
+      assertEquals(expected.get(i).getValueType(), actual.get(i).getValueType());
+      assertEquals(expected.get(i).getAnnotations(), actual.get(i).getAnnotations());
+      assertSameValue(expected.get(i).getValue(), actual.get(i).getValue());
+    }
+  }
+
+  private void assertSameValue(final Object expected, final Object actual) {
+    if (expected instanceof byte[]) {
+      assertArrayEquals((byte[]) expected, (byte[]) actual);
+    } else if (expected instanceof ComplexValue) {
+      assertEquals(((ComplexValue) expected).getTypeName(), ((ComplexValue) actual).getTypeName());
+      assertSameProperties(((ComplexValue) expected).getValue(), ((ComplexValue) actual).getValue());
+    } else if (expected instanceof List) {
+      assertEquals(((List<?>) expected).size(), ((List<?>) actual).size());
+      for (int i = 0; i < ((List<?>) expected).size(); i++) {
+        assertSameValue(((List<?>) expected).get(i), ((List<?>) actual).get(i));
+      }
+    } else {
+      assertEquals(expected, actual);
+    }
+  }
+
+  private void assertSameError(final String payload, final String entityTypeName, final MessageKeys messageKey) {
+    for (final ODataDeserializer deserializer : new ODataDeserializer[] { tree, streaming }) {
+      try {
+        deserializer.entity(stream(payload), entityType(entityTypeName));
+        fail("Expected exception not thrown for " + payload);
+      } catch (final DeserializerException e) {
+        assertEquals(payload, messageKey, e.getMessageKey());
+      }
+    }
+  }
+
+  private EdmEntityType entityType(final String entityTypeName) {
+    return edm.getEntityType(new FullQualifiedName(NAMESPACE, entityTypeName));
+  }
+
+  private String read(final String resourceName) throws IOException {
+    return IOUtils.toString(getFileAsStream(resourceName), StandardCharsets.UTF_8);
+  }
+
+  private InputStream stream(final String payload) {
+    return new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.expression;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.queryoption.expression.Binary;
+import org.apache.olingo.server.api.uri.queryoption.expression.CompiledExpression;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionEvaluator;
+import org.apache.olingo.server.api.uri.queryoption.expression.FunctionCallHandler;
+import org.apache.olingo.server.core.expression.operand.TypedOperand;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.TechnicalFunctionCallHandler;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class ExpressionCompilerTest {
+
+  private final OData oData = OData.newInstance();
+  private final Edm edm =
+      oData.createServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList())
+      .getEdm();
+  private final FunctionCallHandler functionCallHandler = new TechnicalFunctionCallHandler(oData, edm);
+
+  @Test
+  public void filterSameAsVisitor() throws Exception {
+    assertSameAsVisitor("ESAllPrim", "PropertyInt16 gt 0 and PropertyString ne 'First Resource - positive values'");
+    assertSameAsVisitor("ESAllPrim", "PropertyInt16 add 1 eq 32767 or -PropertyInt16 lt 0");
+    assertSameAsVisitor("ESAllPrim", "contains(PropertyString,'values') and length(PropertyString) gt 3");
+    assertSameAsVisitor("ESAllPrim", "year(PropertyDate) eq 2012 and PropertyDecimal mul 2 ge 0");
+    assertSameAsVisitor("ESAllPrim", "not (PropertyBoolean eq false) and PropertyInt64 ne 0");
+    assertSameAsVisitor("ESCompAllPrim", "PropertyComp/PropertyString eq 'First Resource - first'");
+    assertSameAsVisitor("ESCompAllPrim", "PropertyComp/PropertyInt16 ge @p", "@p=0");
+    assertSameAsVisitor("ESCompAllPrim", "PropertyComp/PropertyString ne @p", "@p='x'");
+    assertSameAsVisitor("ESAllPrim", "PropertyString in olingo.odata.test1.UFCRTCollString()");
+  }
+
+  @Test
+  public void orderByKeys() throws Exception {
+    final UriInfo uriInfo = new Parser(edm, oData).parseUri("ESAllPrim",
+        "$orderby=PropertyString desc,PropertyInt16", null, null);
+    final EntityCollection entities = readAll("ESAllPrim");
+    oData.createExpressionEvaluator(null).applyOrderBy(uriInfo.getOrderByOption(), entities.getEntities(), uriInfo);
+
+    String previous = null;
+    for (final Entity entity : entities.getEntities()) {
+      final String current = (String) entity.getProperty("PropertyString").getValue();
+      assertTrue(previous == null || previous.compareTo(current) >= 0);
+      previous = current;
+    }
+  }
+
+  @Test(expected = ODataApplicationException.class)
+  public void notImplementedOnEvaluation() throws Exception {
+    final UriInfo uriInfo = new Parser(edm, oData).parseUri("ESAllPrim",
+        "$filter=isof(olingo.odata.test1.ETAllPrim)", null, null);
+    final CompiledOperand expression =
+        ExpressionCompiler.compile(uriInfo.getFilterOption().getExpression(), uriInfo, functionCallHandler);
+    expression.evaluate(readAll("ESAllPrim").getEntities().get(0));
+  }
+
+  @Test(expected = ODataApplicationException.class)
+  public void functionWithoutHandler() throws Exception {
+    final UriInfo uriInfo = new Parser(edm, oData).parseUri("ESAllPrim",
+        "$filter=PropertyString in olingo.odata.test1.UFCRTCollString()", null, null);
+    oData.createExpressionEvaluator(null).applyFilter(uriInfo.getFilterOption(), readAll("ESAllPrim").getEntities(),
+        uriInfo);
+  }
+
+  @Test
+  public void evaluator() throws Exception {
+    final UriInfo uriInfo = new Parser(edm, oData).parseUri("ESAllPrim",
+        "$filter=PropertyInt16 ge 0&$orderby=PropertyInt16 desc", null, null);
+    final ExpressionEvaluator evaluator = oData.createExpressionEvaluator(functionCallHandler);
+    final List<Entity> entities = readAll("ESAllPrim").getEntities();
+    evaluator.applyFilter(uriInfo.getFilterOption(), entities, uriInfo);
+    evaluator.applyOrderBy(uriInfo.getOrderByOption(), entities, uriInfo);
+    assertEquals(3, entities.size());
+    assertEquals(Short.MAX_VALUE, entities.get(0).getProperty("PropertyInt16").getValue());
+    assertEquals((short) 10, entities.get(1).getProperty("PropertyInt16").getValue());
+    assertEquals((short) 0, entities.get(2).getProperty("PropertyInt16").getValue());
+
+    final CompiledExpression compiled = evaluator.compile(uriInfo.getFilterOption().getExpression(), uriInfo);
+    assertEquals(Boolean.TRUE, compiled.evaluate(entities.get(0)));
+    final UriInfo nullInfo = new Parser(edm, oData).parseUri("ESAllPrim", "$filter=null eq null", null, null);
+    assertEquals(null, evaluator.compile(((Binary) nullInfo.getFilterOption().getExpression()).getLeftOperand(),
+        nullInfo).evaluate(entities.get(0)));
+  }
+
+  private void assertSameAsVisitor(final String entitySet, final String filter, final String... aliases)
+      throws Exception {
+    final StringBuilder query = new StringBuilder("$filter=").append(filter);
+    for (final String alias : aliases) {
+      query.append('&').append(alias);
+    }
+    final UriInfo uriInfo = new Parser(edm, oData).parseUri(entitySet, query.toString(), null, null);
+    final Expression expression = uriInfo.getFilterOption().getExpression();
+    final CompiledOperand compiled = ExpressionCompiler.compile(expression, uriInfo, functionCallHandler);
+
+    final List<Object> expected = new ArrayList<Object>();
+    final List<Object> actual = new ArrayList<Object>();
+    // Evaluate twice to make sure compiled expressions can be reused.
+    for (int i = 0; i < 2; i++) {
+      for (final Entity entity : readAll(entitySet).getEntities()) {
+        final TypedOperand visited = expression.accept(new ExpressionVisitorImpl(entity, uriInfo, functionCallHandler))
+            .asTypedOperand();
+        final TypedOperand evaluated = compiled.evaluate(entity).asTypedOperand();
+        assertEquals(visited.getType(), evaluated.getType());
+        expected.add(visited.getValue());
+        actual.add(evaluated.getValue());
+      }
+    }
+    assertEquals(filter, expected, actual);
+    assertTrue(filter, expected.contains(Boolean.TRUE));
+  }
+
+  private EntityCollection readAll(final String entitySet) throws Exception {
+    return new DataProvider(oData, edm).readAll(edm.getEntityContainer().getEntitySet(entitySet));
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.metrics.ODataMetrics;
+import org.apache.olingo.server.api.processor.Processor;
+import org.apache.olingo.server.core.ODataHandlerImpl;
+import org.apache.olingo.server.core.debug.ServerCoreDebugger;
+import org.apache.olingo.server.core.serializer.json.ODataJsonSerializer;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.processor.TechnicalBatchProcessor;
+import org.apache.olingo.server.tecsvc.processor.TechnicalEntityProcessor;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class ODataMetricsTest {
+
+  private static final String BASE_URI = "http://localhost/odata";
+  private static final String BOUNDARY = "batch_123";
+  private static final String CRLF = "\r\n";
+
+  private final OData odata = OData.newInstance();
+  private final ServiceMetadata metadata =
+      odata.createServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+  private final RecordingMetrics metrics = new RecordingMetrics();
+
+  @Test
+  public void readEntityCollection() throws Exception {
+    assertEquals(200, handler(metrics).process(request(HttpMethod.GET, "ESAllPrim", null)).getStatusCode());
+
+    assertEquals(1, metrics.get(ODataMetrics.Stage.URI_PARSING));
+    assertEquals(1, metrics.get(ODataMetrics.Stage.DISPATCH));
+    assertEquals(1, metrics.get(ODataMetrics.Stage.SERIALIZATION));
+    assertEquals(0, metrics.get(ODataMetrics.Stage.DESERIALIZATION));
+    assertEquals(1, metrics.get("EntityCollectionProcessor", "ESAllPrim"));
+  }
+
+  @Test
+  public void createEntity() throws Exception {
+    final ODataResponse response = handler(metrics).process(
+        request(HttpMethod.POST, "ESTwoPrim", "{\"PropertyInt16\":42,\"PropertyString\":\"new\"}"));
+    assertEquals(201, response.getStatusCode());
+
+    assertEquals(1, metrics.get(ODataMetrics.Stage.DESERIALIZATION));
+    assertEquals(1, metrics.get(ODataMetrics.Stage.SERIALIZATION));
+    assertEquals(1, metrics.get("EntityProcessor", "ESTwoPrim"));
+  }
+
+  @Test
+  public void batchParts() throws Exception {
+    final String content = "--" + BOUNDARY + CRLF
+        + "Content-Type: application/http" + CRLF
+        + "Content-Transfer-Encoding: binary" + CRLF
+        + CRLF
+        + "GET ESAllPrim(32767) HTTP/1.1" + CRLF
+        + CRLF
+        + CRLF
+        + "--" + BOUNDARY + CRLF
+        + "Content-Type: application/http" + CRLF
+        + "Content-Transfer-Encoding: binary" + CRLF
+        + CRLF
+        + "GET ESTwoPrim(32766) HTTP/1.1" + CRLF
+        + CRLF
+        + CRLF
+        + "--" + BOUNDARY + "--";
+    final ODataRequest request = request(HttpMethod.POST, "$batch", content);
+    request.setHeader(HttpHeader.CONTENT_TYPE, ContentType.MULTIPART_MIXED + ";boundary=" + BOUNDARY);
+
+    final ODataHandlerImpl handler = handler(metrics);
+    handler.register(new TechnicalBatchProcessor(new DataProvider(odata, metadata.getEdm())));
+    assertEquals(200, handler.process(request).getStatusCode());
+
+    assertEquals(2, metrics.get(ODataMetrics.Stage.BATCH_PART));
+    assertEquals(3, metrics.get(ODataMetrics.Stage.URI_PARSING));
+    assertEquals(1, metrics.get("BatchProcessor", null));
+    assertEquals(1, metrics.get("EntityProcessor", "ESAllPrim"));
+    assertEquals(1, metrics.get("EntityProcessor", "ESTwoPrim"));
+  }
+
+  @Test
+  public void errorIsCounted() throws Exception {
+    assertEquals(404, handler(metrics).process(request(HttpMethod.GET, "ESAllPrim(1)", null)).getStatusCode());
+    assertEquals(1, metrics.get("EntityProcessor", "ESAllPrim"));
+    assertEquals(1, metrics.get("ErrorProcessor", "ESAllPrim"));
+  }
+
+  @Test
+  public void serializersUnchangedWithoutMetrics() throws Exception {
+    assertEquals(200, handler(null).process(request(HttpMethod.GET, "ESAllPrim", null)).getStatusCode());
+    assertTrue(odata.createSerializer(ContentType.JSON) instanceof ODataJsonSerializer);
+
+    final ODataMetrics previous = MetricsContext.enter(metrics);
+    try {
+      assertTrue(odata.createSerializer(ContentType.JSON) instanceof MeasuringSerializer);
+    } finally {
+      MetricsContext.leave(previous);
+    }
+    assertTrue(odata.createSerializer(ContentType.JSON) instanceof ODataJsonSerializer);
+  }
+
+  private ODataHandlerImpl handler(final ODataMetrics odataMetrics) {
+    final ODataHandlerImpl handler = new ODataHandlerImpl(odata, metadata, new ServerCoreDebugger(odata));
+    handler.register(new TechnicalEntityProcessor(new DataProvider(odata, metadata.getEdm()), metadata));
+    if (odataMetrics != null) {
+      handler.register(odataMetrics);
+    }
+    return handler;
+  }
+
+  private ODataRequest request(final HttpMethod method, final String path, final String body) {
+    final ODataRequest request = new ODataRequest();
+    request.setMethod(method);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath(path);
+    request.setRawRequestUri(BASE_URI + "/" + path);
+    if (body != null) {
+      request.addHeader(HttpHeader.CONTENT_TYPE, ContentType.JSON.toContentTypeString());
+      request.setBody(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+    return request;
+  }
+
+  private static class RecordingMetrics implements ODataMetrics {
+
+    private final Map<String, AtomicInteger> values = new ConcurrentHashMap<String, AtomicInteger>();
+
+    @Override
+    public void record(final Stage stage, final long nanos) {
+      assertTrue(nanos >= 0);
+      increment(stage.name());
+    }
+
+    @Override
+    public void count(final Class<? extends Processor> processorType, final String entitySetName) {
+      increment(processorType.getSimpleName() + '/' + entitySetName);
+    }
+
+    private void increment(final String key) {
+      AtomicInteger value = values.get(key);
+      if (value == null) {
+        values.putIfAbsent(key, new AtomicInteger());
+        value = values.get(key);
+      }
+      value.incrementAndGet();
+    }
+
+    int get(final Stage stage) {
+      return get(stage.name());
+    }
+
+    int get(final String processorType, final String entitySetName) {
+      return get(processorType + '/' + entitySetName);
+    }
+
+    private int get(final String key) {
+      final AtomicInteger value = values.get(key);
+      return value == null ? 0 : value.get();
+    }
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.paging;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.data.ContextURL;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.paging.KeysetPagingException;
+import org.apache.olingo.server.api.paging.KeysetPagingHelper;
+import org.apache.olingo.server.api.paging.KeysetPosition;
+import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class KeysetPagingHelperTest {
+
+  private static final String BASE_URI = "http://localhost/odata";
+  private static final Pattern NEXT_LINK = Pattern.compile("\"@odata\\.nextLink\":\"[^?\"]*\\?([^\"]*)\"");
+
+  private final OData odata = OData.newInstance();
+  private final ServiceMetadata metadata =
+      odata.createServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+  private final Edm edm = metadata.getEdm();
+  private final EdmEntitySet entitySet = edm.getEntityContainer().getEntitySet("ESServerSidePaging");
+  private final EdmEntityType entityType = entitySet.getEntityType();
+  private final KeysetPagingHelper helper = odata.createKeysetPagingHelper("secret".getBytes());
+
+  @Test
+  public void pageThroughEntitySet() throws Exception {
+    final List<Entity> entities = new ArrayList<Entity>(
+        new DataProvider(odata, edm).readAll(entitySet).getEntities());
+    Collections.sort(entities, new Comparator<Entity>() {
+      @Override
+      public int compare(final Entity entity1, final Entity entity2) {
+        return ((String) entity2.getProperty("PropertyString").getValue())
+            .compareTo((String) entity1.getProperty("PropertyString").getValue());
+      }
+    });
+
+    List<Entity> result = new ArrayList<Entity>();
+    String query = "$orderby=PropertyString%20desc";
+    int pages = 0;
+    while (query != null) {
+      final UriInfo uriInfo = parse(query);
+      final KeysetPosition position = helper.getPosition(uriInfo, entityType);
+      if (pages == 0) {
+        assertNull(position);
+      } else {
+        assertEquals(Arrays.asList("PropertyString"), position.getValues().get(0).getPath());
+        assertTrue(position.getValues().get(0).isDescending());
+        assertEquals(Arrays.asList("PropertyInt16"), position.getValues().get(1).getPath());
+        assertEquals(result.get(result.size() - 1).getProperty("PropertyInt16").getValue(),
+            position.getValues().get(1).getValue());
+      }
+      EntityCollection page = new EntityCollection();
+      for (final Entity entity : entities) {
+        if (page.getEntities().size() < 50 && (position == null || position.isAfter(entity))) {
+          page.getEntities().add(entity);
+        }
+      }
+      result.addAll(page.getEntities());
+      query = getNextQuery(serialize(page, "ESServerSidePaging?" + query, uriInfo, 50));
+      pages++;
+    }
+
+    assertEquals(11, pages);
+    assertEquals(entities, result);
+  }
+
+  @Test
+  public void noNextLinkForIncompletePage() throws Exception {
+    final UriInfo uriInfo = parse(null);
+    EntityCollection page = new EntityCollection();
+    page.getEntities().addAll(new DataProvider(odata, edm).readAll(entitySet).getEntities().subList(0, 3));
+    assertNull(getNextQuery(serialize(page, "ESServerSidePaging", uriInfo, 4)));
+
+    final String content = serialize(page, "ESServerSidePaging?$top=10&$skiptoken=old&$count=true", uriInfo, 3);
+    assertThat(content, not(containsString("old")));
+    final String query = getNextQuery(content);
+    assertTrue(query.startsWith("$top=10&$count=true&%24skiptoken="));
+    final KeysetPosition position = helper.getPosition(parse(query), entityType);
+    assertEquals(1, position.getValues().size());
+    assertEquals((short) 3, position.getValues().get(0).getValue());
+  }
+
+  @Test
+  public void invalidSkipToken() throws Exception {
+    EntityCollection page = new EntityCollection();
+    page.getEntities().add(new DataProvider(odata, edm).readAll(entitySet).getEntities().get(0));
+    final String skipToken =
+        getNextQuery(serialize(page, "ESServerSidePaging", parse(null), 1)).replace("%24skiptoken=", "");
+
+    assertNotNull(helper.getPosition(parse("$skiptoken=" + skipToken), entityType));
+    expectInvalid("$skiptoken=" + skipToken.substring(1));
+    expectInvalid("$skiptoken=" + skipToken.substring(0, skipToken.indexOf('.')));
+    expectInvalid("$skiptoken=1%2A10");
+    // The skiptoken is bound to the order.
+    expectInvalid("$orderby=PropertyString&$skiptoken=" + skipToken);
+    // The skiptoken is bound to the signing key.
+    try {
+      odata.createKeysetPagingHelper("other".getBytes()).getPosition(parse("$skiptoken=" + skipToken), entityType);
+      fail("Expected exception not thrown.");
+    } catch (final KeysetPagingException e) {
+      assertEquals(KeysetPagingException.MessageKeys.INVALID_SKIPTOKEN, e.getMessageKey());
+    }
+  }
+
+  @Test
+  public void unsupportedOrderBy() throws Exception {
+    try {
+      helper.createPagination(BASE_URI, parse("$orderby=length(PropertyString)"), entityType, 10);
+      fail("Expected exception not thrown.");
+    } catch (final KeysetPagingException e) {
+      assertEquals(KeysetPagingException.MessageKeys.UNSUPPORTED_ORDERBY, e.getMessageKey());
+    }
+  }
+
+  @Test
+  public void isAfter() throws Exception {
+    final Entity entity = new DataProvider(odata, edm).readAll(entitySet).getEntities().get(41);
+    final KeysetPosition position = helper.getPosition(
+        parse("$skiptoken=" + helper.createSkipToken(parse(null), entityType, entity)), entityType);
+    assertFalse(position.isAfter(entity));
+    assertTrue(position.isAfter(new DataProvider(odata, edm).readAll(entitySet).getEntities().get(42)));
+    assertFalse(position.isAfter(new DataProvider(odata, edm).readAll(entitySet).getEntities().get(40)));
+  }
+
+  private void expectInvalid(final String query) throws Exception {
+    try {
+      helper.getPosition(parse(query), entityType);
+      fail("Expected exception not thrown.");
+    } catch (final KeysetPagingException e) {
+      assertEquals(KeysetPagingException.MessageKeys.INVALID_SKIPTOKEN, e.getMessageKey());
+    }
+  }
+
+  private UriInfo parse(final String query) throws Exception {
+    return new Parser(edm, odata).parseUri("ESServerSidePaging", query, null, BASE_URI);
+  }
+
+  private String serialize(final EntityCollection page, final String resource, final UriInfo uriInfo,
+      final int pageSize) throws Exception {
+    return IOUtils.toString(odata.createSerializer(ContentType.JSON).entityCollection(metadata, entityType, page,
+        EntityCollectionSerializerOptions.with()
+            .contextURL(ContextURL.with().entitySet(entitySet).build())
+            .pagination(helper.createPagination(BASE_URI + '/' + resource, uriInfo, entityType, pageSize))
+            .build())
+        .getContent());
+  }
+
+  private String getNextQuery(final String content) {
+    final Matcher matcher = NEXT_LINK.matcher(content);
+    return matcher.find() ? matcher.group(1) : null;
+  }
+}
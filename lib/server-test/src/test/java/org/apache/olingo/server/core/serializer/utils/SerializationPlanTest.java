@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntityContainer;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.uri.queryoption.SelectOption;
+import org.apache.olingo.server.core.serializer.ExpandSelectMock;
+import org.apache.olingo.server.core.serializer.utils.SerializationPlan.PropertyPlan;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class SerializationPlanTest {
+
+  private static final Edm edm = OData.newInstance().createServiceMetadata(
+      new EdmTechProvider(), Collections.<EdmxReference> emptyList()).getEdm();
+  private static final EdmEntityContainer entityContainer = edm.getEntityContainer();
+
+  @Test
+  public void allProperties() throws Exception {
+    final EdmEntityType entityType = entityContainer.getEntitySet("ESAllPrim").getEntityType();
+    final SerializationPlan plan = SerializationPlan.create(entityType, null, null);
+    assertEquals(entityType.getPropertyNames().size(), plan.getProperties().size());
+    assertEquals("PropertyInt16", plan.getProperties().get(0).getEdmProperty().getName());
+    assertEquals("PropertyInt16", plan.getProperties().get(0).getJsonName().getValue());
+    assertNull(plan.getProperties().get(0).getSelectedPaths());
+    assertTrue(plan.areKeyPropertiesSelected());
+    assertTrue(plan.getExpandedPaths().isEmpty());
+  }
+
+  @Test
+  public void selectedPropertiesInTypeOrderWithKey() throws Exception {
+    final EdmEntitySet entitySet = entityContainer.getEntitySet("ESAllPrim");
+    final SelectOption select = ExpandSelectMock.mockSelectOption(Arrays.asList(
+        ExpandSelectMock.mockSelectItem(entitySet, "PropertyDate"),
+        ExpandSelectMock.mockSelectItem(entitySet, "PropertyString")));
+    final SerializationPlan plan = SerializationPlan.create(entitySet.getEntityType(), select, null);
+    assertEquals(3, plan.getProperties().size());
+    assertEquals("PropertyInt16", plan.getProperties().get(0).getEdmProperty().getName());
+    assertEquals("PropertyString", plan.getProperties().get(1).getEdmProperty().getName());
+    assertEquals("PropertyDate", plan.getProperties().get(2).getEdmProperty().getName());
+    assertFalse(plan.areKeyPropertiesSelected());
+  }
+
+  @Test
+  public void selectedComplexPath() throws Exception {
+    final EdmEntitySet entitySet = entityContainer.getEntitySet("ESCompAllPrim");
+    final SelectOption select = ExpandSelectMock.mockSelectOption(Arrays.asList(
+        ExpandSelectMock.mockSelectItem(entitySet, "PropertyInt16"),
+        ExpandSelectMock.mockSelectItem(entitySet, "PropertyComp", "PropertyString")));
+    final SerializationPlan plan = SerializationPlan.create(entitySet.getEntityType(), select, null);
+    assertTrue(plan.areKeyPropertiesSelected());
+    final PropertyPlan complex = plan.getProperties().get(plan.getProperties().size() - 1);
+    assertEquals("PropertyComp", complex.getEdmProperty().getName());
+    assertEquals(Collections.singleton(Collections.singletonList("PropertyString")), complex.getSelectedPaths());
+  }
+
+  @Test
+  public void findPropertyIndependentOfOrder() throws Exception {
+    final EdmEntityType entityType = entityContainer.getEntitySet("ESTwoPrim").getEntityType();
+    final SerializationPlan plan = SerializationPlan.create(entityType, null, null);
+    final PropertyPlan stringPlan = plan.getProperties().get(1);
+    final Property string = new Property(null, "PropertyString", ValueType.PRIMITIVE, "value");
+    final Property int16 = new Property(null, "PropertyInt16", ValueType.PRIMITIVE, (short) 1);
+    final List<Property> ordered = Arrays.asList(int16, string);
+    final List<Property> reversed = Arrays.asList(string, int16);
+    assertEquals(1, stringPlan.indexIn(ordered, 1));
+    assertEquals(1, stringPlan.indexIn(ordered, 0));
+    assertEquals(0, stringPlan.indexIn(reversed, 1));
+    assertEquals(0, stringPlan.indexIn(reversed, 2));
+    assertEquals(-1, stringPlan.indexIn(Collections.singletonList(int16), 1));
+    assertEquals(-1, stringPlan.indexIn(Collections.<Property> emptyList(), 0));
+  }
+
+  @Test
+  public void cache() throws Exception {
+    final EdmEntitySet entitySet = entityContainer.getEntitySet("ESAllPrim");
+    final SelectOption select = ExpandSelectMock.mockSelectOption(Collections.singletonList(
+        ExpandSelectMock.mockSelectItem(entitySet, "PropertyString")));
+    SerializationPlan.Cache cache = new SerializationPlan.Cache();
+    final SerializationPlan plan = cache.get(entitySet.getEntityType(), select, null);
+    final SerializationPlan planAll = cache.get(entitySet.getEntityType(), null, null);
+    assertNotSame(plan, planAll);
+    assertSame(plan, cache.get(entitySet.getEntityType(), select, null));
+    assertSame(planAll, cache.get(entitySet.getEntityType(), null, null));
+    assertNotSame(plan, cache.get(entityContainer.getEntitySet("ESTwoPrim").getEntityType(), select, null));
+  }
+}
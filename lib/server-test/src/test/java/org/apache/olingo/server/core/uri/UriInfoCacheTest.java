@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edmx.EdmxReference;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriInfoCache;
+import org.apache.olingo.server.api.uri.UriParameter;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.core.ODataHandlerImpl;
+import org.apache.olingo.server.core.debug.ServerCoreDebugger;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.processor.TechnicalEntityProcessor;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class UriInfoCacheTest {
+
+  private static final String BASE_URI = "http://localhost/odata";
+
+  private final OData odata = OData.newInstance();
+  private final ServiceMetadata metadata =
+      odata.createServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+
+  @Test
+  public void reuseParsedUri() throws Exception {
+    final UriInfoCache cache = odata.createUriInfoCache(10);
+
+    final UriInfo first = process(cache, metadata, "ESAllPrim", "$filter=PropertyInt16%20gt%200");
+    assertEquals(0, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.size());
+
+    // A new handler per request, as in a servlet, shares the same cache.
+    assertSame(first, process(cache, metadata, "ESAllPrim", "$filter=PropertyInt16%20gt%200"));
+    assertEquals(1, cache.getHitCount());
+
+    // Same shape with another literal
+    final UriInfo other = process(cache, metadata, "ESAllPrim", "$filter=PropertyInt16%20gt%201");
+    assertNotSame(first, other);
+    assertEquals("{[PropertyInt16] GT 1}", other.getFilterOption().getExpression().toString());
+    assertEquals("PropertyInt16 gt 1", other.getFilterOption().getText());
+    assertEquals(2, cache.getHitCount());
+    assertEquals(1, cache.size());
+
+    // The integer literal has another type, so the expression could have another type, too.
+    process(cache, metadata, "ESAllPrim", "$filter=PropertyInt16%20gt%20300");
+    process(cache, metadata, "ESAllPrim(32767)", null);
+    assertEquals(3, cache.getMissCount());
+    assertEquals(3, cache.size());
+  }
+
+  @Test
+  public void bindKeyPredicates() throws Exception {
+    final UriInfoCache cache = odata.createUriInfoCache(10);
+    assertSameResult(cache, "ESAllPrim(32767)", null);
+    assertSameResult(cache, "ESAllPrim(-32768)", null);
+    assertSameResult(cache, "ESAllPrim(PropertyInt16=1)", null);
+    assertSameResult(cache, "ESAllPrim(PropertyInt16=2)", null);
+    assertSameResult(cache, "ESTwoKeyNav(PropertyInt16=1,PropertyString='1')/NavPropertyETKeyNavMany(2)", null);
+    assertSameResult(cache, "ESTwoKeyNav(PropertyInt16=3,PropertyString='it''s')/NavPropertyETKeyNavMany(4)",
+        null);
+    assertEquals(3, cache.getHitCount());
+    assertEquals(3, cache.size());
+
+    // The key value is validated against the key property.
+    assertNull(cache.get(metadata.getEdm(), "ESAllPrim(32768)", null, BASE_URI));
+    assertEquals(4, cache.getMissCount());
+    assertEquals(HttpStatusCode.BAD_REQUEST.getStatusCode(),
+        handler(cache, metadata).process(request("ESAllPrim(32768)", null)).getStatusCode());
+  }
+
+  @Test
+  public void bindQueryOptions() throws Exception {
+    final UriInfoCache cache = odata.createUriInfoCache(10);
+    assertSameResult(cache, "ESAllPrim", "$filter=PropertyString%20eq%20'a'%20and%20PropertyInt16%20eq%20-1"
+        + "&$top=1&$skip=2&$orderby=PropertyInt16");
+    final UriInfo uriInfo = assertSameResult(cache, "ESAllPrim",
+        "$filter=PropertyString%20eq%20'b''c'%20and%20PropertyInt16%20eq%2012&$top=3&$skip=04"
+            + "&$orderby=PropertyInt16");
+    assertEquals(3, uriInfo.getTopOption().getValue());
+    assertEquals(4, uriInfo.getSkipOption().getValue());
+    assertEquals(1, cache.getHitCount());
+
+    assertSameResult(cache, "ESAllPrim", "$filter=contains(PropertyString,'x')%20or%20PropertyInt16%20in%20(1,2)");
+    assertSameResult(cache, "ESAllPrim", "$filter=contains(PropertyString,'y')%20or%20PropertyInt16%20in%20(3,4)");
+    assertEquals(2, cache.getHitCount());
+
+    // A different option value is a different shape.
+    assertSameResult(cache, "ESAllPrim", "$filter=PropertyString%20eq%20'a'%20and%20PropertyInt16%20eq%20-1"
+        + "&$top=1&$skip=2&$orderby=PropertyString");
+    assertEquals(2, cache.getHitCount());
+    assertEquals(3, cache.size());
+  }
+
+  @Test
+  public void formEncodedQuery() throws Exception {
+    final UriInfoCache cache = odata.createUriInfoCache(10);
+    final String formEncoded = "odata-accept-forms-encoding=true&$filter=PropertyString+eq+";
+    assertEquals("{[PropertyString] EQ 'a b'}",
+        assertSameResult(cache, "ESAllPrim", formEncoded + "'a+b'").getFilterOption().getExpression().toString());
+    assertEquals("{[PropertyString] EQ 'c d'}",
+        assertSameResult(cache, "ESAllPrim", formEncoded + "'c+d'").getFilterOption().getExpression().toString());
+    assertEquals(1, cache.getHitCount());
+
+    // Without form encoding, '+' is part of the literal.
+    assertEquals("{[PropertyString] EQ 'a+b'}",
+        assertSameResult(cache, "ESAllPrim", "$filter=PropertyString%20eq%20'a+b'")
+            .getFilterOption().getExpression().toString());
+    assertEquals(1, cache.getHitCount());
+  }
+
+  @Test
+  public void exactUriIfLiteralsCannotBeBound() throws Exception {
+    final UriInfoCache cache = odata.createUriInfoCache(10);
+    final String lambda = "$filter=NavPropertyETTwoKeyNavMany/any(d:d/PropertyInt16%20eq%20";
+    final UriInfo first = assertSameResult(cache, "ESKeyNav", lambda + "1)");
+    assertSameResult(cache, "ESKeyNav", lambda + "2)");
+    assertEquals(0, cache.getHitCount());
+    assertSame(first, cache.get(metadata.getEdm(), "ESKeyNav", lambda + "1)", BASE_URI));
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void concurrentAccess() throws Exception {
+    final UriInfoCache cache = odata.createUriInfoCache(1000);
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<Void>> results = new ArrayList<Future<Void>>();
+    for (int t = 0; t < 8; t++) {
+      final int offset = t;
+      results.add(executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          for (int i = 0; i < 500; i++) {
+            final int key = (i * 7 + offset) % 100;
+            final String query = "$filter=PropertyString%20eq%20'" + (i % 3) + "'&$top=" + key;
+            final UriInfo uriInfo = cached(cache, "ESAllPrim(" + key + ")", query);
+            assertEquals(Integer.toString(key),
+                ((UriResourceEntitySetImpl) uriInfo.getUriResourceParts().get(0)).getKeyPredicates().get(0)
+                    .getText());
+            assertEquals(key, uriInfo.getTopOption().getValue());
+            assertEquals("{[PropertyString] EQ '" + (i % 3) + "'}",
+                uriInfo.getFilterOption().getExpression().toString());
+          }
+          return null;
+        }
+      }));
+    }
+    try {
+      for (final Future<Void> result : results) {
+        // Rethrows assertion errors of the tasks.
+        result.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(1, cache.size());
+    assertEquals(8 * 500, cache.getHitCount() + cache.getMissCount());
+  }
+
+  @Test
+  public void errorsAreNotCached() throws Exception {
+    final UriInfoCache cache = odata.createUriInfoCache(10);
+    final ODataHandlerImpl handler = handler(cache, metadata);
+    assertEquals(HttpStatusCode.BAD_REQUEST.getStatusCode(),
+        handler.process(request("ESAllPrim", "$filter=Wrong%20eq")).getStatusCode());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void evictLeastRecentlyUsed() throws Exception {
+    final UriInfoCache cache = odata.createUriInfoCache(2);
+    final UriInfo first = process(cache, metadata, "ESAllPrim", null);
+    process(cache, metadata, "ESTwoPrim", null);
+    assertSame(first, process(cache, metadata, "ESAllPrim", null));
+    process(cache, metadata, "ESMixPrimCollComp", null);
+    assertEquals(1, cache.getEvictionCount());
+    assertEquals(2, cache.size());
+
+    // ESTwoPrim has been evicted, ESAllPrim is still there.
+    assertSame(first, process(cache, metadata, "ESAllPrim", null));
+    process(cache, metadata, "ESTwoPrim", null);
+    assertEquals(2, cache.getHitCount());
+    assertEquals(4, cache.getMissCount());
+
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void invalidateOnEdmChange() throws Exception {
+    final UriInfoCache cache = odata.createUriInfoCache(10);
+    final UriInfo first = process(cache, metadata, "ESAllPrim", null);
+    process(cache, metadata, "ESTwoPrim", null);
+    assertEquals(2, cache.size());
+
+    final ServiceMetadata otherMetadata =
+        odata.createServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    final UriInfo other = process(cache, otherMetadata, "ESAllPrim", null);
+    assertNotSame(first, other);
+    assertSame(otherMetadata.getEdm().getEntityContainer().getEntitySet("ESAllPrim"),
+        ((UriResourceEntitySetImpl) other.getUriResourceParts().get(0)).getEntitySet());
+    assertEquals(1, cache.size());
+    assertEquals(0, cache.getHitCount());
+  }
+
+  /** Gets the URI from the cache as the handler does and compares it with the parse result. */
+  private UriInfo assertSameResult(final UriInfoCache cache, final String path, final String query)
+      throws Exception {
+    final UriInfo expected = new Parser(metadata.getEdm(), odata).parseUri(path, query, null, BASE_URI);
+    final UriInfo actual = cached(cache, path, query);
+    assertEquals(expected.getUriResourceParts().size(), actual.getUriResourceParts().size());
+    for (int i = 0; i < expected.getUriResourceParts().size(); i++) {
+      final UriResource expectedPart = expected.getUriResourceParts().get(i);
+      final UriResource actualPart = actual.getUriResourceParts().get(i);
+      assertEquals(expectedPart.toString(), actualPart.toString());
+      if (expectedPart instanceof UriResourceWithKeysImpl) {
+        final List<UriParameter> expectedKeys = ((UriResourceWithKeysImpl) expectedPart).getKeyPredicates();
+        final List<UriParameter> actualKeys = ((UriResourceWithKeysImpl) actualPart).getKeyPredicates();
+        assertEquals(expectedKeys.size(), actualKeys.size());
+        for (int k = 0; k < expectedKeys.size(); k++) {
+          assertEquals(expectedKeys.get(k).getName(), actualKeys.get(k).getName());
+          assertEquals(expectedKeys.get(k).getText(), actualKeys.get(k).getText());
+        }
+      }
+    }
+    assertEquals(expected.getSystemQueryOptions().size(), actual.getSystemQueryOptions().size());
+    if (expected.getFilterOption() != null) {
+      assertEquals(expected.getFilterOption().getText(), actual.getFilterOption().getText());
+      assertEquals(expected.getFilterOption().getExpression().toString(),
+          actual.getFilterOption().getExpression().toString());
+    }
+    if (expected.getTopOption() != null) {
+      assertEquals(expected.getTopOption().getValue(), actual.getTopOption().getValue());
+      assertEquals(expected.getTopOption().getText(), actual.getTopOption().getText());
+    }
+    if (expected.getSkipOption() != null) {
+      assertEquals(expected.getSkipOption().getValue(), actual.getSkipOption().getValue());
+    }
+    return actual;
+  }
+
+  private UriInfo cached(final UriInfoCache cache, final String path, final String query) throws Exception {
+    final Edm edm = metadata.getEdm();
+    UriInfo uriInfo = cache.get(edm, path, query, BASE_URI);
+    if (uriInfo == null) {
+      uriInfo = new Parser(edm, odata).parseUri(path, query, null, BASE_URI);
+      cache.put(edm, path, query, BASE_URI, uriInfo);
+    }
+    return uriInfo;
+  }
+
+  private UriInfo process(final UriInfoCache cache, final ServiceMetadata serviceMetadata,
+      final String path, final String query) {
+    final ODataHandlerImpl handler = handler(cache, serviceMetadata);
+    final ODataResponse response = handler.process(request(path, query));
+    assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+    return handler.getUriInfo();
+  }
+
+  private ODataHandlerImpl handler(final UriInfoCache cache, final ServiceMetadata serviceMetadata) {
+    final ODataHandlerImpl handler = new ODataHandlerImpl(odata, serviceMetadata, new ServerCoreDebugger(odata));
+    handler.register(new TechnicalEntityProcessor(new DataProvider(odata, serviceMetadata.getEdm()), serviceMetadata));
+    handler.register(cache);
+    return handler;
+  }
+
+  private ODataRequest request(final String path, final String query) {
+    final ODataRequest request = new ODataRequest();
+    request.setMethod(HttpMethod.GET);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath(path);
+    request.setRawQueryPath(query);
+    request.setRawRequestUri(BASE_URI + "/" + path + (query == null ? "" : "?" + query));
+    return request;
+  }
+}